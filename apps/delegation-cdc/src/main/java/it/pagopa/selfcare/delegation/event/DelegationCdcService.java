@@ -15,6 +15,7 @@ import io.quarkus.runtime.Quarkus;
 import io.quarkus.runtime.Startup;
 import io.smallrye.mutiny.Multi;
 import io.smallrye.mutiny.Uni;
+import it.pagopa.selfcare.commons.cdc.ResumeTokenCheckpointer;
 import it.pagopa.selfcare.delegation.event.client.EventHubRestClient;
 import it.pagopa.selfcare.delegation.event.config.ConfigUtilsBean;
 import it.pagopa.selfcare.delegation.event.constant.DelegationType;
@@ -57,6 +58,7 @@ public class DelegationCdcService {
     private static final String OPERATION_NAME = "DELEGATION-CDC-DelegationInsert";
     private final TelemetryClient telemetryClient;
     private final TableClient tableClient;
+    private final ResumeTokenCheckpointer resumeTokenCheckpointer;
     private final String mongodbDatabase;
     private final ReactiveMongoClient mongoClient;
     private final ConfigUtilsBean configUtilsBean;
@@ -79,6 +81,7 @@ public class DelegationCdcService {
                                 @ConfigProperty(name = "quarkus.mongodb.database") String mongodbDatabase,
                                 TelemetryClient telemetryClient,
                                 TableClient tableClient,
+                                ResumeTokenCheckpointer resumeTokenCheckpointer,
                                 ConfigUtilsBean configUtilsBean,
                                 InstitutionRepository institutionRepository,
                                 DelegationRepository delegationRepository,
@@ -91,6 +94,7 @@ public class DelegationCdcService {
         this.mongodbDatabase = mongodbDatabase;
         this.telemetryClient = telemetryClient;
         this.tableClient = tableClient;
+        this.resumeTokenCheckpointer = resumeTokenCheckpointer;
         this.configUtilsBean = configUtilsBean;
         this.institutionRepository = institutionRepository;
         this.delegationRepository = delegationRepository;
@@ -189,6 +193,7 @@ public class DelegationCdcService {
                     .onFailure().recoverWithUni(failure -> Uni.createFrom().item(false));
         }
 
+        ResumeTokenCheckpointer.Checkpoint checkpoint = resumeTokenCheckpointer.track(document.getResumeToken());
         Uni.combine().all().unis(createAggregatesDelegationsUni, sendEventsUni)
                 .with(Boolean::logicalAnd)
                 .subscribe()
@@ -196,12 +201,16 @@ public class DelegationCdcService {
                         result -> {
                             if (result) {
                                 log.info("Updating last resume token after processing delegation document having id: {}", delegationId);
-                                updateLastResumeToken(document.getResumeToken());
+                                checkpoint.succeeded();
                             } else {
                                 log.error("Error while processing delegation document having id {}", delegationId);
+                                checkpoint.failed();
                             }
                         },
-                        failure -> log.error("Error while processing delegation document having id {}: {}", delegationId, failure.getMessage())
+                        failure -> {
+                            log.error("Error while processing delegation document having id {}: {}", delegationId, failure.getMessage());
+                            checkpoint.failed();
+                        }
                 );
     }
 
@@ -231,18 +240,6 @@ public class DelegationCdcService {
     }
 
 
-    private void updateLastResumeToken(BsonDocument resumeToken) {
-        // Table CdCStartAt will be updated with the last resume token
-        Map<String, Object> properties = new HashMap<>();
-        properties.put(CDC_START_AT_PROPERTY, resumeToken.toJson());
-
-        TableEntity tableEntity = new TableEntity(CDC_START_AT_PARTITION_KEY, CDC_START_AT_ROW_KEY)
-                .setProperties(properties);
-        tableClient.upsertEntity(tableEntity);
-
-    }
-
-
     private void constructMapAndTrackEvent(String documentKey, String success, String... metrics) {
         Map<String, String> propertiesMap = new HashMap<>();
         propertiesMap.put("documentKey", documentKey);
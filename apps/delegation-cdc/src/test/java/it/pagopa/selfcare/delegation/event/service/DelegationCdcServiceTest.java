@@ -17,6 +17,7 @@ import io.quarkus.test.junit.QuarkusTest;
 import io.quarkus.test.mongodb.MongoTestResource;
 import io.smallrye.mutiny.Multi;
 import io.smallrye.mutiny.Uni;
+import it.pagopa.selfcare.commons.cdc.ResumeTokenCheckpointer;
 import it.pagopa.selfcare.delegation.event.DelegationCdcService;
 import it.pagopa.selfcare.delegation.event.client.EventHubRestClient;
 import it.pagopa.selfcare.delegation.event.config.ConfigUtilsBean;
@@ -69,6 +70,9 @@ class DelegationCdcServiceTest {
     @Inject
     DelegationCdcService delegationCdcService;
 
+    @Inject
+    ResumeTokenCheckpointer resumeTokenCheckpointer;
+
     @InjectMock
     ConfigUtilsBean configUtilsBean;
 
@@ -139,6 +143,7 @@ class DelegationCdcServiceTest {
         verify(delegationRepository).getDelegationsEA(anyString(), anyString());
         verify(delegationRepository).insertDelegations(ArgumentMatchers.any());
         verify(eventHubRestClient).sendMessage(any());
+        resumeTokenCheckpointer.flush();
         verify(tableClient, times(1)).upsertEntity(any());
 
         ArgumentCaptor<Map<String, Double>> metricsName = ArgumentCaptor.forClass(Map.class);
@@ -196,6 +201,7 @@ class DelegationCdcServiceTest {
         verify(delegationRepository).getDelegationsEA(anyString(), anyString());
         verify(delegationRepository).insertDelegations(ArgumentMatchers.any());
         verify(eventHubRestClient).sendMessage(any());
+        resumeTokenCheckpointer.flush();
         verify(tableClient, never()).upsertEntity(any());
 
         ArgumentCaptor<Map<String, Double>> metricsName = ArgumentCaptor.forClass(Map.class);
@@ -255,7 +261,7 @@ class DelegationCdcServiceTest {
 
         // then
         final DelegationCdcService delegationCdcServiceImpl = new DelegationCdcService(
-                mongoClientMock, "testDatabase", telemetryClient, tableClient,
+                mongoClientMock, "testDatabase", telemetryClient, tableClient, resumeTokenCheckpointer,
                 configUtilsBean, institutionRepository, delegationRepository, retryMinBackOff, retryMaxBackOff, maxRetry,
                 availableProducts, false);
         final Executable executable = () -> delegationCdcServiceImpl.consumerDelegationRepositoryEvent(document);
@@ -267,6 +273,7 @@ class DelegationCdcServiceTest {
         verify(delegationRepository).getDelegationsEA(anyString(), anyString());
         verify(delegationRepository).insertDelegations(ArgumentMatchers.any());
         verify(eventHubRestClient, never()).sendMessage(any());
+        resumeTokenCheckpointer.flush();
         verify(tableClient, times(1)).upsertEntity(any());
 
         ArgumentCaptor<Map<String, Double>> metricsName = ArgumentCaptor.forClass(Map.class);
@@ -296,6 +303,7 @@ class DelegationCdcServiceTest {
         verify(delegationRepository, never()).getDelegationsEA(anyString(), anyString());
         verify(delegationRepository, never()).insertDelegations(ArgumentMatchers.any());
         verify(eventHubRestClient, never()).sendMessage(any());
+        resumeTokenCheckpointer.flush();
         verify(tableClient, never()).upsertEntity(any());
     }
 
@@ -330,6 +338,7 @@ class DelegationCdcServiceTest {
         verify(delegationRepository, never()).getDelegationsEA(anyString(), anyString());
         verify(delegationRepository, never()).insertDelegations(ArgumentMatchers.any());
         verify(eventHubRestClient, times(1)).sendMessage(any());
+        resumeTokenCheckpointer.flush();
         verify(tableClient, times(1)).upsertEntity(any());
 
         ArgumentCaptor<Map<String, Double>> metricsName = ArgumentCaptor.forClass(Map.class);
@@ -368,6 +377,7 @@ class DelegationCdcServiceTest {
         verify(delegationRepository, never()).getDelegationsEA(anyString(), anyString());
         verify(delegationRepository, never()).insertDelegations(ArgumentMatchers.any());
         verify(eventHubRestClient, times(1)).sendMessage(any());
+        resumeTokenCheckpointer.flush();
         verify(tableClient, times(1)).upsertEntity(any());
 
         ArgumentCaptor<Map<String, Double>> metricsName = ArgumentCaptor.forClass(Map.class);
@@ -409,6 +419,7 @@ class DelegationCdcServiceTest {
         verify(delegationRepository, never()).getDelegationsEA(anyString(), anyString());
         verify(delegationRepository, never()).insertDelegations(ArgumentMatchers.any());
         verify(eventHubRestClient, times(1)).sendMessage(any());
+        resumeTokenCheckpointer.flush();
         verify(tableClient, never()).upsertEntity(any());
 
         ArgumentCaptor<Map<String, Double>> metricsName = ArgumentCaptor.forClass(Map.class);
@@ -461,6 +472,7 @@ class DelegationCdcServiceTest {
         verify(delegationRepository, never()).getDelegationsEA(anyString(), anyString());
         verify(delegationRepository, never()).insertDelegations(ArgumentMatchers.any());
         verify(eventHubRestClient, times(1)).sendMessage(any());
+        resumeTokenCheckpointer.flush();
         verify(tableClient, times(1)).upsertEntity(any());
 
         ArgumentCaptor<Map<String, Double>> metricsName = ArgumentCaptor.forClass(Map.class);
@@ -510,6 +522,7 @@ class DelegationCdcServiceTest {
         verify(delegationRepository).getDelegationsEA(anyString(), anyString());
         verify(delegationRepository).insertDelegations(ArgumentMatchers.any());
         verify(eventHubRestClient, times(1)).sendMessage(any());
+        resumeTokenCheckpointer.flush();
         verify(tableClient, never()).upsertEntity(any());
 
         ArgumentCaptor<Map<String, Double>> metricsName = ArgumentCaptor.forClass(Map.class);
@@ -542,7 +555,7 @@ class DelegationCdcServiceTest {
         Mockito.when(configUtilsBean.getProfiles()).thenReturn(List.of("uat"));
 
         // Crea l'istanza del servizio
-        new DelegationCdcService(mongoClientMock, "testDatabase", telemetryClient, tableClientMock, configUtilsBean, institutionRepository, delegationRepository, retryMinBackOff, retryMaxBackOff, maxRetry, availableProducts, false);
+        new DelegationCdcService(mongoClientMock, "testDatabase", telemetryClient, tableClientMock, resumeTokenCheckpointer, configUtilsBean, institutionRepository, delegationRepository, retryMinBackOff, retryMaxBackOff, maxRetry, availableProducts, false);
 
         // Verifica che il metodo watch sia stato chiamato
         verify(collectionMock).watch(anyList(), eq(DelegationsEntity.class), any(ChangeStreamOptions.class));
@@ -571,7 +584,7 @@ class DelegationCdcServiceTest {
         Mockito.when(configUtilsBean.getProfiles()).thenReturn(List.of("uat"));
 
         // Crea l'istanza del servizio
-        new DelegationCdcService(mongoClientMock, "testDatabase", telemetryClient, tableClientMock, configUtilsBean, institutionRepository, delegationRepository, retryMinBackOff, retryMaxBackOff, maxRetry, availableProducts, false);
+        new DelegationCdcService(mongoClientMock, "testDatabase", telemetryClient, tableClientMock, resumeTokenCheckpointer, configUtilsBean, institutionRepository, delegationRepository, retryMinBackOff, retryMaxBackOff, maxRetry, availableProducts, false);
 
         // Verifica che il metodo watch sia stato chiamato
         verify(collectionMock).watch(anyList(), eq(DelegationsEntity.class), any(ChangeStreamOptions.class));
@@ -600,7 +613,7 @@ class DelegationCdcServiceTest {
         Mockito.when(configUtilsBean.getProfiles()).thenReturn(List.of("uat"));
 
         // Crea l'istanza del servizio
-        new DelegationCdcService(mongoClientMock, "testDatabase", telemetryClient, tableClientMock, configUtilsBean, institutionRepository, delegationRepository, retryMinBackOff, retryMaxBackOff, maxRetry, availableProducts, false);
+        new DelegationCdcService(mongoClientMock, "testDatabase", telemetryClient, tableClientMock, resumeTokenCheckpointer, configUtilsBean, institutionRepository, delegationRepository, retryMinBackOff, retryMaxBackOff, maxRetry, availableProducts, false);
 
         // Verifica che il metodo watch sia stato chiamato
         verify(collectionMock).watch(anyList(), eq(DelegationsEntity.class), any(ChangeStreamOptions.class));
@@ -627,7 +640,7 @@ class DelegationCdcServiceTest {
         when(context.getOperation()).thenReturn(operationContext);
 
         // Crea l'istanza del servizio
-        new DelegationCdcService(mongoClientMock, "testDatabase", telemetryClient, tableClientMock, configUtilsBean, institutionRepository, delegationRepository, retryMinBackOff, retryMaxBackOff, maxRetry, availableProducts, false);
+        new DelegationCdcService(mongoClientMock, "testDatabase", telemetryClient, tableClientMock, resumeTokenCheckpointer, configUtilsBean, institutionRepository, delegationRepository, retryMinBackOff, retryMaxBackOff, maxRetry, availableProducts, false);
 
         // Verifica che il metodo watch sia stato chiamato
         verify(collectionMock).watch(anyList(), eq(DelegationsEntity.class), any(ChangeStreamOptions.class));
@@ -34,6 +34,7 @@ import org.jboss.resteasy.reactive.RestResponse;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
@@ -305,8 +306,8 @@ public class DocumentContentServiceImpl implements DocumentContentService {
         String fullPath = existing.getAttachmentPath();
         return Uni.createFrom().item(file::getFile)
                 .map(f -> {
-                    try {
-                        return azureBlobClient.uploadFilePath(fullPath, Files.readAllBytes(f.toPath()));
+                    try (InputStream data = Files.newInputStream(f.toPath())) {
+                        return azureBlobClient.uploadFromStream(fullPath, data);
                     } catch (IOException e) {
                         throw new java.io.UncheckedIOException(e);
                     }
@@ -829,13 +830,13 @@ public class DocumentContentServiceImpl implements DocumentContentService {
         return documentRepository.persist(document).replaceWith(document);
     }
 
-    private String uploadFileToAzure(StorageOrigin storageOrigin, String filename, String onboardingId, File signedFile) throws InternalException {
+    private String uploadFileToAzure(StorageOrigin storageOrigin, String filename, String onboardingId, File signedFile) {
         final String path = String.format("%s%s", pathContracts, onboardingId).concat("/attachments");
 
         try {
             DocumentFileUtils.validateUploadedFile(signedFile);
-            return storageRegistry.clientFor(storageOrigin).uploadFile(path, filename, Files.readAllBytes(signedFile.toPath()));
-        } catch (IOException e) {
+            return storageRegistry.clientFor(storageOrigin).uploadFromFile(path, filename, signedFile.toPath());
+        } catch (UncheckedIOException e) {
             throw new InternalException(GENERIC_ERROR.getCode(),
                     "Error on upload contract for onboarding with id " + onboardingId);
         }
@@ -846,12 +847,12 @@ public class DocumentContentServiceImpl implements DocumentContentService {
     private Uni<CreatePdfResponse> uploadAndBuildResponse(PdfContext ctx, String documentType) {
         return Uni.createFrom().item(() -> {
             try {
-                storageRegistry.clientFor(StorageOrigin.SYSTEM).uploadFile(ctx.storagePath, ctx.filename, Files.readAllBytes(ctx.pdfFile.toPath()));
+                storageRegistry.clientFor(StorageOrigin.SYSTEM).uploadFromFile(ctx.storagePath, ctx.filename, ctx.pdfFile.toPath());
                 return CreatePdfResponse.builder()
                         .storagePath(ctx.storagePath + PATH_SEPARATOR + ctx.filename)
                         .filename(ctx.filename)
                         .build();
-            } catch (IOException e) {
+            } catch (UncheckedIOException e) {
                 throw new InternalException(
                         String.format("Cannot upload %s PDF, message: %s", documentType, e.getMessage()), "0032");
             }
@@ -920,7 +921,9 @@ public class DocumentContentServiceImpl implements DocumentContentService {
         String deletedFileName = filePath.replace(basePath, documentMsConfig.getDeletePath());
 
         try {
-            azureBlobClient.uploadFilePath(deletedFileName, Files.readAllBytes(temporaryFile.toPath()));
+            try (InputStream data = Files.newInputStream(temporaryFile.toPath())) {
+                azureBlobClient.uploadFromStream(deletedFileName, data);
+            }
             azureBlobClient.removeFile(filePath);
             return deletedFileName;
         } finally {
@@ -996,13 +999,7 @@ public class DocumentContentServiceImpl implements DocumentContentService {
         String azurePath = documentMsConfig.getContractPath() + onboardingId;
         AzureBlobClient azureBlobClient = storageRegistry.clientFor(document.getStorageOrigin());
 
-        return Uni.createFrom().item(() -> {
-                    try {
-                        return azureBlobClient.uploadFile(azurePath, signedName, Files.readAllBytes(physicalFile.toPath()));
-                    } catch (IOException e) {
-                        throw new RuntimeException("Error uploading signed contract to Azure", e);
-                    }
-                })
+        return Uni.createFrom().item(() -> azureBlobClient.uploadFromFile(azurePath, signedName, physicalFile.toPath()))
                 .runSubscriptionOn(Infrastructure.getDefaultWorkerPool())
                 .onFailure().retry().withBackOff(Duration.ofMillis(retryMinBackoff), Duration.ofMillis(retryMaxBackoff)).atMost(retryMaxAttempts)
 
@@ -1042,7 +1039,9 @@ public class DocumentContentServiceImpl implements DocumentContentService {
 
         File temporaryFile = azureBlobClient.retrieveFile(currentPath);
         try {
-            azureBlobClient.uploadFilePath(originalPath, Files.readAllBytes(temporaryFile.toPath()));
+            try (InputStream data = Files.newInputStream(temporaryFile.toPath())) {
+                azureBlobClient.uploadFromStream(originalPath, data);
+            }
             azureBlobClient.removeFile(currentPath);
         } finally {
             if (Objects.nonNull(temporaryFile) && temporaryFile.exists() && !temporaryFile.delete()) {
@@ -39,7 +39,9 @@ import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -649,7 +651,7 @@ class DocumentContentServiceImplTest {
                 .thenReturn(Uni.createFrom().nullItem());
         when(documentRepository.persist(any(Document.class)))
                 .thenAnswer(inv -> Uni.createFrom().item(inv.getArgument(0, Document.class)));
-        when(azureBlobClient.uploadFile(anyString(), anyString(), any(byte[].class)))
+        when(azureBlobClient.uploadFromFile(anyString(), anyString(), any(Path.class)))
                 .thenReturn("/parties/docs/" + ONBOARDING_ID + "/attachments/statuto.pdf");
         when(documentRepository.updateAttachmentPathById(anyString(), anyString()))
                 .thenReturn(Uni.createFrom().item(1L));
@@ -658,7 +660,7 @@ class DocumentContentServiceImplTest {
                 .await().indefinitely());
 
         verify(documentRepository).persist(any(Document.class));
-        verify(azureBlobClient).uploadFile(anyString(), eq("statuto.pdf"), any(byte[].class));
+        verify(azureBlobClient).uploadFromFile(anyString(), eq("statuto.pdf"), any(Path.class));
         verify(documentRepository).updateAttachmentPathById(anyString(),
                 eq("/parties/docs/" + ONBOARDING_ID + "/attachments/statuto.pdf"));
         verify(documentRepository, never()).touchUpdatedAtById(anyString());
@@ -683,7 +685,7 @@ class DocumentContentServiceImplTest {
 
         when(documentRepository.findAttachment(ONBOARDING_ID, DocumentType.ATTACHMENT.name(), "statuto"))
                 .thenReturn(Uni.createFrom().item(existing));
-        when(azureBlobClient.uploadFilePath(eq(existing.getAttachmentPath()), any(byte[].class)))
+        when(azureBlobClient.uploadFromStream(eq(existing.getAttachmentPath()), any(InputStream.class)))
                 .thenReturn(existing.getAttachmentPath());
         when(documentRepository.touchUpdatedAtById(existing.getId()))
                 .thenReturn(Uni.createFrom().item(1L));
@@ -691,7 +693,7 @@ class DocumentContentServiceImplTest {
         assertDoesNotThrow(() -> documentContentService.uploadUserAttachment(request, formItem)
                 .await().indefinitely());
 
-        verify(azureBlobClient).uploadFilePath(eq(existing.getAttachmentPath()), any(byte[].class));
+        verify(azureBlobClient).uploadFromStream(eq(existing.getAttachmentPath()), any(InputStream.class));
         verify(documentRepository).touchUpdatedAtById(existing.getId());
         verify(documentRepository, never()).persist(any(Document.class));
         verify(documentRepository, never()).updateAttachmentPathById(anyString(), anyString());
@@ -714,7 +716,7 @@ class DocumentContentServiceImplTest {
                 .thenReturn(Uni.createFrom().item(1L));
         when(documentRepository.persist(any(Document.class)))
                 .thenAnswer(inv -> Uni.createFrom().item(inv.getArgument(0, Document.class)));
-        when(azureBlobClient.uploadFile(anyString(), anyString(), any(byte[].class)))
+        when(azureBlobClient.uploadFromFile(anyString(), anyString(), any(Path.class)))
                 .thenReturn("/parties/docs/" + ONBOARDING_ID + "/attachments/attestazione-gsp-2.pdf");
         when(documentRepository.updateAttachmentPathById(anyString(), anyString()))
                 .thenReturn(Uni.createFrom().item(1L));
@@ -722,7 +724,7 @@ class DocumentContentServiceImplTest {
         assertDoesNotThrow(() -> documentContentService.uploadUserAttachment(request, formItem)
                 .await().indefinitely());
 
-        verify(azureBlobClient).uploadFile(anyString(), eq("attestazione-gsp-2.pdf"), any(byte[].class));
+        verify(azureBlobClient).uploadFromFile(anyString(), eq("attestazione-gsp-2.pdf"), any(Path.class));
         verify(documentRepository).persist(argThat((Document doc) ->
           "attestazione-gsp-2.pdf".equals(doc.getAttachmentName())));
     }
@@ -747,7 +749,7 @@ class DocumentContentServiceImplTest {
         assertThrows(UpdateNotAllowedException.class, awaiter::indefinitely);
 
         verify(documentRepository, never()).persist(any(Document.class));
-        verify(azureBlobClient, never()).uploadFile(anyString(), anyString(), any(byte[].class));
+        verify(azureBlobClient, never()).uploadFromFile(anyString(), anyString(), any(Path.class));
     }
 
     @Test
@@ -767,7 +769,7 @@ class DocumentContentServiceImplTest {
                 .thenReturn(Uni.createFrom().nullItem());
         when(documentRepository.persist(any(Document.class)))
                 .thenAnswer(inv -> Uni.createFrom().item(inv.getArgument(0, Document.class)));
-        when(azureBlobClient.uploadFile(anyString(), anyString(), any(byte[].class)))
+        when(azureBlobClient.uploadFromFile(anyString(), anyString(), any(Path.class)))
                 .thenThrow(new RuntimeException("Azure down"));
         when(documentRepository.delete(any(Document.class)))
                 .thenReturn(Uni.createFrom().voidItem());
@@ -845,7 +847,7 @@ class DocumentContentServiceImplTest {
         when(signatureService.verifyUploadedFileDigest(any(), any(), anyBoolean()))
                 .thenReturn("uploaded-digest");
         doThrow(new SelfcareAzureStorageException("Upload failed", "500"))
-                .when(azureBlobClient).uploadFile(anyString(), anyString(), any(byte[].class));
+                .when(azureBlobClient).uploadFromFile(anyString(), anyString(), any(Path.class));
 
         var awaiter = documentContentService.uploadAttachment(request, formItem).await();
         assertThrows(SelfcareAzureStorageException.class, awaiter::indefinitely);
@@ -1002,7 +1004,7 @@ class DocumentContentServiceImplTest {
         assertNotNull(response.getStoragePath());
         assertNotNull(response.getFilename());
         assertTrue(response.getFilename().contains(PRODUCT_NAME.replace(" ", "_")));
-        verify(azureBlobClient).uploadFile(anyString(), anyString(), any(byte[].class));
+        verify(azureBlobClient).uploadFromFile(anyString(), anyString(), any(Path.class));
     }
 
     @Test
@@ -1315,12 +1317,28 @@ class DocumentContentServiceImplTest {
         when(signatureService.signDocument(any(File.class), eq(INSTITUTION_DESCRIPTION), eq(PRODUCT_ID)))
                 .thenReturn(Uni.createFrom().item(signedPdf));
         doThrow(new SelfcareAzureStorageException("Upload failed", "500"))
-                .when(azureBlobClient).uploadFile(anyString(), anyString(), any(byte[].class));
+                .when(azureBlobClient).uploadFromFile(anyString(), anyString(), any(Path.class));
 
         var awaiter = documentContentService.createContractPdf(request).await();
         assertThrows(SelfcareAzureStorageException.class, awaiter::indefinitely);
     }
 
+    @Test
+    void createContractPdf_shouldThrowInternalException_whenPdfCannotBeRead() throws IOException {
+        ContractPdfRequest request = buildValidContractRequest();
+        File signedPdf = createTempPdf();
+
+        when(azureBlobClient.getFileAsText(CONTRACT_TEMPLATE_PATH)).thenReturn("<html><body>Contract</body></html>");
+        when(signatureService.signDocument(any(File.class), eq(INSTITUTION_DESCRIPTION), eq(PRODUCT_ID)))
+                .thenReturn(Uni.createFrom().item(signedPdf));
+        doThrow(new UncheckedIOException(new IOException("Read failed")))
+                .when(azureBlobClient).uploadFromFile(anyString(), anyString(), any(Path.class));
+
+        var awaiter = documentContentService.createContractPdf(request).await();
+        InternalException exception = assertThrows(InternalException.class, awaiter::indefinitely);
+        assertEquals("0032", exception.getCode());
+    }
+
     // ============================================
     // createAttachmentPdf - Success scenarios
     // ============================================
@@ -1339,7 +1357,7 @@ class DocumentContentServiceImplTest {
         assertNotNull(response.getFilename());
         assertTrue(response.getFilename().contains(ATTACHMENT_NAME));
         assertTrue(response.getStoragePath().contains("/attachments"));
-        verify(azureBlobClient).uploadFile(anyString(), anyString(), any(byte[].class));
+        verify(azureBlobClient).uploadFromFile(anyString(), anyString(), any(Path.class));
     }
 
     @Test
@@ -1410,7 +1428,7 @@ class DocumentContentServiceImplTest {
 
         when(azureBlobClient.getFileAsText(ATTACHMENT_TEMPLATE_PATH)).thenReturn("<html><body>Attachment</body></html>");
         doThrow(new SelfcareAzureStorageException("Upload failed", "500"))
-                .when(azureBlobClient).uploadFile(anyString(), anyString(), any(byte[].class));
+                .when(azureBlobClient).uploadFromFile(anyString(), anyString(), any(Path.class));
 
         var awaiter = documentContentService.createAttachmentPdf(request).await();
         assertThrows(SelfcareAzureStorageException.class, awaiter::indefinitely);
@@ -1454,7 +1472,7 @@ class DocumentContentServiceImplTest {
         assertEquals("Contract deleted successfully", result);
 
         verify(azureBlobClient, times(2)).retrieveFile(anyString());
-        verify(azureBlobClient, times(2)).uploadFilePath(anyString(), any(byte[].class));
+        verify(azureBlobClient, times(2)).uploadFromStream(anyString(), any(InputStream.class));
         verify(azureBlobClient, times(2)).removeFile(anyString());
         verify(documentService).updateDocumentContractFiles(doc);
         verify(telemetryService).trackContractDeleted(onboardingId);
@@ -1523,7 +1541,7 @@ class DocumentContentServiceImplTest {
         // Assert
         assertEquals("Contract deleted successfully", result);
         // Signed contract was moved to deleted path
-        verify(azureBlobClient).uploadFilePath(anyString(), any(byte[].class));
+        verify(azureBlobClient).uploadFromStream(anyString(), any(InputStream.class));
         verify(azureBlobClient).removeFile(eq("contracts/test-onboarding-123/signed_contract.pdf.p7m"));
         // Unsigned contract was NOT deleted (it didn't exist)
         verify(azureBlobClient, never()).removeFile(eq("/contracts/test-onboarding-123/contract.pdf"));
@@ -1559,7 +1577,7 @@ class DocumentContentServiceImplTest {
         // Assert
         assertEquals("Contract deletion skipped due to error", result);
         // No file should have been moved or deleted
-        verify(azureBlobClient, never()).uploadFilePath(anyString(), any(byte[].class));
+        verify(azureBlobClient, never()).uploadFromStream(anyString(), any(InputStream.class));
         verify(azureBlobClient, never()).removeFile(anyString());
         verify(documentService, never()).updateDocumentContractFiles(any());
         verify(telemetryService).trackContractDeleteFailed(eq(onboardingId), anyString());
@@ -1670,7 +1688,7 @@ class DocumentContentServiceImplTest {
         assertEquals(3, attemptCounter.get());
 
         verify(azureBlobClient, times(2)).retrieveFile(anyString());
-        verify(azureBlobClient, times(2)).uploadFilePath(anyString(), any(byte[].class));
+        verify(azureBlobClient, times(2)).uploadFromStream(anyString(), any(InputStream.class));
         verify(azureBlobClient, times(2)).removeFile(anyString());
     }
 
@@ -1707,7 +1725,7 @@ class DocumentContentServiceImplTest {
         verify(telemetryService, never()).trackContractDeleted(anyString());
 
         verify(azureBlobClient, times(4)).retrieveFile(anyString());
-        verify(azureBlobClient, times(4)).uploadFilePath(anyString(), any(byte[].class));
+        verify(azureBlobClient, times(4)).uploadFromStream(anyString(), any(InputStream.class));
         verify(azureBlobClient, times(4)).removeFile(anyString());
 
         assertEquals(4, generatedFiles.size());
@@ -1740,7 +1758,7 @@ class DocumentContentServiceImplTest {
         when(signatureService.verifyContractSignature(eq(ONBOARDING_ID), any(File.class), eq(fiscalCodes), eq(skipVerification), eq(skipSignerIdentityCheck)))
                 .thenReturn(Uni.createFrom().voidItem());
         when(documentMsConfig.getContractPath()).thenReturn("/contracts/");
-        when(azureBlobClient.uploadFile(anyString(), anyString(), any(byte[].class)))
+        when(azureBlobClient.uploadFromFile(anyString(), anyString(), any(Path.class)))
                 .thenReturn("/contracts/" + ONBOARDING_ID + "/signed_original_contract.pdf");
         when(documentService.updateDocumentContractFilesById(any(Document.class)))
                 .thenReturn(Uni.createFrom().item(1L));
@@ -1751,7 +1769,7 @@ class DocumentContentServiceImplTest {
 
         // Assert
         assertDoesNotThrow(awaiter::indefinitely);
-        verify(azureBlobClient).uploadFile(eq("/contracts/" + ONBOARDING_ID), anyString(), any(byte[].class));
+        verify(azureBlobClient).uploadFromFile(eq("/contracts/" + ONBOARDING_ID), anyString(), any(Path.class));
         verify(documentService).updateDocumentContractFilesById(any(Document.class));
     }
 
@@ -1781,7 +1799,7 @@ class DocumentContentServiceImplTest {
         assertEquals("Invalid Signature", ex.getMessage());
 
         // Azure e DB non devono essere mai chiamati
-        verify(azureBlobClient, never()).uploadFile(anyString(), anyString(), any(byte[].class));
+        verify(azureBlobClient, never()).uploadFromFile(anyString(), anyString(), any(Path.class));
         verify(documentService, never()).updateDocumentContractFilesById(any());
     }
 
@@ -1820,7 +1838,7 @@ class DocumentContentServiceImplTest {
         // Rollback: the newly created document must be deleted
         verify(documentService).deleteDocumentById("new-doc-id");
         // Azure and DB update must not be called
-        verify(azureBlobClient, never()).uploadFile(anyString(), anyString(), any(byte[].class));
+        verify(azureBlobClient, never()).uploadFromFile(anyString(), anyString(), any(Path.class));
         verify(documentService, never()).updateDocumentContractFilesById(any());
     }
 
@@ -1854,7 +1872,7 @@ class DocumentContentServiceImplTest {
 
         // Since the document was reused (not newly created), rollback should NOT delete it
         verify(documentService, never()).deleteDocumentById(anyString());
-        verify(azureBlobClient, never()).uploadFile(anyString(), anyString(), any(byte[].class));
+        verify(azureBlobClient, never()).uploadFromFile(anyString(), anyString(), any(Path.class));
         verify(documentService, never()).updateDocumentContractFilesById(any());
     }
 
@@ -1876,7 +1894,7 @@ class DocumentContentServiceImplTest {
 
         // Simuliamo il fallimento di Azure usando l'eccezione custom di Selfcare!
         doThrow(new SelfcareAzureStorageException("Azure timeout", "500"))
-                .when(azureBlobClient).uploadFile(anyString(), anyString(), any(byte[].class));
+                .when(azureBlobClient).uploadFromFile(anyString(), anyString(), any(Path.class));
 
         // Act
         var awaiter = documentContentService.uploadSignedContract(
@@ -1908,7 +1926,7 @@ class DocumentContentServiceImplTest {
         when(documentMsConfig.getContractPath()).thenReturn("/contracts/");
 
         // Azure ha successo
-        when(azureBlobClient.uploadFile(anyString(), anyString(), any(byte[].class)))
+        when(azureBlobClient.uploadFromFile(anyString(), anyString(), any(Path.class)))
                 .thenReturn(uploadedPath);
 
         // Il DB fallisce!
@@ -2048,7 +2066,7 @@ class DocumentContentServiceImplTest {
         assertEquals("User attachments deleted successfully: 2/2 [a1.pdf, a2.pdf]", result);
 
         verify(azureBlobClient, times(2)).retrieveFile(anyString());
-        verify(azureBlobClient, times(2)).uploadFilePath(anyString(), any(byte[].class));
+        verify(azureBlobClient, times(2)).uploadFromStream(anyString(), any(InputStream.class));
         verify(azureBlobClient, times(2)).removeFile(anyString());
 
         verify(documentRepository).updateAttachmentPathById("doc-1",
@@ -2150,12 +2168,12 @@ class DocumentContentServiceImplTest {
 
         // Rollback contract: 1 initial move + 1 rollback move → 2 retrieve / upload / remove interactions on Azure.
         verify(azureBlobClient, times(2)).retrieveFile(anyString());
-        verify(azureBlobClient, times(2)).uploadFilePath(anyString(), any(byte[].class));
+        verify(azureBlobClient, times(2)).uploadFromStream(anyString(), any(InputStream.class));
         verify(azureBlobClient, times(2)).removeFile(anyString());
 
         // Rollback re-uploads back to the original path and removes the moved (deleted-path) blob.
-        verify(azureBlobClient).uploadFilePath(
-                eq("parties/docs/" + ONBOARDING_ID + "/attachments/a1.pdf"), any(byte[].class));
+        verify(azureBlobClient).uploadFromStream(
+                eq("parties/docs/" + ONBOARDING_ID + "/attachments/a1.pdf"), any(InputStream.class));
         verify(azureBlobClient).removeFile(
                 eq("parties/deleted/" + ONBOARDING_ID + "/attachments/a1.pdf"));
 
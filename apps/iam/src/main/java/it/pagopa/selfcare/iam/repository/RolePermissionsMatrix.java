@@ -0,0 +1,177 @@
+package it.pagopa.selfcare.iam.repository;
+
+import static com.mongodb.client.model.Projections.fields;
+import static com.mongodb.client.model.Projections.include;
+
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import io.quarkus.mongodb.reactive.ReactiveMongoClient;
+import io.quarkus.mongodb.reactive.ReactiveMongoCollection;
+import io.quarkus.runtime.StartupEvent;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.subscription.Cancellable;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * In-memory copy of the roles collection, compiled into the permissions granted by each role.
+ *
+ * <p>Permission checks resolve the roles of a user against this matrix instead of running a $lookup
+ * on the roles collection at every call. The matrix is loaded on first use and dropped as soon as a
+ * change stream on the roles collection reports an insert, update or replace, or is (re)opened, so
+ * that the next check reloads it. In any case the matrix is reloaded once it is older than {@code
+ * iam-ms.permissions.roles.max-age}: this is the only way deletes are picked up, since Cosmos DB
+ * change streams do not report them, as well as any change when the change stream is not available
+ * (e.g. a standalone MongoDB).
+ */
+@Slf4j
+@ApplicationScoped
+public class RolePermissionsMatrix {
+
+  static final String ROLES_COLLECTION = "roles";
+
+  @Inject ReactiveMongoClient mongoClient;
+
+  @ConfigProperty(name = "quarkus.mongodb.database")
+  String databaseName;
+
+  @ConfigProperty(name = "iam-ms.permissions.roles.max-age", defaultValue = "5m")
+  Duration maxAge;
+
+  @ConfigProperty(name = "iam-ms.permissions.roles.watch", defaultValue = "true")
+  boolean watch;
+
+  private final AtomicReference<Uni<Snapshot>> loading = new AtomicReference<>();
+  private final AtomicLong changes = new AtomicLong();
+  private volatile Snapshot snapshot;
+  private Cancellable changeStream;
+
+  void onStart(@Observes StartupEvent event) {
+    if (watch) {
+      changeStream = watchRoles();
+    }
+  }
+
+  @PreDestroy
+  void stop() {
+    Optional.ofNullable(changeStream).ifPresent(Cancellable::cancel);
+  }
+
+  /** Returns the roles by name, loading them when the matrix is missing or expired. */
+  public Uni<Map<String, CompiledRole>> getRoles() {
+    Snapshot current = snapshot;
+    if (current != null && current.isValid(System.nanoTime())) {
+      return Uni.createFrom().item(current.roles());
+    }
+    return load().map(Snapshot::roles);
+  }
+
+  /** Drops the matrix, so that the next permission check reloads it. */
+  public void invalidate() {
+    changes.incrementAndGet();
+    snapshot = null;
+  }
+
+  private Uni<Snapshot> load() {
+    Uni<Snapshot> inFlight = loading.get();
+    if (inFlight != null) {
+      return inFlight;
+    }
+    long changesAtStart = changes.get();
+    AtomicReference<Uni<Snapshot>> self = new AtomicReference<>();
+    Uni<Snapshot> load =
+        Uni.createFrom()
+            .deferred(() -> getCollection().find().collect().asList())
+            .map(this::compile)
+            .invoke(
+                loaded -> {
+                  // Roles changed while they were being read may have been read before the change.
+                  if (changes.get() == changesAtStart) {
+                    snapshot = loaded;
+                  }
+                })
+            .onTermination()
+            .invoke(() -> loading.compareAndSet(self.get(), null))
+            .memoize()
+            .indefinitely();
+    self.set(load);
+    inFlight = loading.compareAndExchange(null, load);
+    return inFlight != null ? inFlight : load;
+  }
+
+  private Snapshot compile(List<Document> documents) {
+    Map<String, CompiledRole> roles =
+        documents.stream()
+            .filter(document -> document.getString("_id") != null)
+            .collect(
+                Collectors.toUnmodifiableMap(
+                    document -> document.getString("_id"),
+                    document ->
+                        new CompiledRole(
+                            document.getString("group"),
+                            document.getList("permissions", String.class, List.of()))));
+    log.debug("Compiled the permissions of {} roles", roles.size());
+    return new Snapshot(roles, System.nanoTime() + maxAge.toNanos());
+  }
+
+  private Cancellable watchRoles() {
+    // Cosmos DB only accepts change streams on these operation types, projected to these fields.
+    Bson match =
+        Aggregates.match(Filters.in("operationType", List.of("insert", "update", "replace")));
+    Bson project = Aggregates.project(fields(include("_id", "ns", "documentKey", "clusterTime")));
+    return getCollection()
+        .watch(List.of(match, project))
+        // Changes made while the stream was down are not replayed: reload on every
+        // (re)subscription.
+        .onSubscription()
+        .invoke(this::invalidate)
+        .onCompletion()
+        .failWith(() -> new IllegalStateException("the change stream has been closed"))
+        .onFailure()
+        .invoke(
+            failure -> log.warn("Unable to watch the roles collection: {}", failure.getMessage()))
+        .onFailure()
+        .retry()
+        .withBackOff(Duration.ofSeconds(1), Duration.ofMinutes(1))
+        .indefinitely()
+        .subscribe()
+        .with(change -> invalidate());
+  }
+
+  private ReactiveMongoCollection<Document> getCollection() {
+    return mongoClient.getDatabase(databaseName).getCollection(ROLES_COLLECTION);
+  }
+
+  /** A role of the roles collection, with its permissions as stored and as a set for lookups. */
+  public record CompiledRole(String group, List<String> permissions, Set<String> permissionSet) {
+
+    CompiledRole(String group, List<String> permissions) {
+      this(
+          group,
+          Collections.unmodifiableList(new ArrayList<>(permissions)),
+          Collections.unmodifiableSet(new HashSet<>(permissions)));
+    }
+
+    public boolean grants(String permission) {
+      return permissionSet.contains(permission);
+    }
+  }
+
+  private record Snapshot(Map<String, CompiledRole> roles, long expiresAt) {
+
+    private boolean isValid(long now) {
+      return now - expiresAt < 0;
+    }
+  }
+}
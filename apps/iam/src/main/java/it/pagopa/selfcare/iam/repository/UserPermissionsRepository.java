@@ -8,10 +8,14 @@ import it.pagopa.selfcare.iam.exception.InternalException;
 import it.pagopa.selfcare.iam.exception.ResourceNotFoundException;
 import it.pagopa.selfcare.iam.model.ProductRole;
 import it.pagopa.selfcare.iam.model.ProductRolePermissions;
+import it.pagopa.selfcare.iam.model.ProductRoles;
 import it.pagopa.selfcare.iam.model.UserPermissions;
+import it.pagopa.selfcare.iam.repository.RolePermissionsMatrix.CompiledRole;
+import it.pagopa.selfcare.iam.repository.UserProductRolesCache.UserProductRoles;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import java.util.*;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import lombok.extern.slf4j.Slf4j;
 import org.bson.Document;
@@ -24,127 +28,63 @@ public class UserPermissionsRepository {
 
   public static final String ALL = "ALL";
   @Inject ReactiveMongoClient mongoClient;
+  @Inject RolePermissionsMatrix rolePermissionsMatrix;
+  @Inject UserProductRolesCache userProductRolesCache;
 
   @ConfigProperty(name = "quarkus.mongodb.database")
   String databaseName;
 
-  /** Aggregation query to extract a user's permissions for a specific product (optional). */
+  /**
+   * Extracts a user's permission for the given products (or for all products), evaluating the
+   * user's cached product roles against the {@link RolePermissionsMatrix}.
+   */
   public Uni<UserPermissions> getUserPermissions(
       String uid, String permission, List<String> products, String tenantId) {
-    List<Bson> pipeline = new ArrayList<>();
-    pipeline.add(Aggregates.match(Filters.eq("_id", uid)));
-    pipeline.add(Aggregates.unwind("$productRoles"));
-
-    List<String> productIds =
+    Set<String> productIds =
         Optional.ofNullable(products).isPresent() && !products.isEmpty()
-            ? Stream.concat(Stream.of(ALL), products.stream()).toList()
-            : List.of(ALL);
-
-    pipeline.add(Aggregates.match(Filters.in("productRoles.productId", productIds)));
-    Optional.ofNullable(tenantId)
-        .ifPresent(
-            tid ->
-                pipeline.add(
-                    Aggregates.match(
-                        Filters.or(
-                            Filters.eq("productRoles.tenantId", tid),
-                            Filters.exists("productRoles.tenantId", false)))));
-
-    List<Bson> pipelinePost =
-        Arrays.asList(
-            Aggregates.unwind("$productRoles.roles"),
-            Aggregates.lookup("roles", "productRoles.roles", "_id", "roleDetails"),
-            Aggregates.unwind("$roleDetails"),
-            Aggregates.unwind("$roleDetails.permissions"),
-            Aggregates.match(Filters.eq("roleDetails.permissions", permission)),
-            Aggregates.group(
-                new Document("uid", "$_id")
-                    .append("email", "$email")
-                    .append("productId", "$productRoles.productId")
-                    .append("tenantId", "$productRoles.tenantId"),
-                Accumulators.addToSet("permissions", "$roleDetails.permissions")),
-            Aggregates.project(
-                Projections.fields(
-                    Projections.computed("email", "$_id.email"),
-                    Projections.computed("uid", "$_id.uid"),
-                    Projections.computed("productId", "$_id.productId"),
-                    Projections.computed("tenantId", "$_id.tenantId"),
-                    Projections.computed("permissions", "$permissions"),
-                    // Projections.computed("permissions",
-                    //   new Document("$reduce", new Document()
-                    //     .append("input", "$permissions")
-                    //     .append("initialValue", new ArrayList<>())
-                    //     .append("in", new Document("$concatArrays", Arrays.asList("$$value",
-                    // "$$this")))
-                    //   )
-                    // ),
-                    Projections.excludeId())));
-
-    pipeline.addAll(pipelinePost);
-
-    return getCollection()
-        .aggregate(pipeline, Document.class)
-        .collect()
-        .first()
-        .map(this::documentToUserPermissions)
+            ? Stream.concat(Stream.of(ALL), products.stream()).collect(Collectors.toSet())
+            : Set.of(ALL);
+
+    return Uni.combine()
+        .all()
+        .unis(findUserProductRoles(uid), rolePermissionsMatrix.getRoles())
+        .with(
+            (user, roles) ->
+                user.productRoles().stream()
+                    .filter(productRole -> productIds.contains(productRole.getProductId()))
+                    .filter(productRole -> matchesTenantId(productRole, tenantId))
+                    .filter(productRole -> grants(productRole, roles, permission))
+                    .findFirst()
+                    .map(
+                        productRole ->
+                            UserPermissions.builder()
+                                .email(user.email())
+                                .uid(user.uid())
+                                .productId(productRole.getProductId())
+                                .tenantId(productRole.getTenantId())
+                                .permissions(List.of(permission))
+                                .build())
+                    .orElse(null))
         .onItem()
         .ifNull()
         .failWith(() -> new ResourceNotFoundException("Permission not found"));
   }
 
-  /** Aggregation query to extract a list of product, role and permissions for a specific user. */
+  /**
+   * Extracts a list of product, role and permissions for a specific user: when a product is given,
+   * the roles for that product take priority over the roles for all products.
+   */
   public Uni<List<ProductRolePermissions>> getUserProductRolePermissionsList(
       String uid, String productId, String tenantId) {
-    List<Bson> pipeline = new ArrayList<>();
-    pipeline.add(Aggregates.match(Filters.eq("_id", uid)));
-    pipeline.add(Aggregates.unwind("$productRoles"));
-    Optional.ofNullable(productId)
-        .ifPresent(
-            pid -> {
-              pipeline.add(
-                  Aggregates.match(
-                      Filters.or(
-                          Filters.eq("productRoles.productId", pid),
-                          Filters.eq("productRoles.productId", "ALL"))));
-
-              // priority when productId corresponds
-              pipeline.add(
-                  Aggregates.addFields(
-                      new Field<>(
-                          "isAll",
-                          new Document("$eq", Arrays.asList("$productRoles.productId", "ALL")))));
-              pipeline.add(Aggregates.sort(Sorts.ascending("isAll")));
-              pipeline.add(Aggregates.limit(1));
-            });
-    Optional.ofNullable(tenantId)
-        .ifPresent(
-            tid ->
-                pipeline.add(
-                    Aggregates.match(
-                        Filters.or(
-                            Filters.eq("productRoles.tenantId", tid),
-                            Filters.exists("productRoles.tenantId", false)))));
-
-    List<Bson> pipelinePost =
-        Arrays.asList(
-            Aggregates.unwind("$productRoles.roles"),
-            Aggregates.lookup("roles", "productRoles.roles", "_id", "roleDetails"),
-            Aggregates.unwind("$roleDetails"),
-            Aggregates.project(
-                Projections.fields(
-                    Projections.computed("role", "$roleDetails._id"),
-                    Projections.computed("group", "$roleDetails.group"),
-                    Projections.computed("productId", "$productRoles.productId"),
-                    Projections.computed("tenantId", "$productRoles.tenantId"),
-                    Projections.computed("permissions", "$roleDetails.permissions"),
-                    Projections.excludeId())));
-
-    pipeline.addAll(pipelinePost);
-
-    return getCollection()
-        .aggregate(pipeline, ProductRolePermissions.class)
-        .collect()
-        .asList()
+    return Uni.combine()
+        .all()
+        .unis(findUserProductRoles(uid), rolePermissionsMatrix.getRoles())
+        .with(
+            (user, roles) ->
+                selectProductRoles(user.productRoles(), productId).stream()
+                    .filter(productRole -> matchesTenantId(productRole, tenantId))
+                    .flatMap(productRole -> toProductRolePermissions(productRole, roles))
+                    .toList())
         .onFailure()
         .transform(
             failure ->
@@ -152,6 +92,80 @@ public class UserPermissionsRepository {
                     "Error retrieving product role permissions list: " + failure.toString()));
   }
 
+  /** Evicts the cached product roles of a user, after the user has been saved. */
+  public void evictUser(String uid) {
+    userProductRolesCache.invalidate(uid);
+  }
+
+  private Uni<UserProductRoles> findUserProductRoles(String uid) {
+    return userProductRolesCache.get(
+        uid,
+        () ->
+            getCollection()
+                .find(Filters.eq("_id", uid))
+                .collect()
+                .first()
+                .map(doc -> documentToUserProductRoles(uid, doc)));
+  }
+
+  private UserProductRoles documentToUserProductRoles(String uid, Document doc) {
+    if (doc == null) {
+      return new UserProductRoles(uid, null, List.of());
+    }
+    List<ProductRoles> productRoles =
+        doc.getList("productRoles", Document.class, List.of()).stream()
+            .map(
+                pr ->
+                    ProductRoles.builder()
+                        .productId(pr.getString("productId"))
+                        .tenantId(pr.getString("tenantId"))
+                        .roles(List.copyOf(pr.getList("roles", String.class, List.of())))
+                        .build())
+            .toList();
+    return new UserProductRoles(doc.getString("_id"), doc.getString("email"), productRoles);
+  }
+
+  private static List<ProductRoles> selectProductRoles(
+      List<ProductRoles> productRoles, String productId) {
+    if (productId == null) {
+      return productRoles;
+    }
+    return productRoles.stream()
+        .filter(pr -> productId.equals(pr.getProductId()))
+        .findFirst()
+        .or(() -> productRoles.stream().filter(pr -> ALL.equals(pr.getProductId())).findFirst())
+        .map(List::of)
+        .orElse(List.of());
+  }
+
+  private static boolean matchesTenantId(ProductRoles productRole, String tenantId) {
+    return tenantId == null
+        || productRole.getTenantId() == null
+        || tenantId.equals(productRole.getTenantId());
+  }
+
+  private static boolean grants(
+      ProductRoles productRole, Map<String, CompiledRole> roles, String permission) {
+    return productRole.getRoles().stream()
+        .map(roles::get)
+        .anyMatch(role -> role != null && role.grants(permission));
+  }
+
+  private static Stream<ProductRolePermissions> toProductRolePermissions(
+      ProductRoles productRole, Map<String, CompiledRole> roles) {
+    return productRole.getRoles().stream()
+        .filter(roles::containsKey)
+        .map(
+            name ->
+                ProductRolePermissions.builder()
+                    .role(name)
+                    .group(roles.get(name).group())
+                    .productId(productRole.getProductId())
+                    .tenantId(productRole.getTenantId())
+                    .permissions(roles.get(name).permissions())
+                    .build());
+  }
+
   /** Aggregation query to extract a list of product, role for a specific user. */
   public Uni<List<ProductRole>> getUserProductRoles(String uid, String productId, String tenantId) {
     List<Bson> pipeline = new ArrayList<>();
@@ -233,18 +247,4 @@ public class UserPermissionsRepository {
   private ReactiveMongoCollection<Document> getCollection() {
     return mongoClient.getDatabase(databaseName).getCollection("userClaims");
   }
-
-  private UserPermissions documentToUserPermissions(Document doc) {
-    if (doc == null) {
-      return null;
-    }
-
-    return UserPermissions.builder()
-        .email(doc.getString("email"))
-        .uid(doc.getString("uid"))
-        .productId(doc.getString("productId"))
-        .tenantId(doc.getString("tenantId"))
-        .permissions((List<String>) doc.get("permissions"))
-        .build();
-  }
 }
@@ -0,0 +1,101 @@
+package it.pagopa.selfcare.iam.repository;
+
+import io.smallrye.mutiny.Uni;
+import it.pagopa.selfcare.iam.model.ProductRoles;
+import jakarta.enterprise.context.ApplicationScoped;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Short-lived cache of the product roles assigned to each user, keyed by user id.
+ *
+ * <p>Permission checks are repeated for the same users many times per minute, so the roles of a
+ * user read within {@code ttl} are served from memory, and concurrent checks of the same user share
+ * a single read. The users saved through this service are evicted right away; the changes made by
+ * other instances are seen once {@code ttl} has elapsed.
+ */
+@ApplicationScoped
+public class UserProductRolesCache {
+
+  /** How long the roles of a user are served from memory; {@code 0s} disables the cache. */
+  @ConfigProperty(name = "iam-ms.permissions.user-roles.ttl", defaultValue = "30s")
+  Duration ttl;
+
+  @ConfigProperty(name = "iam-ms.permissions.user-roles.max-size", defaultValue = "10000")
+  int maxSize;
+
+  private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+  private final Map<String, Uni<UserProductRoles>> inFlight = new ConcurrentHashMap<>();
+  private final AtomicLong invalidations = new AtomicLong();
+
+  /**
+   * Returns the roles of the user, calling {@code loader} only when they are neither cached nor
+   * already being read by another check.
+   */
+  public Uni<UserProductRoles> get(String uid, Supplier<Uni<UserProductRoles>> loader) {
+    if (ttl.isZero() || uid == null) {
+      return loader.get();
+    }
+    Entry entry = entries.get(uid);
+    if (entry != null && entry.isValid(System.nanoTime())) {
+      return Uni.createFrom().item(entry.userProductRoles());
+    }
+    return inFlight.computeIfAbsent(uid, key -> load(key, loader));
+  }
+
+  private Uni<UserProductRoles> load(String uid, Supplier<Uni<UserProductRoles>> loader) {
+    long invalidationsAtStart = invalidations.get();
+    AtomicReference<Uni<UserProductRoles>> self = new AtomicReference<>();
+    Uni<UserProductRoles> load =
+        Uni.createFrom()
+            .deferred(loader::get)
+            .invoke(userProductRoles -> store(uid, userProductRoles, invalidationsAtStart))
+            .onTermination()
+            .invoke(() -> inFlight.remove(uid, self.get()))
+            .memoize()
+            .indefinitely();
+    self.set(load);
+    return load;
+  }
+
+  private void store(String uid, UserProductRoles userProductRoles, long invalidationsAtStart) {
+    if (entries.size() >= maxSize) {
+      long now = System.nanoTime();
+      entries.values().removeIf(cached -> !cached.isValid(now));
+      if (entries.size() >= maxSize) {
+        entries.clear();
+      }
+    }
+    Entry entry = new Entry(userProductRoles, System.nanoTime() + ttl.toNanos());
+    entries.put(uid, entry);
+    // A user saved while it was being read may have been read before the save.
+    if (invalidations.get() != invalidationsAtStart) {
+      entries.remove(uid, entry);
+    }
+  }
+
+  /** Evicts the roles of the user, after the user has been saved. */
+  public void invalidate(String uid) {
+    invalidations.incrementAndGet();
+    if (uid != null) {
+      entries.remove(uid);
+      inFlight.remove(uid);
+    }
+  }
+
+  /** The product roles of a user; an unknown user has none. */
+  public record UserProductRoles(String uid, String email, List<ProductRoles> productRoles) {}
+
+  private record Entry(UserProductRoles userProductRoles, long expiresAt) {
+
+    private boolean isValid(long now) {
+      return now - expiresAt < 0;
+    }
+  }
+}
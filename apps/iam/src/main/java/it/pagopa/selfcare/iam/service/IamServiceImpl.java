@@ -195,7 +195,12 @@ public class IamServiceImpl implements IamService {
                                     })
                                 .chain(
                                     user ->
-                                        user.persistOrUpdate().map(v -> decryptUser(userClaims))))
+                                        user.persistOrUpdate()
+                                            .invoke(
+                                                () ->
+                                                    userPermissionsRepository.evictUser(
+                                                        user.getUid()))
+                                            .map(v -> decryptUser(userClaims))))
                     .onItem()
                     .ifNull()
                     .failWith(() -> new InvalidRequestException("Email cannot be null")));
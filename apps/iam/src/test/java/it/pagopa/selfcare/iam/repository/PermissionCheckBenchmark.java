@@ -0,0 +1,198 @@
+package it.pagopa.selfcare.iam.repository;
+
+import com.mongodb.client.model.Accumulators;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.reactivestreams.client.MongoClients;
+import io.quarkus.mongodb.impl.ReactiveMongoClientImpl;
+import io.quarkus.mongodb.reactive.ReactiveMongoClient;
+import io.quarkus.mongodb.reactive.ReactiveMongoDatabase;
+import io.smallrye.mutiny.Uni;
+import it.pagopa.selfcare.iam.exception.ResourceNotFoundException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Load test of the permission checks: compares the checks per second served by {@link
+ * UserPermissionsRepository#getUserPermissions} with the previous implementation, which ran a
+ * $unwind/$lookup aggregation on the roles collection at every check.
+ *
+ * <p>It needs a running MongoDB, by default {@code mongodb://localhost:27017}, which can be changed
+ * with {@code -Dmongodb.connection-string}; the {@code selcIamBenchmark} database is created and
+ * dropped by the benchmark. The checks are issued by 8 threads on users picked at random from the
+ * pool; the {@code matrix} mode reads them through a user cache with a 30-second TTL, so the score
+ * also includes the reloads of expired users. Compile the tests with the {@code jmh} profile before
+ * launching {@link #main}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(8)
+@Fork(1)
+public class PermissionCheckBenchmark {
+
+  private static final String DATABASE = "selcIamBenchmark";
+  private static final String PERMISSION = "write:users";
+  private static final List<String> PRODUCTS = List.of("prod-pagopa");
+
+  /** {@code aggregation}: the previous aggregation; {@code matrix}: the cached roles. */
+  @Param({"aggregation", "matrix"})
+  String mode;
+
+  /** The number of distinct users checked. */
+  @Param({"1000"})
+  int users;
+
+  private ReactiveMongoClient mongoClient;
+  private UserPermissionsRepository repository;
+  private List<String> uids;
+
+  @Setup
+  public void setUp() {
+    mongoClient =
+        new ReactiveMongoClientImpl(
+            MongoClients.create(
+                System.getProperty("mongodb.connection-string", "mongodb://localhost:27017")));
+    ReactiveMongoDatabase database = mongoClient.getDatabase(DATABASE);
+    database.drop().await().indefinitely();
+    database
+        .getCollection(RolePermissionsMatrix.ROLES_COLLECTION)
+        .insertMany(
+            List.of(
+                role("ADMIN", "admin", "read:users", "write:users", "delete:users"),
+                role("OPERATOR", "read:users"),
+                role("SUPPORT", "read:users", "write:users")))
+        .await()
+        .indefinitely();
+    uids = IntStream.range(0, users).mapToObj(i -> "user-" + i).toList();
+    List<Document> userClaims = new ArrayList<>();
+    for (int i = 0; i < users; i++) {
+      userClaims.add(
+          new Document("_id", uids.get(i))
+              .append("email", "user-" + i + "@mail.xyz")
+              .append(
+                  "productRoles",
+                  List.of(
+                      productRole("prod-io", "OPERATOR"),
+                      productRole("prod-pagopa", i % 2 == 0 ? "SUPPORT" : "OPERATOR"),
+                      productRole("prod-interop", "ADMIN"))));
+    }
+    database.getCollection("userClaims").insertMany(userClaims).await().indefinitely();
+
+    RolePermissionsMatrix rolePermissionsMatrix = new RolePermissionsMatrix();
+    rolePermissionsMatrix.mongoClient = mongoClient;
+    rolePermissionsMatrix.databaseName = DATABASE;
+    rolePermissionsMatrix.maxAge = Duration.ofMinutes(5);
+    UserProductRolesCache userProductRolesCache = new UserProductRolesCache();
+    userProductRolesCache.ttl = Duration.ofSeconds(30);
+    userProductRolesCache.maxSize = 10000;
+    repository = new UserPermissionsRepository();
+    repository.mongoClient = mongoClient;
+    repository.databaseName = DATABASE;
+    repository.rolePermissionsMatrix = rolePermissionsMatrix;
+    repository.userProductRolesCache = userProductRolesCache;
+  }
+
+  @TearDown
+  public void tearDown() {
+    mongoClient.getDatabase(DATABASE).drop().await().indefinitely();
+    mongoClient.close();
+  }
+
+  @Benchmark
+  public boolean hasPermission() {
+    String uid = uids.get(ThreadLocalRandom.current().nextInt(uids.size()));
+    Uni<Boolean> check =
+        "matrix".equals(mode)
+            ? repository
+                .getUserPermissions(uid, PERMISSION, PRODUCTS, "AR")
+                .map(userPermissions -> userPermissions.getPermissions().contains(PERMISSION))
+            : hasPermissionThroughAggregation(uid);
+    return check
+        .onFailure(ResourceNotFoundException.class)
+        .recoverWithItem(false)
+        .await()
+        .indefinitely();
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(
+            new OptionsBuilder().include(PermissionCheckBenchmark.class.getSimpleName()).build())
+        .run();
+  }
+
+  /** The previous UserPermissionsRepository#getUserPermissions aggregation. */
+  private Uni<Boolean> hasPermissionThroughAggregation(String uid) {
+    List<Bson> pipeline =
+        List.of(
+            Aggregates.match(Filters.eq("_id", uid)),
+            Aggregates.unwind("$productRoles"),
+            Aggregates.match(
+                Filters.in(
+                    "productRoles.productId", UserPermissionsRepository.ALL, PRODUCTS.get(0))),
+            Aggregates.match(
+                Filters.or(
+                    Filters.eq("productRoles.tenantId", "AR"),
+                    Filters.exists("productRoles.tenantId", false))),
+            Aggregates.unwind("$productRoles.roles"),
+            Aggregates.lookup(
+                RolePermissionsMatrix.ROLES_COLLECTION, "productRoles.roles", "_id", "roleDetails"),
+            Aggregates.unwind("$roleDetails"),
+            Aggregates.unwind("$roleDetails.permissions"),
+            Aggregates.match(Filters.eq("roleDetails.permissions", PERMISSION)),
+            Aggregates.group(
+                new Document("uid", "$_id")
+                    .append("email", "$email")
+                    .append("productId", "$productRoles.productId")
+                    .append("tenantId", "$productRoles.tenantId"),
+                Accumulators.addToSet("permissions", "$roleDetails.permissions")),
+            Aggregates.project(
+                Projections.fields(
+                    Projections.computed("permissions", "$permissions"),
+                    Projections.excludeId())));
+    return mongoClient
+        .getDatabase(DATABASE)
+        .getCollection("userClaims")
+        .aggregate(pipeline, Document.class)
+        .collect()
+        .first()
+        .map(doc -> doc != null && doc.getList("permissions", String.class).contains(PERMISSION));
+  }
+
+  private static Document role(String name, String... permissions) {
+    return new Document("_id", name)
+        .append("group", "SUPPORT")
+        .append("permissions", List.of(permissions));
+  }
+
+  private static Document productRole(String productId, String role) {
+    return new Document("productId", productId)
+        .append("tenantId", "AR")
+        .append("roles", List.of(role));
+  }
+}
@@ -0,0 +1,183 @@
+package it.pagopa.selfcare.iam.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.mongodb.client.model.ReplaceOptions;
+import io.quarkus.mongodb.reactive.ReactiveMongoClient;
+import io.quarkus.mongodb.reactive.ReactiveMongoCollection;
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.mongodb.MongoTestResource;
+import it.pagopa.selfcare.iam.exception.ResourceNotFoundException;
+import it.pagopa.selfcare.iam.model.ProductRolePermissions;
+import it.pagopa.selfcare.iam.model.UserPermissions;
+import jakarta.inject.Inject;
+import java.util.List;
+import org.bson.Document;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+@QuarkusTest
+@QuarkusTestResource(value = MongoTestResource.class, restrictToAnnotatedClass = true)
+class UserPermissionsRepositoryTest {
+
+  private static final String UID = "user-123";
+
+  @Inject UserPermissionsRepository repository;
+
+  @Inject RolePermissionsMatrix rolePermissionsMatrix;
+
+  @Inject ReactiveMongoClient mongoClient;
+
+  @ConfigProperty(name = "quarkus.mongodb.database")
+  String databaseName;
+
+  @BeforeEach
+  void setUp() {
+    collection("roles").deleteMany(new Document()).await().indefinitely();
+    collection("userClaims").deleteMany(new Document()).await().indefinitely();
+    collection("roles")
+        .insertMany(
+            List.of(
+                role("ADMIN", "read:users", "write:users", "delete:users"),
+                role("OPERATOR", "read:users")))
+        .await()
+        .indefinitely();
+    saveUser(
+        productRole("ALL", null, "OPERATOR"),
+        productRole("productA", "AR", "ADMIN"),
+        productRole("productB", "PG", "ADMIN"));
+    rolePermissionsMatrix.invalidate();
+    repository.evictUser(UID);
+  }
+
+  @Test
+  void getUserPermissions_shouldReturnProductGrantingPermission() {
+    UserPermissions result =
+        repository
+            .getUserPermissions(UID, "write:users", List.of("productA"), "AR")
+            .await()
+            .indefinitely();
+
+    assertEquals(UID, result.getUid());
+    assertEquals("email", result.getEmail());
+    assertEquals("productA", result.getProductId());
+    assertEquals(List.of("write:users"), result.getPermissions());
+  }
+
+  @Test
+  void getUserPermissions_shouldFallBackToAllProducts() {
+    UserPermissions result =
+        repository
+            .getUserPermissions(UID, "read:users", List.of("productC"), "AR")
+            .await()
+            .indefinitely();
+
+    assertEquals("ALL", result.getProductId());
+  }
+
+  @Test
+  void getUserPermissions_shouldFail_whenPermissionIsNotGranted() {
+    assertThrows(
+        ResourceNotFoundException.class,
+        () ->
+            repository
+                .getUserPermissions(UID, "write:users", List.of("productB"), "AR")
+                .await()
+                .indefinitely());
+    assertThrows(
+        ResourceNotFoundException.class,
+        () ->
+            repository
+                .getUserPermissions("unknown", "read:users", null, "AR")
+                .await()
+                .indefinitely());
+  }
+
+  @Test
+  void getUserPermissions_shouldSeeRoleChanges_onceMatrixIsInvalidated() {
+    repository.getUserPermissions(UID, "read:users", null, "AR").await().indefinitely();
+    collection("roles")
+        .updateOne(
+            new Document("_id", "OPERATOR"),
+            new Document("$set", new Document("permissions", List.of())))
+        .await()
+        .indefinitely();
+
+    rolePermissionsMatrix.invalidate();
+
+    assertThrows(
+        ResourceNotFoundException.class,
+        () -> repository.getUserPermissions(UID, "read:users", null, "AR").await().indefinitely());
+  }
+
+  @Test
+  void getUserPermissions_shouldSeeSavedUser_onceEvicted() {
+    repository.getUserPermissions(UID, "read:users", null, "AR").await().indefinitely();
+    saveUser(productRole("ALL", null, "ADMIN"));
+
+    repository.evictUser(UID);
+
+    assertEquals(
+        "ALL",
+        repository
+            .getUserPermissions(UID, "delete:users", null, "AR")
+            .await()
+            .indefinitely()
+            .getProductId());
+  }
+
+  @Test
+  void getUserProductRolePermissionsList_shouldPreferSpecificProductOverAll() {
+    List<ProductRolePermissions> result =
+        repository
+            .getUserProductRolePermissionsList(UID, "productA", "AR")
+            .await()
+            .indefinitely();
+
+    assertEquals(1, result.size());
+    assertEquals("ADMIN", result.get(0).getRole());
+    assertEquals("SUPPORT", result.get(0).getGroup());
+    assertEquals(
+        List.of("read:users", "write:users", "delete:users"), result.get(0).getPermissions());
+  }
+
+  @Test
+  void getUserProductRolePermissionsList_shouldReturnEveryProduct_whenProductIsMissing() {
+    List<ProductRolePermissions> result =
+        repository.getUserProductRolePermissionsList(UID, null, "AR").await().indefinitely();
+
+    assertEquals(
+        List.of("ALL", "productA"),
+        result.stream().map(ProductRolePermissions::getProductId).toList());
+  }
+
+  private void saveUser(Document... productRoles) {
+    collection("userClaims")
+        .replaceOne(
+            new Document("_id", UID),
+            new Document("_id", UID)
+                .append("email", "email")
+                .append("productRoles", List.of(productRoles)),
+            new ReplaceOptions().upsert(true))
+        .await()
+        .indefinitely();
+  }
+
+  private static Document role(String name, String... permissions) {
+    return new Document("_id", name)
+        .append("group", "SUPPORT")
+        .append("permissions", List.of(permissions));
+  }
+
+  private static Document productRole(String productId, String tenantId, String role) {
+    return new Document("productId", productId)
+        .append("tenantId", tenantId)
+        .append("roles", List.of(role));
+  }
+
+  private ReactiveMongoCollection<Document> collection(String name) {
+    return mongoClient.getDatabase(databaseName).getCollection(name);
+  }
+}
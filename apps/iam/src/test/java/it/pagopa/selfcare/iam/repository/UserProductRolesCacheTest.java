@@ -0,0 +1,100 @@
+package it.pagopa.selfcare.iam.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.helpers.test.UniAssertSubscriber;
+import it.pagopa.selfcare.iam.model.ProductRoles;
+import it.pagopa.selfcare.iam.repository.UserProductRolesCache.UserProductRoles;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class UserProductRolesCacheTest {
+
+  private static final String UID = "user-123";
+
+  private UserProductRolesCache cache;
+  private UserProductRoles userProductRoles;
+  private AtomicInteger reads;
+
+  @BeforeEach
+  void setUp() {
+    cache = new UserProductRolesCache();
+    cache.ttl = Duration.ofMinutes(1);
+    cache.maxSize = 100;
+    userProductRoles =
+        new UserProductRoles(
+            UID,
+            "email",
+            List.of(
+                ProductRoles.builder().productId("productA").roles(List.of("admin")).build()));
+    reads = new AtomicInteger();
+  }
+
+  @Test
+  void get_shouldServeCachedUser() {
+    assertSame(userProductRoles, get(loader()));
+    assertSame(userProductRoles, get(loader()));
+
+    assertEquals(1, reads.get());
+  }
+
+  @Test
+  void get_shouldCoalesceConcurrentReadsOfSameUser() {
+    CompletableFuture<UserProductRoles> response = new CompletableFuture<>();
+    Supplier<Uni<UserProductRoles>> pendingLoader =
+        () -> {
+          reads.incrementAndGet();
+          return Uni.createFrom().completionStage(response);
+        };
+
+    UniAssertSubscriber<UserProductRoles> first =
+        cache.get(UID, pendingLoader).subscribe().withSubscriber(UniAssertSubscriber.create());
+    UniAssertSubscriber<UserProductRoles> second =
+        cache.get(UID, pendingLoader).subscribe().withSubscriber(UniAssertSubscriber.create());
+    response.complete(userProductRoles);
+
+    assertEquals(1, reads.get());
+    assertSame(userProductRoles, first.awaitItem().getItem());
+    assertSame(userProductRoles, second.awaitItem().getItem());
+  }
+
+  @Test
+  void invalidate_shouldEvictUser() {
+    get(loader());
+
+    cache.invalidate(UID);
+    get(loader());
+
+    assertEquals(2, reads.get());
+  }
+
+  @Test
+  void get_shouldNotCache_whenTtlIsZero() {
+    cache.ttl = Duration.ZERO;
+
+    get(loader());
+    get(loader());
+
+    assertEquals(2, reads.get());
+  }
+
+  private UserProductRoles get(Supplier<Uni<UserProductRoles>> loader) {
+    return cache.get(UID, loader).await().indefinitely();
+  }
+
+  private Supplier<Uni<UserProductRoles>> loader() {
+    return () ->
+        Uni.createFrom()
+            .item(
+                () -> {
+                  reads.incrementAndGet();
+                  return userProductRoles;
+                });
+  }
+}
@@ -15,14 +15,19 @@ import io.quarkus.runtime.Quarkus;
 import io.quarkus.runtime.Startup;
 import io.quarkus.runtime.configuration.ConfigUtils;
 import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import it.pagopa.selfcare.commons.cdc.ChangeStreamProcessor;
+import it.pagopa.selfcare.commons.cdc.ResumeTokenCheckpointer;
 import it.pagopa.selfcare.onboarding.event.constant.CdcStartAtConstant;
 import it.pagopa.selfcare.onboarding.event.entity.Onboarding;
+import jakarta.annotation.PreDestroy;
 import jakarta.enterprise.context.ApplicationScoped;
 import lombok.extern.slf4j.Slf4j;
 import org.bson.BsonDocument;
 import org.bson.conversions.Bson;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 
+import java.time.Duration;
 import java.util.*;
 
 import static com.mongodb.client.model.Projections.fields;
@@ -46,30 +51,50 @@ public class OnboardingCdcService {
     private static final String ONBOARDING_SUCCESS_MECTRICS = "OnboardingsUpdate_successes";
     private static final String DOCUMENT_KEY = "documentKey";
     private static final String SUCCESS_FALSE = "FALSE";
+    private static final String NOTIFICATION_PROCESSOR_METRICS_NAME = "OnboardingNotificationEvents";
+    private static final String REGISTRY_INDEX_PROCESSOR_METRICS_NAME = "OnboardingRegistryIndexEvents";
     private final TelemetryClient telemetryClient;
     private final TableClient tableClient;
+    private final ResumeTokenCheckpointer resumeTokenCheckpointer;
     private final String mongodbDatabase;
     private final ReactiveMongoClient mongoClient;
     private final NotificationService notificationService;
     private final RegistryIndexService registryIndexService;
+    private final ChangeStreamProcessor notificationProcessor;
+    private final ChangeStreamProcessor registryIndexProcessor;
 
     public OnboardingCdcService(ReactiveMongoClient mongoClient,
                                 @ConfigProperty(name = "quarkus.mongodb.database") String mongodbDatabase,
+                                @ConfigProperty(name = "onboarding-cdc.processor.concurrency") Integer processorConcurrency,
+                                @ConfigProperty(name = "onboarding-cdc.processor.max-pending") Integer processorMaxPending,
+                                @ConfigProperty(name = "onboarding-cdc.processor.metrics-interval") Duration processorMetricsInterval,
                                 TelemetryClient telemetryClient,
                                 TableClient tableClient,
+                                ResumeTokenCheckpointer resumeTokenCheckpointer,
                                 NotificationService notificationService,
                                 RegistryIndexService registryIndexService) {
         this.mongoClient = mongoClient;
         this.mongodbDatabase = mongodbDatabase;
         this.telemetryClient = telemetryClient;
         this.tableClient = tableClient;
+        this.resumeTokenCheckpointer = resumeTokenCheckpointer;
         this.notificationService = notificationService;
         this.registryIndexService = registryIndexService;
+        this.notificationProcessor = new ChangeStreamProcessor(NOTIFICATION_PROCESSOR_METRICS_NAME, processorConcurrency,
+                processorMaxPending, telemetryClient::trackMetric, processorMetricsInterval);
+        this.registryIndexProcessor = new ChangeStreamProcessor(REGISTRY_INDEX_PROCESSOR_METRICS_NAME, processorConcurrency,
+                processorMaxPending, telemetryClient::trackMetric, processorMetricsInterval);
         telemetryClient.getContext().getOperation().setName(OPERATION_NAME);
         initOrderStream();
         initRegistryIndexStream();
     }
 
+    @PreDestroy
+    void close() {
+        notificationProcessor.close();
+        registryIndexProcessor.close();
+    }
+
     private void initOrderStream() {
         log.info("Starting initOrderStream ... ");
 
@@ -96,17 +121,18 @@ public class OnboardingCdcService {
         Bson match = Aggregates.match(Filters.and(
                 Filters.in("operationType", asList("update", "replace", "insert")),
                 Filters.in("fullDocument.status", Arrays.asList(COMPLETED.name(), DELETED.name()))));
-        Bson project = Aggregates.project(fields(include("_id", "ns", DOCUMENT_KEY, "fullDocument")));
+        Bson project = Aggregates.project(fields(include("_id", "ns", DOCUMENT_KEY, "fullDocument", "clusterTime")));
         List<Bson> pipeline = Arrays.asList(match, project);
 
         Multi<ChangeStreamDocument<Onboarding>> publisher = dataCollection.watch(pipeline, Onboarding.class, options);
-        publisher.subscribe().with(
-                this::consumerOnboardingEvent,
-                failure -> {
-                    log.error("Error during subscribe collection, exception: {} , message: {}", failure.toString(), failure.getMessage());
-                    constructMapAndTrackEvent(failure.getClass().toString(), SUCCESS_FALSE, ONBOARDING_FAILURE_MECTRICS);
-                    Quarkus.asyncExit();
-                });
+        publisher.onItem().call(this::consumerOnboardingEvent)
+                .subscribe().with(
+                        ignored -> {},
+                        failure -> {
+                            log.error("Error during subscribe collection, exception: {} , message: {}", failure.toString(), failure.getMessage());
+                            constructMapAndTrackEvent(failure.getClass().toString(), SUCCESS_FALSE, ONBOARDING_FAILURE_MECTRICS);
+                            Quarkus.asyncExit();
+                        });
 
         log.info("Completed initOrderStream ... ");
     }
@@ -122,17 +148,18 @@ public class OnboardingCdcService {
                 Filters.in("operationType", asList("update", "replace", "insert")),
                 Filters.nin("fullDocument.status", REQUEST.name(), OVERRIDDEN.name()),
                 Filters.ne("fullDocument.workflowType", WorkflowType.USERS.name())));
-        Bson project = Aggregates.project(fields(include("_id", "ns", DOCUMENT_KEY, "fullDocument")));
+        Bson project = Aggregates.project(fields(include("_id", "ns", DOCUMENT_KEY, "fullDocument", "clusterTime")));
         List<Bson> pipeline = Arrays.asList(match, project);
 
         Multi<ChangeStreamDocument<Onboarding>> publisher = dataCollection.watch(pipeline, Onboarding.class, options);
-        publisher.subscribe().with(
-                this::consumerRegistryIndexEvent,
-                failure -> {
-                    log.error("Error during subscribe registry index collection, exception: {} , message: {}", failure.toString(), failure.getMessage());
-                    constructMapAndTrackEvent(failure.getClass().toString(), SUCCESS_FALSE, ONBOARDING_FAILURE_MECTRICS);
-                    Quarkus.asyncExit();
-                });
+        publisher.onItem().call(this::consumerRegistryIndexEvent)
+                .subscribe().with(
+                        ignored -> {},
+                        failure -> {
+                            log.error("Error during subscribe registry index collection, exception: {} , message: {}", failure.toString(), failure.getMessage());
+                            constructMapAndTrackEvent(failure.getClass().toString(), SUCCESS_FALSE, ONBOARDING_FAILURE_MECTRICS);
+                            Quarkus.asyncExit();
+                        });
 
         log.info("Completed initRegistryIndexStream ... ");
     }
@@ -143,55 +170,58 @@ public class OnboardingCdcService {
                 .getCollection(COLLECTION_NAME, Onboarding.class);
     }
 
-    protected void consumerOnboardingEvent(ChangeStreamDocument<Onboarding> document) {
+    /**
+     * Queues the notification of the onboarding on the processor, after the previous changes of the same document;
+     * the returned Uni completes when the document is accepted by the processor.
+     */
+    protected Uni<Void> consumerOnboardingEvent(ChangeStreamDocument<Onboarding> document) {
         assert document.getFullDocument() != null;
         assert document.getDocumentKey() != null;
 
         log.info("Starting consumerOnboardingEvent ... ");
-        log.info("Sending Onboarding notification having id {}", document.getFullDocument().getId());
 
-        notificationService.invokeNotificationApi(document.getFullDocument())
-                .subscribe().with(
-                        result -> {
-                            log.info("Onboarding notification having id: {} successfully sent", document.getDocumentKey().toJson());
-                            updateLastResumeToken(document.getResumeToken());
-                            constructMapAndTrackEvent(document.getDocumentKey().toJson(), "TRUE", ONBOARDING_SUCCESS_MECTRICS);
-                        },
-                        failure -> {
-                            log.error("Error during send Onboarding notifiction having id: {} , message: {}", document.getDocumentKey().toJson(), failure.getMessage());
-                            constructMapAndTrackEvent(document.getDocumentKey().toJson(), SUCCESS_FALSE, ONBOARDING_FAILURE_MECTRICS);
-                        });
+        ResumeTokenCheckpointer.Checkpoint checkpoint = resumeTokenCheckpointer.track(document.getResumeToken());
+        Uni<Void> notification = Uni.createFrom().deferred(() -> {
+                    log.info("Sending Onboarding notification having id {}", document.getFullDocument().getId());
+                    return notificationService.invokeNotificationApi(document.getFullDocument());
+                })
+                .onItem().invoke(() -> {
+                    log.info("Onboarding notification having id: {} successfully sent", document.getDocumentKey().toJson());
+                    checkpoint.succeeded();
+                    constructMapAndTrackEvent(document.getDocumentKey().toJson(), "TRUE", ONBOARDING_SUCCESS_MECTRICS);
+                })
+                .onFailure().invoke(failure -> {
+                    log.error("Error during send Onboarding notifiction having id: {} , message: {}", document.getDocumentKey().toJson(), failure.getMessage());
+                    checkpoint.failed();
+                    constructMapAndTrackEvent(document.getDocumentKey().toJson(), SUCCESS_FALSE, ONBOARDING_FAILURE_MECTRICS);
+                })
+                .replaceWithVoid();
         log.info("End consumerOnboardingEvent ... ");
+        return notificationProcessor.submit(document, notification);
     }
 
-    protected void consumerRegistryIndexEvent(ChangeStreamDocument<Onboarding> document) {
+    /**
+     * Queues the registry index update of the onboarding on the processor, after the previous changes of the same
+     * document; the returned Uni completes when the document is accepted by the processor.
+     */
+    protected Uni<Void> consumerRegistryIndexEvent(ChangeStreamDocument<Onboarding> document) {
         assert document.getFullDocument() != null;
         assert document.getDocumentKey() != null;
 
         log.info("Starting consumerRegistryIndexEvent for onboarding id {}", document.getFullDocument().getId());
 
-        registryIndexService.updateIndex(document.getFullDocument())
-                .subscribe().with(
-                        result -> {
-                            log.info("Registry index update for onboarding id: {} successfully sent", document.getDocumentKey().toJson());
-                            constructMapAndTrackEvent(document.getDocumentKey().toJson(), "TRUE", ONBOARDING_SUCCESS_MECTRICS);
-                        },
-                        failure -> {
-                            log.error("Error during registry index update for onboarding id: {} , message: {}", document.getDocumentKey().toJson(), failure.getMessage());
-                            constructMapAndTrackEvent(document.getDocumentKey().toJson(), SUCCESS_FALSE, ONBOARDING_FAILURE_MECTRICS);
-                        });
+        Uni<Void> indexUpdate = Uni.createFrom().deferred(() -> registryIndexService.updateIndex(document.getFullDocument()))
+                .onItem().invoke(() -> {
+                    log.info("Registry index update for onboarding id: {} successfully sent", document.getDocumentKey().toJson());
+                    constructMapAndTrackEvent(document.getDocumentKey().toJson(), "TRUE", ONBOARDING_SUCCESS_MECTRICS);
+                })
+                .onFailure().invoke(failure -> {
+                    log.error("Error during registry index update for onboarding id: {} , message: {}", document.getDocumentKey().toJson(), failure.getMessage());
+                    constructMapAndTrackEvent(document.getDocumentKey().toJson(), SUCCESS_FALSE, ONBOARDING_FAILURE_MECTRICS);
+                })
+                .replaceWithVoid();
         log.info("End consumerRegistryIndexEvent ... ");
-    }
-
-    private void updateLastResumeToken(BsonDocument resumeToken) {
-        // Table CdCStartAt will be updated with the last resume token
-        Map<String, Object> properties = new HashMap<>();
-        properties.put(CdcStartAtConstant.CDC_START_AT_PROPERTY, resumeToken.toJson());
-
-        TableEntity tableEntity = new TableEntity(CdcStartAtConstant.CDC_START_AT_PARTITION_KEY, CdcStartAtConstant.CDC_START_AT_ROW_KEY)
-                .setProperties(properties);
-        tableClient.upsertEntity(tableEntity);
-
+        return registryIndexProcessor.submit(document, indexUpdate);
     }
 
     private void constructMapAndTrackEvent(String documentKey, String success, String... metrics) {
@@ -2,14 +2,22 @@ package it.pagopa.selfcare.onboarding.event.config;
 
 import com.azure.data.tables.TableClient;
 import com.azure.data.tables.TableClientBuilder;
+import com.azure.data.tables.models.TableEntity;
 import com.azure.identity.DefaultAzureCredentialBuilder;
 import com.microsoft.applicationinsights.TelemetryClient;
 import com.microsoft.applicationinsights.connectionstring.ConnectionString;
+import it.pagopa.selfcare.commons.cdc.ResumeTokenCheckpointer;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Disposes;
+import jakarta.inject.Singleton;
+import org.eclipse.microprofile.config.Config;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 
+import java.util.Map;
 import java.util.Optional;
 
+import static it.pagopa.selfcare.onboarding.event.constant.CdcStartAtConstant.*;
+
 @ApplicationScoped
 public class OnboardingCdcConfig {
 
@@ -32,4 +40,16 @@ public class OnboardingCdcConfig {
                         .tableName(tableName).buildClient());
     }
 
+    @Singleton
+    public ResumeTokenCheckpointer resumeTokenCheckpointer(TableClient tableClient, Config config) {
+        return ResumeTokenCheckpointer.fromConfig(config, "onboarding-cdc", resumeToken ->
+                // Table CdCStartAt will be updated with the last resume token
+                tableClient.upsertEntity(new TableEntity(CDC_START_AT_PARTITION_KEY, CDC_START_AT_ROW_KEY)
+                        .setProperties(Map.of(CDC_START_AT_PROPERTY, resumeToken.toJson()))));
+    }
+
+    void closeResumeTokenCheckpointer(@Disposes ResumeTokenCheckpointer resumeTokenCheckpointer) {
+        resumeTokenCheckpointer.close();
+    }
+
 }
@@ -8,6 +8,7 @@ import io.quarkus.test.common.QuarkusTestResource;
 import io.quarkus.test.junit.QuarkusTest;
 import io.quarkus.test.mongodb.MongoTestResource;
 import io.smallrye.mutiny.Uni;
+import it.pagopa.selfcare.commons.cdc.ResumeTokenCheckpointer;
 import it.pagopa.selfcare.onboarding.common.OnboardingStatus;
 import it.pagopa.selfcare.onboarding.event.entity.Onboarding;
 import jakarta.inject.Inject;
@@ -42,6 +43,9 @@ class OnboardingCdcServiceTest {
     @Inject
     private OnboardingCdcService onboardingCdcService;
 
+    @Inject
+    private ResumeTokenCheckpointer resumeTokenCheckpointer;
+
     @Test
     @DisplayName("Should consume onboarding event successfully")
     void consumerOnboardingEventShouldHandleSuccess() {
@@ -51,11 +55,12 @@ class OnboardingCdcServiceTest {
                 .thenReturn(Uni.createFrom().item(new OrchestrationResponse()));
 
         // when
-        onboardingCdcService.consumerOnboardingEvent(document);
+        onboardingCdcService.consumerOnboardingEvent(document).await().indefinitely();
         waitForAsyncCompletion();
 
         // then
         verify(notificationService, times(1)).invokeNotificationApi(any(Onboarding.class));
+        resumeTokenCheckpointer.flush();
         verify(tableClient, times(1)).upsertEntity(any());
         verify(telemetryClient, times(1)).trackEvent(any(), any(), any());
     }
@@ -69,11 +74,12 @@ class OnboardingCdcServiceTest {
                 .thenReturn(Uni.createFrom().failure(new RuntimeException("error")));
 
         // when
-        onboardingCdcService.consumerOnboardingEvent(document);
+        onboardingCdcService.consumerOnboardingEvent(document).await().indefinitely();
         waitForAsyncCompletion();
 
         // then
         verify(notificationService, times(1)).invokeNotificationApi(any(Onboarding.class));
+        resumeTokenCheckpointer.flush();
         verify(tableClient, never()).upsertEntity(any());
         verify(telemetryClient, times(1)).trackEvent(any(), any(), any());
     }
@@ -87,7 +93,7 @@ class OnboardingCdcServiceTest {
                 .thenReturn(Uni.createFrom().item(Response.noContent().build()));
 
         // when
-        onboardingCdcService.consumerRegistryIndexEvent(document);
+        onboardingCdcService.consumerRegistryIndexEvent(document).await().indefinitely();
         waitForAsyncCompletion();
 
         // then
@@ -104,7 +110,7 @@ class OnboardingCdcServiceTest {
                 .thenReturn(Uni.createFrom().failure(new RuntimeException("error")));
 
         // when
-        onboardingCdcService.consumerRegistryIndexEvent(document);
+        onboardingCdcService.consumerRegistryIndexEvent(document).await().indefinitely();
         waitForAsyncCompletion();
 
         // then
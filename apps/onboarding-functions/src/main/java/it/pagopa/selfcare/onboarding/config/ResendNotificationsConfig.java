@@ -0,0 +1,19 @@
+package it.pagopa.selfcare.onboarding.config;
+
+import io.smallrye.config.ConfigMapping;
+
+@ConfigMapping(prefix = "onboarding-functions.resend-notifications")
+public interface ResendNotificationsConfig {
+
+    /**
+     * Number of onboardings read for each activity of the resend orchestration.
+     */
+    Integer pageSize();
+
+    /**
+     * Number of onboardings of a page whose notifications are sent in parallel.
+     * Lower values reduce the load on core and document, higher values increase throughput.
+     */
+    Integer concurrency();
+
+}
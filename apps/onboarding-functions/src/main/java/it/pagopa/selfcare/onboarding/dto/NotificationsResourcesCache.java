@@ -0,0 +1,30 @@
+package it.pagopa.selfcare.onboarding.dto;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.openapi.quarkus.core_json.model.InstitutionResponse;
+import org.openapi.quarkus.document_json.model.DocumentResponse;
+
+/**
+ * Institutions and documents retrieved while sending the notifications of a page of onboardings.
+ * An onboarding deleted and activated in the resent range is notified twice, and the onboardings of an
+ * institution to the same product share the institution: each resource is retrieved once per page,
+ * even when the notifications of the page are sent in parallel.
+ */
+public class NotificationsResourcesCache {
+    private final Map<String, InstitutionResponse> institutions = new ConcurrentHashMap<>();
+    private final Map<String, Optional<DocumentResponse>> documents = new ConcurrentHashMap<>();
+
+    public InstitutionResponse getInstitution(String institutionId, String productId,
+            Supplier<InstitutionResponse> loader) {
+        return institutions.computeIfAbsent(institutionId + ":" + productId, key -> loader.get());
+    }
+
+    public DocumentResponse getDocument(String onboardingId, Function<String, DocumentResponse> loader) {
+        return documents.computeIfAbsent(onboardingId, key -> Optional.ofNullable(loader.apply(key)))
+                .orElse(null);
+    }
+}
@@ -11,6 +11,7 @@ public class ResendNotificationsFilters {
     private String from;
     private String to;
     private Integer page;
+    private String lastOnboardingId;
     private String notificationEventTraceId;
 
     public ResendNotificationsFilters() {
@@ -25,6 +26,7 @@ public class ResendNotificationsFilters {
         this.from = builder.from;
         this.to = builder.to;
         this.page = builder.page;
+        this.lastOnboardingId = builder.lastOnboardingId;
         this.notificationEventTraceId = builder.notificationEventTraceId;
     }
 
@@ -83,6 +85,11 @@ public class ResendNotificationsFilters {
             return this;
         }
 
+        public Builder lastOnboardingId(String lastOnboardingId) {
+            this.lastOnboardingId = lastOnboardingId;
+            return this;
+        }
+
         public Builder notificationEventTraceId(String notificationEventTraceId) {
             this.notificationEventTraceId = notificationEventTraceId;
             return this;
@@ -157,6 +164,18 @@ public class ResendNotificationsFilters {
         this.page = page;
     }
 
+    /**
+     * Id of the last onboarding resent: the next page starts right after it, onboardings being read
+     * in ascending {@code _id} order.
+     */
+    public String getLastOnboardingId() {
+        return lastOnboardingId;
+    }
+
+    public void setLastOnboardingId(String lastOnboardingId) {
+        this.lastOnboardingId = lastOnboardingId;
+    }
+
     public String getNotificationEventTraceId() {
         return notificationEventTraceId;
     }
@@ -176,6 +195,7 @@ public class ResendNotificationsFilters {
                 ", from='" + from + '\'' +
                 ", to='" + to + '\'' +
                 ", page='" + page + '\'' +
+                ", lastOnboardingId='" + lastOnboardingId + '\'' +
                 ", notificationEventTraceId='" + notificationEventTraceId + '\'' +
                 '}';
     }
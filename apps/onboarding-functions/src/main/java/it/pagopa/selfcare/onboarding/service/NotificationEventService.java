@@ -1,6 +1,7 @@
 package it.pagopa.selfcare.onboarding.service;
 
 import com.microsoft.azure.functions.ExecutionContext;
+import it.pagopa.selfcare.onboarding.dto.NotificationsResourcesCache;
 import it.pagopa.selfcare.onboarding.entity.Onboarding;
 import it.pagopa.selfcare.onboarding.dto.QueueEvent;
 
@@ -9,4 +10,11 @@ public interface NotificationEventService {
     void send(ExecutionContext context, Onboarding onboarding, QueueEvent queueEvent);
 
     void send(ExecutionContext context, Onboarding onboarding, QueueEvent queueEvent, String notificationEventTraceId);
+
+    /**
+     * Sends the notifications of the onboarding, retrieving its institution and document through
+     * {@code resourcesCache} so that they are shared with the other onboardings of the same page.
+     */
+    void send(ExecutionContext context, Onboarding onboarding, QueueEvent queueEvent, String notificationEventTraceId,
+            NotificationsResourcesCache resourcesCache);
 }
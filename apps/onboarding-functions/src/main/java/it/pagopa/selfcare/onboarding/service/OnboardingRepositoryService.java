@@ -23,6 +23,8 @@ public interface OnboardingRepositoryService {
 
   List<Onboarding> findByQueryPaged(Document query, int page, int pageSize);
 
+  List<Onboarding> findByQuerySorted(Document query, Document sort, int limit);
+
   List<Onboarding> findByFilters(
     String taxCode,
     String subunitCode,
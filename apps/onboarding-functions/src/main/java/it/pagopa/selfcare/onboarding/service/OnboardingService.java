@@ -60,7 +60,7 @@ public interface OnboardingService {
   NotificationCountResult countNotificationsByFilters(
       String productId, String from, String to, ExecutionContext context);
 
-  List<Onboarding> getOnboardingsToResend(ResendNotificationsFilters filters, int page, int pageSize);
+  List<Onboarding> getOnboardingsToResend(ResendNotificationsFilters filters, int pageSize);
 
   List<String> findByInstitutionAndProduct(String institutionId, String productId);
 }
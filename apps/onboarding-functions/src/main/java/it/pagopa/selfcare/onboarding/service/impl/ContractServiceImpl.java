@@ -173,7 +173,7 @@ public class ContractServiceImpl implements ContractService {
       stringBuilder.append("_").append(UUID.randomUUID()).append("_logo");
       try {
         Path path = createSafeTempFile(stringBuilder.toString(), ".png");
-        Files.writeString(path, azureBlobClient.getFileAsText(logoPath));
+        azureBlobClient.downloadToFile(logoPath, path);
         return Optional.of(path.toFile());
       } catch (IOException e) {
         throw new IllegalArgumentException(
@@ -5,9 +5,12 @@ import it.pagopa.selfcare.onboarding.service.*;
 import com.microsoft.azure.functions.ExecutionContext;
 import io.quarkus.runtime.util.ExceptionUtil;
 import it.pagopa.selfcare.onboarding.common.OnboardingStatus;
+import it.pagopa.selfcare.onboarding.config.ResendNotificationsConfig;
+import it.pagopa.selfcare.onboarding.dto.NotificationsResourcesCache;
 import it.pagopa.selfcare.onboarding.dto.QueueEvent;
 import it.pagopa.selfcare.onboarding.dto.ResendNotificationsFilters;
 import it.pagopa.selfcare.onboarding.entity.Onboarding;
+import it.pagopa.selfcare.onboarding.exception.NotificationException;
 import jakarta.enterprise.context.ApplicationScoped;
 import org.apache.commons.lang3.StringUtils;
 
@@ -18,6 +21,9 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static it.pagopa.selfcare.onboarding.utils.CustomMetricsConst.EVENT_ONBOARDING_FN_NAME;
 import static it.pagopa.selfcare.onboarding.utils.CustomMetricsConst.EVENT_ONBOARDING_INSTTITUTION_FN_FAILURE;
@@ -27,6 +33,7 @@ public class NotificationEventResenderServiceImpl implements NotificationEventRe
     private final NotificationEventService notificationEventService;
     private final OnboardingService onboardingService;
     private final TelemetryService telemetryService;
+    private final ResendNotificationsConfig resendNotificationsConfig;
     public static final String OPERATION_NAME = "ONBOARDING-FN";
     private static final String RESEND_ENDING_LOG = "Resend notifications for page %s completed";
     private static final String RESEND_ENDING_LOG_LAST_PAGE = "There aren't more notifications to resend, page %s completed";
@@ -35,36 +42,28 @@ public class NotificationEventResenderServiceImpl implements NotificationEventRe
     public NotificationEventResenderServiceImpl(
             NotificationEventService notificationEventService,
             OnboardingService onboardingService,
-            TelemetryService telemetryService
+            TelemetryService telemetryService,
+            ResendNotificationsConfig resendNotificationsConfig
     ) {
         this.notificationEventService = notificationEventService;
         this.onboardingService = onboardingService;
         this.telemetryService = telemetryService;
+        this.resendNotificationsConfig = resendNotificationsConfig;
     }
 
+    /**
+     * Resends the notifications of the page of onboardings following {@code filters.lastOnboardingId}, sending up to
+     * {@code resend-notifications.concurrency} onboardings in parallel, and returns the filters of the next page.
+     */
     public ResendNotificationsFilters resendNotifications(ResendNotificationsFilters filters, ExecutionContext context) {
         context.getLogger().info(() -> "resendNotifications started with filters: " + filters);
 
         int page = Optional.ofNullable(filters.getPage()).orElse(0);
-        int pageSize = 100;
+        int pageSize = resendNotificationsConfig.pageSize();
 
-        List<Onboarding> onboardingsToResend = onboardingService.getOnboardingsToResend(filters, page, pageSize);
+        List<Onboarding> onboardingsToResend = onboardingService.getOnboardingsToResend(filters, pageSize);
         context.getLogger().info(() -> String.format("Found: %s onboardings to send for page: %s ", onboardingsToResend.size(), page));
-        for (Onboarding onboarding : onboardingsToResend) {
-            try {
-                if(onboardingHasBeenDeletedInRange(onboarding, filters.getFrom(), filters.getTo())) {
-                    notificationEventService.send(context, onboarding, QueueEvent.UPDATE, filters.getNotificationEventTraceId());
-                }
-
-                if(onboardingHasBeenActivatedInRange(onboarding, filters.getFrom(), filters.getTo())) {
-                    onboarding.setStatus(OnboardingStatus.COMPLETED);
-                    notificationEventService.send(context, onboarding, QueueEvent.ADD, filters.getNotificationEventTraceId());
-                }
-            } catch (Exception e) {
-                context.getLogger().severe(() -> String.format("ERROR: Sending onboarding %s error: %s ", onboarding.getId(), ExceptionUtil.generateStackTrace(e)));
-                trackErrorEvent(onboarding, e, filters.getNotificationEventTraceId());
-            }
-        }
+        resendPage(onboardingsToResend, filters, context);
 
         if(onboardingsToResend.isEmpty() || onboardingsToResend.size() < pageSize) {
             context.getLogger().info(() -> String.format(RESEND_ENDING_LOG_LAST_PAGE, filters.getPage()));
@@ -74,9 +73,51 @@ public class NotificationEventResenderServiceImpl implements NotificationEventRe
         context.getLogger().info(() -> String.format(RESEND_ENDING_LOG, filters.getPage()));
 
         filters.setPage(page + 1);
+        filters.setLastOnboardingId(onboardingsToResend.get(onboardingsToResend.size() - 1).getId());
         return filters;
     }
 
+    private void resendPage(List<Onboarding> onboardings, ResendNotificationsFilters filters, ExecutionContext context) {
+        if (onboardings.isEmpty()) {
+            return;
+        }
+
+        NotificationsResourcesCache resourcesCache = new NotificationsResourcesCache();
+        ExecutorService executor = Executors.newFixedThreadPool(
+                Math.min(resendNotificationsConfig.concurrency(), onboardings.size()));
+        try {
+            List<Callable<Void>> tasks = onboardings.stream()
+                    .<Callable<Void>>map(onboarding -> () -> {
+                        resendOnboarding(onboarding, filters, resourcesCache, context);
+                        return null;
+                    })
+                    .toList();
+            executor.invokeAll(tasks);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new NotificationException("Resend notifications interrupted", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void resendOnboarding(Onboarding onboarding, ResendNotificationsFilters filters,
+                                  NotificationsResourcesCache resourcesCache, ExecutionContext context) {
+        try {
+            if(onboardingHasBeenDeletedInRange(onboarding, filters.getFrom(), filters.getTo())) {
+                notificationEventService.send(context, onboarding, QueueEvent.UPDATE, filters.getNotificationEventTraceId(), resourcesCache);
+            }
+
+            if(onboardingHasBeenActivatedInRange(onboarding, filters.getFrom(), filters.getTo())) {
+                onboarding.setStatus(OnboardingStatus.COMPLETED);
+                notificationEventService.send(context, onboarding, QueueEvent.ADD, filters.getNotificationEventTraceId(), resourcesCache);
+            }
+        } catch (Exception e) {
+            context.getLogger().severe(() -> String.format("ERROR: Sending onboarding %s error: %s ", onboarding.getId(), ExceptionUtil.generateStackTrace(e)));
+            trackErrorEvent(onboarding, e, filters.getNotificationEventTraceId());
+        }
+    }
+
     private boolean onboardingHasBeenDeletedInRange(Onboarding onboarding, String from, String to) {
         if(onboarding.getStatus() != OnboardingStatus.DELETED) {
             return false;
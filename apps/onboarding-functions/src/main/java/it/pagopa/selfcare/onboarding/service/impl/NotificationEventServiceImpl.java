@@ -87,6 +87,12 @@ public class NotificationEventServiceImpl implements NotificationEventService {
     @Override
     public void send(ExecutionContext context, Onboarding onboarding, QueueEvent queueEvent,
             String notificationEventTraceId) {
+        this.send(context, onboarding, queueEvent, notificationEventTraceId, new NotificationsResourcesCache());
+    }
+
+    @Override
+    public void send(ExecutionContext context, Onboarding onboarding, QueueEvent queueEvent,
+            String notificationEventTraceId, NotificationsResourcesCache resourcesCache) {
         context.getLogger()
                 .info(() -> String.format("Starting send method for onboarding with ID %s", onboarding.getId()));
         if (isNotInstitutionOnboarding(onboarding)) {
@@ -111,10 +117,12 @@ public class NotificationEventServiceImpl implements NotificationEventService {
 
         context.getLogger()
                 .info(() -> String.format("Retrieving institution having ID %s", onboarding.getInstitution().getId()));
-        InstitutionResponse institution = institutionApi
-                .retrieveInstitutionByIdUsingGET(onboarding.getInstitution().getId(), onboarding.getProductId());
+        InstitutionResponse institution = resourcesCache.getInstitution(onboarding.getInstitution().getId(),
+                onboarding.getProductId(), () -> institutionApi.retrieveInstitutionByIdUsingGET(
+                        onboarding.getInstitution().getId(), onboarding.getProductId()));
 
-        DocumentResponse document = documentService.getDocumentByOnboardingIdOrNull(onboarding.getId());
+        DocumentResponse document = resourcesCache.getDocument(onboarding.getId(),
+                documentService::getDocumentByOnboardingIdOrNull);
         if (document == null) {
             context.getLogger()
                     .warning(() -> String.format(
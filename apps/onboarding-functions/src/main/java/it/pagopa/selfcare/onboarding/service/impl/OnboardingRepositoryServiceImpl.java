@@ -80,6 +80,12 @@ public class OnboardingRepositoryServiceImpl implements OnboardingRepositoryServ
         return onboardingRepository.find(query).page(page, pageSize).list();
     }
 
+    @Override
+    public List<Onboarding> findByQuerySorted(Document query, Document sort, int limit) {
+        log.debug("Finding onboardings by query sorted: sort={}, limit={}", sort, limit);
+        return onboardingRepository.find(query, sort).page(0, limit).list();
+    }
+
     @Override
     public List<Onboarding> findByFilters(
             String taxCode,
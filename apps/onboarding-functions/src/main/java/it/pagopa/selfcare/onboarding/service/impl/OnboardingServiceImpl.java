@@ -47,6 +47,7 @@ public class OnboardingServiceImpl implements OnboardingService {
     public static final String USERS_FIELD_LIST = "fiscalCode,familyName,name";
     public static final String USERS_WORKS_FIELD_LIST = "fiscalCode,familyName,name,workContacts";
     public static final String USER_REQUEST_DOES_NOT_FOUND = "User request does not found for onboarding %s";
+    public static final String ID_FIELD = "_id";
     public static final String ACTIVATED_AT_FIELD = "activatedAt";
     public static final String DELETED_AT_FIELD = "deletedAt";
     private static final String WORKFLOW_TYPE = "workflowType";
@@ -432,9 +433,18 @@ public class OnboardingServiceImpl implements OnboardingService {
         return query;
     }
 
-    public List<Onboarding> getOnboardingsToResend(
-            ResendNotificationsFilters filters, int page, int pageSize) {
-        return onboardingRepositoryService.findByQueryPaged(createQueryByFilters(filters), page, pageSize);
+    /**
+     * Reads the page of onboardings following {@link ResendNotificationsFilters#getLastOnboardingId()}
+     * in {@code _id} order: unlike an offset, the keyset lets the database seek the first onboarding of the
+     * page through the {@code _id} index, however deep the page is.
+     */
+    public List<Onboarding> getOnboardingsToResend(ResendNotificationsFilters filters, int pageSize) {
+        Document query = createQueryByFilters(filters);
+        Optional.ofNullable(filters.getLastOnboardingId())
+                .ifPresent(value -> query.append(ID_FIELD, query.containsKey(ID_FIELD)
+                        ? new Document("$eq", query.get(ID_FIELD)).append("$gt", value)
+                        : new Document("$gt", value)));
+        return onboardingRepositoryService.findByQuerySorted(query, new Document(ID_FIELD, 1), pageSize);
     }
 
     private Document createQueryByFilters(ResendNotificationsFilters filters) {
@@ -443,7 +453,7 @@ public class OnboardingServiceImpl implements OnboardingService {
                 .ifPresent(value -> query.append("productId", value));
         Optional.ofNullable(filters.getInstitutionId())
                 .ifPresent(value -> query.append("institution.id", value));
-        Optional.ofNullable(filters.getOnboardingId()).ifPresent(value -> query.append("_id", value));
+        Optional.ofNullable(filters.getOnboardingId()).ifPresent(value -> query.append(ID_FIELD, value));
         Optional.ofNullable(filters.getTaxCode())
                 .ifPresent(value -> query.append("institution.taxCode", value));
         query.append("status", new Document("$in", filters.getStatus()));
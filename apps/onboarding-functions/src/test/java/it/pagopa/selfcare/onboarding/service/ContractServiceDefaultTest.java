@@ -213,11 +213,9 @@ class ContractServiceDefaultTest {
 
   @Test
   void getLogoFile() {
-    Mockito.when(azureBlobClient.getFileAsText(any())).thenReturn("example");
-
     contractService.getLogoFile();
 
-    Mockito.verify(azureBlobClient, times(1)).getFileAsText(any());
+    Mockito.verify(azureBlobClient, times(1)).downloadToFile(any(), any());
   }
 
   @Test
@@ -51,15 +51,15 @@ class NotificationEventResenderServiceDefaultTest {
         onboarding2.setDeletedAt(LocalDateTime.of(2023, 2, 1, 0, 0));
 
 
-        when(onboardingService.getOnboardingsToResend(filters, 0, 100)).thenReturn(List.of(onboarding, onboarding2));
-        doNothing().when(notificationEventService).send(any(), any(), any(), any());
+        when(onboardingService.getOnboardingsToResend(filters, 100)).thenReturn(List.of(onboarding, onboarding2));
+        doNothing().when(notificationEventService).send(any(), any(), any(), any(), any());
 
         // Act
         ResendNotificationsFilters resendNotificationsFilters = notificationEventResenderServiceDefault.resendNotifications(filters, context);
 
         // Assert
-        verify(notificationEventService, times(3)).send(any(), any(), any(), any());
-        verify(onboardingService).getOnboardingsToResend(filters, 0, 100);
+        verify(notificationEventService, times(3)).send(any(), any(), any(), any(), any());
+        verify(onboardingService).getOnboardingsToResend(filters, 100);
         assertNull(resendNotificationsFilters);
     }
 
@@ -80,15 +80,15 @@ class NotificationEventResenderServiceDefaultTest {
         onboarding2.setActivatedAt(LocalDateTime.of(2023, 2, 1, 0, 0));
 
 
-        when(onboardingService.getOnboardingsToResend(filters, 0, 100)).thenReturn(List.of(onboarding, onboarding2));
-        doNothing().when(notificationEventService).send(any(), any(), any(), any());
+        when(onboardingService.getOnboardingsToResend(filters, 100)).thenReturn(List.of(onboarding, onboarding2));
+        doNothing().when(notificationEventService).send(any(), any(), any(), any(), any());
 
         // Act
         ResendNotificationsFilters resendNotificationsFilters = notificationEventResenderServiceDefault.resendNotifications(filters, context);
 
         // Assert
-        verify(notificationEventService, times(2)).send(any(), any(), any(), any());
-        verify(onboardingService).getOnboardingsToResend(filters, 0, 100);
+        verify(notificationEventService, times(2)).send(any(), any(), any(), any(), any());
+        verify(onboardingService).getOnboardingsToResend(filters, 100);
         assertNull(resendNotificationsFilters);
     }
 
@@ -109,15 +109,15 @@ class NotificationEventResenderServiceDefaultTest {
         onboarding.setDeletedAt(LocalDateTime.of(2023, 2, 3, 0, 0));
 
 
-        when(onboardingService.getOnboardingsToResend(filters, 0, 100)).thenReturn(List.of(onboarding));
-        doNothing().when(notificationEventService).send(any(), any(), any(), any());
+        when(onboardingService.getOnboardingsToResend(filters, 100)).thenReturn(List.of(onboarding));
+        doNothing().when(notificationEventService).send(any(), any(), any(), any(), any());
 
         // Act
         ResendNotificationsFilters resendNotificationsFilters = notificationEventResenderServiceDefault.resendNotifications(filters, context);
 
         // Assert
-        verify(notificationEventService, times(2)).send(any(), any(), any(), any());
-        verify(onboardingService).getOnboardingsToResend(filters, 0, 100);
+        verify(notificationEventService, times(2)).send(any(), any(), any(), any(), any());
+        verify(onboardingService).getOnboardingsToResend(filters, 100);
         assertNull(resendNotificationsFilters);
     }
 
@@ -136,15 +136,15 @@ class NotificationEventResenderServiceDefaultTest {
         onboarding2.setStatus(OnboardingStatus.COMPLETED);
         onboarding2.setActivatedAt(LocalDateTime.of(2023, 2, 1, 0, 0));
 
-        doThrow(new NotificationException("Error")).when(notificationEventService).send(context, onboarding, QueueEvent.ADD, null);
-        when(onboardingService.getOnboardingsToResend(filters, 0, 100)).thenReturn(List.of(onboarding, onboarding2));
+        doThrow(new NotificationException("Error")).when(notificationEventService).send(eq(context), eq(onboarding), eq(QueueEvent.ADD), isNull(), any());
+        when(onboardingService.getOnboardingsToResend(filters, 100)).thenReturn(List.of(onboarding, onboarding2));
 
         // Act
         ResendNotificationsFilters resendNotificationsFilters = notificationEventResenderServiceDefault.resendNotifications(filters, context);
 
         // Assert
-        verify(notificationEventService, times(2)).send(any(), any(), any(), any());
-        verify(onboardingService).getOnboardingsToResend(filters, 0, 100);
+        verify(notificationEventService, times(2)).send(any(), any(), any(), any(), any());
+        verify(onboardingService).getOnboardingsToResend(filters, 100);
         assertNull(resendNotificationsFilters);
     }
 
@@ -154,17 +154,18 @@ class NotificationEventResenderServiceDefaultTest {
         ResendNotificationsFilters filters = ResendNotificationsFilters.builder().onboardingId("test").build();
         ExecutionContext context = getMockedContext();
 
-        when(onboardingService.getOnboardingsToResend(filters, 0, 100)).thenReturn(getMockedList(100));
-        doNothing().when(notificationEventService).send(any(), any(), any(), any());
+        when(onboardingService.getOnboardingsToResend(filters, 100)).thenReturn(getMockedList(100));
+        doNothing().when(notificationEventService).send(any(), any(), any(), any(), any());
 
         // Act
         ResendNotificationsFilters resendNotificationsFilters = notificationEventResenderServiceDefault.resendNotifications(filters, context);
 
         // Assert
-        verify(notificationEventService, times(100)).send(any(), any(), any(), any());
-        verify(onboardingService).getOnboardingsToResend(filters, 0, 100);
+        verify(notificationEventService, times(100)).send(any(), any(), any(), any(), any());
+        verify(onboardingService).getOnboardingsToResend(filters, 100);
         assertNotNull(resendNotificationsFilters);
         assertEquals(1, resendNotificationsFilters.getPage());
+        assertEquals("id99", resendNotificationsFilters.getLastOnboardingId());
     }
 
     @Test
@@ -173,17 +174,18 @@ class NotificationEventResenderServiceDefaultTest {
         ResendNotificationsFilters filters = new ResendNotificationsFilters();
         ExecutionContext context = getMockedContext();
 
-        doNothing().when(notificationEventService).send(any(), any(), any(), any());
-        when(onboardingService.getOnboardingsToResend(filters, 0, 100)).thenReturn(getMockedList(100));
+        doNothing().when(notificationEventService).send(any(), any(), any(), any(), any());
+        when(onboardingService.getOnboardingsToResend(filters, 100)).thenReturn(getMockedList(100));
 
         // Act
         ResendNotificationsFilters resendNotificationsFilters = notificationEventResenderServiceDefault.resendNotifications(filters, context);
 
         // Assert
-        verify(notificationEventService, times(100)).send(any(), any(), any(), any());
-        verify(onboardingService).getOnboardingsToResend(filters, 0, 100);
+        verify(notificationEventService, times(100)).send(any(), any(), any(), any(), any());
+        verify(onboardingService).getOnboardingsToResend(filters, 100);
         assertNotNull(resendNotificationsFilters);
         assertEquals(1, resendNotificationsFilters.getPage());
+        assertEquals("id99", resendNotificationsFilters.getLastOnboardingId());
     }
 
     private List<Onboarding> getMockedList(int i) {
@@ -213,15 +215,15 @@ class NotificationEventResenderServiceDefaultTest {
         onboarding.setActivatedAt(LocalDateTime.of(2023, 2, 1, 0, 0));
 
 
-        when(onboardingService.getOnboardingsToResend(filters, 0, 100)).thenReturn(List.of(onboarding));
-        doNothing().when(notificationEventService).send(any(), any(), any(), any());
+        when(onboardingService.getOnboardingsToResend(filters, 100)).thenReturn(List.of(onboarding));
+        doNothing().when(notificationEventService).send(any(), any(), any(), any(), any());
 
         // Act
         ResendNotificationsFilters resendNotificationsFilters = notificationEventResenderServiceDefault.resendNotifications(filters, context);
 
         // Assert
-        verify(notificationEventService, times(1)).send(any(), any(), any(), any());
-        verify(onboardingService).getOnboardingsToResend(filters, 0, 100);
+        verify(notificationEventService, times(1)).send(any(), any(), any(), any(), any());
+        verify(onboardingService).getOnboardingsToResend(filters, 100);
         assertNull(resendNotificationsFilters);
     }
 }
\ No newline at end of file
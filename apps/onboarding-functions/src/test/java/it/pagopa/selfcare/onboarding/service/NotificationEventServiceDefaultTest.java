@@ -103,6 +103,29 @@ public class NotificationEventServiceDefaultTest {
       .sendMessage(anyString(), anyString());
   }
 
+  @Test
+  void sendMessagesOfAPage_shouldRetrieveInstitutionAndDocumentOnce() {
+    // given
+    final Onboarding onboarding = createOnboarding();
+    final Product product = createProduct();
+    when(productService.getProduct(any())).thenReturn(product);
+    mockNotificationMapper(true);
+    when(documentService.getDocumentByOnboardingIdOrNull(any())).thenReturn(null);
+    when(institutionApi.retrieveInstitutionByIdUsingGET(any(), any())).thenReturn(new InstitutionResponse());
+    ExecutionContext context = mock(ExecutionContext.class);
+    doReturn(Logger.getGlobal()).when(context).getLogger();
+    NotificationsResourcesCache resourcesCache = new NotificationsResourcesCache();
+
+    // when
+    notificationServiceDefault.send(context, onboarding, QueueEvent.UPDATE, null, resourcesCache);
+    notificationServiceDefault.send(context, onboarding, QueueEvent.ADD, null, resourcesCache);
+
+    // then
+    verify(institutionApi, times(1)).retrieveInstitutionByIdUsingGET(any(), any());
+    verify(documentService, times(1)).getDocumentByOnboardingIdOrNull(any());
+    verify(eventHubRestClient, times(6)).sendMessage(anyString(), anyString());
+  }
+
   private void mockNotificationMapper(boolean shouldSendNotification) {
     BaseNotificationBuilder notificationMapper = mock(BaseNotificationBuilder.class);
     when(notificationBuilderFactory.create(any())).thenReturn(notificationMapper);
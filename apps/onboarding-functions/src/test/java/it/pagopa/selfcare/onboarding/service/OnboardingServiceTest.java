@@ -17,6 +17,7 @@ import it.pagopa.selfcare.product.entity.Product;
 import it.pagopa.selfcare.product.service.ProductService;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.core.Response;
+import org.bson.Document;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
@@ -829,10 +830,10 @@ class OnboardingServiceTest {
 
         getExecutionContext();
 
-        when(onboardingRepositoryService.findByQueryPaged(any(), anyInt(), anyInt()))
+        when(onboardingRepositoryService.findByQuerySorted(any(), any(), anyInt()))
                 .thenReturn(List.of(new Onboarding(), new Onboarding()));
 
-        List<Onboarding> onboardings = onboardingService.getOnboardingsToResend(filters, 0, 100);
+        List<Onboarding> onboardings = onboardingService.getOnboardingsToResend(filters, 100);
         assertEquals(2, onboardings.size());
     }
 
@@ -844,13 +845,30 @@ class OnboardingServiceTest {
 
         getExecutionContext();
 
-        when(onboardingRepositoryService.findByQueryPaged(any(), anyInt(), anyInt()))
+        when(onboardingRepositoryService.findByQuerySorted(any(), any(), anyInt()))
                 .thenReturn(List.of());
 
-        List<Onboarding> onboardings = onboardingService.getOnboardingsToResend(filters, 0, 100);
+        List<Onboarding> onboardings = onboardingService.getOnboardingsToResend(filters, 100);
         assertTrue(onboardings.isEmpty());
     }
 
+    @Test
+    void getOnboardingsToResendShouldStartAfterLastOnboardingId() {
+        ResendNotificationsFilters filters = ResendNotificationsFilters.builder()
+                .onboardingId("onboarding-id")
+                .lastOnboardingId("last-id")
+                .build();
+        ArgumentCaptor<Document> queryCaptor = ArgumentCaptor.forClass(Document.class);
+        when(onboardingRepositoryService.findByQuerySorted(any(), any(), anyInt()))
+                .thenReturn(List.of());
+
+        onboardingService.getOnboardingsToResend(filters, 100);
+
+        verify(onboardingRepositoryService)
+                .findByQuerySorted(queryCaptor.capture(), eq(new Document("_id", 1)), eq(100));
+        assertEquals(new Document("$eq", "onboarding-id").append("$gt", "last-id"), queryCaptor.getValue().get("_id"));
+    }
+
     private ExecutionContext getExecutionContext() {
         ExecutionContext context = mock(ExecutionContext.class);
         doReturn(Logger.getGlobal()).when(context).getLogger();
@@ -128,6 +128,28 @@ class OnboardingRepositoryServiceImplTest {
     verify(panacheQuery).list();
   }
 
+  @Test
+  void findByQuerySorted_shouldDelegateToRepositorySortedFirstPage() {
+    // given
+    OnboardingRepository onboardingRepository = Mockito.mock(OnboardingRepository.class);
+    PanacheQuery<Onboarding> panacheQuery = Mockito.mock(PanacheQuery.class);
+    OnboardingRepositoryServiceImpl service = new OnboardingRepositoryServiceImpl(onboardingRepository);
+    Document query = new Document("_id", new Document("$gt", "last-id"));
+    Document sort = new Document("_id", 1);
+    List<Onboarding> expected = List.of(new Onboarding());
+    when(onboardingRepository.find(query, sort)).thenReturn(panacheQuery);
+    when(panacheQuery.page(0, 20)).thenReturn(panacheQuery);
+    when(panacheQuery.list()).thenReturn(expected);
+
+    // when
+    List<Onboarding> actual = service.findByQuerySorted(query, sort, 20);
+
+    // then
+    assertSame(expected, actual);
+    verify(onboardingRepository).find(query, sort);
+    verify(panacheQuery).page(0, 20);
+  }
+
   @Test
   void findByFilters_shouldDelegateToRepository() {
     // given
@@ -22,6 +22,7 @@ import io.quarkus.runtime.configuration.ConfigUtils;
 import io.smallrye.mutiny.Multi;
 import io.smallrye.mutiny.Uni;
 import it.pagopa.selfcare.azurestorage.AzureBlobClient;
+import it.pagopa.selfcare.commons.cdc.ResumeTokenCheckpointer;
 import it.pagopa.selfcare.product.constant.ProductConstant;
 import it.pagopa.selfcare.product.mapper.ProductMapper;
 import it.pagopa.selfcare.product.model.Product;
@@ -40,6 +41,7 @@ import org.eclipse.microprofile.config.inject.ConfigProperty;
 public class ProductCdcService {
   private final TelemetryClient telemetryClient;
   private final TableClient tableClient;
+  private final ResumeTokenCheckpointer resumeTokenCheckpointer;
   private final String mongodbDatabase;
   private final ReactiveMongoClient mongoClient;
   private final ProductService productService;
@@ -58,6 +60,7 @@ public class ProductCdcService {
       @ConfigProperty(name = "product-cdc.mongodb.watch.enabled") Boolean cdcEnable,
       TelemetryClient telemetryClient,
       TableClient tableClient,
+      ResumeTokenCheckpointer resumeTokenCheckpointer,
       ProductService productService,
       AzureBlobClient azureBlobClient,
       ProductMapper productMapper,
@@ -67,6 +70,7 @@ public class ProductCdcService {
     this.collectionName = collectionName;
     this.telemetryClient = telemetryClient;
     this.tableClient = tableClient;
+    this.resumeTokenCheckpointer = resumeTokenCheckpointer;
     this.productService = productService;
     this.azureBlobClient = azureBlobClient;
     this.productMapper = productMapper;
@@ -150,6 +154,8 @@ public class ProductCdcService {
     log.info("Starting consumerProductEvent ... ");
     log.info("Product CDC update products having id {}", document.getFullDocument().getId());
 
+    ResumeTokenCheckpointer.Checkpoint checkpoint =
+        resumeTokenCheckpointer.track(document.getResumeToken());
     invokeCreationDocument(document.getFullDocument())
         .subscribe()
         .with(
@@ -157,7 +163,7 @@ public class ProductCdcService {
               log.info(
                   "Product CDC update products having id: {} successfull",
                   document.getDocumentKey().toJson());
-              updateLastResumeToken(document.getResumeToken());
+              checkpoint.succeeded();
               constructMapAndTrackEvent(
                   document.getDocumentKey().toJson(),
                   "TRUE",
@@ -168,6 +174,7 @@ public class ProductCdcService {
                   "Product CDC update products having id: {} , message: {}",
                   document.getDocumentKey().toJson(),
                   failure.getMessage());
+              checkpoint.failed();
               constructMapAndTrackEvent(
                   document.getDocumentKey().toJson(),
                   "FALSE",
@@ -199,18 +206,6 @@ public class ProductCdcService {
                             productsFilePath, convertListToJsonBytes(products))));
   }
 
-  private void updateLastResumeToken(BsonDocument resumeToken) {
-    // Table CdCStartAt will be updated with the last resume token
-    Map<String, Object> properties = new HashMap<>();
-    properties.put(ProductConstant.CDC_START_AT_PROPERTY, resumeToken.toJson());
-
-    TableEntity tableEntity =
-        new TableEntity(
-                ProductConstant.CDC_START_AT_PARTITION_KEY, ProductConstant.CDC_START_AT_ROW_KEY)
-            .setProperties(properties);
-    tableClient.upsertEntity(tableEntity);
-  }
-
   private void constructMapAndTrackEvent(String documentKey, String success, String... metrics) {
     Map<String, String> propertiesMap = new HashMap<>();
     propertiesMap.put("documentKey", documentKey);
@@ -2,15 +2,24 @@ package it.pagopa.selfcare.product.conf;
 
 import com.azure.data.tables.TableClient;
 import com.azure.data.tables.TableClientBuilder;
+import com.azure.data.tables.models.TableEntity;
 import com.microsoft.applicationinsights.TelemetryClient;
 import com.microsoft.applicationinsights.connectionstring.ConnectionString;
 import it.pagopa.selfcare.azurestorage.AzureBlobClient;
 import it.pagopa.selfcare.azurestorage.AzureBlobClientDefault;
+import it.pagopa.selfcare.commons.cdc.ResumeTokenCheckpointer;
+import it.pagopa.selfcare.product.constant.ProductConstant;
 import it.pagopa.selfcare.product.service.ProductService;
 import it.pagopa.selfcare.product.service.ProductServiceCacheable;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Disposes;
+import jakarta.inject.Singleton;
+import java.util.Map;
+import java.util.function.Consumer;
 import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonDocument;
+import org.eclipse.microprofile.config.Config;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 
 @ApplicationScoped
@@ -58,4 +67,23 @@ public class ProductConf {
         .tableName(tableName)
         .buildClient();
   }
+
+  @Singleton
+  public ResumeTokenCheckpointer resumeTokenCheckpointer(TableClient tableClient, Config config) {
+    return ResumeTokenCheckpointer.fromConfig(config, "product-cdc", resumeTokenStore(tableClient));
+  }
+
+  void closeResumeTokenCheckpointer(@Disposes ResumeTokenCheckpointer resumeTokenCheckpointer) {
+    resumeTokenCheckpointer.close();
+  }
+
+  /** Writes the resume token to the CdCStartAt table. */
+  public static Consumer<BsonDocument> resumeTokenStore(TableClient tableClient) {
+    return resumeToken ->
+        tableClient.upsertEntity(
+            new TableEntity(
+                    ProductConstant.CDC_START_AT_PARTITION_KEY, ProductConstant.CDC_START_AT_ROW_KEY)
+                .setProperties(
+                    Map.of(ProductConstant.CDC_START_AT_PROPERTY, resumeToken.toJson())));
+  }
 }
@@ -19,11 +19,14 @@ import io.smallrye.mutiny.Multi;
 import io.smallrye.mutiny.Uni;
 import io.smallrye.mutiny.helpers.test.UniAssertSubscriber;
 import it.pagopa.selfcare.azurestorage.AzureBlobClient;
+import it.pagopa.selfcare.commons.cdc.ResumeTokenCheckpointer;
+import it.pagopa.selfcare.product.conf.ProductConf;
 import it.pagopa.selfcare.product.constant.ProductConstant;
 import it.pagopa.selfcare.product.mapper.ProductMapper;
 import it.pagopa.selfcare.product.model.Product;
 import it.pagopa.selfcare.product.model.ProductMetadata;
 import it.pagopa.selfcare.product.service.ProductService;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
@@ -44,6 +47,7 @@ class ProductCdcServiceTest {
     private ReactiveMongoCollection<Product> mongoCollection;
     private TelemetryClient telemetryClient;
     private TableClient tableClient;
+    private ResumeTokenCheckpointer resumeTokenCheckpointer;
     private ProductService productService;
     private AzureBlobClient azureBlobClient;
     private ProductMapper productMapper;
@@ -56,6 +60,9 @@ class ProductCdcServiceTest {
         mongoCollection = mock(ReactiveMongoCollection.class);
         telemetryClient = mock(TelemetryClient.class);
         tableClient = mock(TableClient.class);
+        resumeTokenCheckpointer =
+                new ResumeTokenCheckpointer(ProductConf.resumeTokenStore(tableClient), 100, Duration.ofMinutes(1),
+                        100, Duration.ofMinutes(1));
         productService = mock(ProductService.class);
         azureBlobClient = mock(AzureBlobClient.class);
         productMapper = mock(ProductMapper.class);
@@ -82,6 +89,7 @@ class ProductCdcServiceTest {
                 true,
                 telemetryClient,
                 tableClient,
+                resumeTokenCheckpointer,
                 productService,
                 azureBlobClient,
                 productMapper,
@@ -195,6 +203,7 @@ class ProductCdcServiceTest {
 
         // Assert
         // Verify that the resume token was updated in the Table Storage
+        resumeTokenCheckpointer.flush();
         ArgumentCaptor<TableEntity> captor = ArgumentCaptor.forClass(TableEntity.class);
         verify(tableClient).upsertEntity(captor.capture());
         Assertions.assertEquals(
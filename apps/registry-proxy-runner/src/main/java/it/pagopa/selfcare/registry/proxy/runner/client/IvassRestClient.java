@@ -3,6 +3,7 @@ package it.pagopa.selfcare.registry.proxy.runner.client;
 import jakarta.ws.rs.GET;
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.core.MediaType;
+import java.io.InputStream;
 import org.eclipse.microprofile.rest.client.inject.RegisterRestClient;
 
 @RegisterRestClient(configKey = "ivass")
@@ -11,4 +12,9 @@ public interface IvassRestClient extends DataSourceRestClient<byte[]> {
   @GET
   @Produces(MediaType.APPLICATION_OCTET_STREAM)
   byte[] retrieveDataSource();
+
+  /** Same as {@link #retrieveDataSource()}, reading the zip as it is received. */
+  @GET
+  @Produces(MediaType.APPLICATION_OCTET_STREAM)
+  InputStream retrieveDataSourceStream();
 }
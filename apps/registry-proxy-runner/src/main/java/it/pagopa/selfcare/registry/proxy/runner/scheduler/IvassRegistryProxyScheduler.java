@@ -5,7 +5,7 @@ import it.pagopa.selfcare.registry.proxy.runner.model.*;
 import it.pagopa.selfcare.registry.proxy.runner.service.*;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
-import java.util.List;
+import java.util.stream.Stream;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
@@ -27,8 +27,9 @@ public class IvassRegistryProxyScheduler {
       // IPA indexes
 
       // IVASS insurance companies
-      List<IvassInsuranceCompany> insuranceCompanies = ivassDataService.fetch();
-      insuranceCompanyIndexWriterService.index(insuranceCompanies);
+      try (Stream<IvassInsuranceCompany> insuranceCompanies = ivassDataService.stream()) {
+        insuranceCompanyIndexWriterService.index(insuranceCompanies);
+      }
 
       log.info("Completed scheduled AI Search index update");
     } catch (Exception e) {
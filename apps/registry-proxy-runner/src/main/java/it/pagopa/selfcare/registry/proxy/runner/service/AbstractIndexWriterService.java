@@ -1,19 +1,43 @@
 package it.pagopa.selfcare.registry.proxy.runner.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
 import it.pagopa.selfcare.registry.proxy.runner.client.AzureSearchRestClient;
 import it.pagopa.selfcare.registry.proxy.runner.model.SearchServiceIndexRequest;
 import it.pagopa.selfcare.registry.proxy.runner.model.SearchServiceIndexResponse;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 
 /**
  * Abstract base class for AI Search index writers. Provides common batch indexing logic and
- * update-date comparison.
+ * change detection.
+ *
+ * <p>Changes are detected against the content fingerprints saved by the last successful run in the
+ * {@link IndexFingerprintStore}, so that only new, changed and removed documents are sent to AI
+ * Search. When no fingerprints are available, the whole index is read and compared by update date.
+ * Batches are uploaded with up to {@code azure-ai-search.index.max-in-flight-batches} requests in
+ * flight.
  *
  * @param <T> the source entity type (from IPA open data)
  * @param <D> the index document type (for AI Search)
@@ -23,10 +47,22 @@ public abstract class AbstractIndexWriterService<T, D> implements IndexWriterSer
 
   private static final int BATCH_SIZE = 1000;
 
+  private static final ObjectMapper FINGERPRINT_MAPPER =
+      JsonMapper.builder()
+          .configure(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY, true)
+          .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true)
+          .build();
+
   private final AzureSearchRestClient azureSearchRestClient;
+  private final IndexFingerprintStore indexFingerprintStore;
 
-  protected AbstractIndexWriterService(AzureSearchRestClient azureSearchRestClient) {
+  @ConfigProperty(name = "azure-ai-search.index.max-in-flight-batches", defaultValue = "4")
+  int maxInFlightBatches;
+
+  protected AbstractIndexWriterService(
+      AzureSearchRestClient azureSearchRestClient, IndexFingerprintStore indexFingerprintStore) {
     this.azureSearchRestClient = azureSearchRestClient;
+    this.indexFingerprintStore = indexFingerprintStore;
   }
 
   @Override
@@ -35,74 +71,193 @@ public abstract class AbstractIndexWriterService<T, D> implements IndexWriterSer
       log.warn("[{}] No items to index, skipping", getEntityName());
       return;
     }
+    index(items.stream());
+  }
 
-    Map<String, String> itemsIndexed = fetchAll();
+  /**
+   * Indexes the items as they are consumed from the stream: changed documents are uploaded as soon
+   * as a batch is full, so that at most {@code max-in-flight-batches} batches are held in memory.
+   */
+  @Override
+  public void index(Stream<T> items) {
+    Function<T, D> toDocument = toDocument();
+    Map<String, Long> fingerprints = new HashMap<>();
+    Optional<Map<String, Long>> previousFingerprints =
+        indexFingerprintStore.load(getIndexName());
+    Map<String, String> itemsIndexed = new HashMap<>();
+    boolean complete = true;
+    if (previousFingerprints.isPresent()) {
+      log.info(
+          "[{}] Comparing with {} fingerprints from the last run",
+          getEntityName(),
+          previousFingerprints.get().size());
+    } else {
+      log.info("[{}] No fingerprints from a previous run, reading the index", getEntityName());
+      complete = fetchAll(itemsIndexed);
+    }
 
-    List<T> toIndex =
-        items.stream()
-            .filter(item -> getId(item) != null && !getId(item).isBlank())
-            .filter(item -> needsUpdate(itemsIndexed.get(getId(item)), item))
-            .toList();
+    int inFlight = Math.max(1, maxInFlightBatches);
+    ExecutorService executor = Executors.newFixedThreadPool(inFlight);
+    try {
+      BatchUploader upserts = new BatchUploader(executor, inFlight, "Indexed");
+      Iterator<T> iterator = items.iterator();
+      // From the first change on, the saved fingerprints no longer match the index until this run
+      // saves its own
+      if (iterator.hasNext()) {
+        indexFingerprintStore.invalidate(getIndexName());
+      }
+      while (iterator.hasNext()) {
+        T item = iterator.next();
+        String id = getId(item);
+        if (id == null || id.isBlank()) {
+          continue;
+        }
+        D document = toDocument.apply(item);
+        long fingerprint = fingerprint(document);
+        fingerprints.put(id, fingerprint);
+        boolean changed =
+            previousFingerprints
+                .map(previous -> !Long.valueOf(fingerprint).equals(previous.get(id)))
+                .orElseGet(() -> needsUpdate(itemsIndexed.get(id), item));
+        if (changed) {
+          upserts.add(document);
+        }
+      }
+      if (fingerprints.isEmpty()) {
+        log.warn("[{}] No items to index, skipping", getEntityName());
+        return;
+      }
+      upserts.flush();
+      if (upserts.count == 0) {
+        log.info("[{}] No items to upsert, AI Search index is already up to date", getEntityName());
+      } else {
+        log.info("[{}] Indexed {} items (new or updated)", getEntityName(), upserts.count);
+      }
 
-    if (toIndex.isEmpty()) {
-      log.info("[{}] No items to upsert, AI Search index is already up to date", getEntityName());
-    } else {
-      log.info("[{}] Indexing {} items (new or updated)", getEntityName(), toIndex.size());
-      for (int i = 0; i < toIndex.size(); i += BATCH_SIZE) {
-        List<D> batch =
-            toIndex.subList(i, Math.min(i + BATCH_SIZE, toIndex.size())).stream()
-                .map(toDocument())
-                .toList();
-        SearchServiceIndexRequest request = new SearchServiceIndexRequest();
-        request.setValue(batch);
-        azureSearchRestClient.index(getIndexName(), getApiVersion(), request);
-        log.debug("[{}] Indexed batch of {} documents", getEntityName(), batch.size());
+      // Delete documents that are no longer present in the source data
+      Set<String> previousIds =
+          previousFingerprints.map(Map::keySet).orElseGet(itemsIndexed::keySet);
+      List<String> toDelete =
+          previousIds.stream().filter(id -> !fingerprints.containsKey(id)).toList();
+      if (!toDelete.isEmpty()) {
+        log.info(
+            "[{}] Deleting {} documents no longer present in source",
+            getEntityName(),
+            toDelete.size());
+        BatchUploader deletions = new BatchUploader(executor, inFlight, "Deleted");
+        for (String id : toDelete) {
+          Map<String, Object> doc = new HashMap<>();
+          doc.put("@search.action", "delete");
+          doc.put("id", id);
+          deletions.add(doc);
+        }
+        deletions.flush();
       }
+    } finally {
+      executor.shutdown();
     }
 
-    // Delete documents that are no longer present in the source data
-    Set<String> sourceIds =
-        items.stream()
-            .map(this::getId)
-            .filter(id -> id != null && !id.isBlank())
-            .collect(Collectors.toSet());
+    // Without a complete view of the index, documents to delete may have been missed: the next run
+    // has to read the index again
+    if (complete) {
+      indexFingerprintStore.save(getIndexName(), fingerprints);
+    }
+  }
 
-    List<String> toDelete =
-        itemsIndexed.keySet().stream().filter(id -> !sourceIds.contains(id)).toList();
+  /**
+   * Groups documents in batches of {@link #BATCH_SIZE} and uploads them with at most {@code
+   * maxInFlight} requests in flight, blocking the caller when the limit is reached. The first
+   * failure is rethrown by the next {@link #add(Object)} that submits a batch, or by {@link
+   * #flush()}.
+   */
+  private class BatchUploader {
 
-    if (!toDelete.isEmpty()) {
-      log.info(
-          "[{}] Deleting {} documents no longer present in source",
-          getEntityName(),
-          toDelete.size());
-      for (int i = 0; i < toDelete.size(); i += BATCH_SIZE) {
-        List<Map<String, Object>> batch =
-            toDelete.subList(i, Math.min(i + BATCH_SIZE, toDelete.size())).stream()
-                .map(
-                    id -> {
-                      Map<String, Object> doc = new HashMap<>();
-                      doc.put("@search.action", "delete");
-                      doc.put("id", id);
-                      return doc;
-                    })
-                .toList();
-        SearchServiceIndexRequest request = new SearchServiceIndexRequest();
-        request.setValue(batch);
-        azureSearchRestClient.index(getIndexName(), getApiVersion(), request);
-        for (Map<String, Object> itemToDelete : batch) {
-          log.debug("[{}] Deleted document with id '{}'", getEntityName(), itemToDelete.get("id"));
-        }
-        log.debug("[{}] Deleted batch of {} documents", getEntityName(), batch.size());
+    private final ExecutorService executor;
+    private final Semaphore permits;
+    private final String action;
+    private final List<CompletableFuture<Void>> uploads = new ArrayList<>();
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private List<Object> batch = new ArrayList<>(BATCH_SIZE);
+    private int count;
+
+    BatchUploader(ExecutorService executor, int maxInFlight, String action) {
+      this.executor = executor;
+      this.permits = new Semaphore(maxInFlight);
+      this.action = action;
+    }
+
+    void add(Object document) {
+      batch.add(document);
+      count++;
+      if (batch.size() == BATCH_SIZE) {
+        submit();
+      }
+    }
+
+    void flush() {
+      if (!batch.isEmpty()) {
+        submit();
+      }
+      try {
+        CompletableFuture.allOf(uploads.toArray(CompletableFuture[]::new)).join();
+      } catch (CompletionException e) {
+        // the failure is recorded by the completion callback
+      }
+      throwIfFailed();
+    }
+
+    private void submit() {
+      List<Object> documents = batch;
+      batch = new ArrayList<>(BATCH_SIZE);
+      permits.acquireUninterruptibly();
+      throwIfFailed();
+      uploads.removeIf(CompletableFuture::isDone);
+      uploads.add(
+          CompletableFuture.runAsync(
+                  () -> {
+                    SearchServiceIndexRequest request = new SearchServiceIndexRequest();
+                    request.setValue(documents);
+                    azureSearchRestClient.index(getIndexName(), getApiVersion(), request);
+                    log.debug(
+                        "[{}] {} batch of {} documents", getEntityName(), action, documents.size());
+                  },
+                  executor)
+              .whenComplete(
+                  (result, e) -> {
+                    if (e != null) {
+                      failure.compareAndSet(null, e instanceof CompletionException ? e.getCause() : e);
+                    }
+                    permits.release();
+                  }));
+    }
+
+    private void throwIfFailed() {
+      Throwable e = failure.get();
+      if (e != null) {
+        throw e instanceof RuntimeException runtimeException
+            ? runtimeException
+            : new IllegalStateException(e);
       }
     }
   }
 
+  /** Hashes the JSON representation of the document into a 64-bit fingerprint. */
+  private static long fingerprint(Object document) {
+    try {
+      byte[] digest =
+          MessageDigest.getInstance("SHA-256")
+              .digest(FINGERPRINT_MAPPER.writeValueAsBytes(document));
+      return ByteBuffer.wrap(digest).getLong();
+    } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+      throw new IllegalStateException("Unable to compute the document fingerprint", e);
+    }
+  }
+
   /**
    * Determines whether the item needs to be re-indexed by comparing the updateDate from the CSV
    * with the one stored in AI Search.
    */
   protected boolean needsUpdate(String currentUpdateDate, T item) {
-    // String currentUpdateDate = fetchUpdateDate(getId(item));
     if (currentUpdateDate == null) {
       return true;
     }
@@ -112,25 +267,11 @@ public abstract class AbstractIndexWriterService<T, D> implements IndexWriterSer
         || !currentUpdateDate.equals(csvUpdateDate);
   }
 
-  private String fetchUpdateDate(String id) {
-    String filter = "id eq '" + id + "'";
-    try {
-      SearchServiceIndexResponse response =
-          azureSearchRestClient.search(
-              getIndexName(), getApiVersion(), "*", null, false, 1, 0, filter);
-
-      if (response == null || response.getValue() == null || response.getValue().isEmpty()) {
-        return null;
-      }
-      return response.getValue().get(0).getUpdateDate();
-    } catch (Exception e) {
-      log.error("[{}] Error fetching '{}' from AI Search index", getEntityName(), id, e);
-      return null;
-    }
-  }
-
-  private Map<String, String> fetchAll() {
-    Map<String, String> result = new HashMap<>();
+  /**
+   * Reads the id and update date of every document in the index into {@code result}; returns
+   * {@code false} if the index could not be read completely.
+   */
+  private boolean fetchAll(Map<String, String> result) {
     int skip = 0;
     while (true) {
       try {
@@ -162,13 +303,13 @@ public abstract class AbstractIndexWriterService<T, D> implements IndexWriterSer
         }
       } catch (Exception e) {
         log.error("[{}] Error fetching from AI Search index", getEntityName(), e);
-        break;
+        return false;
       }
 
       skip += BATCH_SIZE;
     }
     log.debug("Fetched {} IPA institution documents from AI Search index", result.size());
-    return result;
+    return true;
   }
 
   /** Returns the unique ID of the entity. */
@@ -4,7 +4,10 @@ import com.azure.core.util.BinaryData;
 import com.azure.identity.ManagedIdentityCredentialBuilder;
 import com.azure.storage.blob.BlobContainerClient;
 import com.azure.storage.blob.BlobServiceClientBuilder;
+import com.azure.storage.blob.models.BlobStorageException;
 import jakarta.enterprise.context.ApplicationScoped;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.Optional;
@@ -104,4 +107,84 @@ public class AzureBlobStorageService {
       log.error("Failed to save daily open-data snapshot to blob: {}", blobName, e);
     }
   }
+
+  /**
+   * Same as {@link #saveDaily(byte[], String)}, uploading the content of {@code file} without
+   * loading it in memory.
+   */
+  public void saveDaily(Path file, String blobPrefix) {
+    if (!enabled) {
+      return;
+    }
+    String date = LocalDate.now().format(DateTimeFormatter.ISO_LOCAL_DATE);
+    String blobName = blobPrefix + "/" + date + ".csv";
+    try {
+      if (Files.size(file) == 0) {
+        return;
+      }
+      containerClient.getBlobClient(blobName).uploadFromFile(file.toString(), true);
+      log.info("Saved daily open-data snapshot to blob: {}", blobName);
+    } catch (Exception e) {
+      log.error("Failed to save daily open-data snapshot to blob: {}", blobName, e);
+    }
+  }
+
+  /**
+   * Reads the content of {@code blobName}.
+   *
+   * <p>Returns an empty optional when the storage is not configured, the blob does not exist or it
+   * cannot be read, so that callers can fall back to recomputing the data.
+   */
+  public Optional<byte[]> read(String blobName) {
+    if (!enabled) {
+      return Optional.empty();
+    }
+    try {
+      return Optional.of(containerClient.getBlobClient(blobName).downloadContent().toBytes());
+    } catch (BlobStorageException e) {
+      if (e.getStatusCode() != 404) {
+        log.error("Failed to read blob: {}", blobName, e);
+      }
+      return Optional.empty();
+    } catch (Exception e) {
+      log.error("Failed to read blob: {}", blobName, e);
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Deletes {@code blobName}, if it exists.
+   *
+   * <p>Failures are logged and reported by returning {@code false}.
+   */
+  public boolean delete(String blobName) {
+    if (!enabled) {
+      return true;
+    }
+    try {
+      containerClient.getBlobClient(blobName).deleteIfExists();
+      log.debug("Deleted blob: {}", blobName);
+      return true;
+    } catch (Exception e) {
+      log.error("Failed to delete blob: {}", blobName, e);
+      return false;
+    }
+  }
+
+  /**
+   * Saves {@code data} as {@code blobName}, overwriting any existing blob.
+   *
+   * <p>Failures are logged but never propagated.
+   */
+  public void save(byte[] data, String blobName) {
+    if (!enabled || data == null) {
+      return;
+    }
+    try {
+      containerClient.getBlobClient(blobName).upload(BinaryData.fromBytes(data), true);
+      log.debug("Saved blob: {}", blobName);
+    } catch (Exception e) {
+      log.error("Failed to save blob: {}", blobName, e);
+    }
+  }
 }
@@ -20,12 +20,14 @@ public class CategoryIndexWriterService
   String apiVersion;
 
   CategoryIndexWriterService() {
-    super(null);
+    super(null, null);
   }
 
   @Inject
-  public CategoryIndexWriterService(@RestClient AzureSearchRestClient azureSearchRestClient) {
-    super(azureSearchRestClient);
+  public CategoryIndexWriterService(
+      @RestClient AzureSearchRestClient azureSearchRestClient,
+      IndexFingerprintStore indexFingerprintStore) {
+    super(azureSearchRestClient, indexFingerprintStore);
   }
 
   @Override
@@ -0,0 +1,115 @@
+package it.pagopa.selfcare.registry.proxy.runner.service;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Persists, for every AI Search index, the fingerprints (document id → content hash) of the
+ * documents uploaded by the last successful run.
+ *
+ * <p>The job runs in an ephemeral container, so fingerprints are kept in Azure Blob Storage as
+ * {@code <blobPrefix>/<indexName>.bin}: a gzipped sequence of id and hash pairs. When the storage
+ * is not configured or the blob cannot be read, {@link #load(String)} returns an empty optional and
+ * the caller falls back to reading the index. A run {@link #invalidate(String) invalidates} the
+ * fingerprints before changing the index, so that if it fails, or its fingerprints cannot be saved,
+ * the next run reads the index again instead of comparing with fingerprints that no longer match
+ * it.
+ */
+@Slf4j
+@ApplicationScoped
+public class IndexFingerprintStore {
+
+  private static final int FORMAT_VERSION = 1;
+
+  private final AzureBlobStorageService azureBlobStorageService;
+  private final String blobPrefix;
+
+  @Inject
+  public IndexFingerprintStore(
+      AzureBlobStorageService azureBlobStorageService,
+      @ConfigProperty(name = "index-fingerprint.blob-prefix") String blobPrefix) {
+    this.azureBlobStorageService = azureBlobStorageService;
+    this.blobPrefix = blobPrefix;
+  }
+
+  /** Returns the fingerprints saved by the last successful run on {@code indexName}, if any. */
+  public Optional<Map<String, Long>> load(String indexName) {
+    return azureBlobStorageService
+        .read(getBlobName(indexName))
+        .flatMap(data -> decode(indexName, data));
+  }
+
+  /**
+   * Deletes the fingerprints of {@code indexName}.
+   *
+   * @throws IllegalStateException if they cannot be deleted
+   */
+  public void invalidate(String indexName) {
+    if (!azureBlobStorageService.delete(getBlobName(indexName))) {
+      throw new IllegalStateException(
+          "Unable to invalidate the document fingerprints of " + indexName);
+    }
+  }
+
+  /**
+   * Saves the fingerprints of {@code indexName}, invalidated at the start of the run; failures are
+   * logged but never propagated, since the next run then reads the index.
+   */
+  public void save(String indexName, Map<String, Long> fingerprints) {
+    try {
+      log.debug("[{}] Saving {} document fingerprints", indexName, fingerprints.size());
+      azureBlobStorageService.save(encode(fingerprints), getBlobName(indexName));
+    } catch (IOException e) {
+      log.error("[{}] Failed to encode document fingerprints", indexName, e);
+    }
+  }
+
+  private String getBlobName(String indexName) {
+    return blobPrefix + "/" + indexName + ".bin";
+  }
+
+  private static byte[] encode(Map<String, Long> fingerprints) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(bytes))) {
+      out.writeInt(FORMAT_VERSION);
+      out.writeInt(fingerprints.size());
+      for (Map.Entry<String, Long> entry : fingerprints.entrySet()) {
+        out.writeUTF(entry.getKey());
+        out.writeLong(entry.getValue());
+      }
+    }
+    return bytes.toByteArray();
+  }
+
+  private static Optional<Map<String, Long>> decode(String indexName, byte[] data) {
+    try (DataInputStream in =
+        new DataInputStream(new GZIPInputStream(new ByteArrayInputStream(data)))) {
+      if (in.readInt() != FORMAT_VERSION) {
+        log.warn("[{}] Unsupported document fingerprints format, ignoring them", indexName);
+        return Optional.empty();
+      }
+      int size = in.readInt();
+      Map<String, Long> fingerprints = new HashMap<>(size * 2);
+      for (int i = 0; i < size; i++) {
+        fingerprints.put(in.readUTF(), in.readLong());
+      }
+      log.debug("[{}] Loaded {} document fingerprints", indexName, size);
+      return Optional.of(fingerprints);
+    } catch (IOException e) {
+      log.error("[{}] Failed to decode document fingerprints, ignoring them", indexName, e);
+      return Optional.empty();
+    }
+  }
+}
@@ -1,6 +1,7 @@
 package it.pagopa.selfcare.registry.proxy.runner.service;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Generic interface for writing entities to an AI Search index.
@@ -14,4 +15,10 @@ public interface IndexWriterService<T> {
    * need updating.
    */
   void index(List<T> items);
+
+  /**
+   * Same as {@link #index(List)}, consuming the entities as they are produced so that the source
+   * does not have to be held in memory. The stream is not closed.
+   */
+  void index(Stream<T> items);
 }
@@ -20,12 +20,14 @@ public class InstitutionIndexWriterService
   String apiVersion;
 
   InstitutionIndexWriterService() {
-    super(null);
+    super(null, null);
   }
 
   @Inject
-  public InstitutionIndexWriterService(@RestClient AzureSearchRestClient azureSearchRestClient) {
-    super(azureSearchRestClient);
+  public InstitutionIndexWriterService(
+      @RestClient AzureSearchRestClient azureSearchRestClient,
+      IndexFingerprintStore indexFingerprintStore) {
+    super(azureSearchRestClient, indexFingerprintStore);
   }
 
   @Override
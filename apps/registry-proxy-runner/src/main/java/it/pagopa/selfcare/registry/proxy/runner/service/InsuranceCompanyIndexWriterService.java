@@ -19,12 +19,14 @@ public class InsuranceCompanyIndexWriterService extends AbstractIndexWriterServi
     String apiVersion;
 
     InsuranceCompanyIndexWriterService() {
-        super(null);
+        super(null, null);
     }
 
     @Inject
-    public InsuranceCompanyIndexWriterService(@RestClient AzureSearchRestClient azureSearchRestClient) {
-        super(azureSearchRestClient);
+    public InsuranceCompanyIndexWriterService(
+            @RestClient AzureSearchRestClient azureSearchRestClient,
+            IndexFingerprintStore indexFingerprintStore) {
+        super(azureSearchRestClient, indexFingerprintStore);
     }
 
     @Override
@@ -19,12 +19,14 @@ public class IpaAOOIndexWriterService extends AbstractIndexWriterService<IpaAoo,
   String apiVersion;
 
   IpaAOOIndexWriterService() {
-    super(null);
+    super(null, null);
   }
 
   @Inject
-  public IpaAOOIndexWriterService(@RestClient AzureSearchRestClient azureSearchRestClient) {
-    super(azureSearchRestClient);
+  public IpaAOOIndexWriterService(
+      @RestClient AzureSearchRestClient azureSearchRestClient,
+      IndexFingerprintStore indexFingerprintStore) {
+    super(azureSearchRestClient, indexFingerprintStore);
   }
 
   @Override
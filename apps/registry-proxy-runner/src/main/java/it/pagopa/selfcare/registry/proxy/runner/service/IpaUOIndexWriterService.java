@@ -19,12 +19,14 @@ public class IpaUOIndexWriterService extends AbstractIndexWriterService<IpaUo, I
   String apiVersion;
 
   IpaUOIndexWriterService() {
-    super(null);
+    super(null, null);
   }
 
   @Inject
-  public IpaUOIndexWriterService(@RestClient AzureSearchRestClient azureSearchRestClient) {
-    super(azureSearchRestClient);
+  public IpaUOIndexWriterService(
+      @RestClient AzureSearchRestClient azureSearchRestClient,
+      IndexFingerprintStore indexFingerprintStore) {
+    super(azureSearchRestClient, indexFingerprintStore);
   }
 
   @Override
@@ -7,9 +7,13 @@ import it.pagopa.selfcare.registry.proxy.runner.model.IvassInsuranceCompany;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 import lombok.extern.slf4j.Slf4j;
@@ -20,6 +24,8 @@ import org.eclipse.microprofile.rest.client.inject.RestClient;
 @ApplicationScoped
 public class IvassDataService {
 
+  private static final byte[] UTF8_BOM = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+
   @Inject @RestClient IvassRestClient ivassRestClient;
 
   @Inject AzureBlobStorageService storageService;
@@ -54,6 +60,45 @@ public class IvassDataService {
     }
   }
 
+  /**
+   * Same as {@link #fetch()}, without holding the data in memory: the ZIP entry is extracted to a
+   * temporary file as it is downloaded and the companies are parsed lazily from there. The caller
+   * must close the stream, which deletes the file.
+   */
+  public Stream<IvassInsuranceCompany> stream() {
+    log.info("Streaming IVASS insurance companies...");
+    Path csv = null;
+    try {
+      csv = Files.createTempFile("ivass-", ".csv");
+      try (InputStream zip = ivassRestClient.retrieveDataSourceStream();
+          OutputStream out = Files.newOutputStream(csv)) {
+        if (!extractFirstEntryFromZip(zip, out)) {
+          deleteQuietly(csv);
+          return Stream.empty();
+        }
+      }
+      storageService.saveDaily(csv, "opendata/ivass");
+      Reader reader = newCsvReader(Files.newInputStream(csv));
+      CsvToBean<IvassInsuranceCompany> csvToBean =
+          new CsvToBeanBuilder<IvassInsuranceCompany>(reader)
+              .withType(IvassInsuranceCompany.class)
+              .withSeparator(';')
+              .build();
+      Path file = csv;
+      return StreamSupport.stream(csvToBean.spliterator(), false)
+          .filter(this::isAdmitted)
+          .onClose(
+              () -> {
+                closeQuietly(reader);
+                deleteQuietly(file);
+              });
+    } catch (Exception e) {
+      log.error("Error fetching IVASS insurance companies", e);
+      deleteQuietly(csv);
+      return Stream.empty();
+    }
+  }
+
   private List<IvassInsuranceCompany> parseCsv(byte[] csv) {
     try (Reader reader = new BufferedReader(new InputStreamReader(new ByteArrayInputStream(csv)))) {
       CsvToBean<IvassInsuranceCompany> csvToBean =
@@ -69,51 +114,81 @@ public class IvassDataService {
   }
 
   private List<IvassInsuranceCompany> filterCompanies(List<IvassInsuranceCompany> companies) {
-    return companies.stream()
-        .filter(c -> c.getDigitalAddress() != null && !c.getDigitalAddress().isBlank())
-        .filter(c -> c.getWorkType() != null && workTypesAdmitted.contains(c.getWorkType()))
-        .filter(
-            c -> {
-              if (c.getRegisterType() == null) return false;
-              String registerTypePrefix = c.getRegisterType().replaceAll("\\s", "").split("-")[0];
-              return registryTypesAdmitted.stream().anyMatch(registerTypePrefix::equals);
-            })
-        .toList();
+    return companies.stream().filter(this::isAdmitted).toList();
+  }
+
+  private boolean isAdmitted(IvassInsuranceCompany c) {
+    if (c.getDigitalAddress() == null || c.getDigitalAddress().isBlank()) return false;
+    if (c.getWorkType() == null || !workTypesAdmitted.contains(c.getWorkType())) return false;
+    if (c.getRegisterType() == null) return false;
+    String registerTypePrefix = c.getRegisterType().replaceAll("\\s", "").split("-")[0];
+    return registryTypesAdmitted.stream().anyMatch(registerTypePrefix::equals);
   }
 
   byte[] extractFirstEntryFromZip(byte[] zipBytes) {
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    if (extractFirstEntryFromZip(new ByteArrayInputStream(zipBytes), baos)) {
+      return baos.toByteArray();
+    }
+    return new byte[0];
+  }
+
+  /**
+   * Copies the first entry of the zip into {@code out} as it is inflated, without its UTF-8 BOM, so
+   * that the daily snapshot matches the one saved by {@link #fetch()}. Entries larger than 100 MB
+   * or with a compression ratio above 10 are rejected. Returns {@code false}, leaving a partial
+   * output, if the entry is rejected or cannot be read.
+   */
+  boolean extractFirstEntryFromZip(InputStream zip, OutputStream out) {
     int thresholdSize = 100_000_000; // 100 MB
     double thresholdRatio = 10;
 
-    try (ZipInputStream zis = new ZipInputStream(new ByteArrayInputStream(zipBytes))) {
+    CountingInputStream compressed = new CountingInputStream(zip);
+    try (ZipInputStream zis = new ZipInputStream(compressed)) {
       ZipEntry entry = zis.getNextEntry();
       if (entry == null) {
         log.error("No entries found in IVASS zip file");
-        return new byte[0];
+        return false;
       }
 
-      try (ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
-        byte[] buffer = new byte[1024];
-        int length;
-        int totalSize = 0;
-        while ((length = zis.read(buffer)) != -1) {
-          totalSize += length;
-          if ((double) totalSize / entry.getCompressedSize() > thresholdRatio) {
-            log.error("Compression ratio exceeds the maximum allowed limit");
-            return new byte[0];
-          }
-          if (totalSize > thresholdSize) {
-            log.error("Extracted file size exceeds the maximum allowed limit");
-            return new byte[0];
-          }
-          baos.write(buffer, 0, length);
+      InputStream entryStream = skipUtf8Bom(zis);
+      byte[] buffer = new byte[8192];
+      int length;
+      long totalSize = 0;
+      while ((length = entryStream.read(buffer)) != -1) {
+        totalSize += length;
+        // Streamed entries have no compressed size in the local header: use the bytes read so far
+        long compressedSize =
+            entry.getCompressedSize() > 0 ? entry.getCompressedSize() : compressed.count;
+        if ((double) totalSize / compressedSize > thresholdRatio) {
+          log.error("Compression ratio exceeds the maximum allowed limit");
+          return false;
+        }
+        if (totalSize > thresholdSize) {
+          log.error("Extracted file size exceeds the maximum allowed limit");
+          return false;
         }
-        return baos.toByteArray();
+        out.write(buffer, 0, length);
       }
+      return true;
     } catch (IOException e) {
       log.error("Error extracting file from IVASS zip", e);
-      return new byte[0];
+      return false;
+    }
+  }
+
+  /** Opens a reader on the CSV, skipping the UTF-8 BOM if present. */
+  Reader newCsvReader(InputStream csv) throws IOException {
+    return new BufferedReader(new InputStreamReader(skipUtf8Bom(csv)));
+  }
+
+  private static InputStream skipUtf8Bom(InputStream in) throws IOException {
+    PushbackInputStream pushback = new PushbackInputStream(in, UTF8_BOM.length);
+    byte[] head = pushback.readNBytes(UTF8_BOM.length);
+    if (!Arrays.equals(head, UTF8_BOM)) {
+      pushback.unread(head);
     }
+    return pushback;
   }
 
   byte[] removeUtf8Bom(byte[] csv) {
@@ -122,4 +197,50 @@ public class IvassDataService {
     }
     return csv;
   }
+
+  private static void closeQuietly(Closeable closeable) {
+    try {
+      closeable.close();
+    } catch (IOException e) {
+      log.warn("Unable to close IVASS CSV reader", e);
+    }
+  }
+
+  private static void deleteQuietly(Path file) {
+    if (file == null) {
+      return;
+    }
+    try {
+      Files.deleteIfExists(file);
+    } catch (IOException e) {
+      log.warn("Unable to delete temporary file {}", file, e);
+    }
+  }
+
+  private static class CountingInputStream extends FilterInputStream {
+
+    private long count;
+
+    CountingInputStream(InputStream in) {
+      super(in);
+    }
+
+    @Override
+    public int read() throws IOException {
+      int b = super.read();
+      if (b != -1) {
+        count++;
+      }
+      return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      int length = super.read(b, off, len);
+      if (length > 0) {
+        count += length;
+      }
+      return length;
+    }
+  }
 }
@@ -20,12 +20,14 @@ public class StationIndexWriterService
   String apiVersion;
 
   StationIndexWriterService() {
-    super(null);
+    super(null, null);
   }
 
   @Inject
-  public StationIndexWriterService(@RestClient AzureSearchRestClient azureSearchRestClient) {
-    super(azureSearchRestClient);
+  public StationIndexWriterService(
+      @RestClient AzureSearchRestClient azureSearchRestClient,
+      IndexFingerprintStore indexFingerprintStore) {
+    super(azureSearchRestClient, indexFingerprintStore);
   }
 
   @Override
@@ -4,7 +4,7 @@ import static org.mockito.Mockito.*;
 
 import it.pagopa.selfcare.registry.proxy.runner.model.IvassInsuranceCompany;
 import it.pagopa.selfcare.registry.proxy.runner.service.*;
-import java.util.List;
+import java.util.stream.Stream;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -22,9 +22,9 @@ class IvassIndexSchedulerTest {
 
   @Test
   void testFeedAiSearchIndex() {
-    List<IvassInsuranceCompany> items = List.of(new IvassInsuranceCompany());
+    Stream<IvassInsuranceCompany> items = Stream.of(new IvassInsuranceCompany());
 
-    when(openDataService.fetch()).thenReturn(items);
+    when(openDataService.stream()).thenReturn(items);
 
     scheduler.feedAiSearchIndex();
 
@@ -24,6 +24,8 @@ class CategoryIndexWriterServiceTest {
 
   @Mock AzureSearchRestClient azureSearchRestClient;
 
+  @Mock IndexFingerprintStore indexFingerprintStore;
+
   @InjectMocks CategoryIndexWriterService service;
 
   @BeforeEach
@@ -0,0 +1,74 @@
+package it.pagopa.selfcare.registry.proxy.runner.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class IndexFingerprintStoreTest {
+
+  @Mock AzureBlobStorageService azureBlobStorageService;
+
+  IndexFingerprintStore store;
+
+  @BeforeEach
+  void setUp() {
+    store = new IndexFingerprintStore(azureBlobStorageService, "fingerprints");
+  }
+
+  @Test
+  void testSaveAndLoad() {
+    Map<String, Long> fingerprints = Map.of("ID1", 1L, "ID2", Long.MIN_VALUE, "ID3", -7L);
+
+    store.save("uo-idx", fingerprints);
+
+    ArgumentCaptor<byte[]> captor = ArgumentCaptor.forClass(byte[].class);
+    verify(azureBlobStorageService).save(captor.capture(), eq("fingerprints/uo-idx.bin"));
+    when(azureBlobStorageService.read("fingerprints/uo-idx.bin"))
+        .thenReturn(Optional.of(captor.getValue()));
+    assertEquals(Optional.of(fingerprints), store.load("uo-idx"));
+  }
+
+  @Test
+  void testLoad_Missing() {
+    when(azureBlobStorageService.read("fingerprints/uo-idx.bin")).thenReturn(Optional.empty());
+
+    assertTrue(store.load("uo-idx").isEmpty());
+  }
+
+  @Test
+  void testLoad_Corrupted() {
+    when(azureBlobStorageService.read("fingerprints/uo-idx.bin"))
+        .thenReturn(Optional.of(new byte[] {1, 2, 3}));
+
+    assertTrue(store.load("uo-idx").isEmpty());
+  }
+
+  @Test
+  void testInvalidate() {
+    when(azureBlobStorageService.delete("fingerprints/uo-idx.bin")).thenReturn(true);
+
+    store.invalidate("uo-idx");
+
+    verify(azureBlobStorageService).delete("fingerprints/uo-idx.bin");
+  }
+
+  @Test
+  void testInvalidate_Fails() {
+    when(azureBlobStorageService.delete("fingerprints/uo-idx.bin")).thenReturn(false);
+
+    assertThrows(IllegalStateException.class, () -> store.invalidate("uo-idx"));
+  }
+}
@@ -1,6 +1,7 @@
 package it.pagopa.selfcare.registry.proxy.runner.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
@@ -12,11 +13,16 @@ import it.pagopa.selfcare.registry.proxy.runner.model.IpaInstitutionIndex;
 import it.pagopa.selfcare.registry.proxy.runner.model.SearchServiceIndexRequest;
 import it.pagopa.selfcare.registry.proxy.runner.model.SearchServiceIndexResponse;
 import java.util.List;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -27,6 +33,8 @@ class InstitutionIndexWriterServiceTest {
 
   @Mock AzureSearchRestClient azureSearchRestClient;
 
+  @Mock IndexFingerprintStore indexFingerprintStore;
+
   @InjectMocks InstitutionIndexWriterService service;
 
   @BeforeEach
@@ -162,6 +170,95 @@ class InstitutionIndexWriterServiceTest {
     // No index calls (no updates, no deletes)
     verify(azureSearchRestClient, never())
         .index(any(), any(), any(SearchServiceIndexRequest.class));
+    verify(indexFingerprintStore, times(1)).save(eq("ipa-inst-idx"), any());
+  }
+
+  @Test
+  void testIndex_WithFingerprints_OnlyChangesAreSent() {
+    // First run without fingerprints: everything is compared by update date and indexed
+    when(azureSearchRestClient.search(
+            eq("ipa-inst-idx"), eq("2023-11-01"), any(), any(), eq(true), eq(1000), eq(0), any()))
+        .thenReturn(new SearchServiceIndexResponse());
+    service.index(
+        List.of(
+            buildInstitution("ID1", "2023-01-01"),
+            buildInstitution("ID2", "2023-01-01"),
+            buildInstitution("ID3", "2023-01-01")));
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<Map<String, Long>> fingerprintsCaptor = ArgumentCaptor.forClass(Map.class);
+    verify(indexFingerprintStore).save(eq("ipa-inst-idx"), fingerprintsCaptor.capture());
+    Map<String, Long> fingerprints = new HashMap<>(fingerprintsCaptor.getValue());
+    assertEquals(3, fingerprints.size());
+    clearInvocations(azureSearchRestClient, indexFingerprintStore);
+
+    // Second run: ID1 unchanged, ID2 changed, ID3 removed, ID4 added
+    when(indexFingerprintStore.load("ipa-inst-idx")).thenReturn(Optional.of(fingerprints));
+    IpaInstitution inst2 = buildInstitution("ID2", "2023-01-01");
+    inst2.setDescription("changed");
+
+    service.index(
+        List.of(buildInstitution("ID1", "2023-01-01"), inst2, buildInstitution("ID4", "2023-01-01")));
+
+    verify(azureSearchRestClient, never())
+        .search(any(), any(), any(), any(), any(), any(), any(), any());
+    ArgumentCaptor<SearchServiceIndexRequest> captor =
+        ArgumentCaptor.forClass(SearchServiceIndexRequest.class);
+    verify(azureSearchRestClient, times(2))
+        .index(eq("ipa-inst-idx"), eq("2023-11-01"), captor.capture());
+    List<?> upsertValues = captor.getAllValues().get(0).getValue();
+    assertEquals(
+        Set.of("ID2", "ID4"),
+        upsertValues.stream()
+            .map(value -> ((IpaInstitutionIndex) value).getId())
+            .collect(Collectors.toSet()));
+    @SuppressWarnings("unchecked")
+    List<Map<String, Object>> deleteValues =
+        (List<Map<String, Object>>) captor.getAllValues().get(1).getValue();
+    assertEquals(1, deleteValues.size());
+    assertEquals("ID3", deleteValues.get(0).get("id"));
+    verify(indexFingerprintStore).save(eq("ipa-inst-idx"), fingerprintsCaptor.capture());
+    assertEquals(Set.of("ID1", "ID2", "ID4"), fingerprintsCaptor.getValue().keySet());
+    assertEquals(fingerprints.get("ID1"), fingerprintsCaptor.getValue().get("ID1"));
+  }
+
+  @Test
+  void testIndex_FetchAllFails_FingerprintsNotSaved() {
+    when(azureSearchRestClient.search(
+            eq("ipa-inst-idx"), eq("2023-11-01"), any(), any(), eq(true), eq(1000), eq(0), any()))
+        .thenThrow(new IllegalStateException("unavailable"));
+
+    service.index(List.of(buildInstitution("ID1", "2023-01-01")));
+
+    verify(azureSearchRestClient, times(1))
+        .index(eq("ipa-inst-idx"), eq("2023-11-01"), any(SearchServiceIndexRequest.class));
+    verify(indexFingerprintStore, never()).save(any(), any());
+  }
+
+  @Test
+  void testIndex_InvalidatesFingerprintsBeforeUploading() {
+    when(indexFingerprintStore.load("ipa-inst-idx")).thenReturn(Optional.of(Map.of("ID1", 1L)));
+
+    service.index(List.of(buildInstitution("ID1", "2023-01-01")));
+
+    InOrder inOrder = inOrder(indexFingerprintStore, azureSearchRestClient);
+    inOrder.verify(indexFingerprintStore).invalidate("ipa-inst-idx");
+    inOrder.verify(azureSearchRestClient)
+        .index(eq("ipa-inst-idx"), eq("2023-11-01"), any(SearchServiceIndexRequest.class));
+    inOrder.verify(indexFingerprintStore).save(eq("ipa-inst-idx"), any());
+  }
+
+  @Test
+  void testIndex_InvalidateFails_IndexNotChanged() {
+    when(indexFingerprintStore.load("ipa-inst-idx")).thenReturn(Optional.of(Map.of("ID1", 1L)));
+    doThrow(new IllegalStateException("unavailable"))
+        .when(indexFingerprintStore)
+        .invalidate("ipa-inst-idx");
+
+    List<IpaInstitution> institutions = List.of(buildInstitution("ID1", "2023-01-01"));
+    assertThrows(IllegalStateException.class, () -> service.index(institutions));
+
+    verifyNoInteractions(azureSearchRestClient);
+    verify(indexFingerprintStore, never()).save(any(), any());
   }
 
   @Test
@@ -1,14 +1,25 @@
 package it.pagopa.selfcare.registry.proxy.runner.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import it.pagopa.selfcare.registry.proxy.runner.client.IvassRestClient;
 import it.pagopa.selfcare.registry.proxy.runner.model.IvassInsuranceCompany;
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Stream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 import org.junit.jupiter.api.BeforeEach;
@@ -72,6 +83,67 @@ class IvassDataServiceTest {
     assertTrue(companies.isEmpty());
   }
 
+  @Test
+  void stream() throws Exception {
+    String csvContent =
+        "\uFEFFCODICE_IVASS;CODICE_FISCALE;DENOMINAZIONE_IMPRESA;PEC;TIPO_LAVORO;TIPO_ALBO;INDIRIZZO_SEDE_LEGALE_RAPPRESENTANZA_IN_ITALIA\n"
+            + "IV1;12345;Company 1;pec1@test.it;VITA;Elenco I - test;Address 1\n"
+            + "IV2;23456;Company 2;pec2@test.it;DANNI;Elenco I - test;Address 2\n";
+
+    when(ivassRestClient.retrieveDataSourceStream())
+        .thenReturn(new ByteArrayInputStream(zip(csvContent.getBytes(StandardCharsets.UTF_8))));
+
+    List<IvassInsuranceCompany> companies;
+    try (Stream<IvassInsuranceCompany> stream = ivassDataService.stream()) {
+      companies = stream.toList();
+    }
+
+    assertEquals(1, companies.size());
+    assertEquals("IV1", companies.get(0).getOriginId());
+    verify(storageService).saveDaily(any(Path.class), eq("opendata/ivass"));
+  }
+
+  @Test
+  void stream_savesSnapshotWithoutBom() throws Exception {
+    String header =
+        "CODICE_IVASS;CODICE_FISCALE;DENOMINAZIONE_IMPRESA;PEC;TIPO_LAVORO;TIPO_ALBO;INDIRIZZO_SEDE_LEGALE_RAPPRESENTANZA_IN_ITALIA\n";
+    String row = "IV1;12345;Company 1;pec1@test.it;VITA;Elenco I - test;Address 1\n";
+    when(ivassRestClient.retrieveDataSourceStream())
+        .thenReturn(
+            new ByteArrayInputStream(zip(("\uFEFF" + header + row).getBytes(StandardCharsets.UTF_8))));
+    ByteArrayOutputStream snapshot = new ByteArrayOutputStream();
+    doAnswer(
+            invocation -> {
+              snapshot.writeBytes(Files.readAllBytes(invocation.<Path>getArgument(0)));
+              return null;
+            })
+        .when(storageService)
+        .saveDaily(any(Path.class), eq("opendata/ivass"));
+
+    try (Stream<IvassInsuranceCompany> stream = ivassDataService.stream()) {
+      assertEquals(1, stream.count());
+    }
+
+    assertEquals(header + row, snapshot.toString(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  void stream_error() {
+    when(ivassRestClient.retrieveDataSourceStream()).thenThrow(new RuntimeException("Error"));
+    try (Stream<IvassInsuranceCompany> stream = ivassDataService.stream()) {
+      assertEquals(0, stream.count());
+    }
+    verifyNoInteractions(storageService);
+  }
+
+  @Test
+  void extractFirstEntryFromZip_compressionRatioExceeded() throws Exception {
+    byte[] zip = zip(new byte[1_000_000]);
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    assertFalse(ivassDataService.extractFirstEntryFromZip(new ByteArrayInputStream(zip), out));
+  }
+
   @Test
   void testRemoveUtf8Bom() {
     byte[] csv = new byte[] {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF, 'a', 'b', 'c'};
@@ -79,4 +151,14 @@ class IvassDataServiceTest {
     assertEquals(3, result.length);
     assertEquals('a', result[0]);
   }
+
+  private static byte[] zip(byte[] content) throws Exception {
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    try (ZipOutputStream zos = new ZipOutputStream(baos)) {
+      zos.putNextEntry(new ZipEntry("test.csv"));
+      zos.write(content);
+      zos.closeEntry();
+    }
+    return baos.toByteArray();
+  }
 }
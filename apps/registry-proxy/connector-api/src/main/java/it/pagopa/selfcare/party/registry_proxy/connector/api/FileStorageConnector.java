@@ -6,6 +6,11 @@ import java.io.InputStream;
 public interface FileStorageConnector {
     ResourceResponse getFile(String fileName);
 
+    /**
+     * Opens the content of the file as a stream, for files too large to be held in memory; the caller closes it.
+     */
+    InputStream openFile(String fileName);
+
     void uploadFile(InputStream file, String fileName);
 
 }
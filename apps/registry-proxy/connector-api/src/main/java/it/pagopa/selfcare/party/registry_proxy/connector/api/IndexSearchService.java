@@ -7,16 +7,41 @@ import it.pagopa.selfcare.party.registry_proxy.connector.model.SearchField;
 import lombok.SneakyThrows;
 
 import java.util.List;
+import java.util.Set;
 
 
 public interface IndexSearchService<T> {
 
     QueryResult<T> fullTextSearch(SearchField field, String value, int page, int limit);
 
+    /**
+     * Search-after variant of {@link #fullTextSearch(SearchField, String, int, int)}: results are read starting
+     * from the given cursor, {@code null} for the first page, instead of re-scoring the previous pages.
+     */
+    QueryResult<T> fullTextSearch(SearchField field, String value, String cursor, int limit);
+
     QueryResult<T> fullTextSearch(SearchField field, String value, SearchField filter, String categories, int page, int limit);
 
     List<T> findById(SearchField field, String value);
 
     @SneakyThrows
     QueryResult<T> findAll(int page, int limit, String entityType, QueryFilter... filters);
+
+    /**
+     * Search-after variant of {@link #findAll(int, int, String, QueryFilter...)}, see
+     * {@link #fullTextSearch(SearchField, String, String, int)}.
+     */
+    QueryResult<T> findAll(String cursor, int limit, String entityType, QueryFilter... filters);
+
+    /**
+     * Returns a view of this service that loads only the given stored fields of each hit: fields not requested are
+     * left {@code null} in the returned items.
+     */
+    IndexSearchService<T> withFields(Set<? extends SearchField> fields);
+
+    /**
+     * Returns a view of this service that orders hits by the given field, read from its doc values, instead of by
+     * relevance.
+     */
+    IndexSearchService<T> sortedBy(SearchField field);
 }
@@ -0,0 +1,20 @@
+package it.pagopa.selfcare.party.registry_proxy.connector.api;
+
+import it.pagopa.selfcare.party.registry_proxy.connector.model.Entity;
+
+public interface IndexSnapshotService {
+
+    /**
+     * Replaces the local index of the given entity with the latest published snapshot.
+     *
+     * @return {@code true} if the local index holds the latest snapshot, {@code false} if no snapshot has been
+     * published yet
+     */
+    boolean restore(Entity entity);
+
+    /**
+     * Compacts the local index of the given entity and publishes it as a new snapshot version.
+     */
+    void publish(Entity entity);
+
+}
@@ -1,13 +1,33 @@
 package it.pagopa.selfcare.party.registry_proxy.connector.api;
 
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 public interface IndexWriterService<T> {
 
     void adds(List<? extends T> items);
 
+    /**
+     * Adds the items of the given stream in batches of at most {@code batchSize} items, so that the whole stream is
+     * never held in memory.
+     */
+    default void adds(Stream<? extends T> items, int batchSize) {
+        final List<T> batch = new ArrayList<>(batchSize);
+        items.forEachOrdered(item -> {
+            batch.add(item);
+            if (batch.size() == batchSize) {
+                adds(batch);
+                batch.clear();
+            }
+        });
+        if (!batch.isEmpty()) {
+            adds(batch);
+        }
+    }
+
     void deleteAll();
 
     void cleanIndex(String entityType);
@@ -1,10 +1,18 @@
 package it.pagopa.selfcare.party.registry_proxy.connector.api;
 
 import it.pagopa.selfcare.party.registry_proxy.connector.model.InsuranceCompany;
-import it.pagopa.selfcare.party.registry_proxy.connector.model.Station;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface IvassDataConnector {
     List<InsuranceCompany> getInsurances();
+
+    /**
+     * Returns the same insurance companies of {@link #getInsurances()}, parsed lazily as the stream is consumed.
+     * The caller must close the stream to release the underlying resources.
+     */
+    default Stream<InsuranceCompany> streamInsurances() {
+        return getInsurances().stream();
+    }
 }
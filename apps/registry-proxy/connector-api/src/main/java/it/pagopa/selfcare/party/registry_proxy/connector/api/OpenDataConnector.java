@@ -3,6 +3,7 @@ package it.pagopa.selfcare.party.registry_proxy.connector.api;
 import it.pagopa.selfcare.party.registry_proxy.connector.model.*;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface OpenDataConnector<I extends Institution, C extends Category, A extends AOO, U extends UO> {
 
@@ -14,4 +15,14 @@ public interface OpenDataConnector<I extends Institution, C extends Category, A
 
     List<U> getUOs();
 
+    /**
+     * Lazily parses the institutions while the open data file is being downloaded; the returned stream holds
+     * the underlying connection and must be closed by the caller.
+     */
+    Stream<I> streamInstitutions();
+
+    Stream<A> streamAOOs();
+
+    Stream<U> streamUOs();
+
 }
@@ -8,4 +8,12 @@ public interface QueryResult<T> {//TODO: use Page instead
 
     long getTotalHits();
 
+    /**
+     * @return the cursor to request the next page in search-after mode, {@code null} when there are no more results
+     * or the result was obtained by page number
+     */
+    default String getNextCursor() {
+        return null;
+    }
+
 }
@@ -25,7 +25,7 @@ import java.security.InvalidKeyException;
 @Slf4j
 @Service
 @PropertySource("classpath:config/azure-storage-config.properties")
-@Profile("AzureStorage")
+@Profile("AzureStorage & !LocalStorage")
 public class AzureBlobClient implements FileStorageConnector {
 
     private static final String ERROR_DURING_DOWNLOAD_FILE_MESSAGE = "Error during download file %s";
@@ -74,6 +74,27 @@ public class AzureBlobClient implements FileStorageConnector {
         }
     }
 
+    @Override
+    public InputStream openFile(String fileName) {
+        log.info("START - openFile for path: {}", fileName);
+        try {
+            final CloudBlobContainer blobContainer = blobClient.getContainerReference(containerReference);
+            final CloudBlockBlob blob = blobContainer.getBlockBlobReference(fileName);
+            final InputStream inputStream = blob.openInputStream();
+            log.info("END - openFile - path {}", fileName);
+            return inputStream;
+        } catch (StorageException e) {
+            if (e.getHttpStatusCode() == 404) {
+                throw new ResourceNotFoundException(String.format(ERROR_DURING_DOWNLOAD_FILE_MESSAGE, fileName));
+            }
+            throw new ProxyRegistryException(String.format(ERROR_DURING_DOWNLOAD_FILE_MESSAGE, fileName),
+                    ERROR_DURING_DOWNLOAD_FILE_CODE);
+        } catch (URISyntaxException e) {
+            throw new ProxyRegistryException(String.format(ERROR_DURING_DOWNLOAD_FILE_MESSAGE, fileName),
+                    ERROR_DURING_DOWNLOAD_FILE_CODE);
+        }
+    }
+
     @Override
     public void uploadFile(InputStream file, String fileName) {
         log.info("START - uploadFile for path: {}", fileName);
@@ -0,0 +1,102 @@
+package it.pagopa.selfcare.party.connector.azure_storage.client;
+
+import it.pagopa.selfcare.party.registry_proxy.connector.api.FileStorageConnector;
+import it.pagopa.selfcare.party.registry_proxy.connector.exception.ProxyRegistryException;
+import it.pagopa.selfcare.party.registry_proxy.connector.exception.ResourceNotFoundException;
+import it.pagopa.selfcare.party.registry_proxy.connector.model.ResourceResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Stand-in for {@link AzureBlobClient} that keeps the files under a local folder, for local runs and tests.
+ */
+@Slf4j
+@Service
+@Profile("LocalStorage")
+public class LocalFileStorageClient implements FileStorageConnector {
+
+    private static final String ERROR_DURING_DOWNLOAD_FILE_MESSAGE = "Error during download file %s";
+    private static final String ERROR_DURING_DOWNLOAD_FILE_CODE = "0000";
+    private static final String ERROR_DURING_UPLOAD_FILE_MESSAGE = "Error during upload file %s";
+    private static final String ERROR_DURING_UPLOAD_FILE_CODE = "0000";
+    private final Path root;
+
+    public LocalFileStorageClient(@Value("${localStorage.root:${java.io.tmpdir}/selc-local-storage}") String root) {
+        log.trace("Initializing {}", LocalFileStorageClient.class.getSimpleName());
+        this.root = Path.of(root).toAbsolutePath().normalize();
+    }
+
+    @Override
+    public ResourceResponse getFile(String fileName) {
+        log.info("START - getFile for path: {}", fileName);
+        final Path file = resolve(fileName);
+        try {
+            final ResourceResponse response = new ResourceResponse();
+            response.setData(Files.readAllBytes(file));
+            response.setFileName(fileName);
+            response.setMimetype(Files.probeContentType(file));
+            log.info("END - getFile - path {}", fileName);
+            return response;
+        } catch (NoSuchFileException e) {
+            throw new ResourceNotFoundException(String.format(ERROR_DURING_DOWNLOAD_FILE_MESSAGE, fileName));
+        } catch (IOException e) {
+            throw new ProxyRegistryException(String.format(ERROR_DURING_DOWNLOAD_FILE_MESSAGE, fileName),
+                    ERROR_DURING_DOWNLOAD_FILE_CODE);
+        }
+    }
+
+    @Override
+    public InputStream openFile(String fileName) {
+        log.info("START - openFile for path: {}", fileName);
+        try {
+            return Files.newInputStream(resolve(fileName));
+        } catch (NoSuchFileException e) {
+            throw new ResourceNotFoundException(String.format(ERROR_DURING_DOWNLOAD_FILE_MESSAGE, fileName));
+        } catch (IOException e) {
+            throw new ProxyRegistryException(String.format(ERROR_DURING_DOWNLOAD_FILE_MESSAGE, fileName),
+                    ERROR_DURING_DOWNLOAD_FILE_CODE);
+        }
+    }
+
+    /**
+     * The file is written next to its destination and then moved over it, so that readers never see a partial file.
+     */
+    @Override
+    public void uploadFile(InputStream file, String fileName) {
+        log.info("START - uploadFile for path: {}", fileName);
+        final Path target = resolve(fileName);
+        try {
+            Files.createDirectories(target.getParent());
+            final Path temp = Files.createTempFile(target.getParent(), ".upload-", ".tmp");
+            try {
+                Files.copy(file, temp, StandardCopyOption.REPLACE_EXISTING);
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+            log.info("Uploaded {}", fileName);
+        } catch (IOException e) {
+            log.error(String.format(ERROR_DURING_UPLOAD_FILE_MESSAGE, fileName), e);
+            throw new ProxyRegistryException(String.format(ERROR_DURING_UPLOAD_FILE_MESSAGE, fileName),
+                    ERROR_DURING_UPLOAD_FILE_CODE);
+        }
+    }
+
+    private Path resolve(String fileName) {
+        final Path file = root.resolve(fileName).normalize();
+        if (!file.startsWith(root)) {
+            throw new ProxyRegistryException(String.format(ERROR_DURING_DOWNLOAD_FILE_MESSAGE, fileName),
+                    ERROR_DURING_DOWNLOAD_FILE_CODE);
+        }
+        return file;
+    }
+}
@@ -112,6 +112,27 @@ class AzureBlobClientTest {
 
     }
 
+    @Test
+    void openFileKO() throws URISyntaxException, NoSuchFieldException, IllegalAccessException, StorageException {
+        //given
+        CloudBlobClient blobClientMock = mock(CloudBlobClient.class);
+        CloudBlobContainer blobContainerMock = mock(CloudBlobContainer.class);
+        CloudBlockBlob blobMock = mock(CloudBlockBlob.class);
+
+        when(blobClientMock.getContainerReference(anyString())).thenReturn(blobContainerMock);
+        when(blobContainerMock.getBlockBlobReference(anyString())).thenReturn(blobMock);
+
+        mockCloudBlobClient(blobClient, blobClientMock);
+
+        doThrow(new StorageException("1000" ,"Not found", 404, null, null))
+                .when(blobMock).openInputStream();
+        //when
+        Executable executable = () -> blobClient.openFile(filename);
+        //then
+        ResourceNotFoundException e = assertThrows(ResourceNotFoundException.class, executable);
+        assertEquals(String.format("Error during download file %s", filename), e.getMessage());
+    }
+
     @Test
     void uploadFileOk() throws URISyntaxException, StorageException, NoSuchFieldException, IllegalAccessException, IOException {
         CloudBlockBlob blockBlobMock = Mockito.mock(CloudBlockBlob.class);
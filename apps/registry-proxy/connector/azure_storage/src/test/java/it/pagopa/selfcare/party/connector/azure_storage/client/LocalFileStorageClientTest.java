@@ -0,0 +1,85 @@
+package it.pagopa.selfcare.party.connector.azure_storage.client;
+
+import it.pagopa.selfcare.party.registry_proxy.connector.exception.ProxyRegistryException;
+import it.pagopa.selfcare.party.registry_proxy.connector.exception.ResourceNotFoundException;
+import it.pagopa.selfcare.party.registry_proxy.connector.model.ResourceResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalFileStorageClientTest {
+
+    @TempDir
+    Path root;
+
+
+    @Test
+    void uploadFile_getFile() {
+        // given
+        final LocalFileStorageClient client = new LocalFileStorageClient(root.toString());
+        client.uploadFile(new ByteArrayInputStream("old".getBytes(StandardCharsets.UTF_8)), "folder/file.txt");
+        // when
+        client.uploadFile(new ByteArrayInputStream("new".getBytes(StandardCharsets.UTF_8)), "folder/file.txt");
+        final ResourceResponse response = client.getFile("folder/file.txt");
+        // then
+        assertEquals("new", new String(response.getData(), StandardCharsets.UTF_8));
+        assertEquals("folder/file.txt", response.getFileName());
+    }
+
+
+    @Test
+    void uploadFile_openFile() throws IOException {
+        // given
+        final LocalFileStorageClient client = new LocalFileStorageClient(root.toString());
+        client.uploadFile(new ByteArrayInputStream("content".getBytes(StandardCharsets.UTF_8)), "folder/file.txt");
+        // when
+        final byte[] data;
+        try (InputStream inputStream = client.openFile("folder/file.txt")) {
+            data = inputStream.readAllBytes();
+        }
+        // then
+        assertEquals("content", new String(data, StandardCharsets.UTF_8));
+    }
+
+
+    @Test
+    void openFile_notFound() {
+        // given
+        final LocalFileStorageClient client = new LocalFileStorageClient(root.toString());
+        // when
+        final Executable executable = () -> client.openFile("missing.txt");
+        // then
+        assertThrows(ResourceNotFoundException.class, executable);
+    }
+
+
+    @Test
+    void getFile_notFound() {
+        // given
+        final LocalFileStorageClient client = new LocalFileStorageClient(root.toString());
+        // when
+        final Executable executable = () -> client.getFile("missing.txt");
+        // then
+        assertThrows(ResourceNotFoundException.class, executable);
+    }
+
+
+    @Test
+    void getFile_outsideRoot() {
+        // given
+        final LocalFileStorageClient client = new LocalFileStorageClient(root.toString());
+        // when
+        final Executable executable = () -> client.getFile("../file.txt");
+        // then
+        assertThrows(ProxyRegistryException.class, executable);
+    }
+
+}
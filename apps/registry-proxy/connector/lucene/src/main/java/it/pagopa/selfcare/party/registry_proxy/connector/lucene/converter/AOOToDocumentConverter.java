@@ -32,7 +32,9 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.lucene.document.Document;
 import org.apache.lucene.document.Field;
+import org.apache.lucene.document.SortedDocValuesField;
 import org.apache.lucene.document.StringField;
+import org.apache.lucene.util.BytesRef;
 
 @Slf4j
 public class AOOToDocumentConverter implements Function<AOO, Document> {
@@ -52,6 +54,7 @@ public class AOOToDocumentConverter implements Function<AOO, Document> {
 
             doc.add(new StringField(DENOMINAZIONE_ENTE.toString(), aoo.getDenominazioneEnte(), Field.Store.YES));
             doc.add(new StringField(DENOMINAZIONE_AOO.toString(), aoo.getDenominazioneAoo(), Field.Store.YES));
+            doc.add(new SortedDocValuesField(DENOMINAZIONE_AOO.toString(), new BytesRef(aoo.getDenominazioneAoo())));
 
             doc.add(new StringField(DATA_ISTITUTIONE.toString(), aoo.getDataIstituzione(), Field.Store.YES));
             doc.add(new StringField(NOME_RESPONSABILE.toString(), aoo.getNomeResponsabile(), Field.Store.YES));
@@ -19,7 +19,8 @@ public class DocumentToAOOConverter implements Function<Document, AOO> {
         if (document != null) {
             entity = new AOOEntity();
             entity.setCodiceIpa(document.get(CODICE_IPA.toString()));
-            entity.setOrigin(Origin.fromValue(document.get(ORIGIN.toString())));
+            final String origin = document.get(ORIGIN.toString());
+            entity.setOrigin(origin != null ? Origin.fromValue(origin) : null);
             entity.setDenominazioneEnte(document.get(DENOMINAZIONE_ENTE.toString()));
             entity.setCodiceFiscaleEnte(document.get(CODICE_FISCALE_ENTE.toString()));
             entity.setCodiceUniAoo(document.get(CODICE_UNI_AOO.toString()));
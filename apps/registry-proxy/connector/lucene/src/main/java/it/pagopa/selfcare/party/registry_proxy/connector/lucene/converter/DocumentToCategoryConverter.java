@@ -21,7 +21,8 @@ public class DocumentToCategoryConverter implements Function<Document, Category>
             category.setCode(document.get(CODE.toString()));
             category.setName(document.get(NAME.toString()));
             category.setKind(document.get(KIND.toString()));
-            category.setOrigin(Origin.fromValue(document.get(ORIGIN.toString())));
+            final String origin = document.get(ORIGIN.toString());
+            category.setOrigin(origin != null ? Origin.fromValue(origin) : null);
         }
         return category;
     }
@@ -29,7 +29,8 @@ public class DocumentToInstitutionConverter implements Function<Document, Instit
             institution.setDigitalAddress(document.get(DIGITAL_ADDRESS.toString()));
             institution.setAddress(document.get(ADDRESS.toString()));
             institution.setZipCode(document.get(ZIP_CODE.toString()));
-            institution.setOrigin(Origin.fromValue(document.get(ORIGIN.toString())));
+            final String origin = document.get(ORIGIN.toString());
+            institution.setOrigin(origin != null ? Origin.fromValue(origin) : null);
             institution.setIstatCode(document.get(ISTAT_CODE.toString()));
         }
         return institution;
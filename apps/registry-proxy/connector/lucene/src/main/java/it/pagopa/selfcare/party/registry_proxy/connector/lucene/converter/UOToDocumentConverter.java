@@ -34,7 +34,9 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.lucene.document.Document;
 import org.apache.lucene.document.Field;
+import org.apache.lucene.document.SortedDocValuesField;
 import org.apache.lucene.document.StringField;
+import org.apache.lucene.util.BytesRef;
 
 @Slf4j
 public class UOToDocumentConverter implements Function<UO, Document> {
@@ -58,6 +60,7 @@ public class UOToDocumentConverter implements Function<UO, Document> {
 
             doc.add(new StringField(DENOMINAZIONE_ENTE.toString(), uo.getDenominazioneEnte(), Field.Store.YES));
             doc.add(new StringField(DESCRIZIONE_UO.toString(), uo.getDescrizioneUo(), Field.Store.YES));
+            doc.add(new SortedDocValuesField(DESCRIZIONE_UO.toString(), new BytesRef(uo.getDescrizioneUo())));
 
 
             doc.add(new StringField(DATA_ISTITUTIONE.toString(), uo.getDataIstituzione(), Field.Store.YES));
@@ -1,14 +1,15 @@
 package it.pagopa.selfcare.party.registry_proxy.connector.lucene.model;
 
 import lombok.Getter;
+import org.apache.lucene.store.Directory;
 
 @Getter
 public class IndexChangedEvent {
 
-    private Class<? extends DocumentType> entityType;
+    private final Directory directory;
 
-    public IndexChangedEvent(Class<? extends DocumentType> entityType) {
-        this.entityType = entityType;
+    public IndexChangedEvent(Directory directory) {
+        this.directory = directory;
     }
 
 
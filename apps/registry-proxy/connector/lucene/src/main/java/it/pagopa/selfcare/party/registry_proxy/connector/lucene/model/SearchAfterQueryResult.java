@@ -0,0 +1,15 @@
+package it.pagopa.selfcare.party.registry_proxy.connector.lucene.model;
+
+import it.pagopa.selfcare.party.registry_proxy.connector.model.QueryResult;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class SearchAfterQueryResult<T> implements QueryResult<T> {
+
+    private List<T> items;
+    private long totalHits;
+    private String nextCursor;
+
+}
@@ -1,6 +1,8 @@
 package it.pagopa.selfcare.party.registry_proxy.connector.lucene.reader;
 
 import it.pagopa.selfcare.party.registry_proxy.connector.api.IndexSearchService;
+import it.pagopa.selfcare.party.registry_proxy.connector.lucene.model.IndexChangedEvent;
+import it.pagopa.selfcare.party.registry_proxy.connector.lucene.model.SearchAfterQueryResult;
 import it.pagopa.selfcare.party.registry_proxy.connector.model.Entity;
 import it.pagopa.selfcare.party.registry_proxy.connector.model.QueryFilter;
 import it.pagopa.selfcare.party.registry_proxy.connector.model.QueryResult;
@@ -9,69 +11,88 @@ import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.lucene.analysis.Analyzer;
 import org.apache.lucene.document.Document;
-import org.apache.lucene.index.DirectoryReader;
 import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.classic.ParseException;
 import org.apache.lucene.queryparser.classic.QueryParser;
 import org.apache.lucene.search.*;
 import org.apache.lucene.store.Directory;
 import org.owasp.encoder.Encode;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.util.Assert;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Slf4j
-abstract class IndexSearchServiceTemplate<T> implements IndexSearchService<T> {
+abstract class IndexSearchServiceTemplate<T> implements IndexSearchService<T>, DisposableBean {
 
     private static final String FIELD_IS_REQUIRED = "A search field is required";
     private static final String VALUE_IS_REQUIRED = "A search value is required";
+    private static final String LIMIT_IS_INVALID = "A limit result must be greater than or equal to 1";
     private static final String FULL_TEXT_SEARCH_START = "fullTextSearch start";
     private static final String FULL_TEXT_SEARCH_RESULT = "fullTextSearch result = {}";
     private static final String FULL_TEXT_SEARCH_END = "fullTextSearch end";
+    private static final String FIND_ALL_START = "findAll start";
+    private static final String FIND_ALL_RESULT = "findAll result = {}";
+    private static final String FIND_ALL_END = "findAll end";
 
-    private final DirectoryReaderFactory directoryReaderFactory;
+    private final IndexSearcherManager indexSearcherManager;
+    private final SearchOptions defaultOptions = new SearchOptions(null, null);
     private final Analyzer analyzer;
     private final Function<Document, T> documentConverter;
 
 
     protected IndexSearchServiceTemplate(Directory directory, Analyzer analyzer, Function<Document, T> documentConverter) {
         log.trace("Initializing {}", getClass().getSimpleName());
-        directoryReaderFactory = new DirectoryReaderFactory(directory);
+        indexSearcherManager = new IndexSearcherManager(directory);
         this.analyzer = analyzer;
         this.documentConverter = documentConverter;
     }
 
 
-    @SneakyThrows
     @Override
     public QueryResult<T> fullTextSearch(SearchField field, String value, int page, int limit) {
+        return fullTextSearch(defaultOptions, field, value, page, limit);
+    }
+
+    @SneakyThrows
+    private QueryResult<T> fullTextSearch(SearchOptions options, SearchField field, String value, int page, int limit) {
         log.trace(FULL_TEXT_SEARCH_START);
         log.debug("fullTextSearch field = {}, value = {}, page = {}, limit = {}", field, value, page, limit);
         Assert.notNull(field, FIELD_IS_REQUIRED);
         Assert.notNull(value, VALUE_IS_REQUIRED);
         Assert.isTrue(page > 0, "A page number must be great than 0");
         Assert.isTrue(limit > 0, "A limit result must be great than or equal to 1");
-        final DirectoryReader reader = directoryReaderFactory.create();
-        final IndexSearcher indexSearcher = new IndexSearcher(reader);
-        final TopScoreDocCollector collector = TopScoreDocCollector.create(reader.numDocs(), Integer.MAX_VALUE);
-        final QueryParser parser = new QueryParser(field.toString(), analyzer);
-        parser.setPhraseSlop(4);
-        indexSearcher.search(parser.parse(value), collector);
-        final TopDocs hits = collector.topDocs((page - 1) * limit, limit);
+        final QueryResult<T> queryResult = searchPage(options, buildFullTextQuery(field, value), page, limit);
+        log.debug(FULL_TEXT_SEARCH_RESULT, queryResult);
+        log.trace(FULL_TEXT_SEARCH_END);
+        return queryResult;
+    }
 
-        final List<T> categories = new ArrayList<>(hits.scoreDocs.length);
-        for (ScoreDoc scoreDoc : hits.scoreDocs) {
-            categories.add(documentConverter.apply(indexSearcher.doc(scoreDoc.doc)));
-        }
+    @Override
+    public QueryResult<T> fullTextSearch(SearchField field, String value, String cursor, int limit) {
+        return fullTextSearch(defaultOptions, field, value, cursor, limit);
+    }
 
-        final QueryResult<T> queryResult = getQueryResult(categories, hits.totalHits.value);
+    @SneakyThrows
+    private QueryResult<T> fullTextSearch(SearchOptions options, SearchField field, String value, String cursor, int limit) {
+        log.trace(FULL_TEXT_SEARCH_START);
+        log.debug("fullTextSearch field = {}, value = {}, cursor = {}, limit = {}", field, value, cursor, limit);
+        Assert.notNull(field, FIELD_IS_REQUIRED);
+        Assert.notNull(value, VALUE_IS_REQUIRED);
+        Assert.isTrue(limit > 0, LIMIT_IS_INVALID);
+        final QueryResult<T> queryResult = searchAfter(options, buildFullTextQuery(field, value), cursor, limit);
         log.debug(FULL_TEXT_SEARCH_RESULT, queryResult);
         log.trace(FULL_TEXT_SEARCH_END);
         return queryResult;
     }
 
-    @SneakyThrows
     @Override
     public QueryResult<T> fullTextSearch(SearchField searchFieldDescription,
                                          String currentDescription,
@@ -79,6 +100,17 @@ abstract class IndexSearchServiceTemplate<T> implements IndexSearchService<T> {
                                          String currentCategories,
                                          int page,
                                          int limit) {
+        return fullTextSearch(defaultOptions, searchFieldDescription, currentDescription, searchFieldCategory, currentCategories, page, limit);
+    }
+
+    @SneakyThrows
+    private QueryResult<T> fullTextSearch(SearchOptions options,
+                                          SearchField searchFieldDescription,
+                                          String currentDescription,
+                                          SearchField searchFieldCategory,
+                                          String currentCategories,
+                                          int page,
+                                          int limit) {
         log.trace(FULL_TEXT_SEARCH_START);
 
         log.debug("fullTextSearch field = {}, value = {}, filter = {}, categories = {}, page = {}, limit = {}",
@@ -89,17 +121,9 @@ abstract class IndexSearchServiceTemplate<T> implements IndexSearchService<T> {
         Assert.notNull(searchFieldCategory, FIELD_IS_REQUIRED);
         Assert.notNull(currentCategories, VALUE_IS_REQUIRED);
         Assert.isTrue(page > 0, "A page number must be greater than 0");
-        Assert.isTrue(limit > 0, "A limit result must be greater than or equal to 1");
-
-        final DirectoryReader reader = directoryReaderFactory.create();
-        final IndexSearcher indexSearcher = new IndexSearcher(reader);
-
-        final TopScoreDocCollector collector =
-                TopScoreDocCollector.create(reader.numDocs(), Integer.MAX_VALUE);
+        Assert.isTrue(limit > 0, LIMIT_IS_INVALID);
 
-        QueryParser descriptionParser = new QueryParser(searchFieldDescription.toString(), analyzer);
-        descriptionParser.setPhraseSlop(4);
-        Query descriptionQuery = descriptionParser.parse(currentDescription);
+        Query descriptionQuery = buildFullTextQuery(searchFieldDescription, currentDescription);
 
         BooleanQuery.Builder categoryQueryBuilder = new BooleanQuery.Builder();
 
@@ -120,17 +144,7 @@ abstract class IndexSearchServiceTemplate<T> implements IndexSearchService<T> {
 
         Query finalQuery = finalQueryBuilder.build();
 
-        indexSearcher.search(finalQuery, collector);
-
-        final TopDocs hits = collector.topDocs((page - 1) * limit, limit);
-
-        final List<T> results = new ArrayList<>(hits.scoreDocs.length);
-
-        for (ScoreDoc scoreDoc : hits.scoreDocs) {
-            results.add(documentConverter.apply(indexSearcher.doc(scoreDoc.doc)));
-        }
-
-        final QueryResult<T> queryResult = getQueryResult(results, hits.totalHits.value);
+        final QueryResult<T> queryResult = searchPage(options, finalQuery, page, limit);
         log.debug(FULL_TEXT_SEARCH_RESULT, queryResult);
         log.trace(FULL_TEXT_SEARCH_END);
 
@@ -138,21 +152,25 @@ abstract class IndexSearchServiceTemplate<T> implements IndexSearchService<T> {
     }
 
 
-    @SneakyThrows
     @Override
     public List<T> findById(SearchField field, String value) {
+        return findById(defaultOptions, field, value);
+    }
+
+    @SneakyThrows
+    private List<T> findById(SearchOptions options, SearchField field, String value) {
         log.trace("findById start");
         log.debug("findById field = {}, value = {}", field, value);
         Assert.notNull(field, FIELD_IS_REQUIRED);
         Assert.notNull(value, VALUE_IS_REQUIRED);
-        final DirectoryReader reader = directoryReaderFactory.create();
-        final IndexSearcher indexSearcher = new IndexSearcher(reader);
-        final TermQuery query = new TermQuery(new Term(field.toString(), value));
-        final TopDocs hits = indexSearcher.search(query, 1);
-
-        final List<T> items = new ArrayList<>(hits.scoreDocs.length);
-        for (ScoreDoc scoreDoc : hits.scoreDocs) {
-            items.add(documentConverter.apply(indexSearcher.doc(scoreDoc.doc)));
+        final IndexSearcher indexSearcher = indexSearcherManager.acquire();
+        final List<T> items;
+        try {
+            final TermQuery query = new TermQuery(new Term(field.toString(), value));
+            final TopDocs hits = indexSearcher.search(query, 1);
+            items = toItems(options, indexSearcher, hits);
+        } finally {
+            indexSearcherManager.release(indexSearcher);
         }
 
         log.debug("findById result = {}", items);
@@ -162,15 +180,86 @@ abstract class IndexSearchServiceTemplate<T> implements IndexSearchService<T> {
 
 
 
-    @SneakyThrows
     @Override
     public QueryResult<T> findAll(int page, int limit, String entityType, QueryFilter... filters) {
-        log.trace("findAll start");
+        return findAll(defaultOptions, page, limit, entityType, filters);
+    }
+
+    @SneakyThrows
+    private QueryResult<T> findAll(SearchOptions options, int page, int limit, String entityType, QueryFilter... filters) {
+        log.trace(FIND_ALL_START);
         log.debug("findAll page = {}, limit = {}, filters = {}", page, limit, filters);
-        final DirectoryReader reader = directoryReaderFactory.create();
-        final IndexSearcher indexSearcher = new IndexSearcher(reader);
-        final Query query;
+        final QueryResult<T> queryResult = searchPage(options, buildFindAllQuery(entityType, filters), page, limit);
+        log.debug(FIND_ALL_RESULT, queryResult);
+        log.trace(FIND_ALL_END);
+        return queryResult;
+    }
+
+    @Override
+    public QueryResult<T> findAll(String cursor, int limit, String entityType, QueryFilter... filters) {
+        return findAll(defaultOptions, cursor, limit, entityType, filters);
+    }
+
+    @SneakyThrows
+    private QueryResult<T> findAll(SearchOptions options, String cursor, int limit, String entityType, QueryFilter... filters) {
+        log.trace(FIND_ALL_START);
+        log.debug("findAll cursor = {}, limit = {}, filters = {}", cursor, limit, filters);
+        Assert.isTrue(limit > 0, LIMIT_IS_INVALID);
+        final QueryResult<T> queryResult = searchAfter(options, buildFindAllQuery(entityType, filters), cursor, limit);
+        log.debug(FIND_ALL_RESULT, queryResult);
+        log.trace(FIND_ALL_END);
+        return queryResult;
+    }
+
+    @Override
+    public IndexSearchService<T> withFields(Set<? extends SearchField> fields) {
+        return new SearchView(defaultOptions.withFields(fields));
+    }
+
+    @Override
+    public IndexSearchService<T> sortedBy(SearchField field) {
+        return new SearchView(defaultOptions.sortedBy(field));
+    }
+
+    /**
+     * Refreshes the searcher as soon as the backing index has been committed by an index writer.
+     */
+    @EventListener
+    public void onIndexChanged(IndexChangedEvent event) {
+        if (event.getDirectory() == indexSearcherManager.getDirectory()) {
+            refreshSearcher();
+        }
+    }
+
+
+    /**
+     * Periodic fallback for index changes not notified through an {@link IndexChangedEvent}.
+     */
+    @SneakyThrows
+    @Scheduled(fixedDelayString = "${lucene.searcher.refresh-interval-ms:30000}")
+    public void refreshSearcher() {
+        log.trace("refreshSearcher start");
+        indexSearcherManager.maybeRefresh();
+        log.trace("refreshSearcher end");
+    }
+
+
+    @Override
+    public void destroy() throws Exception {
+        indexSearcherManager.close();
+    }
+
+    protected abstract QueryResult<T> getQueryResult(List<T> items, long totalHits);
+
 
+    private Query buildFullTextQuery(SearchField field, String value) throws ParseException {
+        final QueryParser parser = new QueryParser(field.toString(), analyzer);
+        parser.setPhraseSlop(4);
+        return parser.parse(value);
+    }
+
+
+    private Query buildFindAllQuery(String entityType, QueryFilter... filters) {
         final BooleanQuery.Builder queryBuilder = new BooleanQuery.Builder();
         final TermQuery indexFilterQuery = new TermQuery(new Term(Entity.ENTITY_TYPE.toString(), entityType));
         queryBuilder.add(indexFilterQuery, BooleanClause.Occur.MUST);
@@ -183,26 +272,157 @@ abstract class IndexSearchServiceTemplate<T> implements IndexSearchService<T> {
                 queryBuilder.add(termQuery, BooleanClause.Occur.MUST);
             }
         }
-        query = queryBuilder.build();
+        return queryBuilder.build();
+    }
 
-        final TopScoreDocCollector collector = TopScoreDocCollector.create(reader.numDocs(), reader.numDocs());
-        indexSearcher.search(query, collector);
 
-        final TopDocs hits = collector.topDocs((page - 1) * limit, limit);
+    /**
+     * Collects only the top {@code page * limit} hits, so the priority queue is sized on the requested page rather
+     * than on the whole index. Total hits are still counted exactly.
+     */
+    private QueryResult<T> searchPage(SearchOptions options, Query query, int page, int limit) throws IOException {
+        final IndexSearcher indexSearcher = indexSearcherManager.acquire();
+        try {
+            final long offset = (long) (page - 1) * limit;
+            final TopDocsCollector<?> collector = options.createCollector(getNumHits(indexSearcher, offset + limit), null);
+            indexSearcher.search(query, collector);
+            final TopDocs hits = collector.topDocs((int) Math.min(offset, Integer.MAX_VALUE), limit);
+            return getQueryResult(toItems(options, indexSearcher, hits), hits.totalHits.value);
+        } finally {
+            indexSearcherManager.release(indexSearcher);
+        }
+    }
 
+
+    /**
+     * Collects the {@code limit} hits following the one encoded in the cursor, without re-collecting previous pages.
+     */
+    private QueryResult<T> searchAfter(SearchOptions options, Query query, String cursor, int limit) throws IOException {
+        final ScoreDoc after = cursor == null ? null : SearchAfterCursor.decode(cursor);
+        final IndexSearcher indexSearcher = indexSearcherManager.acquire();
+        try {
+            final TopDocsCollector<?> collector = options.createCollector(getNumHits(indexSearcher, limit), after);
+            indexSearcher.search(query, collector);
+            final TopDocs hits = collector.topDocs();
+            final SearchAfterQueryResult<T> queryResult = new SearchAfterQueryResult<>();
+            queryResult.setItems(toItems(options, indexSearcher, hits));
+            queryResult.setTotalHits(hits.totalHits.value);
+            if (hits.scoreDocs.length == limit) {
+                queryResult.setNextCursor(SearchAfterCursor.encode(hits.scoreDocs[hits.scoreDocs.length - 1]));
+            }
+            return queryResult;
+        } finally {
+            indexSearcherManager.release(indexSearcher);
+        }
+    }
+
+
+    private List<T> toItems(SearchOptions options, IndexSearcher indexSearcher, TopDocs hits) throws IOException {
         final List<T> items = new ArrayList<>(hits.scoreDocs.length);
         for (ScoreDoc scoreDoc : hits.scoreDocs) {
-            items.add(documentConverter.apply(indexSearcher.doc(scoreDoc.doc)));
+            final Document document = options.fieldsToLoad == null
+                    ? indexSearcher.doc(scoreDoc.doc)
+                    : indexSearcher.doc(scoreDoc.doc, options.fieldsToLoad);
+            items.add(documentConverter.apply(document));
         }
+        return items;
+    }
 
-        final QueryResult<T> queryResult = getQueryResult(items, hits.totalHits.value);
-        log.debug("findAll result = {}", queryResult);
-        log.trace("findAll end");
-        return queryResult;
+
+    private static int getNumHits(IndexSearcher indexSearcher, long requested) {
+        return (int) Math.max(1, Math.min(requested, indexSearcher.getIndexReader().maxDoc()));
     }
 
-    protected abstract QueryResult<T> getQueryResult(List<T> items, long totalHits);
 
 
+    /**
+     * Stored fields to load for each hit ({@code null} for all of them) and hits ordering ({@code null} for relevance).
+     */
+    private static final class SearchOptions {
+
+        private final Set<String> fieldsToLoad;
+        private final Sort sort;
+
+        private SearchOptions(Set<String> fieldsToLoad, Sort sort) {
+            this.fieldsToLoad = fieldsToLoad;
+            this.sort = sort;
+        }
+
+        private SearchOptions withFields(Set<? extends SearchField> fields) {
+            Assert.notEmpty(fields, "At least a field is required");
+            return new SearchOptions(fields.stream().map(SearchField::toString).collect(Collectors.toUnmodifiableSet()), sort);
+        }
+
+        private SearchOptions sortedBy(SearchField field) {
+            Assert.notNull(field, FIELD_IS_REQUIRED);
+            return new SearchOptions(fieldsToLoad, new Sort(new SortField(field.toString(), SortField.Type.STRING)));
+        }
+
+        /**
+         * Hits are ranked by score, or by the sort field doc values without loading the documents.
+         */
+        private TopDocsCollector<?> createCollector(int numHits, ScoreDoc after) {
+            SearchAfterCursor.checkSortType(after, sort != null);
+            if (sort == null) {
+                return TopScoreDocCollector.create(numHits, after, Integer.MAX_VALUE);
+            }
+            return TopFieldCollector.create(sort, numHits, (FieldDoc) after, Integer.MAX_VALUE);
+        }
+
+    }
+
+
+    /**
+     * View over this service applying non-default {@link SearchOptions}.
+     */
+    private final class SearchView implements IndexSearchService<T> {
+
+        private final SearchOptions options;
+
+        private SearchView(SearchOptions options) {
+            this.options = options;
+        }
+
+        @Override
+        public QueryResult<T> fullTextSearch(SearchField field, String value, int page, int limit) {
+            return IndexSearchServiceTemplate.this.fullTextSearch(options, field, value, page, limit);
+        }
+
+        @Override
+        public QueryResult<T> fullTextSearch(SearchField field, String value, String cursor, int limit) {
+            return IndexSearchServiceTemplate.this.fullTextSearch(options, field, value, cursor, limit);
+        }
+
+        @Override
+        public QueryResult<T> fullTextSearch(SearchField field, String value, SearchField filter, String categories, int page, int limit) {
+            return IndexSearchServiceTemplate.this.fullTextSearch(options, field, value, filter, categories, page, limit);
+        }
+
+        @Override
+        public List<T> findById(SearchField field, String value) {
+            return IndexSearchServiceTemplate.this.findById(options, field, value);
+        }
+
+        @Override
+        public QueryResult<T> findAll(int page, int limit, String entityType, QueryFilter... filters) {
+            return IndexSearchServiceTemplate.this.findAll(options, page, limit, entityType, filters);
+        }
+
+        @Override
+        public QueryResult<T> findAll(String cursor, int limit, String entityType, QueryFilter... filters) {
+            return IndexSearchServiceTemplate.this.findAll(options, cursor, limit, entityType, filters);
+        }
+
+        @Override
+        public IndexSearchService<T> withFields(Set<? extends SearchField> fields) {
+            return new SearchView(options.withFields(fields));
+        }
+
+        @Override
+        public IndexSearchService<T> sortedBy(SearchField field) {
+            return new SearchView(options.sortedBy(field));
+        }
+
+    }
 
 }
@@ -0,0 +1,135 @@
+package it.pagopa.selfcare.party.registry_proxy.connector.lucene.reader;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherFactory;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.AlreadyClosedException;
+import org.apache.lucene.store.Directory;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Shares a reference-counted {@link IndexSearcher} over a single {@link Directory}.
+ * <p>
+ * The underlying {@link SearcherManager} is opened lazily on first use, because the index may be
+ * written only after the application context has started. Request threads only acquire and release
+ * the current searcher: reopening is performed by {@link #maybeRefresh()}, and every new searcher is
+ * warmed up before being published. Once closed, no searcher can be acquired, while the ones already
+ * acquired can still be released.
+ */
+@Slf4j
+class IndexSearcherManager implements Closeable {
+
+    private final Directory directory;
+    private final SearcherFactory searcherFactory;
+    private volatile SearcherManager searcherManager;
+    private volatile boolean closed;
+
+
+    IndexSearcherManager(Directory directory) {
+        log.trace("Initializing {}", IndexSearcherManager.class.getSimpleName());
+        this.directory = directory;
+        this.searcherFactory = new WarmingSearcherFactory();
+    }
+
+
+    Directory getDirectory() {
+        return directory;
+    }
+
+
+    /**
+     * Acquires the current searcher; every call must be paired with {@link #release(IndexSearcher)}.
+     *
+     * @throws AlreadyClosedException if this manager has been closed
+     */
+    IndexSearcher acquire() throws IOException {
+        return getSearcherManager().acquire();
+    }
+
+
+    /**
+     * Releases a searcher returned by {@link #acquire()}, also after this manager has been closed: the reference is
+     * dropped on its reader, as {@link SearcherManager#release(Object)} does.
+     */
+    void release(IndexSearcher indexSearcher) throws IOException {
+        if (indexSearcher != null) {
+            indexSearcher.getIndexReader().decRef();
+        }
+    }
+
+
+    /**
+     * Reopens the searcher if the index has changed, or opens and warms it up the first time an index is found, so
+     * that it is ready before the first request. It is a no-op when there is no index yet or when another thread is
+     * already refreshing it.
+     */
+    void maybeRefresh() throws IOException {
+        log.trace("maybeRefresh start");
+        final SearcherManager manager = searcherManager;
+        if (manager != null) {
+            final boolean refreshed = manager.maybeRefresh();
+            log.debug("maybeRefresh directory = {}, refreshed = {}", directory, refreshed);
+        } else if (!closed && DirectoryReader.indexExists(directory)) {
+            getSearcherManager();
+            log.debug("maybeRefresh directory = {}, opened", directory);
+        }
+        log.trace("maybeRefresh end");
+    }
+
+
+    @Override
+    public synchronized void close() throws IOException {
+        closed = true;
+        if (searcherManager != null) {
+            searcherManager.close();
+            searcherManager = null;
+        }
+    }
+
+
+    private SearcherManager getSearcherManager() throws IOException {
+        SearcherManager manager = searcherManager;
+        if (manager == null) {
+            synchronized (this) {
+                if (closed) {
+                    throw new AlreadyClosedException(IndexSearcherManager.class.getSimpleName() + " is closed");
+                }
+                manager = searcherManager;
+                if (manager == null) {
+                    manager = new SearcherManager(directory, searcherFactory);
+                    searcherManager = manager;
+                }
+            }
+        }
+        return manager;
+    }
+
+
+    /**
+     * Runs a cheap query and loads a stored document on every new searcher, so that the first requests
+     * served after a swap do not pay for cold segment structures.
+     */
+    private static class WarmingSearcherFactory extends SearcherFactory {
+
+        @Override
+        public IndexSearcher newSearcher(IndexReader reader, IndexReader previousReader) throws IOException {
+            final IndexSearcher indexSearcher = super.newSearcher(reader, previousReader);
+            final TopDocs topDocs = indexSearcher.search(new MatchAllDocsQuery(), 1);
+            for (ScoreDoc scoreDoc : topDocs.scoreDocs) {
+                indexSearcher.doc(scoreDoc.doc);
+            }
+            log.debug("newSearcher warmed up, numDocs = {}", reader.numDocs());
+            return indexSearcher;
+        }
+
+    }
+
+}
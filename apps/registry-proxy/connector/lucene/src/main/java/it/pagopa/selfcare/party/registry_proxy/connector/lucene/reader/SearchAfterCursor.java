@@ -0,0 +1,72 @@
+package it.pagopa.selfcare.party.registry_proxy.connector.lucene.reader;
+
+import it.pagopa.selfcare.party.registry_proxy.connector.exception.InvalidRequestException;
+import org.apache.lucene.search.FieldDoc;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.util.BytesRef;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque encoding of the last {@link ScoreDoc} returned by a page, used as search-after cursor. For hits sorted by
+ * field, the sort value of the last hit is encoded too.
+ * <p>
+ * Doc ids are only stable within the same index snapshot: a cursor used across an index refresh may skip or
+ * repeat a few results, which is acceptable for browsing. Malformed cursors, or cursors issued by a search with a
+ * different kind of sort, are rejected with an {@link InvalidRequestException}.
+ */
+final class SearchAfterCursor {
+
+    private static final String SEPARATOR = ":";
+    private static final String MISSING_VALUE = "~";
+    static final String INVALID_CURSOR = "Invalid cursor";
+
+    private SearchAfterCursor() {
+    }
+
+
+    static String encode(ScoreDoc scoreDoc) {
+        String value = scoreDoc.doc + SEPARATOR + Integer.toHexString(Float.floatToIntBits(scoreDoc.score));
+        if (scoreDoc instanceof FieldDoc) {
+            final Object sortValue = ((FieldDoc) scoreDoc).fields[0];
+            value += SEPARATOR + (sortValue == null
+                    ? MISSING_VALUE
+                    : Base64.getUrlEncoder().withoutPadding().encodeToString(BytesRef.deepCopyOf((BytesRef) sortValue).bytes));
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+
+    static ScoreDoc decode(String cursor) {
+        try {
+            final String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            final String[] parts = value.split(SEPARATOR, -1);
+            if (parts.length != 2 && parts.length != 3) {
+                throw new InvalidRequestException(INVALID_CURSOR);
+            }
+            final int doc = Integer.parseInt(parts[0]);
+            final float score = Float.intBitsToFloat(Integer.parseUnsignedInt(parts[1], 16));
+            if (parts.length == 2) {
+                return new ScoreDoc(doc, score);
+            }
+            final BytesRef sortValue = MISSING_VALUE.equals(parts[2])
+                    ? null
+                    : new BytesRef(Base64.getUrlDecoder().decode(parts[2]));
+            return new FieldDoc(doc, score, new Object[]{sortValue});
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException(INVALID_CURSOR);
+        }
+    }
+
+
+    /**
+     * Checks that the cursor has been issued by a search ranked the same way: by field ({@code sorted}) or by score.
+     */
+    static void checkSortType(ScoreDoc after, boolean sorted) {
+        if (after != null && (after instanceof FieldDoc) != sorted) {
+            throw new InvalidRequestException(INVALID_CURSOR);
+        }
+    }
+
+}
@@ -0,0 +1,92 @@
+package it.pagopa.selfcare.party.registry_proxy.connector.lucene.writer;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexableField;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.NumericDocValues;
+import org.apache.lucene.index.PostingsEnum;
+import org.apache.lucene.index.Terms;
+import org.apache.lucene.index.TermsEnum;
+import org.apache.lucene.search.DocIdSetIterator;
+import org.apache.lucene.util.Bits;
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.BytesRefBuilder;
+import org.apache.lucene.util.StringHelper;
+
+import java.io.IOException;
+
+/**
+ * Fingerprint of the fields of a converted document, stored as a numeric doc value so that re-indexing an unchanged
+ * item can be skipped without loading its stored fields.
+ */
+final class DocumentContentHash {
+
+    static final String FIELD = "content_hash";
+
+    private static final int SEED_HIGH = 0x9747b28c;
+    private static final int SEED_LOW = 0x5bd1e995;
+
+
+    private DocumentContentHash() {
+    }
+
+
+    static long of(Document document) {
+        final BytesRefBuilder bytes = new BytesRefBuilder();
+        for (IndexableField field : document.getFields()) {
+            bytes.append(new BytesRef(field.name()));
+            bytes.append((byte) 0);
+            if (field.stringValue() != null) {
+                bytes.append(new BytesRef(field.stringValue()));
+            } else if (field.binaryValue() != null) {
+                bytes.append(field.binaryValue());
+            } else if (field.numericValue() != null) {
+                bytes.append(new BytesRef(field.numericValue().toString()));
+            }
+            bytes.append((byte) 0);
+        }
+        final BytesRef ref = bytes.get();
+        return ((long) StringHelper.murmurhash3_x86_32(ref, SEED_HIGH) << 32)
+                | (StringHelper.murmurhash3_x86_32(ref, SEED_LOW) & 0xFFFFFFFFL);
+    }
+
+
+    static void add(Document document, long hash) {
+        document.add(new NumericDocValuesField(FIELD, hash));
+    }
+
+
+    /**
+     * Whether the live document identified by {@code id} in the {@code idField} has been indexed with the given hash.
+     */
+    static boolean matches(IndexReader reader, String idField, String id, long hash) throws IOException {
+        if (id == null) {
+            return false;
+        }
+        final BytesRef term = new BytesRef(id);
+        for (LeafReaderContext context : reader.leaves()) {
+            final LeafReader leafReader = context.reader();
+            final Terms terms = leafReader.terms(idField);
+            if (terms == null) {
+                continue;
+            }
+            final TermsEnum termsEnum = terms.iterator();
+            if (!termsEnum.seekExact(term)) {
+                continue;
+            }
+            final Bits liveDocs = leafReader.getLiveDocs();
+            final PostingsEnum postings = termsEnum.postings(null, PostingsEnum.NONE);
+            for (int doc = postings.nextDoc(); doc != DocIdSetIterator.NO_MORE_DOCS; doc = postings.nextDoc()) {
+                if (liveDocs == null || liveDocs.get(doc)) {
+                    final NumericDocValues hashes = leafReader.getNumericDocValues(FIELD);
+                    return hashes != null && hashes.advanceExact(doc) && hashes.longValue() == hash;
+                }
+            }
+        }
+        return false;
+    }
+
+}
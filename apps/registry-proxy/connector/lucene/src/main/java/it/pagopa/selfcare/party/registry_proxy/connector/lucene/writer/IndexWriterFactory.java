@@ -4,6 +4,10 @@ import org.apache.lucene.index.IndexWriter;
 
 public interface IndexWriterFactory {
 
+    /**
+     * Returns the writer shared by every caller of this factory: callers must commit their changes and must not
+     * close it.
+     */
     IndexWriter create();
 
 }
@@ -5,13 +5,25 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.lucene.analysis.Analyzer;
 import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.KeepOnlyLastCommitDeletionPolicy;
+import org.apache.lucene.index.SnapshotDeletionPolicy;
 import org.apache.lucene.store.Directory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
 
+/**
+ * Keeps a single long-lived {@link IndexWriter} per directory: opening a writer reads the segment infos and takes
+ * the write lock, so it is done once and the writer is shared by all the index writer services. A new writer is
+ * opened only if the previous one has been closed, e.g. after a tragic event. Commits can be pinned through the
+ * {@link SnapshotDeletionPolicy} while their files are being copied.
+ */
 @Slf4j
-abstract class IndexWriterFactoryTemplate implements IndexWriterFactory {
+abstract class IndexWriterFactoryTemplate implements IndexWriterFactory, DisposableBean {
 
     private final Directory directory;
     private final Analyzer analyzer;
+    private double ramBufferSizeMB = IndexWriterConfig.DEFAULT_RAM_BUFFER_SIZE_MB;
+    private IndexWriter indexWriter;
 
 
     public IndexWriterFactoryTemplate(Directory directory, Analyzer analyzer) {
@@ -21,14 +33,34 @@ abstract class IndexWriterFactoryTemplate implements IndexWriterFactory {
     }
 
 
+    @Value("${lucene.index.writer.ram-buffer-size-mb:64}")
+    public void setRamBufferSizeMB(double ramBufferSizeMB) {
+        this.ramBufferSizeMB = ramBufferSizeMB;
+    }
+
+
     @SneakyThrows
     @Override
-    public IndexWriter create() {
+    public synchronized IndexWriter create() {
         log.trace("create start");
-        final IndexWriter indexWriter = new IndexWriter(directory, new IndexWriterConfig(analyzer));
-        //log.debug("create result = {}", indexWriter);
+        if (indexWriter == null || !indexWriter.isOpen()) {
+            final IndexWriterConfig indexWriterConfig = new IndexWriterConfig(analyzer)
+                    .setRAMBufferSizeMB(ramBufferSizeMB)
+                    .setIndexDeletionPolicy(new SnapshotDeletionPolicy(new KeepOnlyLastCommitDeletionPolicy()));
+            indexWriter = new IndexWriter(directory, indexWriterConfig);
+            log.debug("create opened writer on directory = {}, ramBufferSizeMB = {}", directory, ramBufferSizeMB);
+        }
         log.trace("create end");
         return indexWriter;
     }
 
+
+    @Override
+    public synchronized void destroy() throws Exception {
+        if (indexWriter != null) {
+            indexWriter.close();
+            indexWriter = null;
+        }
+    }
+
 }
@@ -1,27 +1,38 @@
 package it.pagopa.selfcare.party.registry_proxy.connector.lucene.writer;
 
 import it.pagopa.selfcare.party.registry_proxy.connector.api.IndexWriterService;
+import it.pagopa.selfcare.party.registry_proxy.connector.lucene.model.IndexChangedEvent;
 import it.pagopa.selfcare.party.registry_proxy.connector.model.Entity;
 import it.pagopa.selfcare.party.registry_proxy.connector.model.Institution.Field;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.lucene.document.Document;
 import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.Term;
 import org.apache.lucene.search.BooleanClause;
 import org.apache.lucene.search.BooleanQuery;
 import org.apache.lucene.search.TermQuery;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.ApplicationEventPublisherAware;
 
+import java.io.IOException;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
+import java.util.stream.Stream;
 
 @Slf4j
-abstract class IndexWriterServiceTemplate<T> implements IndexWriterService<T> {
+abstract class IndexWriterServiceTemplate<T> implements IndexWriterService<T>, ApplicationEventPublisherAware {
 
     private final Function<T, Document> documentConverter;
     private final IndexWriterFactory indexWriterFactory;
+    private ApplicationEventPublisher applicationEventPublisher;
+    private long commitInterval;
 
     public IndexWriterServiceTemplate(IndexWriterFactory indexWriterFactory, Function<T, Document> documentConverter) {
         log.trace("Initializing {}", getClass().getSimpleName());
@@ -29,19 +40,70 @@ abstract class IndexWriterServiceTemplate<T> implements IndexWriterService<T> {
         this.documentConverter = documentConverter;
     }
 
+    @Override
+    public void setApplicationEventPublisher(ApplicationEventPublisher applicationEventPublisher) {
+        this.applicationEventPublisher = applicationEventPublisher;
+    }
+
+    /**
+     * Number of streamed documents after which an intermediate commit is made; {@code 0} commits once at the end.
+     */
+    @Value("${lucene.index.writer.commit-interval:0}")
+    public void setCommitInterval(long commitInterval) {
+        this.commitInterval = commitInterval;
+    }
+
     @SneakyThrows
     @Override
     public void adds(List<? extends T> items) {
         log.trace("adds start");
         log.debug("adds items = {}", items.size());
         final IndexWriter indexWriter = indexWriterFactory.create();
-        try (indexWriter) {
+        long skipped = 0;
+        try (DirectoryReader reader = DirectoryReader.open(indexWriter)) {
             for (T item : items) {
-                final Document doc = documentConverter.apply(item);
-                indexWriter.updateDocument(new Term(Field.ID.toString(), getId(item)), doc);
+                if (!upsert(indexWriter, reader, item)) {
+                    skipped++;
+                }
             }
-            indexWriter.commit();
         }
+        indexWriter.commit();
+        publishIndexChanged(indexWriter);
+        log.debug("adds unchanged items skipped = {}", skipped);
+        log.trace("adds end");
+    }
+
+    /**
+     * Streams the items into the shared {@link IndexWriter} and commits once, when the whole stream has been written:
+     * the writer flushes its RAM buffer to new segments on its own, so {@code batchSize} only bounds the producer.
+     * When {@code lucene.index.writer.commit-interval} is set, intermediate commits are made every that many documents
+     * and become visible at the next searcher refresh; readers are notified once, at the end.
+     */
+    @SneakyThrows
+    @Override
+    public void adds(Stream<? extends T> items, int batchSize) {
+        log.trace("adds start");
+        final IndexWriter indexWriter = indexWriterFactory.create();
+        long count = 0;
+        long skipped = 0;
+        try (DirectoryReader reader = DirectoryReader.open(indexWriter)) {
+            final Iterator<? extends T> iterator = items.iterator();
+            while (iterator.hasNext()) {
+                if (!upsert(indexWriter, reader, iterator.next())) {
+                    skipped++;
+                }
+                if (++count % batchSize == 0) {
+                    log.debug("adds written items = {}", count);
+                }
+                if (commitInterval > 0 && count % commitInterval == 0) {
+                    indexWriter.commit();
+                    log.debug("adds committed items = {}", count);
+                }
+            }
+        }
+        indexWriter.commit();
+        publishIndexChanged(indexWriter);
+        log.debug("adds items = {}, unchanged items skipped = {}", count, skipped);
         log.trace("adds end");
     }
 
@@ -50,10 +112,9 @@ abstract class IndexWriterServiceTemplate<T> implements IndexWriterService<T> {
     public void deleteAll() {
         log.trace("deleteAll start");
         final IndexWriter indexWriter = indexWriterFactory.create();
-        try (indexWriter) {
-            indexWriter.deleteAll();
-            indexWriter.commit();
-        }
+        indexWriter.deleteAll();
+        indexWriter.commit();
+        publishIndexChanged(indexWriter);
         log.trace("deleteAll end");
     }
 
@@ -62,16 +123,15 @@ abstract class IndexWriterServiceTemplate<T> implements IndexWriterService<T> {
     public void updateDocumentValues(T item, Map<String, String> fieldsToUpdate) {
         log.trace("updateDocumentValues start");
         final IndexWriter indexWriter = indexWriterFactory.create();
-        try (indexWriter) {
-            final String fieldId = getId(item);
-            final Document document = documentConverter.apply(item);
-            for (Map.Entry<String, String> entry : fieldsToUpdate.entrySet()) {
-                document.add(new StringField(entry.getKey(), entry.getValue(), org.apache.lucene.document.Field.Store.YES));
-            }
-            indexWriter.updateDocument(new Term(Field.ID.toString(), fieldId), document);
-            indexWriter.commit();
-            log.debug("Document for {} with ID {} has been updated", item.getClass(), fieldId);
+        final String fieldId = getId(item);
+        final Document document = documentConverter.apply(item);
+        for (Map.Entry<String, String> entry : fieldsToUpdate.entrySet()) {
+            document.add(new StringField(entry.getKey(), entry.getValue(), org.apache.lucene.document.Field.Store.YES));
         }
+        indexWriter.updateDocument(new Term(Field.ID.toString(), fieldId), document);
+        indexWriter.commit();
+        log.debug("Document for {} with ID {} has been updated", item.getClass(), fieldId);
+        publishIndexChanged(indexWriter);
         log.trace("updateDocumentValues end");
     }
 
@@ -80,16 +140,38 @@ abstract class IndexWriterServiceTemplate<T> implements IndexWriterService<T> {
     public void cleanIndex(String entityType) {
         log.trace("cleanIndex start");
         final IndexWriter indexWriter = indexWriterFactory.create();
-        try (indexWriter) {
-            final BooleanQuery.Builder queryBuilder = new BooleanQuery.Builder();
-            final TermQuery indexFilterQuery = new TermQuery(new Term(Entity.ENTITY_TYPE.toString(), entityType));
-            queryBuilder.add(indexFilterQuery, BooleanClause.Occur.MUST);
-            indexWriter.deleteDocuments(queryBuilder.build());
-            indexWriter.commit();
-        }
+        final BooleanQuery.Builder queryBuilder = new BooleanQuery.Builder();
+        final TermQuery indexFilterQuery = new TermQuery(new Term(Entity.ENTITY_TYPE.toString(), entityType));
+        queryBuilder.add(indexFilterQuery, BooleanClause.Occur.MUST);
+        indexWriter.deleteDocuments(queryBuilder.build());
+        indexWriter.commit();
+        publishIndexChanged(indexWriter);
         log.trace("cleanIndex end");
     }
 
+    /**
+     * Indexes the item unless the reader already holds a document with the same id and content hash.
+     *
+     * @return whether the item has been written
+     */
+    private boolean upsert(IndexWriter indexWriter, IndexReader reader, T item) throws IOException {
+        final String id = getId(item);
+        final Document doc = documentConverter.apply(item);
+        final long hash = DocumentContentHash.of(doc);
+        if (DocumentContentHash.matches(reader, Field.ID.toString(), id, hash)) {
+            return false;
+        }
+        DocumentContentHash.add(doc, hash);
+        indexWriter.updateDocument(new Term(Field.ID.toString(), id), doc);
+        return true;
+    }
+
+    private void publishIndexChanged(IndexWriter indexWriter) {
+        if (applicationEventPublisher != null) {
+            applicationEventPublisher.publishEvent(new IndexChangedEvent(indexWriter.getDirectory()));
+        }
+    }
+
     protected abstract String getId(T item);
 
 }
@@ -0,0 +1,229 @@
+package it.pagopa.selfcare.party.registry_proxy.connector.lucene.writer;
+
+import it.pagopa.selfcare.party.registry_proxy.connector.api.FileStorageConnector;
+import it.pagopa.selfcare.party.registry_proxy.connector.api.IndexSnapshotService;
+import it.pagopa.selfcare.party.registry_proxy.connector.exception.ResourceNotFoundException;
+import it.pagopa.selfcare.party.registry_proxy.connector.lucene.model.IndexChangedEvent;
+import it.pagopa.selfcare.party.registry_proxy.connector.model.Entity;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.index.IndexCommit;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.SnapshotDeletionPolicy;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.store.IOContext;
+import org.apache.lucene.store.IndexInput;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.ApplicationEventPublisherAware;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Publishes and restores versioned snapshots of the Lucene indexes through the {@link FileStorageConnector}.
+ * <p>
+ * A snapshot is a zip of the files of a single, force-merged commit, stored as
+ * {@code <folder>/<entity>/<version>.zip}; {@code <folder>/<entity>/latest} holds the last published version. The
+ * version is also recorded in the commit user data, so a replica that already serves it skips the download.
+ * Restoring replaces the documents of the index in a single commit, which makes the swap atomic for the searchers.
+ */
+@Slf4j
+@Service
+class LuceneIndexSnapshotService implements IndexSnapshotService, ApplicationEventPublisherAware {
+
+    static final String VERSION_KEY = "snapshot.version";
+    private static final String LATEST = "latest";
+    private static final DateTimeFormatter VERSION_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMddHHmmssSSS")
+            .withZone(ZoneOffset.UTC);
+
+    private final Map<Entity, IndexWriterFactory> indexWriterFactories = new EnumMap<>(Entity.class);
+    private final FileStorageConnector fileStorageConnector;
+    private final String folder;
+    private ApplicationEventPublisher applicationEventPublisher;
+
+
+    @Autowired
+    public LuceneIndexSnapshotService(@Qualifier("institutionIndexWriterFactory") IndexWriterFactory institutionIndexWriterFactory,
+                                      @Qualifier("categoryIndexWriterFactory") IndexWriterFactory categoryIndexWriterFactory,
+                                      @Qualifier("aooIndexWriterFactory") IndexWriterFactory aooIndexWriterFactory,
+                                      @Qualifier("uoIndexWriterFactory") IndexWriterFactory uoIndexWriterFactory,
+                                      @Qualifier("stationIndexWriterFactory") IndexWriterFactory stationIndexWriterFactory,
+                                      @Qualifier("ivassIndexWriterFactory") IndexWriterFactory ivassIndexWriterFactory,
+                                      FileStorageConnector fileStorageConnector,
+                                      @Value("${lucene.snapshot.folder:lucene-snapshots}") String folder) {
+        log.trace("Initializing {}", LuceneIndexSnapshotService.class.getSimpleName());
+        indexWriterFactories.put(Entity.INSTITUTION, institutionIndexWriterFactory);
+        indexWriterFactories.put(Entity.CATEGORY, categoryIndexWriterFactory);
+        indexWriterFactories.put(Entity.AOO, aooIndexWriterFactory);
+        indexWriterFactories.put(Entity.UO, uoIndexWriterFactory);
+        indexWriterFactories.put(Entity.STATION, stationIndexWriterFactory);
+        indexWriterFactories.put(Entity.INSURANCE_COMPANY, ivassIndexWriterFactory);
+        this.fileStorageConnector = fileStorageConnector;
+        this.folder = folder;
+    }
+
+
+    @Override
+    public void setApplicationEventPublisher(ApplicationEventPublisher applicationEventPublisher) {
+        this.applicationEventPublisher = applicationEventPublisher;
+    }
+
+
+    @SneakyThrows
+    @Override
+    public boolean restore(Entity entity) {
+        log.trace("restore start");
+        log.debug("restore entity = {}", entity);
+        final IndexWriter indexWriter = getIndexWriterFactory(entity).create();
+        final String version;
+        try {
+            version = new String(fileStorageConnector.getFile(getFileName(entity, LATEST)).getData(), StandardCharsets.UTF_8).trim();
+        } catch (ResourceNotFoundException e) {
+            log.info("No snapshot published for {}", entity);
+            return false;
+        }
+        if (version.equals(getVersion(indexWriter))) {
+            log.info("Index of {} is already at snapshot version {}", entity, version);
+            return true;
+        }
+        final Path snapshotFolder = Files.createTempDirectory("lucene-snapshot-");
+        try {
+            try (InputStream archive = fileStorageConnector.openFile(getFileName(entity, version + ".zip"))) {
+                unzip(archive, snapshotFolder);
+            }
+            try (Directory snapshotDirectory = FSDirectory.open(snapshotFolder)) {
+                indexWriter.deleteAll();
+                indexWriter.addIndexes(snapshotDirectory);
+                indexWriter.setLiveCommitData(Map.of(VERSION_KEY, version).entrySet());
+                indexWriter.commit();
+            } catch (IOException | RuntimeException e) {
+                indexWriter.rollback();
+                throw e;
+            }
+        } finally {
+            FileSystemUtils.deleteRecursively(snapshotFolder);
+        }
+        publishIndexChanged(indexWriter);
+        log.info("Restored index of {} from snapshot version {}", entity, version);
+        log.trace("restore end");
+        return true;
+    }
+
+
+    @SneakyThrows
+    @Override
+    public void publish(Entity entity) {
+        log.trace("publish start");
+        log.debug("publish entity = {}", entity);
+        final IndexWriter indexWriter = getIndexWriterFactory(entity).create();
+        final String version = VERSION_FORMATTER.format(Instant.now());
+        indexWriter.forceMerge(1);
+        indexWriter.setLiveCommitData(Map.of(VERSION_KEY, version).entrySet());
+        indexWriter.commit();
+
+        final SnapshotDeletionPolicy deletionPolicy = (SnapshotDeletionPolicy) indexWriter.getConfig().getIndexDeletionPolicy();
+        final IndexCommit commit = deletionPolicy.snapshot();
+        final Path archive = Files.createTempFile("lucene-snapshot-", ".zip");
+        try {
+            try (OutputStream outputStream = Files.newOutputStream(archive)) {
+                zip(indexWriter.getDirectory(), commit, outputStream);
+            }
+            try (InputStream inputStream = Files.newInputStream(archive)) {
+                fileStorageConnector.uploadFile(inputStream, getFileName(entity, version + ".zip"));
+            }
+            fileStorageConnector.uploadFile(new ByteArrayInputStream(version.getBytes(StandardCharsets.UTF_8)),
+                    getFileName(entity, LATEST));
+        } finally {
+            deletionPolicy.release(commit);
+            indexWriter.deleteUnusedFiles();
+            Files.deleteIfExists(archive);
+        }
+        log.info("Published snapshot version {} of {}", version, entity);
+        log.trace("publish end");
+    }
+
+
+    private IndexWriterFactory getIndexWriterFactory(Entity entity) {
+        final IndexWriterFactory indexWriterFactory = indexWriterFactories.get(entity);
+        Assert.notNull(indexWriterFactory, "Unsupported entity " + entity);
+        return indexWriterFactory;
+    }
+
+
+    private String getFileName(Entity entity, String name) {
+        return folder + "/" + entity + "/" + name;
+    }
+
+
+    private static String getVersion(IndexWriter indexWriter) {
+        final Iterable<Map.Entry<String, String>> commitData = indexWriter.getLiveCommitData();
+        if (commitData != null) {
+            for (Map.Entry<String, String> entry : commitData) {
+                if (VERSION_KEY.equals(entry.getKey())) {
+                    return entry.getValue();
+                }
+            }
+        }
+        return null;
+    }
+
+
+    private static void zip(Directory directory, IndexCommit commit, OutputStream outputStream) throws IOException {
+        final ZipOutputStream zipOutputStream = new ZipOutputStream(outputStream);
+        final byte[] buffer = new byte[64 * 1024];
+        for (String fileName : commit.getFileNames()) {
+            zipOutputStream.putNextEntry(new ZipEntry(fileName));
+            try (IndexInput input = directory.openInput(fileName, IOContext.READONCE)) {
+                long remaining = input.length();
+                while (remaining > 0) {
+                    final int length = (int) Math.min(buffer.length, remaining);
+                    input.readBytes(buffer, 0, length);
+                    zipOutputStream.write(buffer, 0, length);
+                    remaining -= length;
+                }
+            }
+            zipOutputStream.closeEntry();
+        }
+        zipOutputStream.finish();
+    }
+
+
+    private static void unzip(InputStream archive, Path folder) throws IOException {
+        try (ZipInputStream zipInputStream = new ZipInputStream(new BufferedInputStream(archive))) {
+            for (ZipEntry entry = zipInputStream.getNextEntry(); entry != null; entry = zipInputStream.getNextEntry()) {
+                final Path file = folder.resolve(entry.getName()).normalize();
+                Assert.isTrue(folder.equals(file.getParent()), "Invalid snapshot entry " + entry.getName());
+                Files.copy(zipInputStream, file);
+            }
+        }
+    }
+
+
+    private void publishIndexChanged(IndexWriter indexWriter) {
+        if (applicationEventPublisher != null) {
+            applicationEventPublisher.publishEvent(new IndexChangedEvent(indexWriter.getDirectory()));
+        }
+    }
+
+}
@@ -48,7 +48,7 @@ class UOToDocumentConverterTest {
         final Set<String> fieldValues = Arrays.stream(Field.values())
                 .map(Field::toString)
                 .collect(Collectors.toSet());
-        assertEquals(24, output.getFields().stream()
+        assertEquals(25, output.getFields().stream()
                 .filter(field -> !fieldValues.contains(field.name()))
                 .count());
     }
@@ -66,7 +66,7 @@ class UOToDocumentConverterTest {
         final Set<String> fieldValues = Arrays.stream(Field.values())
                 .map(Field::toString)
                 .collect(Collectors.toSet());
-        assertEquals(24, output.getFields().stream()
+        assertEquals(25, output.getFields().stream()
                 .filter(field -> !fieldValues.contains(field.name()))
                 .count());
     }
@@ -83,7 +83,7 @@ class UOToDocumentConverterTest {
         final Set<String> fieldValues = Arrays.stream(Field.values())
                 .map(Field::toString)
                 .collect(Collectors.toSet());
-        assertEquals(23, output.getFields().stream()
+        assertEquals(24, output.getFields().stream()
                 .filter(field -> !fieldValues.contains(field.name()))
                 .count());
     }
@@ -6,9 +6,9 @@ import it.pagopa.selfcare.party.registry_proxy.connector.lucene.config.InMemoryI
 import it.pagopa.selfcare.party.registry_proxy.connector.lucene.model.CategoryEntity;
 import it.pagopa.selfcare.party.registry_proxy.connector.lucene.writer.DummyCategoryIndexWriterFactory;
 import it.pagopa.selfcare.party.registry_proxy.connector.lucene.writer.DummyCategoryIndexWriterService;
-import it.pagopa.selfcare.party.registry_proxy.connector.lucene.writer.IndexWriterFactory;
 import it.pagopa.selfcare.party.registry_proxy.connector.model.*;
 import it.pagopa.selfcare.party.registry_proxy.connector.model.Category.Field;
+import lombok.SneakyThrows;
 import org.apache.lucene.store.Directory;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -42,12 +42,14 @@ class CategoryIndexSearchServiceTest {
     private List<CategoryEntity> categories;
 
 
+    @SneakyThrows
     @PostConstruct
     void init() {
         categories = List.of(mockInstance(new CategoryEntity(), 1), mockInstance(new CategoryEntity(), 2));
-        final IndexWriterFactory indexWriterFactory = new DummyCategoryIndexWriterFactory(categoriesDirectory);
+        final DummyCategoryIndexWriterFactory indexWriterFactory = new DummyCategoryIndexWriterFactory(categoriesDirectory);
         IndexWriterService<Category> indexWriterService = new DummyCategoryIndexWriterService(indexWriterFactory);
         indexWriterService.adds(categories);
+        indexWriterFactory.destroy();
     }
 
 
@@ -0,0 +1,156 @@
+package it.pagopa.selfcare.party.registry_proxy.connector.lucene.reader;
+
+import lombok.SneakyThrows;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.index.IndexNotFoundException;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.store.AlreadyClosedException;
+import org.apache.lucene.store.RAMDirectory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndexSearcherManagerTest {
+
+    private final RAMDirectory directory = new RAMDirectory();
+    private final IndexSearcherManager indexSearcherManager = new IndexSearcherManager(directory);
+
+
+    @Test
+    void acquire_IndexNotFoundException() {
+        // given
+        // when
+        final Executable executable = indexSearcherManager::acquire;
+        // then
+        assertThrows(IndexNotFoundException.class, executable);
+    }
+
+
+    @SneakyThrows
+    @Test
+    void acquire_firstTime() {
+        // given
+        createIndex();
+        // when
+        final IndexSearcher searcher = indexSearcherManager.acquire();
+        // then
+        assertNotNull(searcher);
+        assertEquals(1, searcher.getIndexReader().numDocs());
+        indexSearcherManager.release(searcher);
+    }
+
+
+    @SneakyThrows
+    @Test
+    void acquire_sameSearcherUntilRefresh() {
+        // given
+        createIndex();
+        final IndexSearcher oldSearcher = indexSearcherManager.acquire();
+        indexSearcherManager.release(oldSearcher);
+        createIndex();
+        // when
+        final IndexSearcher searcher = indexSearcherManager.acquire();
+        // then
+        assertSame(oldSearcher, searcher);
+        indexSearcherManager.release(searcher);
+    }
+
+
+    @SneakyThrows
+    @Test
+    void maybeRefresh_reopen() {
+        // given
+        createIndex();
+        final IndexSearcher oldSearcher = indexSearcherManager.acquire();
+        createIndex();
+        // when
+        indexSearcherManager.maybeRefresh();
+        final IndexSearcher searcher = indexSearcherManager.acquire();
+        // then
+        assertNotSame(oldSearcher, searcher);
+        assertEquals(2, searcher.getIndexReader().numDocs());
+        assertEquals(1, oldSearcher.getIndexReader().numDocs());
+        indexSearcherManager.release(oldSearcher);
+        indexSearcherManager.release(searcher);
+    }
+
+
+    @SneakyThrows
+    @Test
+    void maybeRefresh_notOpened() {
+        // given
+        // when
+        final Executable executable = indexSearcherManager::maybeRefresh;
+        // then
+        assertDoesNotThrow(executable);
+    }
+
+
+    @SneakyThrows
+    @Test
+    void maybeRefresh_openWhenIndexExists() {
+        // given
+        createIndex();
+        // when
+        indexSearcherManager.maybeRefresh();
+        final IndexSearcher searcher = indexSearcherManager.acquire();
+        // then
+        assertEquals(1, searcher.getIndexReader().numDocs());
+        indexSearcherManager.release(searcher);
+    }
+
+
+    @SneakyThrows
+    @Test
+    void release_afterClose() {
+        // given
+        createIndex();
+        final IndexSearcher searcher = indexSearcherManager.acquire();
+        indexSearcherManager.close();
+        // when
+        indexSearcherManager.release(searcher);
+        // then
+        assertEquals(0, searcher.getIndexReader().getRefCount());
+    }
+
+
+    @SneakyThrows
+    @Test
+    void acquire_afterClose() {
+        // given
+        createIndex();
+        indexSearcherManager.maybeRefresh();
+        indexSearcherManager.close();
+        // when
+        final Executable executable = indexSearcherManager::acquire;
+        // then
+        assertThrows(AlreadyClosedException.class, executable);
+    }
+
+
+    @SneakyThrows
+    @Test
+    void maybeRefresh_afterClose() {
+        // given
+        createIndex();
+        indexSearcherManager.close();
+        // when
+        indexSearcherManager.maybeRefresh();
+        // then
+        assertThrows(AlreadyClosedException.class, indexSearcherManager::acquire);
+    }
+
+
+    @SneakyThrows
+    private void createIndex() {
+        final IndexWriter indexWriter = new IndexWriter(directory, new IndexWriterConfig());
+        try (indexWriter) {
+            indexWriter.addDocument(new Document());
+            indexWriter.commit();
+        }
+    }
+
+}
@@ -2,22 +2,25 @@ package it.pagopa.selfcare.party.registry_proxy.connector.lucene.reader;
 
 import it.pagopa.selfcare.party.registry_proxy.connector.api.IndexSearchService;
 import it.pagopa.selfcare.party.registry_proxy.connector.api.IndexWriterService;
+import it.pagopa.selfcare.party.registry_proxy.connector.exception.InvalidRequestException;
 import it.pagopa.selfcare.party.registry_proxy.connector.lucene.config.InMemoryIndexConfig;
 import it.pagopa.selfcare.party.registry_proxy.connector.lucene.model.InstitutionEntity;
 import it.pagopa.selfcare.party.registry_proxy.connector.lucene.writer.DummyInstitutionIndexWriterFactory;
 import it.pagopa.selfcare.party.registry_proxy.connector.lucene.writer.DummyInstitutionIndexWriterService;
-import it.pagopa.selfcare.party.registry_proxy.connector.lucene.writer.IndexWriterFactory;
 import it.pagopa.selfcare.party.registry_proxy.connector.model.*;
 import it.pagopa.selfcare.party.registry_proxy.connector.model.Institution.Field;
+import lombok.SneakyThrows;
 import org.apache.lucene.store.Directory;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.function.Executable;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import jakarta.annotation.PostConstruct;
 import java.util.List;
+import java.util.Set;
 
 import static it.pagopa.selfcare.commons.utils.TestUtils.mockInstance;
 import static org.junit.jupiter.api.Assertions.*;
@@ -38,12 +41,14 @@ class InstitutionIndexSearchServiceTest {
     private List<InstitutionEntity> institutions;
 
 
+    @SneakyThrows
     @PostConstruct
     void init() {
         institutions = List.of(mockInstance(new InstitutionEntity(), 1), mockInstance(new InstitutionEntity(), 2));
-        final IndexWriterFactory indexWriterFactory = new DummyInstitutionIndexWriterFactory(institutionsDirectory);
+        final DummyInstitutionIndexWriterFactory indexWriterFactory = new DummyInstitutionIndexWriterFactory(institutionsDirectory);
         IndexWriterService<Institution> indexWriterService = new DummyInstitutionIndexWriterService(indexWriterFactory);
         indexWriterService.adds(institutions);
+        indexWriterFactory.destroy();
     }
 
 
@@ -65,6 +70,37 @@ class InstitutionIndexSearchServiceTest {
     }
 
 
+    @Test
+    void fullTextSearch_searchAfter() {
+        // given
+        final SearchField field = Field.DESCRIPTION;
+        final String value = "description";
+        final int limit = 1;
+        // when
+        final QueryResult<Institution> firstPage = indexSearchService.fullTextSearch(field, value, (String) null, limit);
+        final QueryResult<Institution> secondPage = indexSearchService.fullTextSearch(field, value, firstPage.getNextCursor(), limit);
+        // then
+        assertEquals(2, firstPage.getTotalHits());
+        assertEquals(1, firstPage.getItems().size());
+        assertNotNull(firstPage.getNextCursor());
+        assertEquals(2, secondPage.getTotalHits());
+        assertEquals(1, secondPage.getItems().size());
+        assertIterableEquals(institutions, List.of(firstPage.getItems().get(0), secondPage.getItems().get(0)));
+    }
+
+
+    @Test
+    void fullTextSearch_invalidCursor() {
+        // given
+        final SearchField field = Field.DESCRIPTION;
+        final String value = "description";
+        // when
+        final Executable executable = () -> indexSearchService.fullTextSearch(field, value, "invalid", 1);
+        // then
+        assertThrows(InvalidRequestException.class, executable);
+    }
+
+
     @Test
     void findById() {
         // given
@@ -95,6 +131,82 @@ class InstitutionIndexSearchServiceTest {
     }
 
 
+    @Test
+    void findAll_searchAfter() {
+        // given
+        final int limit = 2;
+        // when
+        final QueryResult<Institution> firstPage = indexSearchService.findAll((String) null, limit, Entity.INSTITUTION.toString());
+        final QueryResult<Institution> lastPage = indexSearchService.findAll(firstPage.getNextCursor(), limit, Entity.INSTITUTION.toString());
+        // then
+        assertEquals(2, firstPage.getTotalHits());
+        assertIterableEquals(institutions, firstPage.getItems());
+        assertNotNull(firstPage.getNextCursor());
+        assertTrue(lastPage.getItems().isEmpty());
+        assertNull(lastPage.getNextCursor());
+    }
+
+
+    @Test
+    void findAll_withFields() {
+        // given
+        final int page = 1;
+        final int limit = 10;
+        // when
+        final QueryResult<Institution> queryResult = indexSearchService.withFields(Set.of(Field.ID, Field.DESCRIPTION))
+                .findAll(page, limit, Entity.INSTITUTION.toString());
+        // then
+        assertEquals(2, queryResult.getTotalHits());
+        assertEquals(2, queryResult.getItems().size());
+        final Institution institution = queryResult.getItems().get(0);
+        assertEquals(institutions.get(0).getId(), institution.getId());
+        assertEquals(institutions.get(0).getDescription(), institution.getDescription());
+        assertNull(institution.getTaxCode());
+        assertNull(institution.getOrigin());
+    }
+
+
+    @Test
+    void findAll_sortedBy() {
+        // given
+        final int limit = 1;
+        final IndexSearchService<Institution> sortedSearchService = indexSearchService.sortedBy(Field.DESCRIPTION);
+        // when
+        final QueryResult<Institution> firstPage = sortedSearchService.findAll((String) null, limit, Entity.INSTITUTION.toString());
+        final QueryResult<Institution> secondPage = sortedSearchService.findAll(firstPage.getNextCursor(), limit, Entity.INSTITUTION.toString());
+        final QueryResult<Institution> pageByNumber = sortedSearchService.findAll(2, limit, Entity.INSTITUTION.toString());
+        // then
+        assertEquals(2, firstPage.getTotalHits());
+        assertEquals(institutions.get(0), firstPage.getItems().get(0));
+        assertEquals(institutions.get(1), secondPage.getItems().get(0));
+        assertEquals(institutions.get(1), pageByNumber.getItems().get(0));
+    }
+
+
+    @Test
+    void findAll_sortedBy_invalidCursor() {
+        // given
+        final QueryResult<Institution> firstPage = indexSearchService.findAll((String) null, 1, Entity.INSTITUTION.toString());
+        final IndexSearchService<Institution> sortedSearchService = indexSearchService.sortedBy(Field.DESCRIPTION);
+        // when
+        final Executable executable = () -> sortedSearchService.findAll(firstPage.getNextCursor(), 1, Entity.INSTITUTION.toString());
+        // then
+        assertThrows(InvalidRequestException.class, executable);
+    }
+
+
+    @Test
+    void findAll_sortedCursor_unsortedSearch() {
+        // given
+        final QueryResult<Institution> firstPage = indexSearchService.sortedBy(Field.DESCRIPTION)
+                .findAll((String) null, 1, Entity.INSTITUTION.toString());
+        // when
+        final Executable executable = () -> indexSearchService.findAll(firstPage.getNextCursor(), 1, Entity.INSTITUTION.toString());
+        // then
+        assertThrows(InvalidRequestException.class, executable);
+    }
+
+
     @Test
     void findAll_WithFilters() {
         // given
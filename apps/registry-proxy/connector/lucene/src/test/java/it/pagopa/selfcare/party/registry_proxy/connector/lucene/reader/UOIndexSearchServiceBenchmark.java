@@ -0,0 +1,163 @@
+package it.pagopa.selfcare.party.registry_proxy.connector.lucene.reader;
+
+import it.pagopa.selfcare.party.registry_proxy.connector.lucene.analysis.UOTokenAnalyzer;
+import it.pagopa.selfcare.party.registry_proxy.connector.lucene.converter.DocumentToUOConverter;
+import it.pagopa.selfcare.party.registry_proxy.connector.lucene.converter.UOToDocumentConverter;
+import it.pagopa.selfcare.party.registry_proxy.connector.lucene.model.UOEntity;
+import it.pagopa.selfcare.party.registry_proxy.connector.model.Entity;
+import it.pagopa.selfcare.party.registry_proxy.connector.model.Origin;
+import it.pagopa.selfcare.party.registry_proxy.connector.model.QueryResult;
+import it.pagopa.selfcare.party.registry_proxy.connector.model.UO;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.*;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the UO listing before and after bounding the collector to the requested page, and offset paging with
+ * search-after paging, over a generated index of {@link #NUM_DOCS} UOs.
+ * <p>
+ * The index is force-merged into a single segment and held in memory, so the scores measure collection alone. The
+ * deep page is page {@value #DEEP_PAGE} of {@value #LIMIT} hits: offset paging collects all the hits before it,
+ * while its cursor is obtained once, at setup, by walking the previous pages.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class UOIndexSearchServiceBenchmark {
+
+    private static final int NUM_DOCS = 500_000;
+    private static final int LIMIT = 10;
+    private static final int DEEP_PAGE = 2_000;
+
+    private Directory directory;
+    private DirectoryReader reader;
+    private UOIndexSearchService indexSearchService;
+    private String deepPageCursor;
+
+
+    @Setup
+    public void setup() throws IOException {
+        directory = new ByteBuffersDirectory();
+        final UOToDocumentConverter converter = new UOToDocumentConverter();
+        try (IndexWriter indexWriter = new IndexWriter(directory, new IndexWriterConfig(new UOTokenAnalyzer()))) {
+            for (int i = 0; i < NUM_DOCS; i++) {
+                indexWriter.addDocument(converter.apply(createUO(i)));
+            }
+            indexWriter.forceMerge(1);
+            indexWriter.commit();
+        }
+        reader = DirectoryReader.open(directory);
+        indexSearchService = new UOIndexSearchService(directory);
+
+        String cursor = null;
+        for (int page = 1; page < DEEP_PAGE; page++) {
+            cursor = indexSearchService.findAll(cursor, LIMIT, Entity.UO.toString()).getNextCursor();
+        }
+        deepPageCursor = cursor;
+    }
+
+
+    @TearDown
+    public void tearDown() throws Exception {
+        indexSearchService.destroy();
+        reader.close();
+        directory.close();
+    }
+
+
+    /**
+     * Previous behaviour: a priority queue sized on the whole index for every request.
+     */
+    @Benchmark
+    public List<UO> findAllFirstPage_unboundedCollector() throws IOException {
+        final IndexSearcher indexSearcher = new IndexSearcher(reader);
+        final TopScoreDocCollector collector = TopScoreDocCollector.create(reader.numDocs(), reader.numDocs());
+        indexSearcher.search(new TermQuery(new Term(Entity.ENTITY_TYPE.toString(), Entity.UO.toString())), collector);
+        final TopDocs hits = collector.topDocs(0, LIMIT);
+        final DocumentToUOConverter documentConverter = new DocumentToUOConverter();
+        final List<UO> items = new ArrayList<>(hits.scoreDocs.length);
+        for (ScoreDoc scoreDoc : hits.scoreDocs) {
+            items.add(documentConverter.apply(indexSearcher.doc(scoreDoc.doc)));
+        }
+        return items;
+    }
+
+
+    @Benchmark
+    public QueryResult<UO> findAllFirstPage() {
+        return indexSearchService.findAll(1, LIMIT, Entity.UO.toString());
+    }
+
+
+    @Benchmark
+    public QueryResult<UO> findAllDeepPage() {
+        return indexSearchService.findAll(DEEP_PAGE, LIMIT, Entity.UO.toString());
+    }
+
+
+    @Benchmark
+    public QueryResult<UO> findAllDeepPage_searchAfter() {
+        return indexSearchService.findAll(deepPageCursor, LIMIT, Entity.UO.toString());
+    }
+
+
+    private static UOEntity createUO(int i) {
+        final UOEntity uo = new UOEntity();
+        uo.setOrigin(Origin.IPA);
+        uo.setCodiceIpa("ipa_" + (i % 20_000));
+        uo.setDenominazioneEnte("Ente " + (i % 20_000));
+        uo.setCodiceFiscaleEnte(String.format("%011d", i % 20_000));
+        uo.setCodiceFiscaleSfe(String.format("%011d", i));
+        uo.setCodiceUniUo("UO" + i);
+        uo.setCodiceUniUoPadre("UO" + (i / 10));
+        uo.setCodiceUniAoo("AOO" + (i % 50_000));
+        uo.setDescrizioneUo("Ufficio " + i);
+        uo.setMail1("uo" + i + "@pec.it");
+        uo.setMail2("");
+        uo.setMail3("");
+        uo.setTipoMail1("Pec");
+        uo.setTipoMail2("");
+        uo.setTipoMail3("");
+        uo.setDataIstituzione("2020-01-01");
+        uo.setNomeResponsabile("Nome");
+        uo.setCognomeResponsabile("Cognome");
+        uo.setMailResponsabile("responsabile@ente.it");
+        uo.setTelefonoResponsabile("0600000000");
+        uo.setCodiceComuneISTAT("058091");
+        uo.setCodiceCatastaleComune("H501");
+        uo.setCAP("00100");
+        uo.setIndirizzo("Via Roma " + i);
+        uo.setTelefono("0600000000");
+        uo.setFax("0600000001");
+        uo.setUrl("https://ente.it");
+        uo.setDataAggiornamento("2024-01-01");
+        return uo;
+    }
+
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(UOIndexSearchServiceBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build())
+                .run();
+    }
+
+}
@@ -0,0 +1,48 @@
+package it.pagopa.selfcare.party.registry_proxy.connector.lucene.writer;
+
+import it.pagopa.selfcare.party.registry_proxy.connector.api.FileStorageConnector;
+import it.pagopa.selfcare.party.registry_proxy.connector.exception.ResourceNotFoundException;
+import it.pagopa.selfcare.party.registry_proxy.connector.model.ResourceResponse;
+import lombok.SneakyThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+public class DummyFileStorageConnector implements FileStorageConnector {
+
+    private final Map<String, byte[]> files = new HashMap<>();
+
+
+    @Override
+    public ResourceResponse getFile(String fileName) {
+        final byte[] data = files.get(fileName);
+        if (data == null) {
+            throw new ResourceNotFoundException(fileName);
+        }
+        final ResourceResponse response = new ResourceResponse();
+        response.setFileName(fileName);
+        response.setData(data);
+        return response;
+    }
+
+
+    @Override
+    public InputStream openFile(String fileName) {
+        return new ByteArrayInputStream(getFile(fileName).getData());
+    }
+
+
+    @SneakyThrows
+    @Override
+    public void uploadFile(InputStream file, String fileName) {
+        files.put(fileName, file.readAllBytes());
+    }
+
+
+    public Map<String, byte[]> getFiles() {
+        return files;
+    }
+
+}
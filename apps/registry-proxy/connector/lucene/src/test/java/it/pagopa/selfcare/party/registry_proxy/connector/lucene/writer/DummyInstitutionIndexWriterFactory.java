@@ -3,10 +3,11 @@ package it.pagopa.selfcare.party.registry_proxy.connector.lucene.writer;
 import it.pagopa.selfcare.party.registry_proxy.connector.lucene.analysis.InstitutionTokenAnalyzer;
 import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.store.Directory;
+import org.springframework.beans.factory.DisposableBean;
 
-public class DummyInstitutionIndexWriterFactory implements IndexWriterFactory {
+public class DummyInstitutionIndexWriterFactory implements IndexWriterFactory, DisposableBean {
 
-    private final IndexWriterFactory indexWriterFactory;
+    private final InstitutionIndexWriterFactory indexWriterFactory;
 
 
     public DummyInstitutionIndexWriterFactory(Directory institutionsDirectory) {
@@ -19,4 +20,10 @@ public class DummyInstitutionIndexWriterFactory implements IndexWriterFactory {
         return indexWriterFactory.create();
     }
 
+
+    @Override
+    public void destroy() throws Exception {
+        indexWriterFactory.destroy();
+    }
+
 }
@@ -3,10 +3,11 @@ package it.pagopa.selfcare.party.registry_proxy.connector.lucene.writer;
 import it.pagopa.selfcare.party.registry_proxy.connector.lucene.analysis.UOTokenAnalyzer;
 import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.store.Directory;
+import org.springframework.beans.factory.DisposableBean;
 
-public class DummyUOIndexWriterFactory implements IndexWriterFactory {
+public class DummyUOIndexWriterFactory implements IndexWriterFactory, DisposableBean {
 
-    private final IndexWriterFactory indexWriterFactory;
+    private final UOIndexWriterFactory indexWriterFactory;
 
 
     public DummyUOIndexWriterFactory(Directory uosDirectory) {
@@ -19,4 +20,10 @@ public class DummyUOIndexWriterFactory implements IndexWriterFactory {
         return indexWriterFactory.create();
     }
 
+
+    @Override
+    public void destroy() throws Exception {
+        indexWriterFactory.destroy();
+    }
+
 }
@@ -3,9 +3,11 @@ package it.pagopa.selfcare.party.registry_proxy.connector.lucene.writer;
 import it.pagopa.selfcare.party.registry_proxy.connector.lucene.analysis.InstitutionTokenAnalyzer;
 import it.pagopa.selfcare.party.registry_proxy.connector.lucene.config.InMemoryIndexConfig;
 import it.pagopa.selfcare.party.registry_proxy.connector.lucene.model.DummyInstitution;
+import it.pagopa.selfcare.party.registry_proxy.connector.lucene.model.InstitutionEntity;
 import it.pagopa.selfcare.party.registry_proxy.connector.model.Institution;
 import lombok.SneakyThrows;
 import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.SegmentInfos;
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.MatchAllDocsQuery;
 import org.apache.lucene.store.Directory;
@@ -17,6 +19,10 @@ import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static it.pagopa.selfcare.commons.utils.TestUtils.mockInstance;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -57,6 +63,77 @@ class InstitutionIndexWriterServiceTest {
     }
 
 
+    @Test
+    void adds_stream() {
+        // given
+        indexWriterService.deleteAll();
+        final Stream<InstitutionEntity> items = IntStream.range(0, 3)
+                .mapToObj(bias -> mockInstance(new InstitutionEntity(), bias));
+        // when
+        indexWriterService.adds(items, 2);
+        // then
+        assertEquals(3, count(directory));
+    }
+
+
+    @SneakyThrows
+    @Test
+    void adds_stream_commitsOnce() {
+        // given
+        indexWriterService.deleteAll();
+        final long generation = SegmentInfos.readLatestCommit(directory).getGeneration();
+        final Stream<InstitutionEntity> items = IntStream.range(0, 5)
+                .mapToObj(bias -> mockInstance(new InstitutionEntity(), bias));
+        // when
+        indexWriterService.adds(items, 2);
+        // then
+        assertEquals(generation + 1, SegmentInfos.readLatestCommit(directory).getGeneration());
+        assertEquals(5, count(directory));
+    }
+
+
+    @SneakyThrows
+    @Test
+    void adds_stream_commitsEveryInterval() {
+        // given
+        indexWriterService.deleteAll();
+        final long generation = SegmentInfos.readLatestCommit(directory).getGeneration();
+        final Stream<InstitutionEntity> items = IntStream.range(0, 5)
+                .mapToObj(bias -> mockInstance(new InstitutionEntity(), bias));
+        indexWriterService.setCommitInterval(2);
+        try {
+            // when
+            indexWriterService.adds(items, 2);
+        } finally {
+            indexWriterService.setCommitInterval(0);
+        }
+        // then
+        assertEquals(generation + 3, SegmentInfos.readLatestCommit(directory).getGeneration());
+        assertEquals(5, count(directory));
+    }
+
+
+    @SneakyThrows
+    @Test
+    void adds_unchangedSkipped() {
+        // given
+        indexWriterService.deleteAll();
+        final List<? extends Institution> items = List.of(mockInstance(new InstitutionEntity()));
+        indexWriterService.adds(items);
+        final int maxDoc;
+        try (DirectoryReader reader = DirectoryReader.open(directory)) {
+            maxDoc = reader.maxDoc();
+        }
+        // when
+        indexWriterService.adds(items);
+        // then
+        try (DirectoryReader reader = DirectoryReader.open(directory)) {
+            assertEquals(maxDoc, reader.maxDoc());
+            assertEquals(1, reader.numDocs());
+        }
+    }
+
+
     @Test
     void deleteAll() {
         // given
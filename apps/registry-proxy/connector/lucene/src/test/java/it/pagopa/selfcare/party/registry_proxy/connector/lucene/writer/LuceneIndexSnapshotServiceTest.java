@@ -0,0 +1,103 @@
+package it.pagopa.selfcare.party.registry_proxy.connector.lucene.writer;
+
+import it.pagopa.selfcare.party.registry_proxy.connector.lucene.analysis.InstitutionTokenAnalyzer;
+import it.pagopa.selfcare.party.registry_proxy.connector.lucene.model.InstitutionEntity;
+import it.pagopa.selfcare.party.registry_proxy.connector.model.Entity;
+import lombok.SneakyThrows;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+
+import java.util.List;
+
+import static it.pagopa.selfcare.commons.utils.TestUtils.mockInstance;
+import static org.junit.jupiter.api.Assertions.*;
+
+class LuceneIndexSnapshotServiceTest {
+
+    private final DummyFileStorageConnector fileStorageConnector = new DummyFileStorageConnector();
+    private final Directory sourceDirectory = new ByteBuffersDirectory();
+    private final Directory targetDirectory = new ByteBuffersDirectory();
+    private final InstitutionIndexWriterFactory sourceIndexWriterFactory = new InstitutionIndexWriterFactory(sourceDirectory, new InstitutionTokenAnalyzer());
+    private final InstitutionIndexWriterFactory targetIndexWriterFactory = new InstitutionIndexWriterFactory(targetDirectory, new InstitutionTokenAnalyzer());
+    private final LuceneIndexSnapshotService sourceSnapshotService = createSnapshotService(sourceIndexWriterFactory);
+    private final LuceneIndexSnapshotService targetSnapshotService = createSnapshotService(targetIndexWriterFactory);
+
+
+    @AfterEach
+    void tearDown() throws Exception {
+        sourceIndexWriterFactory.destroy();
+        targetIndexWriterFactory.destroy();
+    }
+
+
+    @Test
+    void restore_notPublished() {
+        // given
+        // when
+        final boolean restored = targetSnapshotService.restore(Entity.INSTITUTION);
+        // then
+        assertFalse(restored);
+    }
+
+
+    @SneakyThrows
+    @Test
+    void publish_restore() {
+        // given
+        new InstitutionIndexWriterService(sourceIndexWriterFactory)
+                .adds(List.of(mockInstance(new InstitutionEntity(), 1), mockInstance(new InstitutionEntity(), 2)));
+        new InstitutionIndexWriterService(targetIndexWriterFactory)
+                .adds(List.of(mockInstance(new InstitutionEntity(), 3)));
+        sourceSnapshotService.publish(Entity.INSTITUTION);
+        // when
+        final boolean restored = targetSnapshotService.restore(Entity.INSTITUTION);
+        // then
+        assertTrue(restored);
+        assertEquals(2, fileStorageConnector.getFiles().size());
+        try (DirectoryReader reader = DirectoryReader.open(targetDirectory)) {
+            assertEquals(2, reader.numDocs());
+            assertEquals(1, reader.leaves().size());
+            assertNotNull(reader.getIndexCommit().getUserData().get(LuceneIndexSnapshotService.VERSION_KEY));
+        }
+    }
+
+
+    @SneakyThrows
+    @Test
+    void restore_alreadyAtVersion() {
+        // given
+        new InstitutionIndexWriterService(sourceIndexWriterFactory)
+                .adds(List.of(mockInstance(new InstitutionEntity(), 1)));
+        sourceSnapshotService.publish(Entity.INSTITUTION);
+        targetSnapshotService.restore(Entity.INSTITUTION);
+        fileStorageConnector.getFiles().keySet().removeIf(fileName -> fileName.endsWith(".zip"));
+        // when
+        final boolean restored = targetSnapshotService.restore(Entity.INSTITUTION);
+        // then
+        assertTrue(restored);
+        try (DirectoryReader reader = DirectoryReader.open(targetDirectory)) {
+            assertEquals(1, reader.numDocs());
+        }
+    }
+
+
+    @Test
+    void publish_unsupportedEntity() {
+        // given
+        // when
+        final Executable executable = () -> sourceSnapshotService.publish(Entity.ENTITY_TYPE);
+        // then
+        assertThrows(IllegalArgumentException.class, executable);
+    }
+
+
+    private LuceneIndexSnapshotService createSnapshotService(IndexWriterFactory indexWriterFactory) {
+        return new LuceneIndexSnapshotService(indexWriterFactory, indexWriterFactory, indexWriterFactory,
+                indexWriterFactory, indexWriterFactory, indexWriterFactory, fileStorageConnector, "lucene-snapshots");
+    }
+
+}
@@ -41,6 +41,17 @@ class UOIndexWriterFactoryTest {
     }
 
 
+    @Test
+    void create_sameWriter() {
+        // given
+        final IndexWriter indexWriter = indexWriterFactory.create();
+        // when
+        final IndexWriter result = indexWriterFactory.create();
+        // then
+        assertSame(indexWriter, result);
+    }
+
+
     @Test
     void create_Exception() {
         // given
@@ -16,9 +16,17 @@ import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
@@ -69,6 +77,84 @@ public class IvassConnectorImpl implements IvassDataConnector {
         return filterCompanies(companies);
     }
 
+    /**
+     * Streams the IVASS zip into a temporary CSV file and parses it lazily from there, so that neither the archive nor
+     * the companies are held in memory. The file is fully validated before the stream is returned, so that a
+     * non-compliant file falls back to the last one available in Azure Blob Storage, as in {@link #getInsurances()}.
+     */
+    @Override
+    public Stream<InsuranceCompany> streamInsurances() {
+        final Path csv = createTempFile();
+        try {
+            final Boolean extracted = ivassRestClient.getInsurancesZip(response -> {
+                try (OutputStream outputStream = Files.newOutputStream(csv)) {
+                    return ivassUtils.extractFirstEntryFromZip(response.getBody(), outputStream);
+                }
+            });
+            if (!Boolean.TRUE.equals(extracted)) {
+                deleteTempFile(csv);
+                return Stream.empty();
+            }
+            final long count;
+            try (Stream<InsuranceCompany> companies = openCsv(csv)) {
+                count = companies.count();
+            }
+            if (count > 0) {
+                backupToAzure(csv);
+            }
+            final Stream<InsuranceCompany> companies = openCsv(csv);
+            return companies.filter(this::isAdmitted)
+                    .onClose(() -> deleteTempFile(csv));
+        } catch (IvassFileParseException e) {
+            deleteTempFile(csv);
+            log.warn("IVASS file downloaded from REST endpoint is not compliant with the expected format. " +
+                    "Attempting fallback to last available file in Azure Blob Storage.", e);
+            return filterCompanies(getInsurancesFromAzureFallback()).stream();
+        } catch (RuntimeException e) {
+            deleteTempFile(csv);
+            throw e;
+        }
+    }
+
+    private Stream<InsuranceCompany> openCsv(Path csv) {
+        final Reader reader;
+        try {
+            reader = ivassUtils.newCsvReader(Files.newInputStream(csv));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        try {
+            return ivassUtils.streamCsv(reader).onClose(() -> closeReader(reader));
+        } catch (RuntimeException e) {
+            closeReader(reader);
+            throw e;
+        }
+    }
+
+    private static void closeReader(Reader reader) {
+        try {
+            reader.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Path createTempFile() {
+        try {
+            return Files.createTempFile("ivass-", ".csv");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void deleteTempFile(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Unable to delete temporary file {}", file, e);
+        }
+    }
+
     /**
      * Saves the successfully-parsed CSV to Azure Blob Storage so it can be used as a fallback
      * in case future downloads from the IVASS REST endpoint are malformed.
@@ -85,6 +171,18 @@ public class IvassConnectorImpl implements IvassDataConnector {
         }
     }
 
+    private void backupToAzure(Path csv) {
+        if (fileStorageConnector == null) {
+            return;
+        }
+        try (InputStream inputStream = Files.newInputStream(csv)) {
+            fileStorageConnector.uploadFile(inputStream, ivassAzureFilename);
+            log.info("IVASS CSV successfully backed up to Azure Blob Storage as '{}'", ivassAzureFilename);
+        } catch (Exception e) {
+            log.warn("Unable to back up IVASS CSV to Azure Blob Storage (non-blocking): {}", e.getMessage(), e);
+        }
+    }
+
     /**
      * Retrieves IVASS insurance data from Azure Blob Storage as a fallback when the file
      * downloaded from the IVASS REST endpoint cannot be parsed.
@@ -111,13 +209,17 @@ public class IvassConnectorImpl implements IvassDataConnector {
     private List<InsuranceCompany> filterCompanies(List<InsuranceCompany> companies) {
         return companies
                 .stream()
-                .filter(company -> StringUtils.hasText(company.getDigitalAddress())
-                        && workTypesAdmitted.contains(company.getWorkType())
-                        && registryTypesAdmitted
-                        .stream()
-                        .anyMatch(StringUtils.trimAllWhitespace(company.getRegisterType()
-                                .split("-")[0])::equals))
+                .filter(this::isAdmitted)
                 .collect(Collectors.toList());
     }
 
+    private boolean isAdmitted(InsuranceCompany company) {
+        return StringUtils.hasText(company.getDigitalAddress())
+                && workTypesAdmitted.contains(company.getWorkType())
+                && registryTypesAdmitted
+                .stream()
+                .anyMatch(StringUtils.trimAllWhitespace(company.getRegisterType()
+                        .split("-")[0])::equals);
+    }
+
 }
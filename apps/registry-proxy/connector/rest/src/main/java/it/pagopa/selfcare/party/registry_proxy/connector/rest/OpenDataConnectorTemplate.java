@@ -2,6 +2,8 @@ package it.pagopa.selfcare.party.registry_proxy.connector.rest;
 
 import com.opencsv.bean.CsvToBean;
 import com.opencsv.bean.CsvToBeanBuilder;
+import feign.FeignException;
+import feign.Response;
 import it.pagopa.selfcare.party.registry_proxy.connector.api.OpenDataConnector;
 import it.pagopa.selfcare.party.registry_proxy.connector.model.AOO;
 import it.pagopa.selfcare.party.registry_proxy.connector.model.Category;
@@ -14,7 +16,11 @@ import lombok.extern.slf4j.Slf4j;
 
 import java.io.*;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import static java.util.stream.Collectors.toMap;
 
@@ -34,7 +40,7 @@ abstract class OpenDataConnectorTemplate<I extends Institution, C extends Catego
         List<I> institutions;
         final String csv = restClient.retrieveInstitutions();
 
-        try (Reader reader = new BufferedReader(new InputStreamReader(new ByteArrayInputStream(csv.getBytes())))) {
+        try (Reader reader = new BufferedReader(new StringReader(csv))) {
             CsvToBean<I> csvToBean = new CsvToBeanBuilder<I>(reader)
                     .withType(getInstitutionType())
                     .withIgnoreLeadingWhiteSpace(true)
@@ -56,7 +62,7 @@ abstract class OpenDataConnectorTemplate<I extends Institution, C extends Catego
         List<C> categories;
         final String csv = restClient.retrieveCategories();
 
-        try (Reader reader = new BufferedReader(new InputStreamReader(new ByteArrayInputStream(csv.getBytes())))) {
+        try (Reader reader = new BufferedReader(new StringReader(csv))) {
             CsvToBean<C> csvToBean = new CsvToBeanBuilder<C>(reader)
                     .withType(getCategoryType())
                     .withIgnoreLeadingWhiteSpace(true)
@@ -76,7 +82,7 @@ abstract class OpenDataConnectorTemplate<I extends Institution, C extends Catego
         List<A> aoos;
         final String csv = restClient.retrieveAOOs();
 
-        try (Reader reader = new BufferedReader(new InputStreamReader(new ByteArrayInputStream(csv.getBytes())))) {
+        try (Reader reader = new BufferedReader(new StringReader(csv))) {
             CsvToBean<A> csvToBean = new CsvToBeanBuilder<A>(reader)
                     .withType(getAOOType())
                     .withIgnoreLeadingWhiteSpace(true)
@@ -98,7 +104,7 @@ abstract class OpenDataConnectorTemplate<I extends Institution, C extends Catego
         List<IPAOpenDataUO> uos;
         final String csv = restClient.retrieveUOs();
 
-        try (Reader reader = new BufferedReader(new InputStreamReader(new ByteArrayInputStream(csv.getBytes())))) {
+        try (Reader reader = new BufferedReader(new StringReader(csv))) {
             CsvToBean<IPAOpenDataUO> csvToBean = new CsvToBeanBuilder<IPAOpenDataUO>(reader)
                     .withType(IPAOpenDataUO.class)
                     .withIgnoreLeadingWhiteSpace(true)
@@ -122,7 +128,7 @@ abstract class OpenDataConnectorTemplate<I extends Institution, C extends Catego
     private List<U> getUOsWithSfe() {
         List<U> uosWithSfe;
         final String csvWithSfe = restClient.retrieveUOsWithSfe();
-        try (Reader reader = new BufferedReader(new InputStreamReader(new ByteArrayInputStream(csvWithSfe.getBytes())))) {
+        try (Reader reader = new BufferedReader(new StringReader(csvWithSfe))) {
             CsvToBean<U> csvToBean = new CsvToBeanBuilder<U>(reader)
                     .withType(getUOType())
                     .withIgnoreLeadingWhiteSpace(true)
@@ -134,6 +140,68 @@ abstract class OpenDataConnectorTemplate<I extends Institution, C extends Catego
         return uosWithSfe;
     }
 
+    @Override
+    public Stream<I> streamInstitutions() {
+        log.trace("streamInstitutions start");
+        final Stream<I> institutions = streamCsv(restClient::streamInstitutions, getInstitutionType());
+        log.trace("streamInstitutions end");
+        return institutions;
+    }
+
+    @Override
+    public Stream<A> streamAOOs() {
+        log.trace("streamAOOs start");
+        final Stream<A> aoos = streamCsv(restClient::streamAOOs, getAOOType());
+        log.trace("streamAOOs end");
+        return aoos;
+    }
+
+    /**
+     * The SFE file only lists the UOs having an electronic invoicing tax code, so just the {@code id -> codiceFiscaleSfe}
+     * pairs are kept in memory while the whole UO file is streamed.
+     */
+    @Override
+    public Stream<U> streamUOs() {
+        log.trace("streamUOs start");
+        final Map<String, String> taxCodesSfe;
+        try (Stream<U> uosWithSfe = streamCsv(restClient::streamUOsWithSfe, getUOType())) {
+            taxCodesSfe = uosWithSfe
+                    .filter(uo -> uo.getCodiceFiscaleSfe() != null)
+                    .collect(toMap(UO::getId, UO::getCodiceFiscaleSfe, (first, second) -> second));
+        }
+        log.debug("streamUOs uos with sfe = {}", taxCodesSfe.size());
+        final Stream<U> uos = streamCsv(restClient::streamUOs, IPAOpenDataUO.class)
+                .map(uo -> {
+                    final String taxCodeSfe = taxCodesSfe.get(uo.getId());
+                    if (taxCodeSfe != null) {
+                        uo.setCodiceFiscaleSfe(taxCodeSfe);
+                    }
+                    return (U) uo;
+                });
+        log.trace("streamUOs end");
+        return uos;
+    }
+
+    @SneakyThrows
+    private <T> Stream<T> streamCsv(Supplier<Response> request, Class<? extends T> type) {
+        final Response response = request.get();
+        try {
+            if (response.status() < 200 || response.status() >= 300) {
+                throw FeignException.errorStatus(response.request().url(), response);
+            }
+            final Reader reader = new BufferedReader(new InputStreamReader(response.body().asInputStream(), response.charset()));
+            final CsvToBean<T> csvToBean = new CsvToBeanBuilder<T>(reader)
+                    .withType(type)
+                    .withIgnoreLeadingWhiteSpace(true)
+                    .build();
+            return StreamSupport.stream(csvToBean.spliterator(), false)
+                    .onClose(response::close);
+        } catch (IOException | RuntimeException e) {
+            response.close();
+            throw e;
+        }
+    }
+
     protected abstract Class<I> getInstitutionType();
 
     protected abstract Class<C> getCategoryType();
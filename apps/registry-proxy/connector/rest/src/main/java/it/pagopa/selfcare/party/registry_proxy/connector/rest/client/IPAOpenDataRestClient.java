@@ -1,5 +1,6 @@
 package it.pagopa.selfcare.party.registry_proxy.connector.rest.client;
 
+import feign.Response;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -27,4 +28,16 @@ public interface IPAOpenDataRestClient extends OpenDataRestClient {
     @GetMapping(value = "${rest-client.ipa-open-data.retrieveUOsWithSfe.path}", produces = MediaType.TEXT_PLAIN_VALUE)
     @ResponseBody
     String retrieveUOsWithSfe();
+
+    @GetMapping(value = "${rest-client.ipa-open-data.retrieveInstitutions.path}", produces = MediaType.TEXT_PLAIN_VALUE)
+    Response streamInstitutions();
+
+    @GetMapping(value = "${rest-client.ipa-open-data.retrieveAOOs.path}", produces = MediaType.TEXT_PLAIN_VALUE)
+    Response streamAOOs();
+
+    @GetMapping(value = "${rest-client.ipa-open-data.retrieveUOs.path}", produces = MediaType.TEXT_PLAIN_VALUE)
+    Response streamUOs();
+
+    @GetMapping(value = "${rest-client.ipa-open-data.retrieveUOsWithSfe.path}", produces = MediaType.TEXT_PLAIN_VALUE)
+    Response streamUOsWithSfe();
 }
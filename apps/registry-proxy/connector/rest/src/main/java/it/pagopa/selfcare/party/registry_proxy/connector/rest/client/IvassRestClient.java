@@ -3,7 +3,9 @@ package it.pagopa.selfcare.party.registry_proxy.connector.rest.client;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.PropertySource;
+import org.springframework.http.HttpMethod;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResponseExtractor;
 import org.springframework.web.client.RestTemplate;
 
 @Slf4j
@@ -28,4 +30,14 @@ public class IvassRestClient {
         String apiPath = this.ivassBasePath + getInsurancesPath;
         return ivassRestTemplate.getForObject(apiPath, byte[].class);
     }
+
+    /**
+     * Downloads the insurances zip handing the response body to {@code responseExtractor} as it is received, instead
+     * of buffering it.
+     */
+    public <T> T getInsurancesZip(ResponseExtractor<T> responseExtractor) {
+        log.info("getInsurances start");
+        String apiPath = this.ivassBasePath + getInsurancesPath;
+        return ivassRestTemplate.execute(apiPath, HttpMethod.GET, null, responseExtractor);
+    }
 }
@@ -1,5 +1,7 @@
 package it.pagopa.selfcare.party.registry_proxy.connector.rest.client;
 
+import feign.Response;
+
 public interface OpenDataRestClient {
 
     String retrieveInstitutions();
@@ -12,4 +14,16 @@ public interface OpenDataRestClient {
 
     String retrieveUOsWithSfe();
 
+    /**
+     * Streaming variants of the retrieve methods: the body of the returned {@link Response} is not buffered
+     * and must be closed by the caller.
+     */
+    Response streamInstitutions();
+
+    Response streamAOOs();
+
+    Response streamUOs();
+
+    Response streamUOsWithSfe();
+
 }
@@ -1,6 +1,5 @@
 package it.pagopa.selfcare.party.registry_proxy.connector.rest.utils;
 
-import com.opencsv.bean.CsvToBean;
 import com.opencsv.bean.CsvToBeanBuilder;
 import it.pagopa.selfcare.party.registry_proxy.connector.model.InsuranceCompany;
 import it.pagopa.selfcare.party.registry_proxy.connector.rest.exception.IvassFileParseException;
@@ -11,7 +10,13 @@ import org.springframework.stereotype.Service;
 import java.io.*;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 
@@ -19,59 +24,161 @@ import java.util.zip.ZipInputStream;
 @Service
 public class IvassUtils {
 
+    private static final int THRESHOLD_SIZE = 100000000; // 100 MB
+    private static final double THRESHOLD_RATIO = 10; // 10 times the compressed size
+    private static final byte[] UTF8_BOM = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+
     public byte[] extractFirstEntryByteArrayFromZip(byte[] zipBytes) {
-        try (ByteArrayInputStream byteArrayInputStream = new ByteArrayInputStream(zipBytes);
-            ZipInputStream zipInputStream = new ZipInputStream(byteArrayInputStream)) {
+        try (ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream()) {
+            if (extractFirstEntryFromZip(new ByteArrayInputStream(zipBytes), byteArrayOutputStream)) {
+                return byteArrayOutputStream.toByteArray();
+            }
+        } catch (IOException e) {
+            log.debug("Error extracting file from zip", e);
+        }
+        return new byte[0];
+    }
+
+    /**
+     * Copies the first entry of the zip read from {@code zipStream} into {@code outputStream}, without holding it in
+     * memory and without its UTF-8 BOM, so that the copy can be backed up and read back as is. The same size and
+     * compression ratio limits of {@link #extractFirstEntryByteArrayFromZip(byte[])} apply.
+     *
+     * @return {@code false} if the zip has no entries, exceeds a limit or cannot be read; in that case
+     * {@code outputStream} may hold a partial entry and must be discarded
+     */
+    public boolean extractFirstEntryFromZip(InputStream zipStream, OutputStream outputStream) {
+        CountingInputStream compressedInputStream = new CountingInputStream(zipStream);
+        try (ZipInputStream zipInputStream = new ZipInputStream(compressedInputStream)) {
             ZipEntry entry = zipInputStream.getNextEntry();
 
             if (entry != null) {
-                int totalSizeEntry = 0;
-                int thresholdSize = 100000000; // 100 MB
-                double thresholdRatio = 10; // 10 times the compressed size
-
-                try (ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream()) {
-                    byte[] buffer = new byte[1024];
-                    int length;
-                    while ((length = zipInputStream.read(buffer)) != -1) {
-                        totalSizeEntry += length;
-
-                        // Check the compression ratio of the extracted file (security reasons)
-                        double compressionRatio = (double) totalSizeEntry / entry.getCompressedSize();
-                        if(compressionRatio > thresholdRatio) {
-                            log.error("Compression ratio exceeds the maximum allowed limit of " + thresholdRatio);
-                            return new byte[0];
-                        }
-
-                        // Check if the extracted file size exceeds the maximum allowed limit (security reasons)
-                        if(totalSizeEntry > thresholdSize) {
-                            log.error("Extracted file size exceeds the maximum allowed limit of " + thresholdSize + " bytes");
-                            return new byte[0];
-                        }
-
-                        byteArrayOutputStream.write(buffer, 0, length);
+                InputStream entryStream = skipUTF8BOM(zipInputStream);
+                long totalSizeEntry = 0;
+                byte[] buffer = new byte[8192];
+                int length;
+                while ((length = entryStream.read(buffer)) != -1) {
+                    totalSizeEntry += length;
+
+                    // Check the compression ratio of the extracted file (security reasons); the compressed size is
+                    // not in the local header of streamed entries, so the compressed bytes read so far are used
+                    long compressedSize = entry.getCompressedSize() > 0 ? entry.getCompressedSize() : compressedInputStream.count;
+                    double compressionRatio = (double) totalSizeEntry / compressedSize;
+                    if(compressionRatio > THRESHOLD_RATIO) {
+                        log.error("Compression ratio exceeds the maximum allowed limit of " + THRESHOLD_RATIO);
+                        return false;
+                    }
+
+                    // Check if the extracted file size exceeds the maximum allowed limit (security reasons)
+                    if(totalSizeEntry > THRESHOLD_SIZE) {
+                        log.error("Extracted file size exceeds the maximum allowed limit of " + THRESHOLD_SIZE + " bytes");
+                        return false;
                     }
-                    return byteArrayOutputStream.toByteArray();
+
+                    outputStream.write(buffer, 0, length);
                 }
+                return true;
             } else {
                 throw new IOException("No entries found in the zip file");
             }
         } catch (IOException e) {
             log.debug("Error extracting file from zip", e);
-            return new byte[0];
+            return false;
         }
     }
 
+    /**
+     * Parses the whole CSV, skipping the UTF-8 BOM if present, as in backups uploaded before it was stripped.
+     */
     public List<InsuranceCompany> readCsv(byte[] csv) {
-        try (Reader reader = new BufferedReader(new InputStreamReader(new ByteArrayInputStream(csv)))) {
-            CsvToBean<IvassDataTemplate> csvToBean = new CsvToBeanBuilder<IvassDataTemplate>(reader)
+        try (Reader reader = newCsvReader(new ByteArrayInputStream(csv));
+             Stream<InsuranceCompany> companies = streamCsv(reader)) {
+            return new ArrayList<>(companies.toList());
+        } catch (IOException e) {
+            throw parseException(e);
+        }
+    }
+
+    /**
+     * Opens a reader on the CSV read from {@code csv}, skipping the UTF-8 BOM if present.
+     */
+    public Reader newCsvReader(InputStream csv) throws IOException {
+        return new BufferedReader(new InputStreamReader(skipUTF8BOM(csv)));
+    }
+
+    private static InputStream skipUTF8BOM(InputStream inputStream) throws IOException {
+        PushbackInputStream pushbackInputStream = new PushbackInputStream(inputStream, UTF8_BOM.length);
+        byte[] head = pushbackInputStream.readNBytes(UTF8_BOM.length);
+        if (!Arrays.equals(head, UTF8_BOM)) {
+            pushbackInputStream.unread(head);
+        }
+        return pushbackInputStream;
+    }
+
+    /**
+     * Parses the rows of the CSV lazily, one at a time, as they are consumed. Rows that cannot be parsed make the
+     * stream throw an {@link IvassFileParseException}; {@code reader} has to be closed by the caller.
+     */
+    public Stream<InsuranceCompany> streamCsv(Reader reader) {
+        final Iterator<IvassDataTemplate> iterator;
+        try {
+            iterator = new CsvToBeanBuilder<IvassDataTemplate>(reader)
                     .withType(IvassDataTemplate.class)
                     .withSeparator(';')
-                    .build();
-            return new ArrayList<>(csvToBean.parse());
-        } catch (Exception e) {
-            log.error("Impossible to parse IVASS CSV file. The file may not be compliant with the expected format. Error: {}", e.getMessage(), e);
-            throw new IvassFileParseException("IVASS CSV file is not compliant with the expected format: " + e.getMessage(), e);
+                    .build()
+                    .iterator();
+        } catch (RuntimeException e) {
+            throw parseException(e);
+        }
+        return StreamSupport.stream(new Spliterators.AbstractSpliterator<InsuranceCompany>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super InsuranceCompany> action) {
+                final InsuranceCompany company;
+                try {
+                    if (!iterator.hasNext()) {
+                        return false;
+                    }
+                    company = iterator.next();
+                } catch (RuntimeException e) {
+                    throw parseException(e);
+                }
+                action.accept(company);
+                return true;
+            }
+        }, false);
+    }
+
+    private static class CountingInputStream extends FilterInputStream {
+
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
         }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int length = super.read(b, off, len);
+            if (length > 0) {
+                count += length;
+            }
+            return length;
+        }
+
+    }
+
+    private static IvassFileParseException parseException(Exception e) {
+        log.error("Impossible to parse IVASS CSV file. The file may not be compliant with the expected format. Error: {}", e.getMessage(), e);
+        return new IvassFileParseException("IVASS CSV file is not compliant with the expected format: " + e.getMessage(), e);
     }
 
     public byte[] manageUTF8BOM(byte[] csv) {
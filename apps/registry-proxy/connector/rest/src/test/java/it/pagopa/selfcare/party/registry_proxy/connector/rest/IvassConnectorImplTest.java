@@ -9,10 +9,21 @@ import it.pagopa.selfcare.party.registry_proxy.connector.rest.model.IvassDataTem
 import it.pagopa.selfcare.party.registry_proxy.connector.rest.utils.IvassUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.web.client.ResponseExtractor;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -164,4 +175,98 @@ class IvassConnectorImplTest {
 
         assertTrue(result.isEmpty());
     }
+
+    @Test
+    void streamInsurances_shouldReturnFilteredCompanies() throws IOException {
+        IvassConnectorImpl connector = createConnector(new IvassUtils());
+        String csv = "\uFEFFCODICE_IVASS;TIPO_ALBO;DENOMINAZIONE_IMPRESA;CODICE_FISCALE;INDIRIZZO_SEDE_LEGALE_RAPPRESENTANZA_IN_ITALIA;TIPO_LAVORO;PEC\n"
+                + "IV1;Elenco I - test;Company 1;00000000001;Address 1;VITA;pec1@test.it\n"
+                + "IV2;Elenco I - test;Company 2;00000000002;Address 2;DANNI;pec2@test.it\n"
+                + "IV3;Sezione II - test;Company 3;00000000003;Address 3;MISTA;pec3@test.it\n";
+        mockInsurancesZip(zip(csv.getBytes(StandardCharsets.UTF_8)));
+
+        try (Stream<InsuranceCompany> result = connector.streamInsurances()) {
+            assertEquals(List.of("00000000001", "00000000003"), result.map(InsuranceCompany::getTaxCode).toList());
+        }
+        verify(fileStorageConnector, times(1)).uploadFile(any(), eq(IVASS_AZURE_FILENAME));
+        verify(fileStorageConnector, never()).getFile(any());
+    }
+
+    @Test
+    void streamInsurances_shouldFallbackToAzure_whenRestCsvIsNotCompliant() throws IOException {
+        IvassConnectorImpl connector = createConnector(new IvassUtils());
+        byte[] malformed = new ClassPathResource("ivass-open-data-malformed.csv").getInputStream().readAllBytes();
+        String fallback = "CODICE_IVASS;TIPO_ALBO;DENOMINAZIONE_IMPRESA;CODICE_FISCALE;INDIRIZZO_SEDE_LEGALE_RAPPRESENTANZA_IN_ITALIA;TIPO_LAVORO;PEC\n"
+                + "IV1;Elenco I - test;Company 1;00000000001;Address 1;VITA;pec1@test.it\n";
+        ResourceResponse azureResponse = new ResourceResponse();
+        azureResponse.setData(fallback.getBytes(StandardCharsets.UTF_8));
+        mockInsurancesZip(zip(malformed));
+        when(fileStorageConnector.getFile(IVASS_AZURE_FILENAME)).thenReturn(azureResponse);
+
+        try (Stream<InsuranceCompany> result = connector.streamInsurances()) {
+            assertEquals(1, result.count());
+        }
+        verify(fileStorageConnector, never()).uploadFile(any(), any());
+    }
+
+    @Test
+    void streamInsurances_shouldFallbackToItsOwnBackup() throws IOException {
+        IvassConnectorImpl connector = createConnector(new IvassUtils());
+        String csv = "\uFEFFCODICE_IVASS;TIPO_ALBO;DENOMINAZIONE_IMPRESA;CODICE_FISCALE;INDIRIZZO_SEDE_LEGALE_RAPPRESENTANZA_IN_ITALIA;TIPO_LAVORO;PEC\n"
+                + "IV1;Elenco I - test;Company 1;00000000001;Address 1;VITA;pec1@test.it\n"
+                + "IV3;Sezione II - test;Company 3;00000000003;Address 3;MISTA;pec3@test.it\n";
+        ByteArrayOutputStream backup = new ByteArrayOutputStream();
+        doAnswer(invocation -> {
+            invocation.<InputStream>getArgument(0).transferTo(backup);
+            return null;
+        }).when(fileStorageConnector).uploadFile(any(), eq(IVASS_AZURE_FILENAME));
+        mockInsurancesZip(zip(csv.getBytes(StandardCharsets.UTF_8)));
+        try (Stream<InsuranceCompany> result = connector.streamInsurances()) {
+            assertEquals(2, result.count());
+        }
+
+        ResourceResponse azureResponse = new ResourceResponse();
+        azureResponse.setData(backup.toByteArray());
+        when(fileStorageConnector.getFile(IVASS_AZURE_FILENAME)).thenReturn(azureResponse);
+        mockInsurancesZip(zip(new ClassPathResource("ivass-open-data-malformed.csv").getInputStream().readAllBytes()));
+
+        try (Stream<InsuranceCompany> result = connector.streamInsurances()) {
+            assertEquals(List.of("00000000001", "00000000003"), result.map(InsuranceCompany::getTaxCode).toList());
+        }
+    }
+
+    @Test
+    void streamInsurances_shouldReturnEmptyStream_whenZipIsEmpty() throws IOException {
+        IvassConnectorImpl connector = createConnector(new IvassUtils());
+        mockInsurancesZip(new ClassPathResource("empty.zip").getInputStream().readAllBytes());
+
+        try (Stream<InsuranceCompany> result = connector.streamInsurances()) {
+            assertEquals(0, result.count());
+        }
+        verifyNoInteractions(fileStorageConnector);
+    }
+
+    private IvassConnectorImpl createConnector(IvassUtils ivassUtils) {
+        return new IvassConnectorImpl(ivassRestClient,
+                Arrays.asList("ElencoI", "ElencoII", "SezioneI", "SezioneII"),
+                Arrays.asList("VITA", "PICCOLO CUMULO", "MISTA"),
+                ivassUtils, fileStorageConnector, IVASS_AZURE_FILENAME);
+    }
+
+    private void mockInsurancesZip(byte[] zip) throws IOException {
+        ClientHttpResponse response = mock(ClientHttpResponse.class);
+        when(response.getBody()).thenReturn(new ByteArrayInputStream(zip));
+        when(ivassRestClient.getInsurancesZip(any())).thenAnswer(invocation ->
+                invocation.<ResponseExtractor<?>>getArgument(0).extractData(response));
+    }
+
+    private static byte[] zip(byte[] csv) throws IOException {
+        ByteArrayOutputStream zip = new ByteArrayOutputStream();
+        try (ZipOutputStream zipOutputStream = new ZipOutputStream(zip)) {
+            zipOutputStream.putNextEntry(new ZipEntry("ivass.csv"));
+            zipOutputStream.write(csv);
+            zipOutputStream.closeEntry();
+        }
+        return zip.toByteArray();
+    }
 }
@@ -1,5 +1,8 @@
 package it.pagopa.selfcare.party.registry_proxy.connector.rest;
 
+import feign.FeignException;
+import feign.Request;
+import feign.Response;
 import it.pagopa.selfcare.party.registry_proxy.connector.api.OpenDataConnector;
 import it.pagopa.selfcare.party.registry_proxy.connector.model.AOO;
 import it.pagopa.selfcare.party.registry_proxy.connector.model.Category;
@@ -7,11 +10,16 @@ import it.pagopa.selfcare.party.registry_proxy.connector.model.Institution;
 import it.pagopa.selfcare.party.registry_proxy.connector.model.UO;
 import it.pagopa.selfcare.party.registry_proxy.connector.rest.client.OpenDataRestClient;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
 import org.springframework.util.ResourceUtils;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -156,6 +164,96 @@ abstract class OpenDataConnectorTemplateTest {
     }
 
 
+    @Test
+    void streamInstitutions() throws IOException {
+        // given
+        when(getOpenDataRestClientMock().streamInstitutions())
+                .thenReturn(createResponse(200, readResource("classpath:institutions-open-data.csv")));
+        // when
+        final List<? extends Institution> institutions;
+        try (Stream<? extends Institution> stream = getOpenDataConnector().streamInstitutions()) {
+            institutions = stream.collect(Collectors.toList());
+        }
+        // then
+        assertEquals(1, institutions.size());
+        assertNotNull(institutions.get(0).getId());
+        assertNotNull(institutions.get(0).getTaxCode());
+        assertNotNull(institutions.get(0).getDescription());
+        assertNotNull(institutions.get(0).getOrigin());
+        verify(getOpenDataRestClientMock(), times(1))
+                .streamInstitutions();
+        verifyNoMoreInteractions(getOpenDataRestClientMock());
+    }
+
+    @Test
+    void streamInstitutions_errorStatus() {
+        // given
+        when(getOpenDataRestClientMock().streamInstitutions())
+                .thenReturn(createResponse(500, "error"));
+        // when
+        final Executable executable = () -> getOpenDataConnector().streamInstitutions();
+        // then
+        assertThrows(FeignException.class, executable);
+    }
+
+    @Test
+    void streamAOOs() throws IOException {
+        // given
+        when(getOpenDataRestClientMock().streamAOOs())
+                .thenReturn(createResponse(200, readResource("classpath:aoos-open-data.csv")));
+        // when
+        final List<? extends AOO> aoos;
+        try (Stream<? extends AOO> stream = getOpenDataConnector().streamAOOs()) {
+            aoos = stream.collect(Collectors.toList());
+        }
+        // then
+        assertEquals(1, aoos.size());
+        assertNotNull(aoos.get(0).getCodAoo());
+        assertNotNull(aoos.get(0).getCodiceUniAoo());
+        assertNotNull(aoos.get(0).getOrigin());
+        verify(getOpenDataRestClientMock(), times(1))
+                .streamAOOs();
+        verifyNoMoreInteractions(getOpenDataRestClientMock());
+    }
+
+    @Test
+    void streamUOs() throws IOException {
+        // given
+        when(getOpenDataRestClientMock().streamUOs())
+                .thenReturn(createResponse(200, readResource("classpath:uos-open-data.csv")));
+        when(getOpenDataRestClientMock().streamUOsWithSfe())
+                .thenReturn(createResponse(200, readResource("classpath:uos-sfe-open-data.csv")));
+        // when
+        final List<? extends UO> uos;
+        try (Stream<? extends UO> stream = getOpenDataConnector().streamUOs()) {
+            uos = stream.collect(Collectors.toList());
+        }
+        // then
+        assertEquals(1, uos.size());
+        assertNotNull(uos.get(0).getCodiceUniUo());
+        assertNotNull(uos.get(0).getOrigin());
+        assertNotNull(uos.get(0).getCodiceFiscaleSfe());
+        verify(getOpenDataRestClientMock(), times(1))
+                .streamUOsWithSfe();
+        verify(getOpenDataRestClientMock(), times(1))
+                .streamUOs();
+        verifyNoMoreInteractions(getOpenDataRestClientMock());
+    }
+
+
+    private static String readResource(String resourceLocation) throws IOException {
+        return new String(Files.readAllBytes(ResourceUtils.getFile(resourceLocation).toPath()));
+    }
+
+    private static Response createResponse(int status, String body) {
+        return Response.builder()
+                .status(status)
+                .request(Request.create(Request.HttpMethod.GET, "/open-data", Map.of(), null, StandardCharsets.UTF_8, null))
+                .body(body, StandardCharsets.UTF_8)
+                .build();
+    }
+
+
     protected abstract OpenDataConnector getOpenDataConnector();
 
     protected abstract OpenDataRestClient getOpenDataRestClientMock();
@@ -5,9 +5,12 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.client.ResponseExtractor;
 import org.springframework.web.client.RestTemplate;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
 
@@ -42,4 +45,15 @@ class IvassRestClientTest {
 
         assertThrows(RuntimeException.class, () -> ivassRestClient.getInsurancesZip());
     }
-}
\ No newline at end of file
+
+    @Test
+    void getInsurancesZip_shouldExtractResponse_whenSuccessful() {
+        ResponseExtractor<String> responseExtractor = response -> "extracted";
+        when(restTemplate.execute(anyString(), eq(HttpMethod.GET), isNull(), eq(responseExtractor))).thenReturn("extracted");
+
+        String result = ivassRestClient.getInsurancesZip(responseExtractor);
+
+        assertEquals("extracted", result);
+        verify(restTemplate, times(1)).execute("http://example.comgetInsurancesPath", HttpMethod.GET, null, responseExtractor);
+    }
+}
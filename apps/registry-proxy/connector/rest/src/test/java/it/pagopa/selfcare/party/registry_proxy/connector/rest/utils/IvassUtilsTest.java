@@ -8,8 +8,15 @@ import org.mockito.InjectMocks;
 import org.mockito.MockitoAnnotations;
 import org.springframework.core.io.ClassPathResource;
 
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.Reader;
 import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -57,6 +64,20 @@ class IvassUtilsTest {
         assertEquals(2, result.size());
     }
 
+    @Test
+    void readCsv_shouldSkipBOM_whenBOMPresent() throws IOException {
+        ClassPathResource resource = new ClassPathResource("ivass-open-data.csv");
+        byte[] csvBytes = java.nio.file.Files.readAllBytes(resource.getFile().toPath());
+        ByteArrayOutputStream csvWithBOM = new ByteArrayOutputStream();
+        csvWithBOM.write(new byte[]{(byte) 0xEF, (byte) 0xBB, (byte) 0xBF});
+        csvWithBOM.write(csvBytes);
+
+        List<InsuranceCompany> result = ivassUtil.readCsv(csvWithBOM.toByteArray());
+
+        assertEquals(ivassUtil.readCsv(csvBytes).stream().map(InsuranceCompany::getOriginId).toList(),
+                result.stream().map(InsuranceCompany::getOriginId).toList());
+    }
+
     @Test
     void readCsv_shouldReturnEmptyList_whenCsvIsEmpty() {
         byte[] csvBytes = new byte[0];
@@ -96,4 +117,77 @@ class IvassUtilsTest {
         assertArrayEquals(expectedCsv, result);
     }
 
+    @Test
+    void extractFirstEntryFromZip_shouldCopyEntry_whenZipContainsSingleFile() throws IOException {
+        ClassPathResource resource = new ClassPathResource("one_file.zip");
+        byte[] zipBytes = java.nio.file.Files.readAllBytes(resource.getFile().toPath());
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        boolean result = ivassUtil.extractFirstEntryFromZip(new ByteArrayInputStream(zipBytes), outputStream);
+
+        assertTrue(result);
+        assertArrayEquals(ivassUtil.extractFirstEntryByteArrayFromZip(zipBytes), outputStream.toByteArray());
+    }
+
+    @Test
+    void extractFirstEntryFromZip_shouldReturnFalse_whenZipIsEmpty() throws IOException {
+        ClassPathResource resource = new ClassPathResource("empty.zip");
+        byte[] zipBytes = java.nio.file.Files.readAllBytes(resource.getFile().toPath());
+
+        boolean result = ivassUtil.extractFirstEntryFromZip(new ByteArrayInputStream(zipBytes), new ByteArrayOutputStream());
+
+        assertFalse(result);
+    }
+
+    @Test
+    void extractFirstEntryFromZip_shouldReturnFalse_whenCompressionRatioIsExceeded() throws IOException {
+        ByteArrayOutputStream zip = new ByteArrayOutputStream();
+        try (ZipOutputStream zipOutputStream = new ZipOutputStream(zip)) {
+            zipOutputStream.putNextEntry(new ZipEntry("bomb.csv"));
+            zipOutputStream.write(new byte[1_000_000]);
+            zipOutputStream.closeEntry();
+        }
+
+        boolean result = ivassUtil.extractFirstEntryFromZip(new ByteArrayInputStream(zip.toByteArray()), new ByteArrayOutputStream());
+
+        assertFalse(result);
+    }
+
+    @Test
+    void newCsvReader_shouldSkipBOM_whenBOMPresent() throws IOException {
+        byte[] csvWithBOM = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF, 'a', 'b', 'c'};
+
+        try (Reader reader = ivassUtil.newCsvReader(new ByteArrayInputStream(csvWithBOM))) {
+            assertEquals("abc", new BufferedReader(reader).readLine());
+        }
+    }
+
+    @Test
+    void newCsvReader_shouldKeepContent_whenBOMNotPresent() throws IOException {
+        byte[] csvWithoutBOM = {'a', 'b'};
+
+        try (Reader reader = ivassUtil.newCsvReader(new ByteArrayInputStream(csvWithoutBOM))) {
+            assertEquals("ab", new BufferedReader(reader).readLine());
+        }
+    }
+
+    @Test
+    void streamCsv_shouldReturnCompanies_whenCsvIsValid() throws IOException {
+        ClassPathResource resource = new ClassPathResource("ivass-open-data.csv");
+
+        try (Reader reader = ivassUtil.newCsvReader(resource.getInputStream());
+             Stream<InsuranceCompany> result = ivassUtil.streamCsv(reader)) {
+            assertEquals(List.of("00000000001", "00000000002"), result.map(InsuranceCompany::getTaxCode).toList());
+        }
+    }
+
+    @Test
+    void streamCsv_shouldThrowIvassFileParseException_whenCsvIsInvalid() throws IOException {
+        ClassPathResource resource = new ClassPathResource("ivass-open-data-malformed.csv");
+
+        try (Reader reader = ivassUtil.newCsvReader(resource.getInputStream())) {
+            assertThrows(IvassFileParseException.class, () -> ivassUtil.streamCsv(reader).count());
+        }
+    }
+
 }
@@ -12,8 +12,11 @@ import it.pagopa.selfcare.party.registry_proxy.connector.rest.client.OpenDataRes
 import it.pagopa.selfcare.party.registry_proxy.connector.rest.model.IPAOpenDataInstitution;
 import it.pagopa.selfcare.party.registry_proxy.core.exception.TooManyResourceFoundException;
 import java.io.*;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Supplier;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -24,6 +27,27 @@ import org.springframework.stereotype.Service;
 @Service
 class InstitutionServiceImpl implements InstitutionService {
 
+  /**
+   * Stored fields loaded for each institution of a list: the ones returned by the list endpoints, so
+   * that the search-only fields are not read.
+   */
+  static final Set<Field> LIST_FIELDS =
+      Collections.unmodifiableSet(
+          EnumSet.of(
+              Field.ID,
+              Field.ORIGIN_ID,
+              Field.O,
+              Field.OU,
+              Field.AOO,
+              Field.TAX_CODE,
+              Field.CATEGORY,
+              Field.DESCRIPTION,
+              Field.DIGITAL_ADDRESS,
+              Field.ADDRESS,
+              Field.ZIP_CODE,
+              Field.ORIGIN,
+              Field.ISTAT_CODE));
+
   private final IndexSearchService<Institution> indexSearchService;
   private final OpenDataRestClient openDataRestClient;
   private final IndexWriterService<Institution> institutionIndexWriterService;
@@ -46,11 +70,12 @@ class InstitutionServiceImpl implements InstitutionService {
   public QueryResult<Institution> search(Optional<String> searchText, int page, int limit) {
     log.trace("search start");
     log.debug("search searchText = {}, page = {}, limit = {}", searchText, page, limit);
+    final IndexSearchService<Institution> listSearchService =
+        indexSearchService.withFields(LIST_FIELDS);
     final QueryResult<Institution> queryResult =
         searchText
-            .map(text -> indexSearchService.fullTextSearch(Field.DESCRIPTION, text, page, limit))
-            .orElseGet(
-                () -> indexSearchService.findAll(page, limit, Entity.INSTITUTION.toString()));
+            .map(text -> listSearchService.fullTextSearch(Field.DESCRIPTION, text, page, limit))
+            .orElseGet(() -> findAllSortedByDescription(listSearchService, page, limit));
     log.debug("search result = {}", queryResult);
     log.trace("search end");
     return queryResult;
@@ -66,25 +91,37 @@ class InstitutionServiceImpl implements InstitutionService {
         categories,
         page,
         limit);
+    final IndexSearchService<Institution> listSearchService =
+        indexSearchService.withFields(LIST_FIELDS);
     final QueryResult<Institution> queryResult =
         searchText
             .map(
                 text ->
-                    indexSearchService.fullTextSearch(
+                    listSearchService.fullTextSearch(
                         Field.DESCRIPTION,
                         searchText.orElseThrow(),
                         Field.CATEGORY,
                         categories,
                         page,
                         limit))
-            .orElseGet(
-                () -> indexSearchService.findAll(page, limit, Entity.INSTITUTION.toString()));
+            .orElseGet(() -> findAllSortedByDescription(listSearchService, page, limit));
 
     log.debug("search result = {}", queryResult);
     log.trace("search end");
     return queryResult;
   }
 
+  /**
+   * Lists the institutions without a search text in description order, sorting on the description
+   * doc values.
+   */
+  private static QueryResult<Institution> findAllSortedByDescription(
+      IndexSearchService<Institution> listSearchService, int page, int limit) {
+    return listSearchService
+        .sortedBy(Field.DESCRIPTION)
+        .findAll(page, limit, Entity.INSTITUTION.toString());
+  }
+
   @Override
   public Institution findById(String id, Optional<Origin> origin, List<String> categories) {
     log.trace("findById start");
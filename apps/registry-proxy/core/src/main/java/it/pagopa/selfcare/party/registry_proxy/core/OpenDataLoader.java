@@ -1,19 +1,41 @@
 package it.pagopa.selfcare.party.registry_proxy.core;
 
+import it.pagopa.selfcare.party.registry_proxy.connector.api.IndexSnapshotService;
 import it.pagopa.selfcare.party.registry_proxy.connector.api.IndexWriterService;
 import it.pagopa.selfcare.party.registry_proxy.connector.api.IvassDataConnector;
 import it.pagopa.selfcare.party.registry_proxy.connector.api.OpenDataConnector;
 import it.pagopa.selfcare.party.registry_proxy.connector.model.*;
+import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Component;
 
 @Slf4j
 @Component
 public class OpenDataLoader implements CommandLineRunner {
 
+  private static final List<Entity> SNAPSHOT_ENTITIES =
+      List.of(
+          Entity.INSTITUTION,
+          Entity.CATEGORY,
+          Entity.AOO,
+          Entity.UO,
+          Entity.STATION,
+          Entity.INSURANCE_COMPANY);
+
   private final List<OpenDataConnector> openDataConnectors;
   private final IndexWriterService<Institution> institutionIndexWriterService;
   private final IndexWriterService<Category> categoryIndexWriterService;
@@ -23,6 +45,11 @@ public class OpenDataLoader implements CommandLineRunner {
   private final IndexWriterService<InsuranceCompany> ivassIndexWriterService;
   private final ANACService anacService;
   private final IvassDataConnector ivassDataConnector;
+  private final IndexSnapshotService indexSnapshotService;
+  private final int batchSize;
+  private final int parallelism;
+  private final boolean snapshotRestoreEnabled;
+  private final boolean snapshotPublishEnabled;
 
   @Autowired
   public OpenDataLoader(
@@ -34,7 +61,12 @@ public class OpenDataLoader implements CommandLineRunner {
       IndexWriterService<Station> stationIndexWriterService,
       IndexWriterService<InsuranceCompany> ivassIndexWriterService,
       ANACService anacService,
-      IvassDataConnector ivassDataConnector) {
+      IvassDataConnector ivassDataConnector,
+      IndexSnapshotService indexSnapshotService,
+      @Value("${open-data.loader.batch-size:1000}") int batchSize,
+      @Value("${open-data.loader.parallelism:4}") int parallelism,
+      @Value("${open-data.loader.snapshot.restore-enabled:false}") boolean snapshotRestoreEnabled,
+      @Value("${open-data.loader.snapshot.publish-enabled:false}") boolean snapshotPublishEnabled) {
     log.trace("Initializing {}", OpenDataLoader.class.getSimpleName());
     this.openDataConnectors = openDataConnectors;
     this.institutionIndexWriterService = institutionIndexWriterService;
@@ -45,21 +77,131 @@ public class OpenDataLoader implements CommandLineRunner {
     this.ivassIndexWriterService = ivassIndexWriterService;
     this.anacService = anacService;
     this.ivassDataConnector = ivassDataConnector;
+    this.indexSnapshotService = indexSnapshotService;
+    this.batchSize = batchSize;
+    this.parallelism = parallelism;
+    this.snapshotRestoreEnabled = snapshotRestoreEnabled;
+    this.snapshotPublishEnabled = snapshotPublishEnabled;
   }
 
+  /**
+   * Builds the indexes concurrently on a bounded pool and blocks until all of them have been committed. Every commit
+   * notifies the search services, which open and warm up their searchers. Spring Boot accepts traffic only once the
+   * command line runners have returned, so readiness is published once, when every index can serve requests. If any
+   * load fails, the others are still waited for and the failures are rethrown together, failing the startup.
+   *
+   * <p>When snapshot restore is enabled, the indexes with a published snapshot are swapped in from it instead of being
+   * rebuilt from the data sources. When snapshot publishing is enabled, every index is published once loaded, so that
+   * the other replicas can restore it.
+   */
   @Override
   public void run(String... args) {
     log.trace("run start");
-    openDataConnectors.forEach(
-        openDataConnector -> {
-          List<? extends Institution> institutions = openDataConnector.getInstitutions();
-          institutionIndexWriterService.adds(institutions);
-          categoryIndexWriterService.adds(openDataConnector.getCategories());
-          aooIndexWriterService.adds(openDataConnector.getAOOs());
-          uoIndexWriterService.adds(openDataConnector.getUOs());
-          stationIndexWriterService.adds(anacService.loadStations());
-          ivassIndexWriterService.adds(ivassDataConnector.getInsurances());
-        });
+    final ExecutorService executor =
+        Executors.newFixedThreadPool(parallelism, new CustomizableThreadFactory("OpenDataLoader-"));
+    try {
+      final Set<Entity> restored = snapshotRestoreEnabled ? restoreSnapshots(executor) : EnumSet.noneOf(Entity.class);
+      final List<CompletableFuture<Void>> loads = new ArrayList<>();
+      openDataConnectors.forEach(
+          openDataConnector -> {
+            if (!restored.contains(Entity.INSTITUTION)) {
+              loads.add(load(executor, Entity.INSTITUTION, () -> {
+                try (Stream<? extends Institution> institutions = openDataConnector.streamInstitutions()) {
+                  institutionIndexWriterService.adds(institutions, batchSize);
+                }
+              }));
+            }
+            if (!restored.contains(Entity.CATEGORY)) {
+              loads.add(load(executor, Entity.CATEGORY,
+                  () -> categoryIndexWriterService.adds(openDataConnector.getCategories())));
+            }
+            if (!restored.contains(Entity.AOO)) {
+              loads.add(load(executor, Entity.AOO, () -> {
+                try (Stream<? extends AOO> aoos = openDataConnector.streamAOOs()) {
+                  aooIndexWriterService.adds(aoos, batchSize);
+                }
+              }));
+            }
+            if (!restored.contains(Entity.UO)) {
+              loads.add(load(executor, Entity.UO, () -> {
+                try (Stream<? extends UO> uos = openDataConnector.streamUOs()) {
+                  uoIndexWriterService.adds(uos, batchSize);
+                }
+              }));
+            }
+          });
+      if (!restored.contains(Entity.STATION)) {
+        loads.add(load(executor, Entity.STATION, () -> stationIndexWriterService.adds(anacService.loadStations())));
+      }
+      if (!restored.contains(Entity.INSURANCE_COMPANY)) {
+        loads.add(load(executor, Entity.INSURANCE_COMPANY, () -> {
+          try (Stream<InsuranceCompany> insurances = ivassDataConnector.streamInsurances()) {
+            ivassIndexWriterService.adds(insurances, batchSize);
+          }
+        }));
+      }
+      join(loads);
+      if (snapshotPublishEnabled) {
+        join(SNAPSHOT_ENTITIES.stream()
+            .map(entity -> load(executor, entity, () -> indexSnapshotService.publish(entity)))
+            .toList());
+      }
+    } finally {
+      executor.shutdown();
+    }
     log.trace("run end");
   }
+
+  private Set<Entity> restoreSnapshots(Executor executor) {
+    final Set<Entity> restored = ConcurrentHashMap.newKeySet();
+    join(SNAPSHOT_ENTITIES.stream()
+        .map(entity -> CompletableFuture.runAsync(
+            () -> {
+              try {
+                if (indexSnapshotService.restore(entity)) {
+                  restored.add(entity);
+                }
+              } catch (RuntimeException e) {
+                log.warn("Unable to restore the {} snapshot, the index will be rebuilt", entity, e);
+              }
+            },
+            executor))
+        .toList());
+    log.info("Indexes restored from snapshot = {}", restored);
+    return restored;
+  }
+
+  private CompletableFuture<Void> load(Executor executor, Entity entity, Runnable task) {
+    return CompletableFuture.runAsync(
+        () -> {
+          final long start = System.currentTimeMillis();
+          task.run();
+          log.info("Open data {} indexed in {} ms", entity, System.currentTimeMillis() - start);
+        },
+        executor);
+  }
+
+  /**
+   * Waits for all the futures, then rethrows the failure of the first one that failed, with the failures of the others
+   * as suppressed exceptions.
+   */
+  private static void join(List<CompletableFuture<Void>> futures) {
+    CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).exceptionally(e -> null).join();
+    RuntimeException failure = null;
+    for (CompletableFuture<Void> future : futures) {
+      try {
+        future.join();
+      } catch (CompletionException e) {
+        final RuntimeException cause = e.getCause() instanceof RuntimeException runtimeException ? runtimeException : e;
+        if (failure == null) {
+          failure = cause;
+        } else {
+          failure.addSuppressed(cause);
+        }
+      }
+    }
+    if (failure != null) {
+      throw failure;
+    }
+  }
 }
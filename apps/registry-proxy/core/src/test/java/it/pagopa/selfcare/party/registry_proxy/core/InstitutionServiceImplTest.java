@@ -52,12 +52,16 @@ class InstitutionServiceImplTest {
         final DummyInstitutionQueryResult queryResultMock = new DummyInstitutionQueryResult();
         when(indexSearchService.findAll(anyInt(), anyInt(), anyString()))
                 .thenReturn(queryResultMock);
+        when(indexSearchService.withFields(InstitutionServiceImpl.LIST_FIELDS)).thenReturn(indexSearchService);
+        when(indexSearchService.sortedBy(Field.DESCRIPTION)).thenReturn(indexSearchService);
         // when
         final QueryResult<Institution> queryResult = institutionService.search(searchText, page, limit);
         // then
         assertSame(queryResultMock, queryResult);
         verify(indexSearchService, times(1))
                 .findAll(page, limit, Entity.INSTITUTION.toString());
+        verify(indexSearchService, times(1)).withFields(InstitutionServiceImpl.LIST_FIELDS);
+        verify(indexSearchService, times(1)).sortedBy(Field.DESCRIPTION);
         verifyNoMoreInteractions(indexSearchService);
     }
 
@@ -72,12 +76,14 @@ class InstitutionServiceImplTest {
         final DummyInstitutionQueryResult queryResultMock = new DummyInstitutionQueryResult();
         when(indexSearchService.fullTextSearch(any(), anyString(), anyInt(), anyInt()))
                 .thenReturn(queryResultMock);
+        when(indexSearchService.withFields(InstitutionServiceImpl.LIST_FIELDS)).thenReturn(indexSearchService);
         // when
         final QueryResult<Institution> queryResult = institutionService.search(searchText, page, limit);
         // then
         assertSame(queryResultMock, queryResult);
         verify(indexSearchService, times(1))
                 .fullTextSearch(Field.DESCRIPTION, searchText.get(), page, limit);
+        verify(indexSearchService, times(1)).withFields(InstitutionServiceImpl.LIST_FIELDS);
         verifyNoMoreInteractions(indexSearchService);
     }
 
@@ -91,12 +97,16 @@ class InstitutionServiceImplTest {
         final DummyInstitutionQueryResult queryResultMock = new DummyInstitutionQueryResult();
         when(indexSearchService.findAll(anyInt(), anyInt(), anyString()))
                 .thenReturn(queryResultMock);
+        when(indexSearchService.withFields(InstitutionServiceImpl.LIST_FIELDS)).thenReturn(indexSearchService);
+        when(indexSearchService.sortedBy(Field.DESCRIPTION)).thenReturn(indexSearchService);
         // when
         final QueryResult<Institution> queryResult = institutionService.search(searchText, categories, page, limit);
         // then
         assertSame(queryResultMock, queryResult);
         verify(indexSearchService, times(1))
                 .findAll(page, limit, Entity.INSTITUTION.toString());
+        verify(indexSearchService, times(1)).withFields(InstitutionServiceImpl.LIST_FIELDS);
+        verify(indexSearchService, times(1)).sortedBy(Field.DESCRIPTION);
         verifyNoMoreInteractions(indexSearchService);
     }
 
@@ -112,12 +122,14 @@ class InstitutionServiceImplTest {
         final DummyInstitutionQueryResult queryResultMock = new DummyInstitutionQueryResult();
         when(indexSearchService.fullTextSearch(any(), anyString(), any(), anyString(), anyInt(), anyInt()))
                 .thenReturn(queryResultMock);
+        when(indexSearchService.withFields(InstitutionServiceImpl.LIST_FIELDS)).thenReturn(indexSearchService);
         // when
         final QueryResult<Institution> queryResult = institutionService.search(searchText, categories, page, limit);
         // then
         assertSame(queryResultMock, queryResult);
         verify(indexSearchService, times(1))
                 .fullTextSearch(Field.DESCRIPTION, searchText.get(), Field.CATEGORY, categories, page, limit);
+        verify(indexSearchService, times(1)).withFields(InstitutionServiceImpl.LIST_FIELDS);
         verifyNoMoreInteractions(indexSearchService);
     }
 
@@ -1,19 +1,27 @@
 package it.pagopa.selfcare.party.registry_proxy.core;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
 
+import it.pagopa.selfcare.party.registry_proxy.connector.api.IndexSnapshotService;
 import it.pagopa.selfcare.party.registry_proxy.connector.api.IndexWriterService;
 import it.pagopa.selfcare.party.registry_proxy.connector.api.IvassDataConnector;
 import it.pagopa.selfcare.party.registry_proxy.connector.api.OpenDataConnector;
 import it.pagopa.selfcare.party.registry_proxy.connector.model.AOO;
 import it.pagopa.selfcare.party.registry_proxy.connector.model.Category;
+import it.pagopa.selfcare.party.registry_proxy.connector.model.Entity;
 import it.pagopa.selfcare.party.registry_proxy.connector.model.Institution;
 import it.pagopa.selfcare.party.registry_proxy.connector.model.InsuranceCompany;
 import it.pagopa.selfcare.party.registry_proxy.connector.model.Station;
 import it.pagopa.selfcare.party.registry_proxy.connector.model.UO;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.function.Executable;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.context.ContextConfiguration;
@@ -42,34 +50,115 @@ class OpenDataLoaderTest {
 
   @MockBean private IndexWriterService<InsuranceCompany> ivassIndexWriterService;
 
+  @MockBean private IndexSnapshotService indexSnapshotService;
+
   @Autowired private OpenDataLoader openDataLoader;
 
   @Test
   void run() {
     // given
-    final List institutions = List.of();
-    when(openDataConnector.getInstitutions()).thenReturn(institutions);
+    final Stream institutions = Stream.of();
+    when(openDataConnector.streamInstitutions()).thenReturn(institutions);
     final List categories = List.of();
     when(openDataConnector.getCategories()).thenReturn(categories);
-    final List aoos = List.of();
-    when(openDataConnector.getAOOs()).thenReturn(aoos);
-    final List uos = List.of();
-    when(openDataConnector.getUOs()).thenReturn(uos);
+    final Stream aoos = Stream.of();
+    when(openDataConnector.streamAOOs()).thenReturn(aoos);
+    final Stream uos = Stream.of();
+    when(openDataConnector.streamUOs()).thenReturn(uos);
     final List stations = List.of();
-    final List insuranceCompanies = List.of();
+    final Stream<InsuranceCompany> insuranceCompanies = Stream.of();
     when(anacService.loadStations()).thenReturn(stations);
-    when(ivassDataConnector.getInsurances()).thenReturn(insuranceCompanies);
+    when(ivassDataConnector.streamInsurances()).thenReturn(insuranceCompanies);
     // when
     openDataLoader.run();
     // then
-    verify(openDataConnector, times(1)).getInstitutions();
-    verify(institutionIndexWriterService, times(1)).adds(institutions);
+    verify(openDataConnector, times(1)).streamInstitutions();
+    verify(institutionIndexWriterService, times(1)).adds(institutions, 1000);
     verify(openDataConnector, times(1)).getCategories();
     verify(categoryIndexWriterService, times(1)).adds(categories);
-    verify(aooIndexWriterService, times(1)).adds(aoos);
-    verify(uoIndexWriterService, times(1)).adds(uos);
+    verify(aooIndexWriterService, times(1)).adds(aoos, 1000);
+    verify(uoIndexWriterService, times(1)).adds(uos, 1000);
     verify(pdndIndexWriterService, times(1)).adds(stations);
     verify(anacService, times(1)).loadStations();
-    verify(ivassIndexWriterService, times(1)).adds(insuranceCompanies);
+    verify(ivassIndexWriterService, times(1)).adds(insuranceCompanies, 1000);
+    verifyNoInteractions(indexSnapshotService);
+  }
+
+  @Test
+  void run_snapshotRestored() {
+    // given
+    final OpenDataLoader loader = createLoader(true, true);
+    when(indexSnapshotService.restore(any())).thenReturn(false);
+    when(indexSnapshotService.restore(Entity.INSTITUTION)).thenReturn(true);
+    when(indexSnapshotService.restore(Entity.UO)).thenThrow(IllegalStateException.class);
+    final List categories = List.of();
+    when(openDataConnector.getCategories()).thenReturn(categories);
+    final Stream aoos = Stream.of();
+    when(openDataConnector.streamAOOs()).thenReturn(aoos);
+    final Stream uos = Stream.of();
+    when(openDataConnector.streamUOs()).thenReturn(uos);
+    when(anacService.loadStations()).thenReturn(List.of());
+    when(ivassDataConnector.streamInsurances()).thenReturn(Stream.of());
+    // when
+    loader.run();
+    // then
+    verify(openDataConnector, never()).streamInstitutions();
+    verifyNoInteractions(institutionIndexWriterService);
+    verify(categoryIndexWriterService, times(1)).adds(categories);
+    verify(aooIndexWriterService, times(1)).adds(aoos, 1000);
+    verify(uoIndexWriterService, times(1)).adds(uos, 1000);
+    verify(indexSnapshotService, times(6)).restore(any());
+    verify(indexSnapshotService, times(6)).publish(any());
+  }
+
+  @Test
+  void run_exception() {
+    // given
+    when(openDataConnector.streamInstitutions()).thenReturn(Stream.of());
+    when(openDataConnector.streamAOOs()).thenReturn(Stream.of());
+    when(openDataConnector.streamUOs()).thenReturn(Stream.of());
+    when(anacService.loadStations()).thenThrow(IllegalStateException.class);
+    // when
+    final Executable executable = () -> openDataLoader.run();
+    // then
+    assertThrows(IllegalStateException.class, executable);
+  }
+
+  @Test
+  void run_exceptions_waitsForAllLoads() {
+    // given
+    final Stream uos = Stream.of();
+    when(openDataConnector.streamInstitutions()).thenReturn(Stream.of());
+    when(openDataConnector.streamAOOs()).thenReturn(Stream.of());
+    when(openDataConnector.streamUOs()).thenReturn(uos);
+    final IllegalStateException stationsFailure = new IllegalStateException("stations");
+    final IllegalArgumentException insurancesFailure = new IllegalArgumentException("insurances");
+    when(anacService.loadStations()).thenThrow(stationsFailure);
+    when(ivassDataConnector.streamInsurances()).thenThrow(insurancesFailure);
+    // when
+    final RuntimeException e = assertThrows(RuntimeException.class, () -> openDataLoader.run());
+    // then
+    final Set<Throwable> failures = new HashSet<>(List.of(e.getSuppressed()));
+    failures.add(e);
+    assertEquals(Set.of(stationsFailure, insurancesFailure), failures);
+    verify(uoIndexWriterService, times(1)).adds(uos, 1000);
+  }
+
+  private OpenDataLoader createLoader(boolean snapshotRestoreEnabled, boolean snapshotPublishEnabled) {
+    return new OpenDataLoader(
+        List.of(openDataConnector),
+        institutionIndexWriterService,
+        categoryIndexWriterService,
+        aooIndexWriterService,
+        uoIndexWriterService,
+        pdndIndexWriterService,
+        ivassIndexWriterService,
+        anacService,
+        ivassDataConnector,
+        indexSnapshotService,
+        1000,
+        4,
+        snapshotRestoreEnabled,
+        snapshotPublishEnabled);
   }
 }
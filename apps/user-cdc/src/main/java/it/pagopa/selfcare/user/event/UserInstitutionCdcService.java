@@ -19,6 +19,8 @@ import io.quarkus.runtime.configuration.ConfigUtils;
 import io.smallrye.mutiny.Multi;
 import io.smallrye.mutiny.Uni;
 import io.smallrye.mutiny.subscription.MultiEmitter;
+import it.pagopa.selfcare.commons.cdc.ChangeStreamProcessor;
+import it.pagopa.selfcare.commons.cdc.ResumeTokenCheckpointer;
 import it.pagopa.selfcare.onboarding.common.PartyRole;
 import it.pagopa.selfcare.product.entity.ProductRole;
 import it.pagopa.selfcare.product.entity.ProductRoleInfo;
@@ -38,6 +40,7 @@ import it.pagopa.selfcare.user.model.OnboardedProduct;
 import it.pagopa.selfcare.user.model.TrackEventInput;
 import it.pagopa.selfcare.user.model.UserNotificationToSend;
 import it.pagopa.selfcare.user.model.constants.OnboardedProductState;
+import jakarta.annotation.PreDestroy;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.core.Response;
@@ -80,6 +83,7 @@ public class UserInstitutionCdcService {
 
     private static final String COLLECTION_NAME = "userInstitutions";
     private static final String OPERATION_NAME = "USER-CDC-UserInfoUpdate";
+    private static final String PROCESSOR_METRICS_NAME = "UserInstitutionEvents";
     public static final String USERS_FIELD_LIST_WITHOUT_FISCAL_CODE = "name,familyName,email,workContacts";
     public static final String ERROR_DURING_SUBSCRIBE_COLLECTION_EXCEPTION_MESSAGE = "Error during subscribe collection, exception: {} , message: {}";
 
@@ -87,6 +91,8 @@ public class UserInstitutionCdcService {
     private final TelemetryClient telemetryClient;
     private final ProductService productService;
     private final TableClient tableClient;
+    private final ResumeTokenCheckpointer resumeTokenCheckpointer;
+    private final ChangeStreamProcessor changeStreamProcessor;
     private final String mongodbDatabase;
     private final ReactiveMongoClient mongoClient;
     private final UserInstitutionRepository userInstitutionRepository;
@@ -152,9 +158,13 @@ public class UserInstitutionCdcService {
                                      @ConfigProperty(name = "user-cdc.send-events-fd.watch.enabled") Boolean sendFdEventsEnabled,
                                      @ConfigProperty(name = "user-cdc.add-on-aggregates.watch.enabled") Boolean addOnAggregatesEnabled,
                                      @ConfigProperty(name = "user-cdc.add-on-aggregates.group.products") List<String> addOnAggregatesGroupProducts,
+                                     @ConfigProperty(name = "user-cdc.processor.concurrency") Integer processorConcurrency,
+                                     @ConfigProperty(name = "user-cdc.processor.max-pending") Integer processorMaxPending,
+                                     @ConfigProperty(name = "user-cdc.processor.metrics-interval") Duration processorMetricsInterval,
                                      UserInstitutionRepository userInstitutionRepository,
                                      TelemetryClient telemetryClient, ProductService productService,
-                                     TableClient tableClient, NotificationMapper notificationMapper) {
+                                     TableClient tableClient, ResumeTokenCheckpointer resumeTokenCheckpointer,
+                                     NotificationMapper notificationMapper) {
         this.mongoClient = mongoClient;
         this.mongodbDatabase = mongodbDatabase;
         this.userInstitutionRepository = userInstitutionRepository;
@@ -164,15 +174,23 @@ public class UserInstitutionCdcService {
         this.telemetryClient = telemetryClient;
         this.productService = productService;
         this.tableClient = tableClient;
+        this.resumeTokenCheckpointer = resumeTokenCheckpointer;
         this.notificationMapper = notificationMapper;
         this.sendEventsEnabled = sendEventsEnabled;
         this.sendFdEventsEnabled = sendFdEventsEnabled;
         this.addOnAggregatesEnabled = addOnAggregatesEnabled;
         this.addOnAggregatesGroupProducts = addOnAggregatesGroupProducts;
+        this.changeStreamProcessor = new ChangeStreamProcessor(PROCESSOR_METRICS_NAME, processorConcurrency,
+                processorMaxPending, telemetryClient::trackMetric, processorMetricsInterval);
         telemetryClient.getContext().getOperation().setName(OPERATION_NAME);
         initOrderStream();
     }
 
+    @PreDestroy
+    void close() {
+        changeStreamProcessor.close();
+    }
+
     private void initOrderStream() {
         log.info("Starting initOrderStream ... ");
 
@@ -197,17 +215,18 @@ public class UserInstitutionCdcService {
             options = options.resumeAfter(BsonDocument.parse(resumeToken));
 
         Bson match = Aggregates.match(Filters.in("operationType", asList("update", "replace", "insert")));
-        Bson project = Aggregates.project(fields(include("_id", "ns", "documentKey", "fullDocument")));
+        Bson project = Aggregates.project(fields(include("_id", "ns", "documentKey", "fullDocument", "clusterTime")));
         List<Bson> pipeline = Arrays.asList(match, project);
 
         Multi<ChangeStreamDocument<UserInstitution>> publisher = dataCollection.watch(pipeline, UserInstitution.class, options);
-        publisher.subscribe().with(
-                document -> propagateDocumentToConsumers(document, publisher),
-                failure -> {
-                    log.error(ERROR_DURING_SUBSCRIBE_COLLECTION_EXCEPTION_MESSAGE, failure.toString(), failure.getMessage());
-                    telemetryClient.trackEvent(EVENT_USER_CDC_NAME, mapPropsForTrackEvent(TrackEventInput.builder().exception(failure.getClass().toString()).build()), Map.of(USER_INFO_UPDATE_FAILURE, 1D));
-                    Quarkus.asyncExit();
-                });
+        publisher.onItem().call(this::propagateDocumentToConsumers)
+                .subscribe().with(
+                        ignored -> {},
+                        failure -> {
+                            log.error(ERROR_DURING_SUBSCRIBE_COLLECTION_EXCEPTION_MESSAGE, failure.toString(), failure.getMessage());
+                            telemetryClient.trackEvent(EVENT_USER_CDC_NAME, mapPropsForTrackEvent(TrackEventInput.builder().exception(failure.getClass().toString()).build()), Map.of(USER_INFO_UPDATE_FAILURE, 1D));
+                            Quarkus.asyncExit();
+                        });
         log.info("Completed initOrderStream ... ");
     }
 
@@ -217,10 +236,21 @@ public class UserInstitutionCdcService {
      if the modification concerns the user's email, it will invoke the consumer to send events to both the sc-user queue and the selfcare-fd queue,
      but the latter only if the entity contains at least one active product from prod-fd or prod-fd-garantito. If, however, the modification concerns one
      of the products within the entity, all three consumers will be invoked (two consumers for the events and the consumer for updating the userinfo collection).
+     The consumers of a document run on the change stream processor after those of the previous changes of the same document;
+     the returned Uni completes when the document is accepted by the processor.
      */
-    public void propagateDocumentToConsumers(ChangeStreamDocument<UserInstitution> document, Multi<ChangeStreamDocument<UserInstitution>> publisher) {
+    public Uni<Void> propagateDocumentToConsumers(ChangeStreamDocument<UserInstitution> document) {
         assert document.getFullDocument() != null;
         assert document.getDocumentKey() != null;
+
+        ResumeTokenCheckpointer.Checkpoint checkpoint = resumeTokenCheckpointer.track(document.getResumeToken());
+        Uni<Void> consumers = Uni.createFrom().deferred(() -> invokeConsumers(document))
+                .onItem().invoke(checkpoint::succeeded)
+                .onFailure().invoke(checkpoint::failed);
+        return changeStreamProcessor.submit(document, consumers);
+    }
+
+    private Uni<Void> invokeConsumers(ChangeStreamDocument<UserInstitution> document) {
         UserInstitution userInstitutionChanged = document.getFullDocument();
 
         boolean hasFdProduct = userInstitutionChanged.getProducts().stream()
@@ -228,21 +258,28 @@ public class UserInstitutionCdcService {
 
         boolean userMailIsChanged = isUserMailChanged(userInstitutionChanged);
 
+        List<Uni<Void>> consumers = new ArrayList<>();
         if (!userMailIsChanged) {
-            consumerUserInstitutionRepositoryEvent(document);
+            consumers.add(consumerUserInstitutionRepositoryEvent(document));
         }
 
         if (sendEventsEnabled) {
-            consumerToSendScUserEvent(document);
+            consumers.add(consumerToSendScUserEvent(document));
         }
 
         if (sendFdEventsEnabled && hasFdProduct) {
-            consumerToSendUserEventForFD(document, userMailIsChanged);
+            consumers.add(consumerToSendUserEventForFD(document, userMailIsChanged));
         }
 
         if (addOnAggregatesEnabled) {
-            consumerToAddOnAggregates(userInstitutionChanged);
+            consumers.add(consumerToAddOnAggregates(userInstitutionChanged));
         }
+
+        if (consumers.isEmpty()) {
+            return Uni.createFrom().voidItem();
+        }
+        // Only the userinfo update can fail: the resume token is saved once it succeeds and the events are sent
+        return Uni.join().all(consumers).andCollectFailures().replaceWithVoid();
     }
 
     private boolean isUserMailChanged(UserInstitution userInstitutionChanged) {
@@ -263,7 +300,7 @@ public class UserInstitutionCdcService {
                 .getCollection(COLLECTION_NAME, UserInstitution.class);
     }
 
-    protected void consumerUserInstitutionRepositoryEvent(ChangeStreamDocument<UserInstitution> document) {
+    protected Uni<Void> consumerUserInstitutionRepositoryEvent(ChangeStreamDocument<UserInstitution> document) {
 
         assert document.getFullDocument() != null;
         assert document.getDocumentKey() != null;
@@ -272,32 +309,20 @@ public class UserInstitutionCdcService {
 
         log.info("Starting consumerUserInstitutionRepositoryEvent from UserInstitution document having id: {}", userInstitutionId);
 
-        userInstitutionRepository.updateUser(userInstitutionChanged)
+        return Uni.createFrom().deferred(() -> userInstitutionRepository.updateUser(userInstitutionChanged))
                 .onFailure().retry().withBackOff(Duration.ofSeconds(retryMinBackOff), Duration.ofHours(retryMaxBackOff)).atMost(maxRetry)
-                .subscribe().with(
-                        result -> {
-                            log.info("UserInfo collection successfully updated from UserInstitution document having id: {}", userInstitutionId);
-                            updateLastResumeToken(document.getResumeToken());
-                            telemetryClient.trackEvent(EVENT_USER_CDC_NAME, mapPropsForTrackEvent(toTrackEventInputByUserInstitution(userInstitutionChanged)), Map.of(USER_INFO_UPDATE_SUCCESS, 1D));
-                        },
-                        failure -> {
-                            log.error("Error during UserInfo collection updating, from UserInstitution document having id: {} , message: {}", userInstitutionId, failure.getMessage());
-                            telemetryClient.trackEvent(EVENT_USER_CDC_NAME, mapPropsForTrackEvent(toTrackEventInputByUserInstitution(userInstitutionChanged)), Map.of(USER_INFO_UPDATE_FAILURE, 1D));
-                        });
-    }
-
-    private void updateLastResumeToken(BsonDocument resumeToken) {
-        // Table CdCStartAt will be updated with the last resume token
-        Map<String, Object> properties = new HashMap<>();
-        properties.put(CDC_START_AT_PROPERTY, resumeToken.toJson());
-
-        TableEntity tableEntity = new TableEntity(CDC_START_AT_PARTITION_KEY, CDC_START_AT_ROW_KEY)
-                .setProperties(properties);
-        tableClient.upsertEntity(tableEntity);
-
+                .onItem().invoke(() -> {
+                    log.info("UserInfo collection successfully updated from UserInstitution document having id: {}", userInstitutionId);
+                    telemetryClient.trackEvent(EVENT_USER_CDC_NAME, mapPropsForTrackEvent(toTrackEventInputByUserInstitution(userInstitutionChanged)), Map.of(USER_INFO_UPDATE_SUCCESS, 1D));
+                })
+                .onFailure().invoke(failure -> {
+                    log.error("Error during UserInfo collection updating, from UserInstitution document having id: {} , message: {}", userInstitutionId, failure.getMessage());
+                    telemetryClient.trackEvent(EVENT_USER_CDC_NAME, mapPropsForTrackEvent(toTrackEventInputByUserInstitution(userInstitutionChanged)), Map.of(USER_INFO_UPDATE_FAILURE, 1D));
+                })
+                .replaceWithVoid();
     }
 
-    public void consumerToSendScUserEvent(ChangeStreamDocument<UserInstitution> document) {
+    public Uni<Void> consumerToSendScUserEvent(ChangeStreamDocument<UserInstitution> document) {
 
         assert document.getFullDocument() != null;
         assert document.getDocumentKey() != null;
@@ -305,7 +330,7 @@ public class UserInstitutionCdcService {
 
         log.info("Starting consumerToSendScUserEvent ... ");
 
-        userRegistryApi.findByIdUsingGET(USERS_FIELD_LIST_WITHOUT_FISCAL_CODE, userInstitutionChanged.getUserId())
+        return userRegistryApi.findByIdUsingGET(USERS_FIELD_LIST_WITHOUT_FISCAL_CODE, userInstitutionChanged.getUserId())
                 .onFailure(this::checkIfIsRetryableException)
                 .retry().withBackOff(Duration.ofSeconds(retryMinBackOff), Duration.ofSeconds(retryMaxBackOff)).atMost(maxRetry)
                 .onItem().transformToUni(userResource -> Multi.createFrom().iterable(UserUtils.groupingProductWithRoleAndReturnMinStateProduct(userInstitutionChanged.getProducts()))
@@ -318,15 +343,15 @@ public class UserInstitutionCdcService {
                         .collect().asList()
                         .replaceWithVoid()
                 )
-                .subscribe().with(
-                        result -> {
-                            log.info("SendEvents successfully performed from UserInstitution document having id: {}", document.getDocumentKey().toJson());
-                            telemetryClient.trackEvent(EVENT_USER_CDC_NAME, mapPropsForTrackEvent(toTrackEventInputByUserInstitution(userInstitutionChanged)), Map.of(EVENTS_USER_INSTITUTION_SUCCESS, 1D));
-                        },
-                        failure -> {
-                            log.error("Error during SendEvents from UserInstitution document having id: {} , message: {}", document.getDocumentKey().toJson(), failure.getMessage());
-                            telemetryClient.trackEvent(EVENT_USER_CDC_NAME, mapPropsForTrackEvent(toTrackEventInputByUserInstitution(userInstitutionChanged)), Map.of(EVENTS_USER_INSTITUTION_FAILURE, 1D));
-                        });
+                .onItem().invoke(() -> {
+                    log.info("SendEvents successfully performed from UserInstitution document having id: {}", document.getDocumentKey().toJson());
+                    telemetryClient.trackEvent(EVENT_USER_CDC_NAME, mapPropsForTrackEvent(toTrackEventInputByUserInstitution(userInstitutionChanged)), Map.of(EVENTS_USER_INSTITUTION_SUCCESS, 1D));
+                })
+                .onFailure().invoke(failure -> {
+                    log.error("Error during SendEvents from UserInstitution document having id: {} , message: {}", document.getDocumentKey().toJson(), failure.getMessage());
+                    telemetryClient.trackEvent(EVENT_USER_CDC_NAME, mapPropsForTrackEvent(toTrackEventInputByUserInstitution(userInstitutionChanged)), Map.of(EVENTS_USER_INSTITUTION_FAILURE, 1D));
+                })
+                .onFailure().recoverWithNull();
     }
 
     public Uni<UserNotificationToSend> sendWebhookNotification(UserNotificationToSend userNotificationToSend) {
@@ -374,14 +399,14 @@ public class UserInstitutionCdcService {
      On the other hand, if the modification relates to the activation, suspension, reactivation, or cancellation of the prod-fd or prod-fd-garantito product,
      it will send a single event indicating the type of action performed.
      */
-    public void consumerToSendUserEventForFD(ChangeStreamDocument<UserInstitution> document, boolean isUserMailChanged) {
+    public Uni<Void> consumerToSendUserEventForFD(ChangeStreamDocument<UserInstitution> document, boolean isUserMailChanged) {
 
         if (Objects.nonNull(document.getFullDocument()) && Objects.nonNull(document.getDocumentKey())) {
             UserInstitution userInstitutionChanged = document.getFullDocument();
 
             log.info("Starting consumerToSendUserEventForFd ... ");
 
-            userRegistryApi.findByIdUsingGET(USERS_FIELD_LIST_WITHOUT_FISCAL_CODE, userInstitutionChanged.getUserId())
+            return userRegistryApi.findByIdUsingGET(USERS_FIELD_LIST_WITHOUT_FISCAL_CODE, userInstitutionChanged.getUserId())
                     .onFailure(this::checkIfIsRetryableException)
                     .retry().withBackOff(Duration.ofSeconds(retryMinBackOff), Duration.ofSeconds(retryMaxBackOff)).atMost(maxRetry)
                     .onItem().transformToMulti(userResource -> Multi.createFrom().iterable(UserUtils.retrieveFdProduct(userInstitutionChanged.getProducts(), List.of(PROD_FD.getValue(), PROD_FD_GARANTITO.getValue()), isUserMailChanged))
@@ -405,16 +430,18 @@ public class UserInstitutionCdcService {
                                                 .onFailure().invoke(() -> telemetryClient.trackEvent(EVENT_USER_CDC_NAME, mapPropsForTrackEvent(toTrackEventInput(fdUserNotificationToSend)), Map.of(FD_EVENTS_USER_INSTITUTION_PRODUCT_FAILURE, 1D)));
                                     }
                             ))
-                    .subscribe().with(
-                            result -> {
-                                log.info("SendFdEvents successfully performed from UserInstitution document having id: {}", document.getDocumentKey().toJson());
-                                telemetryClient.trackEvent(FD_EVENT_USER_CDC_NAME, mapPropsForTrackEvent(toTrackEventInputByUserInstitution(userInstitutionChanged)), Map.of(FD_EVENTS_USER_INSTITUTION_SUCCESS, 1D));
-                            },
-                            failure -> {
-                                log.error("Error during SendFdEvents from UserInstitution document having id: {} , message: {}", document.getDocumentKey().toJson(), failure.getMessage());
-                                telemetryClient.trackEvent(FD_EVENT_USER_CDC_NAME, mapPropsForTrackEvent(toTrackEventInputByUserInstitution(userInstitutionChanged)), Map.of(FD_EVENTS_USER_INSTITUTION_FAILURE, 1D));
-                            });
+                    .onItem().invoke(() -> {
+                        log.info("SendFdEvents successfully performed from UserInstitution document having id: {}", document.getDocumentKey().toJson());
+                        telemetryClient.trackEvent(FD_EVENT_USER_CDC_NAME, mapPropsForTrackEvent(toTrackEventInputByUserInstitution(userInstitutionChanged)), Map.of(FD_EVENTS_USER_INSTITUTION_SUCCESS, 1D));
+                    })
+                    .onFailure().invoke(failure -> {
+                        log.error("Error during SendFdEvents from UserInstitution document having id: {} , message: {}", document.getDocumentKey().toJson(), failure.getMessage());
+                        telemetryClient.trackEvent(FD_EVENT_USER_CDC_NAME, mapPropsForTrackEvent(toTrackEventInputByUserInstitution(userInstitutionChanged)), Map.of(FD_EVENTS_USER_INSTITUTION_FAILURE, 1D));
+                    })
+                    .onFailure().recoverWithCompletion()
+                    .onItem().ignoreAsUni();
         }
+        return Uni.createFrom().voidItem();
     }
 
     private NotificationUserType evaluateType(OnboardedProduct onboardedProduct) {
@@ -439,29 +466,27 @@ public class UserInstitutionCdcService {
                 .build();
     }
 
-    public void consumerToAddOnAggregates(UserInstitution userInstitutionChanged) {
+    public Uni<Void> consumerToAddOnAggregates(UserInstitution userInstitutionChanged) {
         log.info("Starting consumerToAddOnAggregates on UserInstitution with id {}", userInstitutionChanged.getId());
-        userInstitutionChanged.getProducts().stream()
+        final String parentInstitutionId = userInstitutionChanged.getInstitutionId();
+        final String parentName = userInstitutionChanged.getInstitutionDescription();
+        return Multi.createFrom().iterable(userInstitutionChanged.getProducts())
                 // To propagate the user on aggregates: toAddOnAggregates and roleId is required on the parent
                 .filter(p -> Boolean.TRUE.equals(p.getToAddOnAggregates()) && p.getRoleId() != null)
-                .forEach(p -> {
-                    final String parentInstitutionId = userInstitutionChanged.getInstitutionId();
-                    final String parentName = userInstitutionChanged.getInstitutionDescription();
-                    getDelegations(parentInstitutionId, p.getProductId())
-                            .onItem().transformToUniAndConcatenate(d ->
-                                    upsertUserOnAggregate(userInstitutionChanged, p, d)
-                                            .onItem().transformToUni(updatedUser ->
-                                                    keepOrDeleteUserFromAggregatorGroup(updatedUser, parentInstitutionId, parentName, p.getProductId())
-                                                            .onFailure().recoverWithNull()
-                                            )
-                                            .onFailure().recoverWithNull()
-                            )
-                            .subscribe().with(
-                                    r -> {},
-                                    t -> log.error("Error in consumerToAddOnAggregates on UserInstitution with id {}", userInstitutionChanged.getId(), t),
-                                    () -> log.info("Completed consumerToAddOnAggregates on UserInstitution with id {}", userInstitutionChanged.getId())
-                            );
-                });
+                .onItem().transformToUniAndMerge(p -> getDelegations(parentInstitutionId, p.getProductId())
+                        .onItem().transformToUniAndConcatenate(d ->
+                                upsertUserOnAggregate(userInstitutionChanged, p, d)
+                                        .onItem().transformToUni(updatedUser ->
+                                                keepOrDeleteUserFromAggregatorGroup(updatedUser, parentInstitutionId, parentName, p.getProductId())
+                                                        .onFailure().recoverWithNull()
+                                        )
+                                        .onFailure().recoverWithNull()
+                        )
+                        .onItem().ignoreAsUni()
+                        .onItem().invoke(() -> log.info("Completed consumerToAddOnAggregates on UserInstitution with id {}", userInstitutionChanged.getId()))
+                        .onFailure().invoke(t -> log.error("Error in consumerToAddOnAggregates on UserInstitution with id {}", userInstitutionChanged.getId(), t))
+                        .onFailure().recoverWithNull())
+                .onItem().ignoreAsUni();
     }
 
     private Multi<DelegationResponse> getDelegations(String parentInstitutionId, String productId) {
@@ -9,7 +9,6 @@ import io.quarkus.test.InjectMock;
 import io.quarkus.test.common.QuarkusTestResource;
 import io.quarkus.test.junit.QuarkusTest;
 import io.quarkus.test.mongodb.MongoTestResource;
-import io.smallrye.mutiny.Multi;
 import io.smallrye.mutiny.Uni;
 import it.pagopa.selfcare.onboarding.common.PartyRole;
 import it.pagopa.selfcare.product.entity.Product;
@@ -106,7 +105,7 @@ public class UserInstitutionCdcServiceTest {
         when(webhookApi.sendNotification(any(NotificationRequest.class)))
                 .thenReturn(Uni.createFrom().item(Response.accepted().build()));
 
-        userInstitutionCdcService.consumerToSendScUserEvent(document);
+        userInstitutionCdcService.consumerToSendScUserEvent(document).await().indefinitely();
         verify(userRegistryApi, times(1)).
                 findByIdUsingGET(USERS_FIELD_LIST_WITHOUT_FISCAL_CODE, userInstitution.getUserId());
         verify(eventHubRestClient, timeout(2000).times(2)).
@@ -130,7 +129,7 @@ public class UserInstitutionCdcServiceTest {
         when(webhookApi.sendNotification(any(NotificationRequest.class)))
                 .thenReturn(Uni.createFrom().failure(new RuntimeException("webhook down")));
 
-        userInstitutionCdcService.consumerToSendScUserEvent(document);
+        userInstitutionCdcService.consumerToSendScUserEvent(document).await().indefinitely();
         verify(eventHubRestClient, timeout(2000).times(2)).
                 sendMessage(any(UserNotificationToSend.class));
         verify(webhookApi, timeout(2000).times(2)).
@@ -171,7 +170,7 @@ public class UserInstitutionCdcServiceTest {
         when(eventHubFdRestClient.sendMessage(argumentCaptor.capture()))
                 .thenReturn(Uni.createFrom().nullItem());
 
-        userInstitutionCdcService.consumerToSendUserEventForFD(document, false);
+        userInstitutionCdcService.consumerToSendUserEventForFD(document, false).await().indefinitely();
         verify(userRegistryApi, times(1)).
                 findByIdUsingGET(USERS_FIELD_LIST_WITHOUT_FISCAL_CODE, userInstitution.getUserId());
         verify(eventHubFdRestClient, times(1)).
@@ -193,7 +192,7 @@ public class UserInstitutionCdcServiceTest {
         when(eventHubFdRestClient.sendMessage(argumentCaptor.capture()))
                 .thenReturn(Uni.createFrom().nullItem());
 
-        userInstitutionCdcService.consumerToSendUserEventForFD(document, true);
+        userInstitutionCdcService.consumerToSendUserEventForFD(document, true).await().indefinitely();
         verify(userRegistryApi, times(1)).
                 findByIdUsingGET(USERS_FIELD_LIST_WITHOUT_FISCAL_CODE, userInstitution.getUserId());
         verify(eventHubFdRestClient, times(2)).
@@ -216,7 +215,7 @@ public class UserInstitutionCdcServiceTest {
         when(eventHubFdRestClient.sendMessage(argumentCaptor.capture()))
                 .thenReturn(Uni.createFrom().nullItem());
 
-        userInstitutionCdcService.consumerToSendUserEventForFD(document, false);
+        userInstitutionCdcService.consumerToSendUserEventForFD(document, false).await().indefinitely();
         verify(userRegistryApi, times(1)).
                 findByIdUsingGET(USERS_FIELD_LIST_WITHOUT_FISCAL_CODE, userInstitution.getUserId());
         verify(eventHubFdRestClient, times(1)).
@@ -238,7 +237,7 @@ public class UserInstitutionCdcServiceTest {
         when(eventHubFdRestClient.sendMessage(argumentCaptor.capture()))
                 .thenReturn(Uni.createFrom().nullItem());
 
-        userInstitutionCdcService.consumerToSendUserEventForFD(document, false);
+        userInstitutionCdcService.consumerToSendUserEventForFD(document, false).await().indefinitely();
         verify(userRegistryApi, times(1)).
                 findByIdUsingGET(USERS_FIELD_LIST_WITHOUT_FISCAL_CODE, userInstitution.getUserId());
         verify(eventHubFdRestClient, times(1)).
@@ -257,7 +256,7 @@ public class UserInstitutionCdcServiceTest {
         when(userRegistryApi.findByIdUsingGET(USERS_FIELD_LIST_WITHOUT_FISCAL_CODE, userInstitution.getUserId()))
                 .thenReturn(Uni.createFrom().item(userResource));
 
-        userInstitutionCdcService.consumerToSendUserEventForFD(document, false);
+        userInstitutionCdcService.consumerToSendUserEventForFD(document, false).await().indefinitely();
         verify(userRegistryApi, times(1)).
                 findByIdUsingGET(USERS_FIELD_LIST_WITHOUT_FISCAL_CODE, userInstitution.getUserId());
         verify(eventHubFdRestClient, times(0)).
@@ -301,8 +300,6 @@ public class UserInstitutionCdcServiceTest {
     void propagateDocumentToConsumers_withChangeUserMailFalse() {
         ChangeStreamDocument<UserInstitution> document = mock(ChangeStreamDocument.class);
 
-        Multi<ChangeStreamDocument<UserInstitution>> publisher = Multi.createFrom().item(document);
-
         UserInstitution userInstitution = new UserInstitution();
         userInstitution.setId(new ObjectId());
         OnboardedProduct product = new OnboardedProduct();
@@ -316,12 +313,13 @@ public class UserInstitutionCdcServiceTest {
 
         when(document.getFullDocument()).thenReturn(userInstitution);
         when(document.getDocumentKey()).thenReturn(new BsonDocument());
+        when(userInstitutionRepository.updateUser(any())).thenReturn(Uni.createFrom().voidItem());
         when(eventHubRestClient.sendMessage(any(UserNotificationToSend.class)))
                 .thenReturn(Uni.createFrom().voidItem());
         when(webhookApi.sendNotification(any(NotificationRequest.class)))
                 .thenReturn(Uni.createFrom().item(Response.accepted().build()));
 
-        userInstitutionCdcService.propagateDocumentToConsumers(document, publisher);
+        userInstitutionCdcService.propagateDocumentToConsumers(document).await().indefinitely();
         verify(eventHubFdRestClient, times(0)).sendMessage(any(FdUserNotificationToSend.class));
         verify(eventHubRestClient, timeout(2000).times(1)).sendMessage(any(UserNotificationToSend.class));
         verify(webhookApi, timeout(2000).times(1)).sendNotification(any(NotificationRequest.class));
@@ -332,8 +330,6 @@ public class UserInstitutionCdcServiceTest {
     void propagateDocumentToConsumers_withChangeUserMailWithFd() {
         ChangeStreamDocument<UserInstitution> document = mock(ChangeStreamDocument.class);
 
-        Multi<ChangeStreamDocument<UserInstitution>> publisher = Multi.createFrom().item(document);
-
         UserInstitution userInstitution = new UserInstitution();
         userInstitution.setId(new ObjectId());
         OnboardedProduct product = new OnboardedProduct();
@@ -348,6 +344,7 @@ public class UserInstitutionCdcServiceTest {
 
         when(document.getFullDocument()).thenReturn(userInstitution);
         when(document.getDocumentKey()).thenReturn(new BsonDocument());
+        when(userInstitutionRepository.updateUser(any())).thenReturn(Uni.createFrom().voidItem());
         when(eventHubRestClient.sendMessage(any(UserNotificationToSend.class)))
                 .thenReturn(Uni.createFrom().voidItem());
         when(eventHubFdRestClient.sendMessage(any(FdUserNotificationToSend.class)))
@@ -355,7 +352,7 @@ public class UserInstitutionCdcServiceTest {
         when(webhookApi.sendNotification(any(NotificationRequest.class)))
                 .thenReturn(Uni.createFrom().item(Response.accepted().build()));
 
-        userInstitutionCdcService.propagateDocumentToConsumers(document, publisher);
+        userInstitutionCdcService.propagateDocumentToConsumers(document).await().indefinitely();
         verify(eventHubFdRestClient, timeout(2000).times(1)).sendMessage(any(FdUserNotificationToSend.class));
         verify(eventHubRestClient, timeout(2000).times(1)).sendMessage(any(UserNotificationToSend.class));
         verify(webhookApi, timeout(2000).times(1)).sendNotification(any(NotificationRequest.class));
@@ -368,8 +365,6 @@ public class UserInstitutionCdcServiceTest {
 
         ChangeStreamDocument<UserInstitution> document = mock(ChangeStreamDocument.class);
 
-        Multi<ChangeStreamDocument<UserInstitution>> publisher = Multi.createFrom().item(document);
-
         UserInstitution userInstitution = new UserInstitution();
         userInstitution.setId(new ObjectId());
         OnboardedProduct product = new OnboardedProduct();
@@ -384,12 +379,13 @@ public class UserInstitutionCdcServiceTest {
 
         when(document.getFullDocument()).thenReturn(userInstitution);
         when(document.getDocumentKey()).thenReturn(new BsonDocument());
+        when(userInstitutionRepository.updateUser(any())).thenReturn(Uni.createFrom().voidItem());
         when(eventHubRestClient.sendMessage(any(UserNotificationToSend.class)))
                 .thenReturn(Uni.createFrom().voidItem());
         when(webhookApi.sendNotification(any(NotificationRequest.class)))
                 .thenReturn(Uni.createFrom().item(Response.accepted().build()));
 
-        userInstitutionCdcService.propagateDocumentToConsumers(document, publisher);
+        userInstitutionCdcService.propagateDocumentToConsumers(document).await().indefinitely();
         verify(eventHubFdRestClient, times(0)).sendMessage(any(FdUserNotificationToSend.class));
         verify(eventHubRestClient, timeout(2000).times(1)).sendMessage(any(UserNotificationToSend.class));
         verify(webhookApi, timeout(2000).times(1)).sendNotification(any(NotificationRequest.class));
@@ -483,7 +479,7 @@ public class UserInstitutionCdcServiceTest {
         when(userGroupApi.addMembersToUserGroupWithParentInstitutionIdUsingPUT(any())).thenReturn(Uni.createFrom().item(Response.status(Response.Status.OK).build()));
         when(userGroupApi.deleteMembersFromUserGroupWithParentInstitutionIdUsingDELETE(any())).thenReturn(Uni.createFrom().item(Response.status(Response.Status.OK).build()));
 
-        userInstitutionCdcService.consumerToAddOnAggregates(parentUserInstitution);
+        userInstitutionCdcService.consumerToAddOnAggregates(parentUserInstitution).await().indefinitely();
 
         // 4 products valid for propagation -> 1 call for prod2, 2 call for prod3 (2 pages), 2 call for prod3Bis (2 pages), 1 call for prod4
         verify(delegationApi, times(6)).getDelegationsUsingGET2(any(), any(), any(), any(), any(), any(), any(), any());
@@ -15,6 +15,7 @@ import io.quarkus.runtime.Quarkus;
 import io.quarkus.runtime.Startup;
 import io.quarkus.runtime.configuration.ConfigUtils;
 import io.smallrye.mutiny.Multi;
+import it.pagopa.selfcare.commons.cdc.ResumeTokenCheckpointer;
 import it.pagopa.selfcare.user.client.EventHubRestClient;
 import it.pagopa.selfcare.user.event.entity.UserGroupEntity;
 import it.pagopa.selfcare.user.event.mapper.UserGroupNotificationMapper;
@@ -55,6 +56,7 @@ public class UserGroupCdcService {
     private final Integer retryMaxBackOff;
     private final Integer maxRetry;
     private final TableClient tableClient;
+    private final ResumeTokenCheckpointer resumeTokenCheckpointer;
     private final String mongodbDatabase;
     private final ReactiveMongoClient mongoClient;
 
@@ -72,7 +74,7 @@ public class UserGroupCdcService {
                                @ConfigProperty(name = "user-group-cdc.send-events.watch.enabled") Boolean sendEventsEnabled,
                                TelemetryClient telemetryClient,
                                TableClient tableClient,
-
+                               ResumeTokenCheckpointer resumeTokenCheckpointer,
                                UserGroupNotificationMapper userGroupNotificationMapper) {
         this.maxRetry = maxRetry;
         this.mongoClient = mongoClient;
@@ -82,6 +84,7 @@ public class UserGroupCdcService {
         this.telemetryClient = telemetryClient;
         this.userGroupNotificationMapper = userGroupNotificationMapper;
         this.tableClient = tableClient;
+        this.resumeTokenCheckpointer = resumeTokenCheckpointer;
         telemetryClient.getContext().getOperation().setName(OPERATION_NAME);
         initOrderStream(sendEventsEnabled);
     }
@@ -142,6 +145,7 @@ public class UserGroupCdcService {
 
         UserGroupNotificationToSend userGroupNotificationToSend = userGroupNotificationMapper.toUserGroupNotificationToSend(userGroupChanged);
 
+        ResumeTokenCheckpointer.Checkpoint checkpoint = resumeTokenCheckpointer.track(document.getResumeToken());
         eventHubRestClient.sendUserGroupMessage(userGroupNotificationToSend)
                 .onFailure().retry().withBackOff(Duration.ofSeconds(retryMinBackOff), Duration.ofSeconds(retryMaxBackOff)).atMost(maxRetry)
                 .onItem().invoke(() -> telemetryClient.trackEvent(EVENT_USER_GROUP_CDC_NAME,
@@ -151,10 +155,12 @@ public class UserGroupCdcService {
                 .subscribe().with(
                         result -> {
                             log.info("SendEvents successfully performed from user group document having id: {}", document.getDocumentKey().toJson());
+                            checkpoint.succeeded();
                             telemetryClient.trackEvent(EVENT_USER_GROUP_CDC_NAME, mapPropsForTrackEvent(toTrackEventInputForUserGroup(userGroupNotificationToSend)), Map.of(EVENTS_USER_GROUP_SUCCESS, 1D));
                         },
                         failure -> {
                             log.error("Error during SendEvents from user group document having id: {} , message: {}", document.getDocumentKey().toJson(), failure.getMessage());
+                            checkpoint.failed();
                             telemetryClient.trackEvent(EVENT_USER_GROUP_CDC_NAME, mapPropsForTrackEvent(toTrackEventInputForUserGroup(userGroupNotificationToSend)), Map.of(EVENTS_USER_GROUP_FAILURE, 1D));
                         });
     }
@@ -17,6 +17,7 @@ import it.pagopa.selfcare.user.exception.UserRoleAlreadyPresentException;
 import it.pagopa.selfcare.user.mapper.UserMapper;
 import it.pagopa.selfcare.user.model.LoggedUser;
 import it.pagopa.selfcare.user.model.UpdateUserRequest;
+import it.pagopa.selfcare.user.model.UserNotificationToSend;
 import it.pagopa.selfcare.user.model.constants.OnboardedProductState;
 import it.pagopa.selfcare.user.service.UserRegistryService;
 import it.pagopa.selfcare.user.service.UserService;
@@ -49,6 +50,7 @@ import software.amazon.awssdk.utils.CollectionUtils;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 import static it.pagopa.selfcare.user.util.GeneralUtils.formatQueryParameterList;
 
@@ -214,22 +216,32 @@ public class UserController {
         return userService.findAllByIds(formatQueryParameterList(userIds));
     }
 
-    @Operation(description = "Retrieve all SC-User for DataLake filtered by optional productId", summary = "Retrieve all SC-Users for DataLake with optional product filter")
+    @Operation(description = "Retrieve all SC-User for DataLake filtered by optional productId. " +
+            "When cursor is given (empty for the first page) the users are paged by the nextCursor of the previous page instead of by page number",
+            summary = "Retrieve all SC-Users for DataLake with optional product filter")
     @GET
     @Path(value = "/notification")
     @Consumes(MediaType.APPLICATION_JSON)
     @Produces(MediaType.APPLICATION_JSON)
     public Uni<UsersNotificationResponse> getUsers(@QueryParam(value = "page") @DefaultValue("0") Integer page,
                                                    @QueryParam(value = "size") @DefaultValue("100") Integer size,
-                                                   @ProductId @QueryParam(value = "productId") String productId) {
+                                                   @ProductId @QueryParam(value = "productId") String productId,
+                                                   @QueryParam(value = "cursor") String cursor) {
+        if (Objects.nonNull(cursor)) {
+            return userService.findUserNotificationToSendAfter(size, cursor, productId)
+                    .map(usersPage -> toUsersNotificationResponse(usersPage.getUsers(), usersPage.getNextCursor()));
+        }
         return userService.findPaginatedUserNotificationToSend(size, page, productId)
-                .map(userNotificationToSends -> {
-                    UsersNotificationResponse usersNotificationResponse = new UsersNotificationResponse();
-                    usersNotificationResponse.setUsers(userNotificationToSends.stream()
-                            .map(userMapper::toUserNotification)
-                            .toList());
-                    return usersNotificationResponse;
-                });
+                .map(userNotificationToSends -> toUsersNotificationResponse(userNotificationToSends, null));
+    }
+
+    private UsersNotificationResponse toUsersNotificationResponse(List<UserNotificationToSend> userNotificationToSends, String nextCursor) {
+        UsersNotificationResponse usersNotificationResponse = new UsersNotificationResponse();
+        usersNotificationResponse.setUsers(userNotificationToSends.stream()
+                .map(userMapper::toUserNotification)
+                .toList());
+        usersNotificationResponse.setNextCursor(nextCursor);
+        return usersNotificationResponse;
     }
 
     @Operation(description = "The API retrieves paged users with optional filters in input as query params", summary = "Retrieve paged users with optional query filters")
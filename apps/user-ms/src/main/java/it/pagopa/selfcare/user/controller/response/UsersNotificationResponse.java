@@ -7,4 +7,5 @@ import java.util.List;
 @Data
 public class UsersNotificationResponse {
     private List<UserNotificationResponse> users;
+    private String nextCursor;
 }
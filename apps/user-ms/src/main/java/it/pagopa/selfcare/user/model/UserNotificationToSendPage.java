@@ -0,0 +1,17 @@
+package it.pagopa.selfcare.user.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * A page of the users to send to the DataLake, with the cursor of the following page ({@code null} after the last page).
+ */
+@Getter
+@AllArgsConstructor
+public class UserNotificationToSendPage {
+
+    private final List<UserNotificationToSend> users;
+    private final String nextCursor;
+}
@@ -0,0 +1,38 @@
+package it.pagopa.selfcare.user.model;
+
+import lombok.Getter;
+import org.openapi.quarkus.user_registry_json.model.UserResource;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Users resolved by a bulk user-registry lookup: the users found and the lookups that failed, both
+ * keyed by user id in the order the ids were requested.
+ */
+@Getter
+public class UserResources {
+
+    private final Map<String, UserResource> found;
+    private final Map<String, Throwable> failures;
+
+    public UserResources(Map<String, UserResource> found, Map<String, Throwable> failures) {
+        this.found = Collections.unmodifiableMap(new LinkedHashMap<>(found));
+        this.failures = Collections.unmodifiableMap(new LinkedHashMap<>(failures));
+    }
+
+    public Optional<UserResource> get(String userId) {
+        return Optional.ofNullable(found.get(userId));
+    }
+
+    public List<UserResource> list() {
+        return List.copyOf(found.values());
+    }
+
+    public boolean hasFailures() {
+        return !failures.isEmpty();
+    }
+}
@@ -0,0 +1,59 @@
+package it.pagopa.selfcare.user.service;
+
+import io.smallrye.mutiny.Uni;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Paces a replay of the user events on the latency of the Event Hub.
+ *
+ * <p>The events of each page are sent through {@link #timed(Supplier)}, and the pause before the following page
+ * is decided on the mean time taken to send them: while it exceeds the target latency the pause doubles, from
+ * {@value #MIN_PAUSE_MILLIS} ms up to the maximum pause; once it is back under the target the pause halves, down
+ * to none. A healthy Event Hub thus receives the pages back to back, a struggling one gets time to recover.
+ */
+class EventReplayPacer {
+
+    static final long MIN_PAUSE_MILLIS = 100;
+
+    private final Duration targetLatency;
+    private final Duration maxPause;
+    private final LongAdder sendNanos = new LongAdder();
+    private final LongAdder sent = new LongAdder();
+    private Duration pause = Duration.ZERO;
+
+    EventReplayPacer(Duration targetLatency, Duration maxPause) {
+        this.targetLatency = targetLatency;
+        this.maxPause = maxPause;
+    }
+
+    /** Sends an event, measuring how long the Event Hub takes to acknowledge or reject it. */
+    <T> Uni<T> timed(Supplier<Uni<T>> send) {
+        return Uni.createFrom().deferred(() -> {
+            long start = System.nanoTime();
+            return send.get().onItemOrFailure().invoke((item, failure) -> {
+                sendNanos.add(System.nanoTime() - start);
+                sent.increment();
+            });
+        });
+    }
+
+    /** Returns the pause before the next page, based on the events sent since the previous call. */
+    Duration nextPause() {
+        long count = sent.sumThenReset();
+        long nanos = sendNanos.sumThenReset();
+        if (count == 0) {
+            return pause;
+        }
+        if (Duration.ofNanos(nanos / count).compareTo(targetLatency) > 0) {
+            Duration slower = pause.isZero() ? Duration.ofMillis(MIN_PAUSE_MILLIS) : pause.multipliedBy(2);
+            pause = slower.compareTo(maxPause) > 0 ? maxPause : slower;
+        } else {
+            Duration faster = pause.dividedBy(2);
+            pause = faster.toMillis() < MIN_PAUSE_MILLIS ? Duration.ZERO : faster;
+        }
+        return pause;
+    }
+}
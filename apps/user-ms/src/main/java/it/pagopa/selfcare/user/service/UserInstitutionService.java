@@ -24,6 +24,12 @@ public interface UserInstitutionService {
 
     Multi<UserInstitution> paginatedFindAllWithFilter(Map<String, Object> queryParameter, Integer page, Integer size);
 
+    /**
+     * Retrieves the page of at most size userInstitutions following the cursor, in _id order:
+     * the cursor of the next page is built from the id of the last one (see GeneralUtils.encodeCursor).
+     */
+    Multi<UserInstitution> keysetFindAllWithFilter(Map<String, Object> queryParameter, String cursor, Integer size);
+
     Multi<UserInstitution> findAllWithFilter(Map<String, Object> queryParameter);
 
     Multi<UserInstitution> findAllWithFilter(Map<String, Object> queryParameter, Integer batchSize);
@@ -38,9 +44,7 @@ public interface UserInstitutionService {
 
     Uni<Long> updateUserCreatedAtByInstitutionAndProduct(String institutionId, List<String> userIds, String productId, OffsetDateTime createdAt);
 
-    Multi<UserInstitution> findUserInstitutionsAfterDateWithFilter(Map<String, Object> queryParameter, OffsetDateTime fromDate, Integer page);
-
-    Uni<Integer> pageCountUserInstitutionsAfterDateWithFilter(Map<String, Object> queryParameter, OffsetDateTime fromDate);
+    Multi<UserInstitution> findUserInstitutionsAfterDateWithFilter(Map<String, Object> queryParameter, OffsetDateTime fromDate, String cursor);
 
     Uni<List<UserInstitution>> retrieveFilteredUserInstitution(Map<String, Object> queryParameter);
 
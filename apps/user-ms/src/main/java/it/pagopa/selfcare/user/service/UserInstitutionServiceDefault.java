@@ -3,7 +3,6 @@ package it.pagopa.selfcare.user.service;
 import com.mongodb.client.model.UpdateOptions;
 import com.mongodb.client.result.UpdateResult;
 import io.quarkus.mongodb.panache.reactive.ReactivePanacheQuery;
-import io.quarkus.panache.common.Page;
 import io.smallrye.mutiny.Multi;
 import io.smallrye.mutiny.Uni;
 import it.pagopa.selfcare.onboarding.common.PartyRole;
@@ -39,6 +38,7 @@ import java.util.*;
 import static it.pagopa.selfcare.user.constant.CollectionUtil.*;
 import static it.pagopa.selfcare.user.entity.filter.OnboardedProductFilter.OnboardedProductEnum.*;
 import static it.pagopa.selfcare.user.model.constants.OnboardedProductState.*;
+import static it.pagopa.selfcare.user.util.GeneralUtils.decodeCursor;
 import static it.pagopa.selfcare.user.util.GeneralUtils.formatQueryParameterList;
 
 @Slf4j
@@ -46,6 +46,12 @@ import static it.pagopa.selfcare.user.util.GeneralUtils.formatQueryParameterList
 @RequiredArgsConstructor
 public class UserInstitutionServiceDefault implements UserInstitutionService {
 
+    private static final String ALL_PRODUCTS_STATUS = UserInstitution.Fields.products.name() + CURRENT_ANY + OnboardedProduct.Fields.status.name();
+    private static final String ALL_PRODUCTS_CREATED_AT = UserInstitution.Fields.products.name() + CURRENT_ANY + OnboardedProduct.Fields.createdAt.name();
+    private static final String ALL_PRODUCTS_UPDATED_AT = UserInstitution.Fields.products.name() + CURRENT_ANY + OnboardedProduct.Fields.updatedAt.name();
+    private static final String MATCHED_PRODUCT_STATUS = UserInstitution.Fields.products.name() + CURRENT + OnboardedProduct.Fields.status.name();
+    private static final String MATCHED_PRODUCT_UPDATED_AT = UserInstitution.Fields.products.name() + CURRENT + OnboardedProduct.Fields.updatedAt.name();
+
     @ConfigProperty(name = "user-ms.eventhub.users.page-size")
     Integer pageSizeFindUserInstitutions;
 
@@ -81,6 +87,12 @@ public class UserInstitutionServiceDefault implements UserInstitutionService {
         return runUserInstitutionFindQuery(query, null).page(page, size).stream();
     }
 
+    @Override
+    public Multi<UserInstitution> keysetFindAllWithFilter(Map<String, Object> queryParameter, String cursor, Integer size) {
+        Document query = queryUtils.buildQueryDocument(queryParameter, USER_INSTITUTION_COLLECTION);
+        return runUserInstitutionKeysetQuery(query, cursor, size);
+    }
+
     @Override
     public Uni<UserInstitution> retrieveFirstFilteredUserInstitution(Map<String, Object> queryParameter) {
         Document query = queryUtils.buildQueryDocument(queryParameter, USER_INSTITUTION_COLLECTION);
@@ -316,8 +328,8 @@ public class UserInstitutionServiceDefault implements UserInstitutionService {
         Map<String, Object> onboardedProductFilterMap = OnboardedProductFilter.builder().productId(productId).build().constructMap();
         Map<String, Object> userInstitutionFilterMap = UserInstitutionFilter.builder().userId(formatQueryParameterList(userIds)).institutionId(institutionId).build().constructMap();
         Map<String, Object> filterMap = userUtils.retrieveMapForFilter(onboardedProductFilterMap, userInstitutionFilterMap);
-        Map<String, Object> fieldToUpdateMap = Map.of(UserInstitution.Fields.products.name() + CURRENT_ANY + OnboardedProduct.Fields.createdAt.name(), createdAt.toInstant(),
-                                                      UserInstitution.Fields.products.name() + CURRENT_ANY + OnboardedProduct.Fields.updatedAt.name(), Instant.now());
+        Map<String, Object> fieldToUpdateMap = Map.of(ALL_PRODUCTS_CREATED_AT, createdAt.toInstant(),
+                                                      ALL_PRODUCTS_UPDATED_AT, Instant.now());
         log.info("Update user institution with filter: {} and field to update: {}", Encode.forJava(filterMap.toString()), Encode.forJava(fieldToUpdateMap.toString()));
         return UserInstitution.update(queryUtils.buildUpdateDocument(fieldToUpdateMap))
                 .where(queryUtils.buildQueryDocument(filterMap, USER_INSTITUTION_COLLECTION));
@@ -345,26 +357,20 @@ public class UserInstitutionServiceDefault implements UserInstitutionService {
     }
 
     @Override
-    public Multi<UserInstitution> findUserInstitutionsAfterDateWithFilter(Map<String, Object> queryParameter, OffsetDateTime fromDate, Integer page) {
+    public Multi<UserInstitution> findUserInstitutionsAfterDateWithFilter(Map<String, Object> queryParameter, OffsetDateTime fromDate, String cursor) {
         Document query = queryUtils.buildQueryDocumentByDate(queryParameter, USER_INSTITUTION_COLLECTION, fromDate);
-        return runUserInstitutionFindQuery(query, null).page(Page.ofSize(pageSizeFindUserInstitutions).index(page)).stream();
-    }
-
-    @Override
-    public Uni<Integer> pageCountUserInstitutionsAfterDateWithFilter(Map<String, Object> queryParameter, OffsetDateTime fromDate) {
-        Document query = queryUtils.buildQueryDocumentByDate(queryParameter, USER_INSTITUTION_COLLECTION, fromDate);
-        return runUserInstitutionFindQuery(query, null).page(Page.ofSize(pageSizeFindUserInstitutions)).pageCount();
+        return runUserInstitutionKeysetQuery(query, cursor, pageSizeFindUserInstitutions);
     }
 
     private Uni<Long> updateUserStatusDao(Map<String, Object> filterMap, OnboardedProductState status) {
 
         Map<String, Object> fieldToUpdateMap = new HashMap<>();
         if(productFilterIsEmpty(filterMap)) {
-            fieldToUpdateMap.put(UserInstitution.Fields.products.name() + CURRENT_ANY + OnboardedProduct.Fields.status.name(), status);
-            fieldToUpdateMap.put(UserInstitution.Fields.products.name() + CURRENT_ANY + OnboardedProduct.Fields.updatedAt.name(), Instant.now());
+            fieldToUpdateMap.put(ALL_PRODUCTS_STATUS, status);
+            fieldToUpdateMap.put(ALL_PRODUCTS_UPDATED_AT, Instant.now());
         }else{
-            fieldToUpdateMap.put(UserInstitution.Fields.products.name() + CURRENT + OnboardedProduct.Fields.status.name(), status);
-            fieldToUpdateMap.put(UserInstitution.Fields.products.name() + CURRENT + OnboardedProduct.Fields.updatedAt.name(), Instant.now());
+            fieldToUpdateMap.put(MATCHED_PRODUCT_STATUS, status);
+            fieldToUpdateMap.put(MATCHED_PRODUCT_UPDATED_AT, Instant.now());
         }
         return UserInstitution.update(queryUtils.buildUpdateDocument(fieldToUpdateMap))
                 .where(queryUtils.buildQueryDocument(filterMap, USER_INSTITUTION_COLLECTION));
@@ -435,6 +441,15 @@ public class UserInstitutionServiceDefault implements UserInstitutionService {
         return UserInstitution.find(query, sort);
     }
 
+    /**
+     * Reads the page following the cursor by seeking the _id of the last userInstitution read, which costs
+     * the same on every page unlike skipping the previous ones, and without counting the matching documents.
+     */
+    private Multi<UserInstitution> runUserInstitutionKeysetQuery(Document query, String cursor, Integer size) {
+        Document keysetQuery = queryUtils.buildKeysetQueryDocument(query, decodeCursor(cursor));
+        return runUserInstitutionFindQuery(keysetQuery, queryUtils.buildKeysetSortDocument()).page(0, size).stream();
+    }
+
     public Uni<Boolean> runUserInstitutionCountQuery(Document query) {
         Uni<Long> count = UserInstitution.count(query);
         return count.onItem().transform(c -> c > 0);
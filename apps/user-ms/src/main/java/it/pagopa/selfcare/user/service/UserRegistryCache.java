@@ -0,0 +1,178 @@
+package it.pagopa.selfcare.user.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microsoft.applicationinsights.TelemetryClient;
+import io.quarkus.scheduler.Scheduled;
+import io.smallrye.mutiny.Uni;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.openapi.quarkus.user_registry_json.model.UserResource;
+
+import javax.crypto.Cipher;
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Short-lived cache of the users read from the user-registry, keyed by user id and field list.
+ *
+ * <p>Listing the users of a large institution reads the same users again and again, so every lookup
+ * goes through this cache: a user read within {@code ttl} is served from memory, and concurrent lookups
+ * of the same user share a single user-registry call. The users are personal data, so they are kept
+ * AES-GCM encrypted with a key generated at startup that never leaves the process; decrypting them
+ * also hands every caller its own copy. The users updated through this service are evicted right away.
+ */
+@ApplicationScoped
+public class UserRegistryCache {
+
+    static final String USER_REGISTRY_CACHE_HITS = "UserRegistryCache_hits";
+    static final String USER_REGISTRY_CACHE_MISSES = "UserRegistryCache_misses";
+    static final String USER_REGISTRY_CACHE_COALESCED = "UserRegistryCache_coalesced";
+
+    private static final String CIPHER = "AES/GCM/NoPadding";
+    private static final int IV_LENGTH = 12;
+    private static final int TAG_LENGTH = 128;
+
+    /** How long a user is served from memory; {@code 0s} disables the cache. */
+    @ConfigProperty(name = "user-ms.user-registry.cache.ttl", defaultValue = "30s")
+    Duration ttl;
+
+    @ConfigProperty(name = "user-ms.user-registry.cache.max-size", defaultValue = "10000")
+    int maxSize;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    TelemetryClient telemetryClient;
+
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<Key, Uni<Entry>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong invalidations = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final SecureRandom random = new SecureRandom();
+    private SecretKey secretKey;
+
+    @PostConstruct
+    void init() {
+        try {
+            KeyGenerator keyGenerator = KeyGenerator.getInstance("AES");
+            keyGenerator.init(256);
+            secretKey = keyGenerator.generateKey();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to generate the user-registry cache key", e);
+        }
+    }
+
+    /**
+     * Returns the user with the given fields, calling {@code loader} only when it is neither cached nor
+     * already being read by another request.
+     */
+    public Uni<UserResource> get(String fl, String userId, Supplier<Uni<UserResource>> loader) {
+        if (ttl.isZero()) {
+            return loader.get();
+        }
+        Key key = new Key(userId, fl);
+        Entry entry = entries.get(key);
+        if (entry != null && entry.isValid(System.nanoTime())) {
+            hits.increment();
+            return Uni.createFrom().item(() -> open(entry));
+        }
+        boolean[] started = new boolean[1];
+        Uni<Entry> load = inFlight.computeIfAbsent(key, k -> {
+            started[0] = true;
+            return load(k, loader);
+        });
+        (started[0] ? misses : coalesced).increment();
+        return load.map(this::open);
+    }
+
+    private Uni<Entry> load(Key key, Supplier<Uni<UserResource>> loader) {
+        long invalidationsAtStart = invalidations.get();
+        AtomicReference<Uni<Entry>> self = new AtomicReference<>();
+        Uni<Entry> load = Uni.createFrom().deferred(loader::get)
+                .map(this::seal)
+                .invoke(entry -> store(key, entry, invalidationsAtStart))
+                .onTermination().invoke(() -> inFlight.remove(key, self.get()))
+                .memoize().indefinitely();
+        self.set(load);
+        return load;
+    }
+
+    private void store(Key key, Entry entry, long invalidationsAtStart) {
+        if (entries.size() >= maxSize) {
+            long now = System.nanoTime();
+            entries.values().removeIf(cached -> !cached.isValid(now));
+            if (entries.size() >= maxSize) {
+                entries.clear();
+            }
+        }
+        entries.put(key, entry);
+        // A user updated while it was being read may have been read before the update.
+        if (invalidations.get() != invalidationsAtStart) {
+            entries.remove(key, entry);
+        }
+    }
+
+    /** Evicts every field list cached for the user, after the user has been updated. */
+    public void invalidate(String userId) {
+        invalidations.incrementAndGet();
+        entries.keySet().removeIf(key -> Objects.equals(key.userId(), userId));
+        inFlight.keySet().removeIf(key -> Objects.equals(key.userId(), userId));
+    }
+
+    @Scheduled(every = "1m")
+    void trackMetrics() {
+        telemetryClient.trackMetric(USER_REGISTRY_CACHE_HITS, hits.sumThenReset());
+        telemetryClient.trackMetric(USER_REGISTRY_CACHE_MISSES, misses.sumThenReset());
+        telemetryClient.trackMetric(USER_REGISTRY_CACHE_COALESCED, coalesced.sumThenReset());
+    }
+
+    private Entry seal(UserResource userResource) {
+        try {
+            byte[] iv = new byte[IV_LENGTH];
+            random.nextBytes(iv);
+            Cipher cipher = Cipher.getInstance(CIPHER);
+            cipher.init(Cipher.ENCRYPT_MODE, secretKey, new GCMParameterSpec(TAG_LENGTH, iv));
+            byte[] encrypted = cipher.doFinal(objectMapper.writeValueAsBytes(userResource));
+            return new Entry(iv, encrypted, System.nanoTime() + ttl.toNanos());
+        } catch (GeneralSecurityException | IOException e) {
+            throw new IllegalStateException("Unable to encrypt the user-registry cache entry", e);
+        }
+    }
+
+    private UserResource open(Entry entry) {
+        try {
+            Cipher cipher = Cipher.getInstance(CIPHER);
+            cipher.init(Cipher.DECRYPT_MODE, secretKey, new GCMParameterSpec(TAG_LENGTH, entry.iv()));
+            return objectMapper.readValue(cipher.doFinal(entry.encrypted()), UserResource.class);
+        } catch (GeneralSecurityException | IOException e) {
+            throw new IllegalStateException("Unable to decrypt the user-registry cache entry", e);
+        }
+    }
+
+    private record Key(String userId, String fl) {
+    }
+
+    private record Entry(byte[] iv, byte[] encrypted, long expiresAt) {
+
+        private boolean isValid(long now) {
+            return now - expiresAt < 0;
+        }
+    }
+}
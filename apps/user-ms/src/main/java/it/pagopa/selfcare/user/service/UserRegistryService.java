@@ -3,17 +3,27 @@ package it.pagopa.selfcare.user.service;
 import io.smallrye.mutiny.Uni;
 import it.pagopa.selfcare.user.entity.UserInstitution;
 import it.pagopa.selfcare.user.model.UpdateUserRequest;
+import it.pagopa.selfcare.user.model.UserResources;
 import org.openapi.quarkus.user_registry_json.model.SaveUserDto;
 import org.openapi.quarkus.user_registry_json.model.UserId;
 import org.openapi.quarkus.user_registry_json.model.UserResource;
 import org.openapi.quarkus.user_registry_json.model.UserSearchDto;
 import org.openapi.quarkus.user_registry_json.model.MutableUserFieldsDto;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface UserRegistryService {
     Uni<List<UserInstitution>> updateUserRegistry(UpdateUserRequest updateUserRequest, String userId, String institutionId);
     Uni<UserResource> findByIdUsingGET(String fl, String id);
+
+    /**
+     * Resolves many users at once: duplicated ids are looked up once, at most
+     * {@code user-ms.user-registry.lookup-concurrency} lookups run at a time, and each lookup, retries
+     * included, fails after {@code user-ms.user-registry.lookup-timeout}. A failed lookup does not fail the
+     * others, it is reported in {@link UserResources#getFailures()}.
+     */
+    Uni<UserResources> findByIds(Collection<String> ids, String fl);
     Uni<UserId> saveUsingPATCH(SaveUserDto saveUserDto);
     Uni<UserResource> searchUsingPOST(String fl, UserSearchDto userSearchDto);
     Uni<jakarta.ws.rs.core.Response> updateUsingPATCH(String id, MutableUserFieldsDto mutableUserFieldsDto );
@@ -6,6 +6,7 @@ import it.pagopa.selfcare.user.entity.UserInstitution;
 import it.pagopa.selfcare.user.entity.filter.UserInstitutionFilter;
 import it.pagopa.selfcare.user.mapper.UserMapper;
 import it.pagopa.selfcare.user.model.UpdateUserRequest;
+import it.pagopa.selfcare.user.model.UserResources;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.WebApplicationException;
@@ -30,6 +31,7 @@ import org.owasp.encoder.Encode;
 import java.time.Duration;
 import java.time.OffsetDateTime;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeoutException;
 
 import static it.pagopa.selfcare.user.constant.CollectionUtil.CONTACTS_ID_PREFIX;
@@ -43,6 +45,7 @@ public class UserRegistryServiceImpl implements UserRegistryService {
 
     private final UserInstitutionService userInstitutionService;
     private final UserMapper userMapper;
+    private final UserRegistryCache userRegistryCache;
 
     @ConfigProperty(name = "user-ms.retry.min-backoff")
     Integer retryMinBackOff;
@@ -53,6 +56,13 @@ public class UserRegistryServiceImpl implements UserRegistryService {
     @ConfigProperty(name = "user-ms.retry")
     Integer maxRetry;
 
+    @ConfigProperty(name = "user-ms.user-registry.lookup-concurrency", defaultValue = "16")
+    Integer lookupConcurrency;
+
+    /** Time allowed to each call to the user-registry; a call that takes longer is retried like a network error. */
+    @ConfigProperty(name = "user-ms.user-registry.lookup-timeout", defaultValue = "30s")
+    Duration lookupTimeout;
+
 
     @RestClient
     @Inject
@@ -60,17 +70,43 @@ public class UserRegistryServiceImpl implements UserRegistryService {
 
     @Override
     public Uni<UserResource> findByIdUsingGET(String fl, String id) {
-        return userRegistryApi.findByIdUsingGET(fl, id)
+        return userRegistryCache.get(fl, id, () -> userRegistryApi.findByIdUsingGET(fl, id)
+                .ifNoItem().after(lookupTimeout).failWith(() -> new TimeoutException("User-registry lookup timed out after " + lookupTimeout))
                 .onFailure(this::checkIfIsRetryableException)
-                .retry().withBackOff(Duration.ofSeconds(retryMinBackOff), Duration.ofSeconds(retryMaxBackOff)).atMost(maxRetry);
+                .retry().withBackOff(Duration.ofSeconds(retryMinBackOff), Duration.ofSeconds(retryMaxBackOff)).atMost(maxRetry));
 
     }
 
+    @Override
+    public Uni<UserResources> findByIds(Collection<String> ids, String fl) {
+        List<String> distinctIds = ids.stream().filter(Objects::nonNull).distinct().toList();
+        Map<String, UserResource> found = new ConcurrentHashMap<>();
+        Map<String, Throwable> failures = new ConcurrentHashMap<>();
+        return Multi.createFrom().iterable(distinctIds)
+                .onItem().transformToUni(id -> findByIdUsingGET(fl, id)
+                        .onItem().ifNotNull().invoke(userResource -> found.put(id, userResource))
+                        .onFailure().invoke(throwable -> {
+                            log.warn("Unable to retrieve user {} from userRegistry: {}", Encode.forJava(id), throwable.getMessage());
+                            failures.put(id, throwable);
+                        })
+                        .onFailure().recoverWithNull())
+                .merge(lookupConcurrency)
+                .collect().last()
+                .map(ignored -> new UserResources(inOrder(distinctIds, found), inOrder(distinctIds, failures)));
+    }
+
+    private static <T> Map<String, T> inOrder(List<String> ids, Map<String, T> byId) {
+        Map<String, T> ordered = new LinkedHashMap<>();
+        ids.stream().filter(byId::containsKey).forEach(id -> ordered.put(id, byId.get(id)));
+        return ordered;
+    }
+
     @Override
     public Uni<UserId> saveUsingPATCH(SaveUserDto saveUserDto) {
         return userRegistryApi.saveUsingPATCH(saveUserDto)
                 .onFailure(this::checkIfIsRetryableException)
-                .retry().withBackOff(Duration.ofSeconds(retryMinBackOff), Duration.ofSeconds(retryMaxBackOff)).atMost(maxRetry);
+                .retry().withBackOff(Duration.ofSeconds(retryMinBackOff), Duration.ofSeconds(retryMaxBackOff)).atMost(maxRetry)
+                .onItem().ifNotNull().invoke(userId -> userRegistryCache.invalidate(String.valueOf(userId.getId())));
     }
 
     @Override
@@ -84,7 +120,8 @@ public class UserRegistryServiceImpl implements UserRegistryService {
     public Uni<Response> updateUsingPATCH(String id, MutableUserFieldsDto mutableUserFieldsDto) {
         return userRegistryApi.updateUsingPATCH(id, mutableUserFieldsDto)
                 .onFailure(this::checkIfIsRetryableException)
-                .retry().withBackOff(Duration.ofSeconds(retryMinBackOff), Duration.ofSeconds(retryMaxBackOff)).atMost(maxRetry);
+                .retry().withBackOff(Duration.ofSeconds(retryMinBackOff), Duration.ofSeconds(retryMaxBackOff)).atMost(maxRetry)
+                .onTermination().invoke(() -> userRegistryCache.invalidate(id));
     }
 
     private boolean checkIfIsRetryableException(Throwable throwable) {
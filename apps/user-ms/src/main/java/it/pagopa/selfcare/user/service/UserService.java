@@ -10,6 +10,7 @@ import it.pagopa.selfcare.user.controller.request.UpdateDescriptionDto;
 import it.pagopa.selfcare.user.controller.response.*;
 import it.pagopa.selfcare.user.model.LoggedUser;
 import it.pagopa.selfcare.user.model.UserNotificationToSend;
+import it.pagopa.selfcare.user.model.UserNotificationToSendPage;
 import it.pagopa.selfcare.user.model.constants.OnboardedProductState;
 import it.pagopa.selfcare.user.service.utils.CreateOrUpdateUserByFiscalCodeResponse;
 
@@ -40,6 +41,8 @@ public interface UserService {
 
     Uni<List<UserNotificationToSend>> findPaginatedUserNotificationToSend(Integer size, Integer page, String productId);
 
+    Uni<UserNotificationToSendPage> findUserNotificationToSendAfter(Integer size, String cursor, String productId);
+
     Uni<List<UserInstitutionResponse>> findAllByIds(List<String> userIds);
 
     Uni<Void> updateUserProductCreatedAt(String institutionId, List<String> userIds, String productId, OffsetDateTime createdAt);
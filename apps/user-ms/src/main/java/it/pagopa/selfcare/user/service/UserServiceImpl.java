@@ -29,6 +29,8 @@ import it.pagopa.selfcare.user.model.LoggedUser;
 import it.pagopa.selfcare.user.model.OnboardedProduct;
 import it.pagopa.selfcare.user.model.TrackEventInput;
 import it.pagopa.selfcare.user.model.UserNotificationToSend;
+import it.pagopa.selfcare.user.model.UserNotificationToSendPage;
+import it.pagopa.selfcare.user.model.UserResources;
 import it.pagopa.selfcare.user.model.constants.OnboardedProductState;
 import it.pagopa.selfcare.user.model.constants.QueueEvent;
 import it.pagopa.selfcare.user.model.notification.PrepareNotificationData;
@@ -52,10 +54,12 @@ import software.amazon.awssdk.utils.CollectionUtils;
 import java.time.Duration;
 import java.time.OffsetDateTime;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import static it.pagopa.selfcare.user.UserUtils.mapPropsForTrackEvent;
@@ -65,6 +69,7 @@ import static it.pagopa.selfcare.user.model.constants.EventsMetric.EVENTS_USER_I
 import static it.pagopa.selfcare.user.model.constants.EventsMetric.EVENTS_USER_INSTITUTION_SUCCESS;
 import static it.pagopa.selfcare.user.model.constants.EventsName.EVENT_USER_MS_NAME;
 import static it.pagopa.selfcare.user.model.constants.OnboardedProductState.*;
+import static it.pagopa.selfcare.user.util.GeneralUtils.encodeCursor;
 import static it.pagopa.selfcare.user.util.GeneralUtils.formatQueryParameterList;
 import static it.pagopa.selfcare.user.util.UserUtils.VALID_USER_PRODUCT_STATES_FOR_NOTIFICATION;
 
@@ -73,8 +78,17 @@ import static it.pagopa.selfcare.user.util.UserUtils.VALID_USER_PRODUCT_STATES_F
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
 
-    @ConfigProperty(name = "user-ms.eventhub.users.concurrency-level")
-    Integer eventhubUsersConcurrencyLevel;
+    @ConfigProperty(name = "user-ms.eventhub.users.replay.target-latency", defaultValue = "500ms")
+    Duration eventsReplayTargetLatency;
+
+    @ConfigProperty(name = "user-ms.eventhub.users.replay.max-pause", defaultValue = "5s")
+    Duration eventsReplayMaxPause;
+
+    @ConfigProperty(name = "user-ms.user-registry.lookup-concurrency", defaultValue = "16")
+    Integer userRegistryLookupConcurrency;
+
+    @ConfigProperty(name = "user-ms.user-registry.lookup-window-size", defaultValue = "100")
+    Integer userRegistryLookupWindowSize;
 
     private final UserRegistryService userRegistryService;
 
@@ -169,13 +183,12 @@ public class UserServiceImpl implements UserService {
         var userInstitutionFilters = UserInstitutionFilter.builder().institutionId(institutionId).build().constructMap();
         var productFilters = OnboardedProductFilter.builder().productId(productId).status(ACTIVE).build().constructMap();
         Multi<UserInstitution> userInstitutions = userInstitutionService.findAllWithFilter(userUtils.retrieveMapForFilter(userInstitutionFilters, productFilters));
-        return userInstitutions
-                .onItem().transformToUni(userInstitution -> userRegistryService.findByIdUsingGET(WORK_CONTACTS, userInstitution.getUserId())
-                        .map(userResource -> Objects.nonNull(userResource.getWorkContacts()) && userResource.getWorkContacts().containsKey(userInstitution.getUserMailUuid())
-                                ? userResource.getWorkContacts().get(userInstitution.getUserMailUuid()) : null))
-                .merge()
-                .filter(workContactResource -> Objects.nonNull(workContactResource) && StringUtils.isNotBlank(workContactResource.getEmail().getValue()))
-                .map(workContactResource -> workContactResource.getEmail().getValue())
+        return findAllUsersByWindow(userInstitutions, UserInstitution::getUserId, WORK_CONTACTS,
+                        (userInstitution, userResource) -> Optional.ofNullable(userResource.getWorkContacts())
+                                .map(workContacts -> workContacts.get(userInstitution.getUserMailUuid()))
+                                .filter(workContactResource -> StringUtils.isNotBlank(workContactResource.getEmail().getValue()))
+                                .map(workContactResource -> workContactResource.getEmail().getValue())
+                                .orElse(null))
                 .collect().asList();
 
     }
@@ -183,19 +196,49 @@ public class UserServiceImpl implements UserService {
     @Override
     public Multi<UserProductResponse> getUserProductsByInstitution(String institutionId, List<String> products, List<String> roles, String userId) {
         Multi<UserInstitutionResponse> userInstitutions = findAllUserInstitutions(institutionId, userId, roles, null, products, null);
-        return userInstitutions.onItem()
-                .transformToUni(userInstitution -> userRegistryService.findByIdUsingGET(USERS_WORKS_FIELD_LIST, userInstitution.getUserId())
-                        .map(userResource -> UserProductResponse.builder()
-                                .id(userResource.getId().toString())
-                                .name(userResource.getName().getValue())
-                                .surname(userResource.getFamilyName().getValue())
-                                .taxCode(userResource.getFiscalCode())
-                                .products(userInstitution.getProducts())
-                                .email(UserUtils.getMailByMailUuid(userResource.getWorkContacts(), userInstitution.getUserMailUuid()).orElse(null))
-                                .mobilePhone(UserUtils.getMobilePhoneByMailUuid(userResource.getWorkContacts(), userInstitution.getUserMailUuid()).orElse(null))
-                                .telephone(UserUtils.getTelephoneByMailUuid(userResource.getWorkContacts(), userInstitution.getUserMailUuid()).orElse(null))
-                                .build()))
-                .merge();
+        return findAllUsersByWindow(userInstitutions, UserInstitutionResponse::getUserId, USERS_WORKS_FIELD_LIST, UserServiceImpl::toUserProductResponse);
+    }
+
+    private static UserProductResponse toUserProductResponse(UserInstitutionResponse userInstitution, UserResource userResource) {
+        return UserProductResponse.builder()
+                .id(userResource.getId().toString())
+                .name(userResource.getName().getValue())
+                .surname(userResource.getFamilyName().getValue())
+                .taxCode(userResource.getFiscalCode())
+                .products(userInstitution.getProducts())
+                .email(UserUtils.getMailByMailUuid(userResource.getWorkContacts(), userInstitution.getUserMailUuid()).orElse(null))
+                .mobilePhone(UserUtils.getMobilePhoneByMailUuid(userResource.getWorkContacts(), userInstitution.getUserMailUuid()).orElse(null))
+                .telephone(UserUtils.getTelephoneByMailUuid(userResource.getWorkContacts(), userInstitution.getUserMailUuid()).orElse(null))
+                .build();
+    }
+
+    /**
+     * Resolves from the userRegistry the users of the given items and maps each item with its user, dropping
+     * the null results. The items are resolved a window of {@code user-ms.user-registry.lookup-window-size}
+     * at a time, in order, so that neither the items nor the users are held in memory all together; the
+     * result fails at the first window with a user that cannot be retrieved, and the next windows are not read.
+     */
+    private <T, R> Multi<R> findAllUsersByWindow(Multi<T> items, Function<T, String> userIdGetter, String fields,
+                                                 BiFunction<T, UserResource, R> mapper) {
+        return items.group().intoLists().of(userRegistryLookupWindowSize)
+                .onItem().transformToUniAndConcatenate(window -> findAllUsers(window, userIdGetter, fields)
+                        .map(userResources -> window.stream()
+                                .map(item -> userResources.get(userIdGetter.apply(item))
+                                        .map(userResource -> mapper.apply(item, userResource))
+                                        .orElse(null))
+                                .filter(Objects::nonNull)
+                                .toList()))
+                .onItem().disjoint();
+    }
+
+    /**
+     * Resolves from the userRegistry the users of the given items, failing when any of them cannot be retrieved.
+     */
+    private <T> Uni<UserResources> findAllUsers(List<T> items, Function<T, String> userIdGetter, String fields) {
+        return userRegistryService.findByIds(items.stream().map(userIdGetter).toList(), fields)
+                .onItem().transformToUni(userResources -> userResources.hasFailures()
+                        ? Uni.createFrom().failure(userResources.getFailures().values().iterator().next())
+                        : Uni.createFrom().item(userResources));
     }
 
     @Override
@@ -431,17 +474,37 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public Uni<List<UserNotificationToSend>> findPaginatedUserNotificationToSend(Integer size, Integer page, String productId) {
-        Map<String, Object> queryParameter;
+        return buildUserNotificationsToSend(userInstitutionService.paginatedFindAllWithFilter(retrieveUserNotificationFilter(productId), page, size), productId);
+    }
+
+    @Override
+    public Uni<UserNotificationToSendPage> findUserNotificationToSendAfter(Integer size, String cursor, String productId) {
+        return Uni.createFrom().deferred(() -> {
+            AtomicInteger count = new AtomicInteger();
+            AtomicReference<UserInstitution> last = new AtomicReference<>();
+            Multi<UserInstitution> userInstitutions = userInstitutionService.keysetFindAllWithFilter(retrieveUserNotificationFilter(productId), cursor, size)
+                    .onItem().invoke(userInstitution -> {
+                        count.incrementAndGet();
+                        last.set(userInstitution);
+                    });
+            return buildUserNotificationsToSend(userInstitutions, productId)
+                    .map(users -> new UserNotificationToSendPage(users, count.get() == 0 || count.get() < size
+                            ? null
+                            : encodeCursor(last.get().getId())));
+        });
+    }
+
+    private static Map<String, Object> retrieveUserNotificationFilter(String productId) {
         if (StringUtils.isNotBlank(productId)) {
-            queryParameter = OnboardedProductFilter.builder().productId(productId).status(VALID_USER_PRODUCT_STATES_FOR_NOTIFICATION).build().constructMap();
-        } else {
-            queryParameter = OnboardedProductFilter.builder().status(VALID_USER_PRODUCT_STATES_FOR_NOTIFICATION).build().constructMap();
+            return OnboardedProductFilter.builder().productId(productId).status(VALID_USER_PRODUCT_STATES_FOR_NOTIFICATION).build().constructMap();
         }
-        return userInstitutionService.paginatedFindAllWithFilter(queryParameter, page, size)
-                .onItem().transformToUniAndMerge(userInstitution -> userRegistryService
-                        .findByIdUsingGET(USERS_FIELD_LIST_WITHOUT_FISCAL_CODE, userInstitution.getUserId())
-                        .map(userResource -> userUtils.buildUsersNotificationResponse(userInstitution, userResource, productId)))
-                .collect().in(ArrayList::new, List::addAll);
+        return OnboardedProductFilter.builder().status(VALID_USER_PRODUCT_STATES_FOR_NOTIFICATION).build().constructMap();
+    }
+
+    private Uni<List<UserNotificationToSend>> buildUserNotificationsToSend(Multi<UserInstitution> userInstitutions, String productId) {
+        return findAllUsersByWindow(userInstitutions, UserInstitution::getUserId, USERS_FIELD_LIST_WITHOUT_FISCAL_CODE,
+                        (userInstitution, userResource) -> userUtils.buildUsersNotificationResponse(userInstitution, userResource, productId))
+                .collect().<List<UserNotificationToSend>>in(ArrayList::new, List::addAll);
     }
 
     @Override
@@ -855,17 +918,14 @@ public class UserServiceImpl implements UserService {
      */
     @Override
     public Multi<UserDataWithProductInfoResponse> retrieveUsersData(String institutionId, String personId, List<String> roles, List<String> states, List<String> products, List<String> productRoles, String userUuid) {
-        return retrieveAdminUserInstitution(institutionId, userUuid)
+        Multi<UserInstitution> userInstitutions = retrieveAdminUserInstitution(institutionId, userUuid)
                 .onItem().ifNotNull().invoke(userInstitution -> log.info("admin userInstitution found: {}", userInstitution))
                 .onItem().transform(userInstitution -> userInstitution == null ? userUuid : personId)
                 .onItem().invoke(userId -> log.info("userId to retrieve: {}", userId))
                 .onItem().transformToMulti(user -> retrieveFilteredUserInstitutions(user, institutionId, roles, states, products, productRoles))
                 .onItem().transform(userInstitution -> applyFiltersToRemoveProducts(userInstitution, states, products, roles, productRoles))
-                .onItem().invoke(userInstitution -> log.info("userInstitution found: {}", userInstitution))
-                .onItem().transformToUniAndMerge(userInstitution ->
-                        userRegistryService.findByIdUsingGET(USERS_WORKS_FIELD_LIST, userInstitution.getUserId())
-                                .map(userResource -> userMapper.toUserDataResponse(userInstitution, userResource))
-                );
+                .onItem().invoke(userInstitution -> log.info("userInstitution found: {}", userInstitution));
+        return findAllUsersByWindow(userInstitutions, UserInstitution::getUserId, USERS_WORKS_FIELD_LIST, userMapper::toUserDataResponse);
     }
 
     @Override
@@ -877,8 +937,11 @@ public class UserServiceImpl implements UserService {
     }
 
     /**
-     * Retrieves a list of filtered user institutions by date and page count,
-     * and sends events concurrently for each page.
+     * Retrieves the filtered user institutions by date page by page, each page following the last user
+     * institution of the previous one, and sends the events of each page before reading the next.
+     * The pause between two pages follows the latency of the Event Hub (see {@link EventReplayPacer}).
+     * The pages are read in a loop rather than by chaining each page to the previous one, so that a replay
+     * of any number of pages runs in constant stack depth.
      *
      * @param userId The ID of the user for whom to retrieve institutions.
      * @param institutionId The ID of the institution.
@@ -887,23 +950,41 @@ public class UserServiceImpl implements UserService {
      */
     @Override
     public Uni<Void> sendEventsByDateAndUserIdAndInstitutionId(OffsetDateTime fromDate, String institutionId, String userId) {
-
-        return retrieveFilteredUserInstitutionsByDatePageCount(userId,institutionId,fromDate)
-                .onItem().transformToUni(pageCount -> pageCount > 0
-                        ? Uni.combine().all().unis(
-                                IntStream.range(0, pageCount).boxed()
-                                .map(index -> sendEventsByDateAndUserIdAndInstitutionId(fromDate,institutionId,userId,index)
-                                        .onItem().delayIt().by(Duration.ofSeconds(5)))
-                                .toList())
-                            .usingConcurrencyOf(eventhubUsersConcurrencyLevel)
-                            .discardItems()
-                        : Uni.createFrom().voidItem());
+        return Uni.createFrom().deferred(() -> {
+            EventReplayPacer pacer = new EventReplayPacer(eventsReplayTargetLatency, eventsReplayMaxPause);
+            AtomicReference<String> cursor = new AtomicReference<>();
+            return Multi.createBy().repeating()
+                    .uni(() -> retrieveFilteredUserInstitutionsByDate(userId, institutionId, fromDate, cursor.get())
+                            .collect().asList()
+                            .onItem().invoke(userInstitutions -> {
+                                if (!userInstitutions.isEmpty()) {
+                                    cursor.set(encodeCursor(userInstitutions.get(userInstitutions.size() - 1).getId()));
+                                }
+                            }))
+                    .whilst(userInstitutions -> !userInstitutions.isEmpty())
+                    .onItem().transformToUniAndConcatenate(userInstitutions -> sendEventsPage(userInstitutions, userId, pacer))
+                    .collect().last()
+                    .replaceWithVoid();
+        });
     }
 
+    private Uni<Void> sendEventsPage(List<UserInstitution> userInstitutions, String userId, EventReplayPacer pacer) {
+        if (userInstitutions.isEmpty()) {
+            return Uni.createFrom().voidItem();
+        }
+        return sendEvents(userInstitutions, userId, pacer)
+                .onFailure().invoke(exception -> log.error("Failed to send Events for page starting at userInstitution: {}, message: {}",
+                        userInstitutions.get(0).getId(), exception.getMessage()))
+                .chain(() -> {
+                    Duration pause = pacer.nextPause();
+                    return pause.isZero()
+                            ? Uni.createFrom().voidItem()
+                            : Uni.createFrom().voidItem().onItem().delayIt().by(pause);
+                });
+    }
 
-    public Uni<Void> sendEventsByDateAndUserIdAndInstitutionId(OffsetDateTime fromDate, String institutionId, String userId, Integer page) {
-        Multi<UserInstitution> userInstitutions = retrieveFilteredUserInstitutionsByDate(userId, institutionId, fromDate, page);
-        return userInstitutions
+    private Uni<Void> sendEvents(List<UserInstitution> userInstitutions, String userId, EventReplayPacer pacer) {
+        return Multi.createFrom().iterable(userInstitutions)
                 .onItem().transformToUni(userInstitution -> {
                     String userIdToUse = userId != null ? userId : userInstitution.getUserId();
                     Uni<UserResource> userResourceUni = userRegistryService.findByIdUsingGET(USERS_FIELD_LIST_WITHOUT_FISCAL_CODE, userIdToUse);
@@ -914,7 +995,7 @@ public class UserServiceImpl implements UserService {
                             .build();
 
                     return userResourceUni
-                            .onItem().transformToUni(userResource -> buildAndSendKafkaNotifications(userInstitution, userResource)
+                            .onItem().transformToUni(userResource -> buildAndSendKafkaNotifications(userInstitution, userResource, pacer)
                                     .collect().asList()
                                     .replaceWithVoid())
                             .onItem().invoke(() -> trackTelemetryEvent(trackEventInput, EVENTS_USER_INSTITUTION_SUCCESS))
@@ -922,8 +1003,7 @@ public class UserServiceImpl implements UserService {
                             .onFailure().invoke(exception -> trackTelemetryEvent(trackEventInput.toBuilder().exception(exception.getMessage()).build(), EVENTS_USER_INSTITUTION_FAILURE))
                             .onFailure().recoverWithNull();
                 })
-                .merge().toUni()
-                .onFailure().invoke(exception -> log.error("Failed to send Events for page: {}, message: {}", page, exception.getMessage()));
+                .merge(userRegistryLookupConcurrency).toUni();
     }
 
     private void trackTelemetryEvent(TrackEventInput trackEventInput, String metricsName) {
@@ -949,14 +1029,9 @@ public class UserServiceImpl implements UserService {
         return userInstitutionService.findAllWithFilter(queryParam);
     }
 
-    private Multi<UserInstitution> retrieveFilteredUserInstitutionsByDate(String userId, String institutionId, OffsetDateTime fromDate, Integer page){
-        var queryParam = retrieveFilteredUserInstitutionsByDateQueryParam(userId,institutionId,fromDate);
-        return userInstitutionService.findUserInstitutionsAfterDateWithFilter(queryParam, fromDate, page);
-    }
-
-    private Uni<Integer> retrieveFilteredUserInstitutionsByDatePageCount(String userId, String institutionId, OffsetDateTime fromDate){
+    private Multi<UserInstitution> retrieveFilteredUserInstitutionsByDate(String userId, String institutionId, OffsetDateTime fromDate, String cursor){
         var queryParam = retrieveFilteredUserInstitutionsByDateQueryParam(userId,institutionId,fromDate);
-        return userInstitutionService.pageCountUserInstitutionsAfterDateWithFilter(queryParam, fromDate);
+        return userInstitutionService.findUserInstitutionsAfterDateWithFilter(queryParam, fromDate, cursor);
     }
 
     private Map<String, Object> retrieveFilteredUserInstitutionsByDateQueryParam(String userId, String institutionId, OffsetDateTime fromDate) {
@@ -990,9 +1065,9 @@ public class UserServiceImpl implements UserService {
         }
     }
 
-    private Multi<UserNotificationToSend> buildAndSendKafkaNotifications(UserInstitution userInstitution, UserResource userResource){
+    private Multi<UserNotificationToSend> buildAndSendKafkaNotifications(UserInstitution userInstitution, UserResource userResource, EventReplayPacer pacer){
         return Multi.createFrom().iterable(userUtils.buildUsersNotificationResponse(userInstitution, userResource))
-                .onItem().transformToUniAndMerge(userNotificationService::sendUserNotification);
+                .onItem().transformToUniAndMerge(userNotificationToSend -> pacer.timed(() -> userNotificationService.sendUserNotification(userNotificationToSend)));
     }
 
 
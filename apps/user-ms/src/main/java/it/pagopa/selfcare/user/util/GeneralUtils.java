@@ -1,8 +1,10 @@
 package it.pagopa.selfcare.user.util;
 
 import it.pagopa.selfcare.user.exception.InvalidRequestException;
+import org.bson.types.ObjectId;
 
 import java.util.Arrays;
+import java.util.Base64;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
@@ -39,4 +41,31 @@ public class GeneralUtils {
         }).toList() : Collections.emptyList();
     }
 
+    /**
+     * Encode the id of the last document of a page as the opaque cursor of the following page.
+     *
+     * @param lastId the id of the last document read
+     * @return the cursor of the following page
+     */
+    public static String encodeCursor(ObjectId lastId) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(lastId.toByteArray());
+    }
+
+    /**
+     * Decode a cursor built by {@link #encodeCursor(ObjectId)}.
+     * Throw an InvalidRequestException when the cursor is not valid.
+     *
+     * @param cursor the cursor of a page, blank for the first page
+     * @return the id of the last document of the previous page, null for the first page
+     */
+    public static ObjectId decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            return new ObjectId(Base64.getUrlDecoder().decode(cursor));
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidRequestException("Invalid cursor");
+        }
+    }
 }
@@ -1,52 +1,76 @@
 package it.pagopa.selfcare.user.util;
 
-import com.mongodb.MongoClientSettings;
-import com.mongodb.client.model.Filters;
-import com.mongodb.client.model.Sorts;
-import com.mongodb.client.model.Updates;
 import it.pagopa.selfcare.user.constant.SortEnum;
-import it.pagopa.selfcare.user.entity.UserInstitutionRole;
-import it.pagopa.selfcare.user.entity.filter.OnboardedProductFilter;
-import it.pagopa.selfcare.user.entity.filter.UserInstitutionRoleFilter;
+import it.pagopa.selfcare.user.entity.UserInstitution;
+import it.pagopa.selfcare.user.entity.filter.OnboardedProductFilter.OnboardedProductEnum;
+import it.pagopa.selfcare.user.entity.filter.UserInstitutionRoleFilter.UserInstitutionRoleEnum;
 import it.pagopa.selfcare.user.model.OnboardedProduct;
 import jakarta.enterprise.context.ApplicationScoped;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
-import org.bson.BsonDocument;
-import org.bson.BsonDocumentReader;
 import org.bson.Document;
-import org.bson.codecs.DecoderContext;
-import org.bson.codecs.DocumentCodec;
-import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
 
+import java.time.Instant;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.stream.Collectors;
 
 import static it.pagopa.selfcare.user.constant.CollectionUtil.USER_INSTITUTION_COLLECTION;
-import static java.util.stream.Collectors.groupingBy;
 
+/**
+ * Builds the MongoDB queries, updates and sorts of the user collections as {@link Document}s.
+ *
+ * <p>The documents are built directly, in the same shape the driver's {@code Filters}, {@code Updates} and
+ * {@code Sorts} builders render to: every user list and filter endpoint goes through here, and building the
+ * driver's {@code Bson} first meant encoding it to a {@code BsonDocument} and decoding that back into a
+ * {@code Document} on every request. Values are converted as that codec round-trip did: enums to their name
+ * and {@link Instant}s to {@link Date}s.
+ */
 @RequiredArgsConstructor(access = AccessLevel.NONE)
 @ApplicationScoped
 public class QueryUtils {
 
+    private static final String ID = "_id";
+    private static final String AND = "$and";
+    private static final String OR = "$or";
+    private static final String IN = "$in";
+    private static final String GT = "$gt";
+    private static final String SET = "$set";
+    private static final String ELEM_MATCH = "$elemMatch";
+
+    private static final String PRODUCTS = UserInstitution.Fields.products.name();
+    private static final String PRODUCT_CREATED_AT = OnboardedProduct.Fields.createdAt.name();
+    private static final String PRODUCT_UPDATED_AT = OnboardedProduct.Fields.updatedAt.name();
+
+    /**
+     * Array field holding each field filtered with {@code $elemMatch}, keyed by lower-case field name: the
+     * products of the userInstitutions collection and the institutions of the userInfo collection.
+     */
+    private static final Map<String, String> PRODUCT_ARRAY_FIELDS = Arrays.stream(OnboardedProductEnum.values())
+            .collect(Collectors.toUnmodifiableMap(field -> field.getChild().toLowerCase(Locale.ROOT), OnboardedProductEnum::getParent));
+    private static final Map<String, String> INSTITUTION_ROLE_ARRAY_FIELDS = Arrays.stream(UserInstitutionRoleEnum.values())
+            .collect(Collectors.toUnmodifiableMap(field -> field.getChild().toLowerCase(Locale.ROOT), UserInstitutionRoleEnum::getParent));
+
     /**
      * The buildUpdateDocument function takes a map of parameters and constructs an update document
-     * that can be used to update the database. The function uses the Updates class from MongoDB's
-     * Java driver to construct a Bson object, which is then converted into a Document object. If no
-     * parameters are passed in, an empty Document is returned instead. This allows for flexibility in
-     * how this function can be called by other functions within this class (e.g., if you want to pass
-     * in only one parameter).
+     * that sets every parameter: {@code {$set: {field: value, ...}}}. If no parameters are passed in,
+     * an empty Document is returned instead.
      */
     public Document buildUpdateDocument(Map<String, Object> parameters) {
-        if (!parameters.isEmpty()) {
-            return bsonToDocument(Updates.combine(constructBsonUpdate(parameters)));
-        } else {
+        if (parameters.isEmpty()) {
             return new Document();
         }
+        Document set = new Document();
+        parameters.forEach((field, value) -> set.append(field, toQueryValue(value)));
+        return new Document(SET, set);
     }
 
     /**
@@ -55,15 +79,24 @@ public class QueryUtils {
      * the query document. If there are multiple entries in the map, then they are combined using logical ANDs.
      */
     public Document buildQueryDocument(Map<String, Object> parameters, String collection) {
-        if (!parameters.isEmpty()) {
-            return bsonToDocument(Filters.and(constructBsonFilter(parameters, collection)));
-        } else {
+        if (parameters.isEmpty()) {
             return new Document();
         }
+        List<Document> filters = new ArrayList<>(parameters.size());
+        addFilters(parameters, collection, filters);
+        return new Document(AND, filters);
     }
-    public Document buildQueryDocumentByDate(Map<String, Object> parameters, String collection, OffsetDateTime fromDate) {
-            return bsonToDocument(Filters.and(constructBsonWithDateFilter(parameters, collection, fromDate)));
 
+    public Document buildQueryDocumentByDate(Map<String, Object> parameters, String collection, OffsetDateTime fromDate) {
+        List<Document> filters = new ArrayList<>(parameters.size() + 1);
+        addFilters(parameters, collection, filters);
+        if (fromDate != null) {
+            Date from = Date.from(fromDate.toInstant());
+            filters.add(new Document(OR, List.of(
+                    new Document(PRODUCTS, new Document(ELEM_MATCH, new Document(PRODUCT_CREATED_AT, new Document(GT, from)))),
+                    new Document(PRODUCTS, new Document(ELEM_MATCH, new Document(PRODUCT_UPDATED_AT, new Document(GT, from)))))));
+        }
+        return new Document(AND, filters);
     }
 
     /**
@@ -71,149 +104,79 @@ public class QueryUtils {
      * It then returns a Document object that can be used to sort the results of a query.
      */
     public Document buildSortDocument(String field, SortEnum order) {
-        if (SortEnum.ASC == order) {
-            return bsonToDocument(Sorts.ascending(field));
-        } else {
-            return bsonToDocument(Sorts.descending(field));
-        }
+        return new Document(field, SortEnum.ASC == order ? 1 : -1);
     }
 
     /**
-     * The bsonToDocument function converts a Bson object to a Document.
-     */
-    private Document bsonToDocument(Bson bson) {
-        BsonDocument bsonDocument = bson.toBsonDocument(BsonDocument.class, MongoClientSettings.getDefaultCodecRegistry());
-        DocumentCodec codec = new DocumentCodec();
-        DecoderContext decoderContext = DecoderContext.builder().build();
-        return codec.decode(new BsonDocumentReader(bsonDocument), decoderContext);
-    }
-
-    /**
-     * The constructBsonUpdate function takes a Map of String keys to Object values and returns a List of Bson objects.
-     * The function uses the Updates class from the MongoDB Java driver to create an update operation for each key-value pair in the map.
-     */
-    private List<Bson> constructBsonUpdate(Map<String, Object> parameters) {
-        return parameters.entrySet()
-                .stream()
-                .map(stringStringEntry -> Updates.set(stringStringEntry.getKey(), stringStringEntry.getValue()))
-                .toList();
-    }
-
-
-
-    /**
-     * The constructBsonFilter function takes in a map of parameters and the name of the collection
-     * that we are querying.
-     * The function first checks if there is an array field present in the parameter map, and if so it creates
-     * a new Map object containing only those fields that need to be filtered by elemMatch (i.e., arrays).
-     * This new Map object is then passed into addEleMatchOperatorAndCleanParameterMap(),
-     * which adds an $elemMatch operator to each key-value pair in this new Map object and removes these
-     * Finally iterates on cleaned parameters map to add in or eq query operator and
-     * returns a list of Bson objects, which will be used to filter our query.
+     * The buildKeysetQueryDocument function restricts a query to the documents following lastId in the
+     * order of buildKeysetSortDocument, so that a page is read by seeking its first document through the
+     * _id index instead of skipping all the previous pages. A null lastId (the first page) leaves the
+     * query as it is.
      */
-    private List<Bson> constructBsonFilter(Map<String, Object> parameters, String collection) {
-        List<Bson> bsonList = new ArrayList<>();
-
-        Map<String, Object> mapForElemMatch = retrieveArrayFilterIfPresent(parameters, collection);
-
-        if (!mapForElemMatch.isEmpty()) {
-            addElemMatchOperator(mapForElemMatch, collection, bsonList);
-            parameters = parameters.entrySet().stream().filter(stringObjectEntry -> !mapForElemMatch.containsKey(stringObjectEntry.getKey()))
-                    .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+    public Document buildKeysetQueryDocument(Document query, ObjectId lastId) {
+        if (lastId == null) {
+            return query;
         }
-
-        bsonList.addAll(addEqAndInFilters(parameters));
-        return bsonList;
+        Document afterLastId = new Document(ID, new Document(GT, lastId));
+        return query.isEmpty() ? afterLastId : new Document(AND, List.of(query, afterLastId));
     }
 
-    private List<Bson> constructBsonWithDateFilter(Map<String, Object> parameters, String collection, OffsetDateTime fromDate){
-        List<Bson> bsonList = new ArrayList<>();
-        if (!parameters.isEmpty()) {
-            Map<String, Object> mapForElemMatch = retrieveArrayFilterIfPresent(parameters, collection);
-
-            if (!mapForElemMatch.isEmpty()) {
-                addElemMatchOperator(mapForElemMatch, collection, bsonList);
-                parameters = parameters.entrySet().stream()
-                        .filter(entry -> !mapForElemMatch.containsKey(entry.getKey()))
-                        .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
-            }
-
-            bsonList.addAll(addEqAndInFilters(parameters));
-        }
-        if (fromDate != null) {
-            bsonList.add(
-            Filters.or(
-                    Filters.elemMatch("products", Filters.gt("createdAt", fromDate.toInstant())),
-                    Filters.elemMatch("products", Filters.gt("updatedAt", fromDate.toInstant()))
-            ));
-        }
-
-        return bsonList;
-    }
-    /**
-     * The addElemMatchOperator function is used to add the $elemMatch operator to the query.
-     * The function takes in a mapForElemMatch map, parameters map, collection name and bsonList as arguments.
-     * It then iterates through all of the keys in mapForElemMatch and retrieves their parent key using retrieveParent() from enum
-     * chosen based on collection argument.
-     * Then it groups all of these parent keys together into a Map&lt;String, List&lt;String&gt;&gt; object called groupedParentsMap.
-     * Finally it iterates through each entry in groupedParentsMap and adds an elemMatch filter for each one with its value being
-     * an AND filter containing all of the eq and in filters from addAnd
-     */
-    private void addElemMatchOperator(Map<String, Object> mapForElemMatch, String collection, List<Bson> bsonList) {
-        mapForElemMatch.keySet()
-                .stream().map(key -> retrieveParent(key, collection))
-                .collect(groupingBy(o -> o))
-                .forEach((s, strings) -> bsonList.add(Filters.elemMatch(s, Filters.and(addEqAndInFilters(mapForElemMatch)))));
+    public Document buildKeysetSortDocument() {
+        return new Document(ID, 1);
     }
 
     /**
-     * The addEqAndInFilters function takes a Map of parameters and returns a List of Bson objects.
-     * The function iterates over the entries in the parameter map, and for each entry it creates
-     * either an eq or an in filter depending on whether the value is an ArrayList or not. It then adds
-     * that filter to a list which it returns at the end of its execution. This function is used by both
-     * findDocumentsWithParameters and updateDocumentsWithParameters to create filters based on user input.
+     * The addFilters function adds to filters an eq or in filter for each parameter. The parameters
+     * that are fields of an array (the products of a userInstitution or the institutions of a userInfo,
+     * depending on the collection) are grouped by array and combined with an $elemMatch operator,
+     * which comes before the filters on the other fields.
      */
-    private List<Bson> addEqAndInFilters(Map<String, Object> parameters) {
-        return parameters.entrySet().stream()
-                .map(entry -> {
-                    if (entry.getValue() instanceof List<?>) {
-                        return Filters.in(entry.getKey(), (Iterable<?>) entry.getValue());
-                    }
-                    return Filters.eq(entry.getKey(), entry.getValue());
-                }).toList();
+    private void addFilters(Map<String, Object> parameters, String collection, List<Document> filters) {
+        Map<String, String> arrayFields = USER_INSTITUTION_COLLECTION.equalsIgnoreCase(collection)
+                ? PRODUCT_ARRAY_FIELDS
+                : INSTITUTION_ROLE_ARRAY_FIELDS;
+        Map<String, List<Document>> elemMatchFilters = new LinkedHashMap<>();
+        List<Document> fieldFilters = new ArrayList<>(parameters.size());
+        parameters.forEach((field, value) -> {
+            String arrayField = arrayFields.get(field.toLowerCase(Locale.ROOT));
+            List<Document> target = arrayField == null
+                    ? fieldFilters
+                    : elemMatchFilters.computeIfAbsent(arrayField, key -> new ArrayList<>());
+            target.add(eqOrInFilter(field, value));
+        });
+        elemMatchFilters.forEach((arrayField, arrayFilters) ->
+                filters.add(new Document(arrayField, new Document(ELEM_MATCH, new Document(AND, arrayFilters)))));
+        filters.addAll(fieldFilters);
     }
 
-
     /**
-     * The retrieveParent function is used to retrieve the parent of a given key.
-     * The parent is retrieved from enum related to given collection name;
+     * The eqOrInFilter function creates an in filter when the value is a List, an eq filter otherwise.
      */
-    private String retrieveParent(String key, String collection) {
-        if (USER_INSTITUTION_COLLECTION.equalsIgnoreCase(collection)) {
-            return OnboardedProductFilter.OnboardedProductEnum.retrieveParent(key)
-                    .orElse(null);
-        } else {
-            return UserInstitutionRoleFilter.UserInstitutionRoleEnum.retrieveParent(key)
-                    .orElse(null);
+    private static Document eqOrInFilter(String field, Object value) {
+        if (value instanceof List<?>) {
+            return new Document(field, new Document(IN, toQueryValue(value)));
         }
+        return new Document(field, toQueryValue(value));
     }
 
-
     /**
-     * The retrieveArrayFilterIfPresent function is used to filter out the parameters that are not part of the
-     * OnboardedProduct.Fields or UserInstitutionRole.Fields enumerations, depending on which collection is being queried.
-     * This function retrieve a new parameterMap ,containing only those filters necessary to build an element match filter
-     * The second argument represents which collection we are filtering for (either USER_INSTITUTION_COLLECTION or USER_INFO_COLLECTION)
+     * The toQueryValue function converts a value as encoding it to BSON and decoding it back would:
+     * enums become their name, instants become dates and collections become lists.
      */
-    private Map<String, Object> retrieveArrayFilterIfPresent(Map<String, Object> parameters, String collection) {
-        if (USER_INSTITUTION_COLLECTION.equalsIgnoreCase(collection)) {
-            return parameters.entrySet().stream()
-                    .filter(mapEntry -> Arrays.stream(OnboardedProduct.Fields.values()).anyMatch(field -> field.name().equalsIgnoreCase(mapEntry.getKey())))
-                    .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (x, y) -> x));
-        } else {
-            return parameters.entrySet().stream()
-                    .filter(mapEntry -> Arrays.stream(UserInstitutionRole.Fields.values()).anyMatch(field -> field.name().equalsIgnoreCase(mapEntry.getKey())))
-                    .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (x, y) -> x));
+    private static Object toQueryValue(Object value) {
+        if (value instanceof Enum<?> enumValue) {
+            return enumValue.name();
+        }
+        if (value instanceof Instant instant) {
+            return Date.from(instant);
+        }
+        if (value instanceof Collection<?> values) {
+            List<Object> converted = new ArrayList<>(values.size());
+            for (Object element : values) {
+                converted.add(toQueryValue(element));
+            }
+            return converted;
         }
+        return value;
     }
 }
@@ -0,0 +1,43 @@
+package it.pagopa.selfcare.user.service;
+
+import io.smallrye.mutiny.Uni;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class EventReplayPacerTest {
+
+    @Test
+    void nextPause_shouldSlowDownWhileEventHubIsSlow() {
+        EventReplayPacer pacer = new EventReplayPacer(Duration.ZERO, Duration.ofMillis(300));
+
+        send(pacer, Uni.createFrom().item("sent").onItem().delayIt().by(Duration.ofMillis(5)));
+        assertEquals(Duration.ofMillis(EventReplayPacer.MIN_PAUSE_MILLIS), pacer.nextPause());
+        send(pacer, Uni.createFrom().<String>failure(new IllegalStateException("timeout")).onFailure().call(() -> Uni.createFrom().voidItem().onItem().delayIt().by(Duration.ofMillis(5))));
+        assertEquals(Duration.ofMillis(200), pacer.nextPause());
+        send(pacer, Uni.createFrom().item("sent").onItem().delayIt().by(Duration.ofMillis(5)));
+        assertEquals(Duration.ofMillis(300), pacer.nextPause());
+    }
+
+    @Test
+    void nextPause_shouldSpeedUpOnceEventHubIsFast() {
+        EventReplayPacer pacer = new EventReplayPacer(Duration.ofMillis(50), Duration.ofSeconds(5));
+        Uni<String> slow = Uni.createFrom().item("sent").onItem().delayIt().by(Duration.ofMillis(60));
+        send(pacer, slow);
+        pacer.nextPause();
+        send(pacer, slow);
+        assertEquals(Duration.ofMillis(200), pacer.nextPause());
+
+        send(pacer, Uni.createFrom().item("sent"));
+        assertEquals(Duration.ofMillis(100), pacer.nextPause());
+        send(pacer, Uni.createFrom().item("sent"));
+        assertEquals(Duration.ZERO, pacer.nextPause());
+        assertEquals(Duration.ZERO, pacer.nextPause());
+    }
+
+    private static void send(EventReplayPacer pacer, Uni<String> event) {
+        pacer.timed(() -> event).onFailure().recoverWithNull().await().indefinitely();
+    }
+}
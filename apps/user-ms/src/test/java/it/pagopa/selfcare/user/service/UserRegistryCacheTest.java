@@ -0,0 +1,109 @@
+package it.pagopa.selfcare.user.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microsoft.applicationinsights.TelemetryClient;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.helpers.test.UniAssertSubscriber;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openapi.quarkus.user_registry_json.model.NameCertifiableSchema;
+import org.openapi.quarkus.user_registry_json.model.UserResource;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class UserRegistryCacheTest {
+
+    private static final String FIELD_LIST = "name,familyName,email,workContacts";
+
+    private UserRegistryCache userRegistryCache;
+    private TelemetryClient telemetryClient;
+    private UserResource userResource;
+    private AtomicInteger registryCalls;
+
+    @BeforeEach
+    void setUp() {
+        telemetryClient = mock(TelemetryClient.class);
+        userRegistryCache = new UserRegistryCache();
+        userRegistryCache.ttl = Duration.ofMinutes(1);
+        userRegistryCache.maxSize = 100;
+        userRegistryCache.objectMapper = new ObjectMapper().findAndRegisterModules();
+        userRegistryCache.telemetryClient = telemetryClient;
+        userRegistryCache.init();
+
+        userResource = new UserResource();
+        userResource.setId(UUID.randomUUID());
+        NameCertifiableSchema name = new NameCertifiableSchema();
+        name.setValue("name");
+        userResource.setName(name);
+        registryCalls = new AtomicInteger();
+    }
+
+    @Test
+    void get_shouldServeCopiesOfCachedUser() {
+        String userId = userResource.getId().toString();
+
+        UserResource first = get(userId, registry());
+        UserResource second = get(userId, registry());
+
+        assertEquals(1, registryCalls.get());
+        assertEquals(userResource.getId(), second.getId());
+        assertEquals("name", second.getName().getValue());
+        assertNotSame(first, second);
+        userRegistryCache.trackMetrics();
+        verify(telemetryClient).trackMetric(UserRegistryCache.USER_REGISTRY_CACHE_HITS, 1);
+        verify(telemetryClient).trackMetric(UserRegistryCache.USER_REGISTRY_CACHE_MISSES, 1);
+    }
+
+    @Test
+    void get_shouldCoalesceConcurrentLookupsOfSameUser() {
+        String userId = userResource.getId().toString();
+        CompletableFuture<UserResource> response = new CompletableFuture<>();
+        Supplier<Uni<UserResource>> pendingRegistry = () -> {
+            registryCalls.incrementAndGet();
+            return Uni.createFrom().completionStage(response);
+        };
+
+        UniAssertSubscriber<UserResource> first = userRegistryCache.get(FIELD_LIST, userId, pendingRegistry)
+                .subscribe().withSubscriber(UniAssertSubscriber.create());
+        UniAssertSubscriber<UserResource> second = userRegistryCache.get(FIELD_LIST, userId, pendingRegistry)
+                .subscribe().withSubscriber(UniAssertSubscriber.create());
+        response.complete(userResource);
+
+        assertEquals(1, registryCalls.get());
+        assertEquals(userResource.getId(), first.awaitItem().getItem().getId());
+        assertEquals(userResource.getId(), second.awaitItem().getItem().getId());
+        userRegistryCache.trackMetrics();
+        verify(telemetryClient).trackMetric(UserRegistryCache.USER_REGISTRY_CACHE_COALESCED, 1);
+    }
+
+    @Test
+    void invalidate_shouldEvictEveryFieldListOfUser() {
+        String userId = userResource.getId().toString();
+        get(userId, registry());
+
+        userRegistryCache.invalidate(userId);
+        get(userId, registry());
+
+        assertEquals(2, registryCalls.get());
+    }
+
+    private UserResource get(String userId, Supplier<Uni<UserResource>> registry) {
+        return userRegistryCache.get(FIELD_LIST, userId, registry).await().indefinitely();
+    }
+
+    private Supplier<Uni<UserResource>> registry() {
+        return () -> Uni.createFrom().item(() -> {
+            registryCalls.incrementAndGet();
+            return userResource;
+        });
+    }
+}
@@ -0,0 +1,122 @@
+package it.pagopa.selfcare.user.service;
+
+import io.quarkus.test.InjectMock;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.helpers.test.UniAssertSubscriber;
+import it.pagopa.selfcare.user.model.UserResources;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.rest.client.inject.RestClient;
+import org.junit.jupiter.api.Test;
+import org.openapi.quarkus.user_registry_json.api.UserApi;
+import org.openapi.quarkus.user_registry_json.model.EmailCertifiableSchema;
+import org.openapi.quarkus.user_registry_json.model.MutableUserFieldsDto;
+import org.openapi.quarkus.user_registry_json.model.NameCertifiableSchema;
+import org.openapi.quarkus.user_registry_json.model.UserResource;
+import org.openapi.quarkus.user_registry_json.model.WorkContactResource;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the user-registry lookups with the cache enabled, as in production: the other tests disable it
+ * in the test configuration.
+ */
+@QuarkusTest
+@TestProfile(UserRegistryServiceCacheTest.CacheEnabledProfile.class)
+class UserRegistryServiceCacheTest {
+
+    private static final String FIELD_LIST = "name,familyName,email,workContacts";
+
+    @Inject
+    UserRegistryService userRegistryService;
+
+    @RestClient
+    @InjectMock
+    UserApi userRegistryApi;
+
+    public static class CacheEnabledProfile implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of("user-ms.user-registry.cache.ttl", "1m");
+        }
+    }
+
+    @Test
+    void findByIdUsingGET_shouldServeCachedUser() {
+        UserResource userResource = userResource();
+        String userId = userResource.getId().toString();
+        when(userRegistryApi.findByIdUsingGET(FIELD_LIST, userId)).thenReturn(Uni.createFrom().item(userResource));
+
+        UserResource first = findById(userId);
+        UserResource second = findById(userId);
+
+        verify(userRegistryApi, times(1)).findByIdUsingGET(FIELD_LIST, userId);
+        assertNotSame(first, second);
+        assertEquals("name", second.getName().getValue());
+        assertEquals("test@test.it", second.getWorkContacts().get("ID_MAIL#123").getEmail().getValue());
+    }
+
+    @Test
+    void findByIds_shouldReadEachUserOnce() {
+        UserResource userResource = userResource();
+        String userId = userResource.getId().toString();
+        when(userRegistryApi.findByIdUsingGET(FIELD_LIST, userId)).thenReturn(Uni.createFrom().item(userResource));
+
+        findById(userId);
+        UserResources userResources = userRegistryService.findByIds(List.of(userId), FIELD_LIST)
+                .subscribe().withSubscriber(UniAssertSubscriber.create())
+                .awaitItem().getItem();
+
+        assertEquals(List.of(userId), List.copyOf(userResources.getFound().keySet()));
+        verify(userRegistryApi, times(1)).findByIdUsingGET(FIELD_LIST, userId);
+    }
+
+    @Test
+    void updateUsingPATCH_shouldEvictCachedUser() {
+        UserResource userResource = userResource();
+        String userId = userResource.getId().toString();
+        MutableUserFieldsDto mutableUserFieldsDto = new MutableUserFieldsDto();
+        when(userRegistryApi.findByIdUsingGET(FIELD_LIST, userId)).thenReturn(Uni.createFrom().item(userResource));
+        when(userRegistryApi.updateUsingPATCH(userId, mutableUserFieldsDto))
+                .thenReturn(Uni.createFrom().item(Response.noContent().build()));
+
+        findById(userId);
+        userRegistryService.updateUsingPATCH(userId, mutableUserFieldsDto)
+                .subscribe().withSubscriber(UniAssertSubscriber.create())
+                .awaitItem();
+        findById(userId);
+
+        verify(userRegistryApi, times(2)).findByIdUsingGET(FIELD_LIST, userId);
+    }
+
+    private UserResource findById(String userId) {
+        return userRegistryService.findByIdUsingGET(FIELD_LIST, userId)
+                .subscribe().withSubscriber(UniAssertSubscriber.create())
+                .awaitItem().getItem();
+    }
+
+    private static UserResource userResource() {
+        UserResource userResource = new UserResource();
+        userResource.setId(UUID.randomUUID());
+        NameCertifiableSchema name = new NameCertifiableSchema();
+        name.setValue("name");
+        userResource.setName(name);
+        EmailCertifiableSchema email = new EmailCertifiableSchema();
+        email.setValue("test@test.it");
+        WorkContactResource workContact = new WorkContactResource();
+        workContact.setEmail(email);
+        userResource.setWorkContacts(Map.of("ID_MAIL#123", workContact));
+        return userResource;
+    }
+}
@@ -10,7 +10,9 @@ import it.pagopa.selfcare.user.entity.UserInstitution;
 import it.pagopa.selfcare.user.model.OnboardedProduct;
 import it.pagopa.selfcare.user.model.UpdateUserRequest;
 import it.pagopa.selfcare.user.model.UserNotificationToSend;
+import it.pagopa.selfcare.user.model.UserResources;
 import jakarta.inject.Inject;
+import jakarta.ws.rs.WebApplicationException;
 import jakarta.ws.rs.core.Response;
 import org.bson.types.ObjectId;
 import org.eclipse.microprofile.rest.client.inject.RestClient;
@@ -25,7 +27,9 @@ import java.util.UUID;
 
 import static io.smallrye.common.constraint.Assert.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
@@ -88,6 +92,37 @@ public class UserRegistryServiceTest {
         verify(userRegistryApi, times(1)).findByIdUsingGET("fl", "id");
     }
 
+    @Test
+    void findByIds_shouldResolveDistinctIdsInRequestOrder() {
+        UserResource second = new UserResource();
+        when(userRegistryApi.findByIdUsingGET("fl", "id1")).thenReturn(Uni.createFrom().item(userResource));
+        when(userRegistryApi.findByIdUsingGET("fl", "id2")).thenReturn(Uni.createFrom().item(second));
+
+        UserResources userResources = userRegistryService.findByIds(List.of("id2", "id1", "id2"), "fl")
+                .subscribe().withSubscriber(UniAssertSubscriber.create())
+                .awaitItem().getItem();
+
+        assertEquals(List.of("id2", "id1"), List.copyOf(userResources.getFound().keySet()));
+        assertEquals(List.of(second, userResource), userResources.list());
+        assertFalse(userResources.hasFailures());
+        verify(userRegistryApi, times(1)).findByIdUsingGET("fl", "id2");
+    }
+
+    @Test
+    void findByIds_shouldReportFailedLookups() {
+        WebApplicationException notFound = new WebApplicationException(404);
+        when(userRegistryApi.findByIdUsingGET("fl", "id1")).thenReturn(Uni.createFrom().item(userResource));
+        when(userRegistryApi.findByIdUsingGET("fl", "id2")).thenReturn(Uni.createFrom().failure(notFound));
+
+        UserResources userResources = userRegistryService.findByIds(List.of("id1", "id2"), "fl")
+                .subscribe().withSubscriber(UniAssertSubscriber.create())
+                .awaitItem().getItem();
+
+        assertEquals(Map.of("id1", userResource), userResources.getFound());
+        assertEquals(Map.of("id2", notFound), userResources.getFailures());
+        assertTrue(userResources.get("id2").isEmpty());
+    }
+
     @Test
     public void shouldReturnUserIdWhenSaveUsingPATCHIsCalled() {
         when(userRegistryApi.saveUsingPATCH(any(SaveUserDto.class))).thenReturn(Uni.createFrom().item(new UserId()));
@@ -0,0 +1,114 @@
+package it.pagopa.selfcare.user.service;
+
+import io.quarkus.test.InjectMock;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.helpers.test.UniAssertSubscriber;
+import it.pagopa.selfcare.user.entity.UserInstitution;
+import it.pagopa.selfcare.user.model.UserResources;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.WebApplicationException;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.openapi.quarkus.user_registry_json.model.EmailCertifiableSchema;
+import org.openapi.quarkus.user_registry_json.model.UserResource;
+import org.openapi.quarkus.user_registry_json.model.WorkContactResource;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Resolves the users of a listing from the userRegistry with a window of two users.
+ */
+@QuarkusTest
+@TestProfile(UserServiceLookupWindowTest.SmallWindowProfile.class)
+class UserServiceLookupWindowTest {
+
+    private static final String MAIL_UUID = "ID_MAIL#123";
+
+    @Inject
+    UserService userService;
+
+    @InjectMock
+    UserInstitutionService userInstitutionService;
+
+    @InjectMock
+    UserRegistryService userRegistryService;
+
+    public static class SmallWindowProfile implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of("user-ms.user-registry.lookup-window-size", "2");
+        }
+    }
+
+    @Test
+    void getUsersEmails_shouldResolveUsersOneWindowAtATime() {
+        when(userInstitutionService.findAllWithFilter(anyMap()))
+                .thenReturn(Multi.createFrom().items(userInstitution("user1"), userInstitution("user2"), userInstitution("user3")));
+        when(userRegistryService.findByIds(any(), any())).thenAnswer(invocation -> {
+            Map<String, UserResource> found = new LinkedHashMap<>();
+            for (String id : invocation.<List<String>>getArgument(0)) {
+                found.put(id, userResource(id + "@test.it"));
+            }
+            return Uni.createFrom().item(new UserResources(found, Map.of()));
+        });
+
+        List<String> emails = userService.getUsersEmails("institutionId", "productId")
+                .subscribe().withSubscriber(UniAssertSubscriber.create())
+                .awaitItem().getItem();
+
+        assertEquals(List.of("user1@test.it", "user2@test.it", "user3@test.it"), emails);
+        verify(userRegistryService).findByIds(eq(List.of("user1", "user2")), any());
+        verify(userRegistryService).findByIds(eq(List.of("user3")), any());
+    }
+
+    @Test
+    void getUsersEmails_shouldFailAtFirstWindowWithMissingUser() {
+        WebApplicationException notFound = new WebApplicationException(404);
+        when(userInstitutionService.findAllWithFilter(anyMap()))
+                .thenReturn(Multi.createFrom().items(userInstitution("user1"), userInstitution("user2"), userInstitution("user3")));
+        when(userRegistryService.findByIds(any(), any()))
+                .thenReturn(Uni.createFrom().item(new UserResources(Map.of("user1", userResource("user1@test.it")), Map.of("user2", notFound))));
+
+        userService.getUsersEmails("institutionId", "productId")
+                .subscribe().withSubscriber(UniAssertSubscriber.create())
+                .awaitFailure()
+                .assertFailedWith(WebApplicationException.class);
+
+        verify(userRegistryService, times(1)).findByIds(any(), any());
+    }
+
+    private static UserInstitution userInstitution(String userId) {
+        UserInstitution userInstitution = new UserInstitution();
+        userInstitution.setId(ObjectId.get());
+        userInstitution.setUserId(userId);
+        userInstitution.setInstitutionId("institutionId");
+        userInstitution.setUserMailUuid(MAIL_UUID);
+        return userInstitution;
+    }
+
+    private static UserResource userResource(String email) {
+        UserResource userResource = new UserResource();
+        userResource.setId(UUID.randomUUID());
+        EmailCertifiableSchema certifiedEmail = new EmailCertifiableSchema();
+        certifiedEmail.setValue(email);
+        WorkContactResource workContact = new WorkContactResource();
+        workContact.setEmail(certifiedEmail);
+        userResource.setWorkContacts(Map.of(MAIL_UUID, workContact));
+        return userResource;
+    }
+}
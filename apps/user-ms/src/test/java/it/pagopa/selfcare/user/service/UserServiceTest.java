@@ -50,6 +50,7 @@ import org.mockito.Mockito;
 import org.mockito.Spy;
 import org.openapi.quarkus.user_registry_json.model.*;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.util.*;
@@ -62,6 +63,7 @@ import static it.pagopa.selfcare.user.model.constants.EventsName.EVENT_USER_MS_N
 import static it.pagopa.selfcare.user.model.constants.OnboardedProductState.*;
 import static it.pagopa.selfcare.user.service.UserServiceImpl.USERS_FIELD_LIST_WITHOUT_FISCAL_CODE;
 import static it.pagopa.selfcare.user.service.UserServiceImpl.USERS_WORKS_FIELD_LIST;
+import static it.pagopa.selfcare.user.util.GeneralUtils.encodeCursor;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
@@ -192,8 +194,7 @@ class UserServiceTest {
     void getUsersEmailsTest() {
 
         when(userInstitutionService.findAllWithFilter(anyMap())).thenReturn(Multi.createFrom().item(createUserInstitution()));
-        when(userRegistryApi.findByIdUsingGET(anyString(), anyString()))
-                .thenReturn(Uni.createFrom().item(userResource));
+        mockFindByIds(userResource);
 
         UniAssertSubscriber<List<String>> subscriber = userService
                 .getUsersEmails("institutionId", "productId")
@@ -202,7 +203,7 @@ class UserServiceTest {
 
         subscriber.assertCompleted();
 
-        verify(userRegistryApi).findByIdUsingGET(anyString(), anyString());
+        verify(userRegistryApi).findByIds(any(), any());
         verify(userInstitutionService).findAllWithFilter(any());
     }
 
@@ -213,8 +214,7 @@ class UserServiceTest {
         userInstitution.setUserMailUuid(null);
         when(userInstitutionService.findAllWithFilter(anyMap())).thenReturn(Multi.createFrom().item(createUserInstitution()));
 
-        when(userRegistryApi.findByIdUsingGET(anyString(), eq(userInstitution.getUserId())))
-                .thenReturn(Uni.createFrom().item(userResource));
+        mockFindByIds(userResource);
 
         UniAssertSubscriber<List<String>> subscriber = userService
                 .getUsersEmails("institutionId", "productId")
@@ -223,7 +223,7 @@ class UserServiceTest {
 
         subscriber.assertCompleted();
 
-        verify(userRegistryApi).findByIdUsingGET(anyString(), eq(userInstitution.getUserId()));
+        verify(userRegistryApi).findByIds(any(), any());
         verify(userInstitutionService).findAllWithFilter(any());
     }
 
@@ -256,7 +256,6 @@ class UserServiceTest {
 
     @Test
     void sendEventsByDateAndUserIdAndInstitutionId() {
-        final Integer page = 1;
         final String institutionId = "institutionId";
         final String userId = "userId";
         final OffsetDateTime fromDate = OffsetDateTime.now();
@@ -265,10 +264,10 @@ class UserServiceTest {
         UserResource userResource = new UserResource();
         userResource.setId(UUID.randomUUID());
 
-        when(userInstitutionService.pageCountUserInstitutionsAfterDateWithFilter(anyMap(), any()))
-                .thenReturn(Uni.createFrom().item(page));
-        when(userInstitutionService.findUserInstitutionsAfterDateWithFilter(anyMap(), any(), eq(0)))
+        when(userInstitutionService.findUserInstitutionsAfterDateWithFilter(anyMap(), any(), isNull()))
                 .thenReturn(Multi.createFrom().item(userInstitution));
+        when(userInstitutionService.findUserInstitutionsAfterDateWithFilter(anyMap(), any(), eq(encodeCursor(userInstitution.getId()))))
+                .thenReturn(Multi.createFrom().empty());
         when(userRegistryApi.findByIdUsingGET(any(), any())).thenReturn(Uni.createFrom().item(userResource));
 
         userService
@@ -278,7 +277,9 @@ class UserServiceTest {
 
         // Verify the result
         verify(userInstitutionService, times(1))
-                .findUserInstitutionsAfterDateWithFilter(anyMap(), any(), eq(0));
+                .findUserInstitutionsAfterDateWithFilter(anyMap(), any(), isNull());
+        verify(userInstitutionService, times(1))
+                .findUserInstitutionsAfterDateWithFilter(anyMap(), any(), eq(encodeCursor(userInstitution.getId())));
         verify(userRegistryApi, times(1))
                 .findByIdUsingGET(USERS_FIELD_LIST_WITHOUT_FISCAL_CODE, userId);
         ArgumentCaptor<Map<String, Double>> metricsName = ArgumentCaptor.forClass(Map.class);
@@ -294,7 +295,8 @@ class UserServiceTest {
         UserResource userResource = new UserResource();
         userResource.setId(UUID.randomUUID());
 
-        when(userInstitutionService.findUserInstitutionsAfterDateWithFilter(anyMap(), any())).thenReturn(Multi.createFrom().item(userInstitution));
+        when(userInstitutionService.findUserInstitutionsAfterDateWithFilter(anyMap(), any(), isNull())).thenReturn(Multi.createFrom().item(userInstitution));
+        when(userInstitutionService.findUserInstitutionsAfterDateWithFilter(anyMap(), any(), anyString())).thenReturn(Multi.createFrom().empty());
         when(userRegistryApi.findByIdUsingGET(any(), any())).thenReturn(Uni.createFrom().item(userResource));
 
         UniAssertSubscriber<Void> subscriber = userService
@@ -306,6 +308,40 @@ class UserServiceTest {
         subscriber.assertCompleted();
     }
 
+    @Test
+    void sendEventsByDateAndUserIdAndInstitutionId_shouldWalkManyPages() {
+        final int pages = 20000;
+        final OffsetDateTime fromDate = OffsetDateTime.now();
+        final List<UserInstitution> userInstitutions = new ArrayList<>();
+        final Map<String, Integer> pageByCursor = new HashMap<>();
+        for (int i = 0; i < pages; i++) {
+            UserInstitution userInstitution = new UserInstitution();
+            userInstitution.setId(ObjectId.get());
+            userInstitution.setUserId("userId" + i);
+            userInstitution.setInstitutionId("institutionId");
+            userInstitutions.add(userInstitution);
+            pageByCursor.put(encodeCursor(userInstitution.getId()), i + 1);
+        }
+        UserResource userResource = new UserResource();
+        userResource.setId(UUID.randomUUID());
+
+        when(userInstitutionService.findUserInstitutionsAfterDateWithFilter(anyMap(), any(), any())).thenAnswer(invocation -> {
+            String cursor = invocation.getArgument(2);
+            int page = cursor == null ? 0 : pageByCursor.get(cursor);
+            return page < pages ? Multi.createFrom().item(userInstitutions.get(page)) : Multi.createFrom().empty();
+        });
+        when(userRegistryApi.findByIdUsingGET(any(), any())).thenReturn(Uni.createFrom().item(userResource));
+
+        userService
+                .sendEventsByDateAndUserIdAndInstitutionId(fromDate, "institutionId", null)
+                .subscribe()
+                .withSubscriber(UniAssertSubscriber.create())
+                .awaitItem(Duration.ofMinutes(1));
+
+        verify(userInstitutionService, times(pages + 1)).findUserInstitutionsAfterDateWithFilter(anyMap(), any(), any());
+        verify(userRegistryApi, times(pages)).findByIdUsingGET(eq(USERS_FIELD_LIST_WITHOUT_FISCAL_CODE), any());
+    }
+
     @Test
     void getUserProductsByInstitutionWithFiltersTest() {
         final UserInstitution userInstitution = createUserInstitution();
@@ -314,10 +350,7 @@ class UserServiceTest {
 
         PanacheMock.mock(UserInstitution.class);
         when(userInstitutionService.findAllWithFilter(any())).thenReturn(Multi.createFrom().items(userInstitution, userInstitutionWithoutMail));
-        when(userRegistryApi.findByIdUsingGET(USERS_WORKS_FIELD_LIST, userInstitution.getUserId()))
-                .thenReturn(Uni.createFrom().item(userResource));
-        when(userRegistryApi.findByIdUsingGET(USERS_WORKS_FIELD_LIST, userInstitutionWithoutMail.getUserId()))
-                .thenReturn(Uni.createFrom().item(userResource));
+        mockFindByIds(userResource);
 
         AssertSubscriber<UserProductResponse> subscriber = userService
                 .getUserProductsByInstitution(userInstitution.getInstitutionId(), List.of("test"), List.of(MANAGER.name()), userId.toString())
@@ -770,8 +803,7 @@ class UserServiceTest {
         when(userInstitutionService.paginatedFindAllWithFilter(any(), any(), any()))
                 .thenReturn(Multi.createFrom().item(createUserInstitution()));
         UserResource userResource = mock(UserResource.class);
-        when(userRegistryApi.findByIdUsingGET(any(), any()))
-                .thenReturn(Uni.createFrom().item(userResource));
+        mockFindByIds(userResource);
 
         UniAssertSubscriber<List<UserNotificationToSend>> subscriber = userService
                 .findPaginatedUserNotificationToSend(10, 0, "productId")
@@ -780,13 +812,45 @@ class UserServiceTest {
         subscriber.assertCompleted();
     }
 
+    @Test
+    void findUserNotificationToSendAfter() {
+        UserInstitution first = createUserInstitution();
+        UserInstitution last = createUserInstitution();
+        when(userInstitutionService.keysetFindAllWithFilter(any(), eq("cursor"), eq(2)))
+                .thenReturn(Multi.createFrom().items(first, last));
+        mockFindByIds(userResource);
+
+        UserNotificationToSendPage usersPage = userService
+                .findUserNotificationToSendAfter(2, "cursor", "test")
+                .subscribe()
+                .withSubscriber(UniAssertSubscriber.create())
+                .awaitItem().getItem();
+
+        assertEquals(2, usersPage.getUsers().size());
+        assertEquals(encodeCursor(last.getId()), usersPage.getNextCursor());
+    }
+
+    @Test
+    void findUserNotificationToSendAfter_lastPage() {
+        when(userInstitutionService.keysetFindAllWithFilter(any(), eq("cursor"), eq(2)))
+                .thenReturn(Multi.createFrom().item(createUserInstitution()));
+        mockFindByIds(userResource);
+
+        UserNotificationToSendPage usersPage = userService
+                .findUserNotificationToSendAfter(2, "cursor", "test")
+                .subscribe()
+                .withSubscriber(UniAssertSubscriber.create())
+                .awaitItem().getItem();
+
+        assertNull(usersPage.getNextCursor());
+    }
+
     @Test
     void findPaginatedUserNotificationToSendQueryWithoutProductId() {
         when(userInstitutionService.paginatedFindAllWithFilter(any(), any(), any()))
                 .thenReturn(Multi.createFrom().item(createUserInstitution()));
         UserResource userResource = mock(UserResource.class);
-        when(userRegistryApi.findByIdUsingGET(any(), any()))
-                .thenReturn(Uni.createFrom().item(userResource));
+        mockFindByIds(userResource);
 
         userService
                 .findPaginatedUserNotificationToSend(10, 0, null)
@@ -1947,7 +2011,7 @@ class UserServiceTest {
         // Mock external dependencies
         when(userInstitutionService.retrieveFirstFilteredUserInstitution(anyMap())).thenReturn(Uni.createFrom().item(createUserInstitution()));
         when(userInstitutionService.findAllWithFilter(anyMap())).thenReturn(Multi.createFrom().item(createUserInstitution()));
-        when(userRegistryApi.findByIdUsingGET(any(), any())).thenReturn(Uni.createFrom().item(userResource));
+        mockFindByIds(userResource);
 
         // Call the method
         AssertSubscriber<UserDataWithProductInfoResponse> subscriber = userService.retrieveUsersData(institutionId, personId, roles, states, products, productRoles, userUuid)
@@ -1962,7 +2026,7 @@ class UserServiceTest {
         // Verify the interactions
         verify(userInstitutionService).retrieveFirstFilteredUserInstitution(anyMap());
         verify(userInstitutionService).findAllWithFilter(any());
-        verify(userRegistryApi).findByIdUsingGET(any(), any());
+        verify(userRegistryApi).findByIds(any(), any());
     }
 
     @Test
@@ -2001,7 +2065,7 @@ class UserServiceTest {
         // Mock external dependencies
         when(userInstitutionService.retrieveFirstFilteredUserInstitution(anyMap())).thenReturn(Uni.createFrom().item(createUserInstitution()));
         when(userInstitutionService.findAllWithFilter(anyMap())).thenReturn(Multi.createFrom().item(createUserInstitution()));
-        when(userRegistryApi.findByIdUsingGET(any(), any())).thenReturn(Uni.createFrom().item(userResource));
+        mockFindByIds(userResource);
 
         // Call the method
         AssertSubscriber<UserDataWithProductInfoResponse> subscriber = userService.retrieveUsersData(institutionId, personId, roles, states, products, productRoles, userUuid)
@@ -2017,7 +2081,7 @@ class UserServiceTest {
         // Verify the interactions
         verify(userInstitutionService).retrieveFirstFilteredUserInstitution(anyMap());
         verify(userInstitutionService).findAllWithFilter(any());
-        verify(userRegistryApi).findByIdUsingGET(any(), any());
+        verify(userRegistryApi).findByIds(any(), any());
     }
 
     @Test
@@ -2056,7 +2120,7 @@ class UserServiceTest {
         // Mock external dependencies
         when(userInstitutionService.retrieveFirstFilteredUserInstitution(anyMap())).thenReturn(Uni.createFrom().item(createUserInstitution()));
         when(userInstitutionService.findAllWithFilter(anyMap())).thenReturn(Multi.createFrom().item(createUserInstitution()));
-        when(userRegistryApi.findByIdUsingGET(any(), any())).thenReturn(Uni.createFrom().item(userResource));
+        mockFindByIds(userResource);
         when(userUtils.isExcludeRoleFromUserGroups(any())).thenReturn(false);
         when(userUtils.isExcludeRoleFromUserGroups(any())).thenReturn(true);
 
@@ -2076,7 +2140,7 @@ class UserServiceTest {
         // Verify the interactions
         verify(userInstitutionService).retrieveFirstFilteredUserInstitution(anyMap());
         verify(userInstitutionService).findAllWithFilter(any());
-        verify(userRegistryApi).findByIdUsingGET(any(), any());
+        verify(userRegistryApi).findByIds(any(), any());
     }
 
     @Test
@@ -2115,7 +2179,7 @@ class UserServiceTest {
         // Mock external dependencies
         when(userInstitutionService.retrieveFirstFilteredUserInstitution(anyMap())).thenReturn(Uni.createFrom().item(createUserInstitution()));
         when(userInstitutionService.findAllWithFilter(anyMap())).thenReturn(Multi.createFrom().item(createUserInstitution()));
-        when(userRegistryApi.findByIdUsingGET(any(), any())).thenReturn(Uni.createFrom().item(userResource));
+        mockFindByIds(userResource);
         when(userUtils.isExcludeRoleFromUserGroups(any())).thenReturn(true);
 
         // Call the method
@@ -2133,7 +2197,7 @@ class UserServiceTest {
         // Verify the interactions
         verify(userInstitutionService).retrieveFirstFilteredUserInstitution(anyMap());
         verify(userInstitutionService).findAllWithFilter(any());
-        verify(userRegistryApi).findByIdUsingGET(any(), any());
+        verify(userRegistryApi).findByIds(any(), any());
     }
 
     @Test
@@ -2157,7 +2221,7 @@ class UserServiceTest {
         // Mock external dependencies
         when(userInstitutionService.retrieveFirstFilteredUserInstitution(anyMap())).thenReturn(Uni.createFrom().nullItem());
         when(userInstitutionService.findAllWithFilter(anyMap())).thenReturn(Multi.createFrom().item(createUserInstitution()));
-        when(userRegistryApi.findByIdUsingGET(any(), any())).thenReturn(Uni.createFrom().item(userResource));
+        mockFindByIds(userResource);
 
         // Call the method
         AssertSubscriber<UserDataWithProductInfoResponse> subscriber = userService.retrieveUsersData(institutionId, personId, roles, states, products, productRoles, userUuid)
@@ -2172,7 +2236,7 @@ class UserServiceTest {
         // Verify the interactions
         verify(userInstitutionService).retrieveFirstFilteredUserInstitution(anyMap());
         verify(userInstitutionService).findAllWithFilter(any());
-        verify(userRegistryApi).findByIdUsingGET(any(), any());
+        verify(userRegistryApi).findByIds(any(), any());
     }
 
     @Test
@@ -2589,4 +2653,14 @@ class UserServiceTest {
                 .assertItem(expectedResponse2);
     }
 
+    private void mockFindByIds(UserResource userResource) {
+        when(userRegistryApi.findByIds(any(), any())).thenAnswer(invocation -> {
+            Map<String, UserResource> found = new LinkedHashMap<>();
+            for (String id : invocation.<Collection<String>>getArgument(0)) {
+                found.put(id, userResource);
+            }
+            return Uni.createFrom().item(new UserResources(found, Map.of()));
+        });
+    }
+
 }
@@ -2,6 +2,7 @@ package it.pagopa.selfcare.user.util;
 
 import io.quarkus.test.junit.QuarkusTest;
 import it.pagopa.selfcare.user.exception.InvalidRequestException;
+import org.bson.types.ObjectId;
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
@@ -30,4 +31,13 @@ class GeneralUtilsTest {
         assertTrue(emptyList.isEmpty());
     }
 
+    @Test
+    void encodeAndDecodeCursor() {
+        final ObjectId lastId = ObjectId.get();
+        assertEquals(lastId, GeneralUtils.decodeCursor(GeneralUtils.encodeCursor(lastId)));
+        assertNull(GeneralUtils.decodeCursor(""));
+        assertNull(GeneralUtils.decodeCursor(null));
+        assertThrowsExactly(InvalidRequestException.class, () -> GeneralUtils.decodeCursor("not-a-cursor"));
+    }
+
 }
@@ -0,0 +1,165 @@
+package it.pagopa.selfcare.user.util;
+
+import com.mongodb.MongoClientSettings;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Updates;
+import it.pagopa.selfcare.user.entity.filter.OnboardedProductFilter;
+import it.pagopa.selfcare.user.entity.filter.UserInstitutionFilter;
+import it.pagopa.selfcare.user.model.constants.OnboardedProductState;
+import org.bson.BsonDocument;
+import org.bson.BsonDocumentReader;
+import org.bson.Document;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.DocumentCodec;
+import org.bson.conversions.Bson;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static it.pagopa.selfcare.user.constant.CollectionUtil.USER_INSTITUTION_COLLECTION;
+
+/**
+ * Compares building the most common userInstitutions queries and updates with {@link QueryUtils} against
+ * the previous implementation, which built the driver's {@code Filters}/{@code Updates} and then encoded
+ * them to BSON and decoded them back into a {@link Document}.
+ *
+ * <p>Each {@code ThroughBson} method is the baseline of the method with the same prefix: both return an equal
+ * {@link Document}, so the gap between the two, in operations and in allocated bytes, is the cost of the codec
+ * round trip. The update is the one of a product deletion, which sets the status and the updatedAt of the matched
+ * product. Compile the tests with the {@code jmh} profile before launching {@link #main}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class QueryUtilsBenchmark {
+
+    /**
+     * {@code user}: a user in an institution; {@code institution}: the users of an institution product in
+     * the given states; {@code products}: the users of an institution with some roles on some products.
+     */
+    @Param({"user", "institution", "products"})
+    String filter;
+
+    private final QueryUtils queryUtils = new QueryUtils();
+    private Map<String, Object> parameters;
+    private Map<String, Object> update;
+
+    @Setup
+    public void setUp() {
+        Map<String, Object> userInstitutionFilter = switch (filter) {
+            case "user" -> UserInstitutionFilter.builder().userId("userId").institutionId("institutionId").build().constructMap();
+            default -> UserInstitutionFilter.builder().institutionId("institutionId").build().constructMap();
+        };
+        Map<String, Object> productFilter = switch (filter) {
+            case "user" -> Map.of();
+            case "institution" -> OnboardedProductFilter.builder()
+                    .productId("prod-io")
+                    .status(List.of(OnboardedProductState.ACTIVE, OnboardedProductState.SUSPENDED))
+                    .build().constructMap();
+            default -> OnboardedProductFilter.builder()
+                    .productId(List.of("prod-io", "prod-pagopa", "prod-interop"))
+                    .role(List.of("MANAGER", "DELEGATE", "SUB_DELEGATE"))
+                    .status(List.of(OnboardedProductState.ACTIVE, OnboardedProductState.SUSPENDED))
+                    .build().constructMap();
+        };
+        parameters = new HashMap<>(userInstitutionFilter);
+        parameters.putAll(productFilter);
+
+        update = new HashMap<>();
+        update.put("products.$.status", OnboardedProductState.DELETED);
+        update.put("products.$.updatedAt", Instant.now());
+    }
+
+    @Benchmark
+    public Document buildQueryDocument() {
+        return queryUtils.buildQueryDocument(parameters, USER_INSTITUTION_COLLECTION);
+    }
+
+    @Benchmark
+    public Document buildQueryDocumentThroughBson() {
+        return LegacyQueryUtils.buildQueryDocument(parameters);
+    }
+
+    @Benchmark
+    public Document buildUpdateDocument() {
+        return queryUtils.buildUpdateDocument(update);
+    }
+
+    @Benchmark
+    public Document buildUpdateDocumentThroughBson() {
+        return LegacyQueryUtils.buildUpdateDocument(update);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(QueryUtilsBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build())
+                .run();
+    }
+
+    /**
+     * The previous QueryUtils, limited to the userInstitutions collection.
+     */
+    private static final class LegacyQueryUtils {
+
+        static Document buildQueryDocument(Map<String, Object> parameters) {
+            Map<String, Object> elemMatchParameters = new HashMap<>();
+            Map<String, Object> fieldParameters = new HashMap<>();
+            parameters.forEach((key, value) -> {
+                if (OnboardedProductFilter.OnboardedProductEnum.retrieveParent(key).isPresent()) {
+                    elemMatchParameters.put(key, value);
+                } else {
+                    fieldParameters.put(key, value);
+                }
+            });
+            List<Bson> filters = new ArrayList<>();
+            if (!elemMatchParameters.isEmpty()) {
+                filters.add(Filters.elemMatch("products", Filters.and(eqAndInFilters(elemMatchParameters))));
+            }
+            filters.addAll(eqAndInFilters(fieldParameters));
+            return bsonToDocument(Filters.and(filters));
+        }
+
+        static Document buildUpdateDocument(Map<String, Object> parameters) {
+            return bsonToDocument(Updates.combine(parameters.entrySet().stream()
+                    .map(entry -> Updates.set(entry.getKey(), entry.getValue()))
+                    .toList()));
+        }
+
+        private static List<Bson> eqAndInFilters(Map<String, Object> parameters) {
+            return parameters.entrySet().stream()
+                    .map(entry -> entry.getValue() instanceof List<?>
+                            ? Filters.in(entry.getKey(), (Iterable<?>) entry.getValue())
+                            : Filters.eq(entry.getKey(), entry.getValue()))
+                    .toList();
+        }
+
+        private static Document bsonToDocument(Bson bson) {
+            BsonDocument bsonDocument = bson.toBsonDocument(BsonDocument.class, MongoClientSettings.getDefaultCodecRegistry());
+            return new DocumentCodec().decode(new BsonDocumentReader(bsonDocument), DecoderContext.builder().build());
+        }
+    }
+}
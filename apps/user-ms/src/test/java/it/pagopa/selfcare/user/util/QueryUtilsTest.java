@@ -0,0 +1,104 @@
+package it.pagopa.selfcare.user.util;
+
+import it.pagopa.selfcare.user.constant.SortEnum;
+import it.pagopa.selfcare.user.model.constants.OnboardedProductState;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static it.pagopa.selfcare.user.constant.CollectionUtil.USER_INFO_COLLECTION;
+import static it.pagopa.selfcare.user.constant.CollectionUtil.USER_INSTITUTION_COLLECTION;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class QueryUtilsTest {
+
+    private final QueryUtils queryUtils = new QueryUtils();
+
+    @Test
+    void buildQueryDocument_shouldMatchProductFieldsWithElemMatch() {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        parameters.put("institutionId", "institutionId");
+        parameters.put("productId", "prod-io");
+        parameters.put("status", List.of(OnboardedProductState.ACTIVE, OnboardedProductState.SUSPENDED));
+
+        Document query = queryUtils.buildQueryDocument(parameters, USER_INSTITUTION_COLLECTION);
+
+        Document expected = new Document("$and", List.of(
+                new Document("products", new Document("$elemMatch", new Document("$and", List.of(
+                        new Document("productId", "prod-io"),
+                        new Document("status", new Document("$in", List.of("ACTIVE", "SUSPENDED"))))))),
+                new Document("institutionId", "institutionId")));
+        assertEquals(expected, query);
+    }
+
+    @Test
+    void buildQueryDocument_shouldMatchInstitutionFieldsOfUserInfo() {
+        Document query = queryUtils.buildQueryDocument(Map.of("institutionId", "institutionId"), USER_INFO_COLLECTION);
+
+        Document expected = new Document("$and", List.of(
+                new Document("institutions", new Document("$elemMatch", new Document("$and", List.of(
+                        new Document("institutionId", "institutionId")))))));
+        assertEquals(expected, query);
+    }
+
+    @Test
+    void buildQueryDocument_shouldReturnEmptyDocumentWithoutParameters() {
+        assertEquals(new Document(), queryUtils.buildQueryDocument(Map.of(), USER_INSTITUTION_COLLECTION));
+    }
+
+    @Test
+    void buildQueryDocumentByDate_shouldMatchProductsCreatedOrUpdatedAfterDate() {
+        OffsetDateTime fromDate = OffsetDateTime.of(2024, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+
+        Document query = queryUtils.buildQueryDocumentByDate(Map.of("userId", "userId"), USER_INSTITUTION_COLLECTION, fromDate);
+
+        Date from = Date.from(fromDate.toInstant());
+        Document expected = new Document("$and", List.of(
+                new Document("userId", "userId"),
+                new Document("$or", List.of(
+                        new Document("products", new Document("$elemMatch", new Document("createdAt", new Document("$gt", from)))),
+                        new Document("products", new Document("$elemMatch", new Document("updatedAt", new Document("$gt", from))))))));
+        assertEquals(expected, query);
+    }
+
+    @Test
+    void buildUpdateDocument_shouldSetEveryParameter() {
+        Instant now = Instant.now();
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        parameters.put("products.$.status", OnboardedProductState.DELETED);
+        parameters.put("products.$.updatedAt", now);
+
+        Document update = queryUtils.buildUpdateDocument(parameters);
+
+        Document expected = new Document("$set", new Document("products.$.status", "DELETED")
+                .append("products.$.updatedAt", Date.from(now)));
+        assertEquals(expected, update);
+    }
+
+    @Test
+    void buildKeysetQueryDocument_shouldSeekDocumentsAfterLastId() {
+        ObjectId lastId = ObjectId.get();
+        Document query = new Document("institutionId", "institutionId");
+
+        assertEquals(query, queryUtils.buildKeysetQueryDocument(query, null));
+        assertEquals(new Document("$and", List.of(query, new Document("_id", new Document("$gt", lastId)))),
+                queryUtils.buildKeysetQueryDocument(query, lastId));
+        assertEquals(new Document("_id", new Document("$gt", lastId)),
+                queryUtils.buildKeysetQueryDocument(new Document(), lastId));
+        assertEquals(new Document("_id", 1), queryUtils.buildKeysetSortDocument());
+    }
+
+    @Test
+    void buildSortDocument() {
+        assertEquals(new Document("createdAt", 1), queryUtils.buildSortDocument("createdAt", SortEnum.ASC));
+        assertEquals(new Document("createdAt", -1), queryUtils.buildSortDocument("createdAt", SortEnum.DESC));
+    }
+}
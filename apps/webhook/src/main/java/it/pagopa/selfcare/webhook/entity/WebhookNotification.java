@@ -1,8 +1,10 @@
 package it.pagopa.selfcare.webhook.entity;
 
 import io.quarkus.mongodb.panache.common.MongoEntity;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import lombok.Data;
+import org.bson.codecs.pojo.annotations.BsonIgnore;
 import org.bson.types.ObjectId;
 
 @Data
@@ -26,6 +28,13 @@ public class WebhookNotification {
   private Boolean processing = false;
   private LocalDateTime processingUntil;
 
+  /**
+   * Set when the delivery was not attempted because the endpoint was at its concurrency limit or
+   * its circuit was open: the notification is left as it was and should be retried after this
+   * delay. Not persisted.
+   */
+  @BsonIgnore private Duration postponedFor;
+
   public enum NotificationStatus {
     PENDING,
     SENDING,
@@ -5,6 +5,7 @@ import io.opentelemetry.api.common.AttributeKey;
 import io.opentelemetry.api.common.Attributes;
 import io.opentelemetry.api.metrics.DoubleHistogram;
 import io.opentelemetry.api.metrics.LongCounter;
+import io.opentelemetry.api.metrics.LongGauge;
 import io.opentelemetry.api.metrics.Meter;
 import jakarta.enterprise.context.ApplicationScoped;
 
@@ -30,6 +31,8 @@ public class WebhookMetrics {
   private static final AttributeKey<String> OUTCOME = AttributeKey.stringKey("outcome");
   private static final AttributeKey<String> SOURCE = AttributeKey.stringKey("source");
   private static final AttributeKey<String> REASON = AttributeKey.stringKey("reason");
+  private static final AttributeKey<String> WEBHOOK_ID = AttributeKey.stringKey("webhook_id");
+  private static final AttributeKey<String> STATE = AttributeKey.stringKey("state");
 
   private final LongCounter publishCounter;
   private final DoubleHistogram publishDuration;
@@ -39,6 +42,11 @@ public class WebhookMetrics {
   private final DoubleHistogram deliveryDuration;
   private final LongCounter discardedCounter;
   private final DoubleHistogram outboxLag;
+  private final LongCounter endpointDeliveryCounter;
+  private final DoubleHistogram endpointDeliveryDuration;
+  private final LongCounter endpointRejectedCounter;
+  private final LongCounter endpointCircuitCounter;
+  private final LongGauge endpointLimit;
 
   public WebhookMetrics() {
     Meter meter = GlobalOpenTelemetry.getMeter(INSTRUMENTATION_SCOPE);
@@ -94,6 +102,38 @@ public class WebhookMetrics {
                     + " Storage Queue")
             .setUnit("ms")
             .build();
+    this.endpointDeliveryCounter =
+        meter
+            .counterBuilder("webhook.endpoint.delivery")
+            .setDescription("Outcome of the HTTP calls made to each webhook endpoint")
+            .setUnit("{call}")
+            .build();
+    this.endpointDeliveryDuration =
+        meter
+            .histogramBuilder("webhook.endpoint.delivery.duration")
+            .setDescription("Latency of the HTTP calls made to each webhook endpoint")
+            .setUnit("ms")
+            .build();
+    this.endpointRejectedCounter =
+        meter
+            .counterBuilder("webhook.endpoint.rejected")
+            .setDescription(
+                "Number of deliveries postponed by the per-endpoint concurrency limit or circuit")
+            .setUnit("{notification}")
+            .build();
+    this.endpointCircuitCounter =
+        meter
+            .counterBuilder("webhook.endpoint.circuit.transition")
+            .setDescription("Number of circuit state transitions of each webhook endpoint")
+            .setUnit("{transition}")
+            .build();
+    this.endpointLimit =
+        meter
+            .gaugeBuilder("webhook.endpoint.concurrency.limit")
+            .setDescription("Current adaptive concurrency limit of each webhook endpoint")
+            .setUnit("{call}")
+            .ofLongs()
+            .build();
   }
 
   /** Records the outcome and latency of a single publish-to-queue attempt. */
@@ -143,4 +183,34 @@ public class WebhookMetrics {
   public void recordOutboxLag(long durationMs) {
     outboxLag.record(durationMs);
   }
+
+  /**
+   * Records the outcome and latency of an HTTP call to a webhook endpoint. Unlike {@link
+   * #recordDelivery}, {@code failure} only means that the endpoint did not handle the call
+   * (connection error, timeout, HTTP 5xx or 429), which is what the per-endpoint limits react to.
+   */
+  public void recordEndpointDelivery(String webhookId, boolean failure, long durationMs) {
+    endpointDeliveryCounter.add(
+        1, Attributes.of(WEBHOOK_ID, webhookId, OUTCOME, failure ? "failure" : "success"));
+    endpointDeliveryDuration.record(durationMs, Attributes.of(WEBHOOK_ID, webhookId));
+  }
+
+  /**
+   * Records a delivery postponed without calling the endpoint; {@code reason} is {@code
+   * concurrency_limit} or {@code circuit_open}.
+   */
+  public void recordEndpointRejected(String webhookId, String reason) {
+    endpointRejectedCounter.add(1, Attributes.of(WEBHOOK_ID, webhookId, REASON, reason));
+  }
+
+  /** Records a circuit transition of an endpoint to {@code closed}, {@code open} or {@code
+   * half_open}. */
+  public void recordEndpointCircuit(String webhookId, String state) {
+    endpointCircuitCounter.add(1, Attributes.of(WEBHOOK_ID, webhookId, STATE, state));
+  }
+
+  /** Records the current adaptive concurrency limit of an endpoint. */
+  public void recordEndpointLimit(String webhookId, long limit) {
+    endpointLimit.set(limit, Attributes.of(WEBHOOK_ID, webhookId));
+  }
 }
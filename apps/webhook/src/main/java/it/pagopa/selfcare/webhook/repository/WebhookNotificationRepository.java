@@ -2,18 +2,21 @@ package it.pagopa.selfcare.webhook.repository;
 
 import com.mongodb.client.model.Filters;
 import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.Projections;
 import com.mongodb.client.model.ReturnDocument;
 import com.mongodb.client.model.Updates;
+import io.quarkus.mongodb.FindOptions;
 import io.quarkus.mongodb.panache.reactive.ReactivePanacheMongoRepository;
-import io.smallrye.mutiny.Multi;
+import io.quarkus.mongodb.reactive.ReactiveMongoCollection;
 import io.smallrye.mutiny.Uni;
 import it.pagopa.selfcare.webhook.entity.WebhookNotification;
 import jakarta.enterprise.context.ApplicationScoped;
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Objects;
+import java.util.UUID;
 import lombok.extern.slf4j.Slf4j;
 import org.bson.Document;
+import org.bson.conversions.Bson;
 import org.bson.types.ObjectId;
 
 @Slf4j
@@ -21,10 +24,16 @@ import org.bson.types.ObjectId;
 public class WebhookNotificationRepository
     implements ReactivePanacheMongoRepository<WebhookNotification> {
 
+  /** Claim token of the last batch that locked a notification for processing. */
+  static final String PROCESSING_CLAIM = "processingClaim";
+
+  /** Claim token of the last batch that locked a notification for publishing. */
+  static final String PUBLISHING_CLAIM = "publishingClaim";
+
   /**
-   * Thread-safe method to find and lock pending notifications. Uses MongoDB's findAndModify to
-   * atomically claim notifications for processing. This prevents multiple containers from
-   * processing the same notification.
+   * Thread-safe method to find and lock pending notifications. Claims up to {@code limit}
+   * notifications with a single updateMany (see {@link #claimBatch}), so that multiple containers
+   * never process the same notification.
    *
    * @param limit Maximum number of notifications to claim
    * @param lockDurationMinutes Duration of the lock in minutes
@@ -53,23 +62,10 @@ public class WebhookNotificationRepository
                     new Document("processing", new Document("$ne", true)),
                     new Document("processingUntil", new Document("$lt", now))));
 
-    // Update: mark as processing and set lock expiration
-    Document update =
-        new Document(
-            "$set", new Document().append("processing", true).append("processingUntil", lockUntil));
-
-    FindOneAndUpdateOptions options =
-        new FindOneAndUpdateOptions().returnDocument(ReturnDocument.AFTER);
-
-    // Process multiple documents by repeatedly calling findAndModify
-    return Multi.createBy()
-        .repeating()
-        .uni(() -> mongoCollection().findOneAndUpdate(query, update, options))
-        .atMost(limit)
-        .filter(Objects::nonNull)
-        .map(doc -> mongoCollection().getDocumentClass().cast(doc))
-        .collect()
-        .asList();
+    // Lock: mark as processing and set lock expiration
+    Document lock = new Document().append("processing", true).append("processingUntil", lockUntil);
+
+    return claimBatch(mongoCollection(), query, lock, PROCESSING_CLAIM, limit);
   }
 
   /** Release the processing lock on a notification */
@@ -151,6 +147,27 @@ public class WebhookNotificationRepository
         .replaceWithVoid();
   }
 
+  /** Bulk variant of {@link #markAsPublished(ObjectId)}, a single updateMany for all the ids. */
+  public Uni<Void> markAllAsPublished(List<ObjectId> notificationIds) {
+    return mongoCollection()
+        .updateMany(
+            Filters.in("_id", notificationIds),
+            Updates.combine(
+                Updates.set("busPublishedAt", LocalDateTime.now()),
+                Updates.set("publishing", false),
+                Updates.unset("publishingUntil")))
+        .replaceWithVoid();
+  }
+
+  /** Bulk variant of {@link #releasePublishingLock(ObjectId)}, a single updateMany for all the ids. */
+  public Uni<Void> releasePublishingLocks(List<ObjectId> notificationIds) {
+    return mongoCollection()
+        .updateMany(
+            Filters.in("_id", notificationIds),
+            Updates.combine(Updates.set("publishing", false), Updates.unset("publishingUntil")))
+        .replaceWithVoid();
+  }
+
   public Uni<List<WebhookNotification>> claimUnpublishedNotifications(
       int limit, int lockDurationMinutes) {
     LocalDateTime now = LocalDateTime.now();
@@ -162,26 +179,51 @@ public class WebhookNotificationRepository
                 List.of(
                     new Document("publishing", new Document("$ne", true)),
                     new Document("publishingUntil", new Document("$lt", now))));
-    Document update =
-        new Document(
-            "$set",
-            new Document("publishing", true)
-                .append("publishingUntil", now.plusMinutes(lockDurationMinutes)));
-
-    return Multi.createBy()
-        .repeating()
-        .uni(
-            () ->
-                mongoCollection()
-                    .findOneAndUpdate(
-                        query,
-                        update,
-                        new FindOneAndUpdateOptions().returnDocument(ReturnDocument.AFTER)))
-        .atMost(limit)
-        .filter(Objects::nonNull)
-        .map(doc -> mongoCollection().getDocumentClass().cast(doc))
+    Document lock =
+        new Document("publishing", true)
+            .append("publishingUntil", now.plusMinutes(lockDurationMinutes));
+
+    return claimBatch(mongoCollection(), query, lock, PUBLISHING_CLAIM, limit);
+  }
+
+  /**
+   * Claims up to {@code limit} documents matching {@code eligible} in three round-trips, whatever
+   * the limit: an id-only query selects the candidates, one updateMany sets {@code lock} and a new
+   * claim token on those still matching {@code eligible}, and a query by id and token reads back
+   * the documents this call actually locked. A candidate claimed by another container between the
+   * first two steps no longer matches {@code eligible}, so it is skipped instead of claimed twice.
+   */
+  static <T> Uni<List<T>> claimBatch(
+      ReactiveMongoCollection<T> collection,
+      Bson eligible,
+      Document lock,
+      String claimField,
+      int limit) {
+    String claimToken = UUID.randomUUID().toString();
+    FindOptions candidates = new FindOptions().projection(Projections.include("_id")).limit(limit);
+    return collection
+        .find(eligible, Document.class, candidates)
+        .map(doc -> doc.getObjectId("_id"))
         .collect()
-        .asList();
+        .asList()
+        .flatMap(
+            ids -> {
+              if (ids.isEmpty()) {
+                return Uni.createFrom().item(List.<T>of());
+              }
+              Document update =
+                  new Document("$set", new Document(lock).append(claimField, claimToken));
+              return collection
+                  .updateMany(Filters.and(Filters.in("_id", ids), eligible), update)
+                  .flatMap(
+                      ignored ->
+                          collection
+                              .find(
+                                  Filters.and(
+                                      Filters.in("_id", ids), Filters.eq(claimField, claimToken)))
+                              .collect()
+                              .asList());
+            });
   }
 
   /**
@@ -0,0 +1,181 @@
+package it.pagopa.selfcare.webhook.service;
+
+import it.pagopa.selfcare.webhook.metrics.WebhookMetrics;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Per-webhook delivery limits. The global limits ({@code max-concurrent-deliveries}, {@code
+ * max-in-flight}) alone let one slow or failing endpoint take every delivery slot of the replica
+ * and starve the healthy ones; with this limiter a delivery that cannot start right away is
+ * postponed instead of waiting for a slot, so an endpoint never holds more slots than its own
+ * limit.
+ *
+ * <p>Each webhook has a concurrency limit adjusted AIMD-style: it grows by one every {@code limit}
+ * deliveries answered within {@code latency-threshold-ms}, and is halved on a slower answer or an
+ * endpoint failure (connection error, timeout, HTTP 5xx or 429). After {@code failure-threshold}
+ * consecutive failures the circuit opens: deliveries are postponed for {@code open-duration}, then
+ * a single probe is let through, which closes the circuit on success or opens it again on failure.
+ */
+@Slf4j
+@ApplicationScoped
+public class WebhookEndpointLimiter {
+
+  private static final double MIN_CONCURRENCY = 1;
+
+  @Inject WebhookMetrics metrics;
+
+  @ConfigProperty(name = "webhook.endpoint.initial-concurrency", defaultValue = "2")
+  int initialConcurrency;
+
+  @ConfigProperty(name = "webhook.endpoint.max-concurrency", defaultValue = "10")
+  int maxConcurrency;
+
+  @ConfigProperty(name = "webhook.endpoint.latency-threshold-ms", defaultValue = "2000")
+  long latencyThresholdMs;
+
+  @ConfigProperty(name = "webhook.endpoint.failure-threshold", defaultValue = "5")
+  int failureThreshold;
+
+  @ConfigProperty(name = "webhook.endpoint.open-duration", defaultValue = "30s")
+  Duration openDuration;
+
+  /** Delay before retrying a delivery postponed because the endpoint was at its limit. */
+  @ConfigProperty(name = "webhook.endpoint.busy-retry-delay", defaultValue = "5s")
+  Duration busyRetryDelay;
+
+  private final Map<ObjectId, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+  /**
+   * Reserves a delivery slot of the webhook. When the slot is denied, the returned permit is not
+   * {@link Permit#isGranted() granted} and {@link Permit#getRetryAfter()} tells when to try again.
+   */
+  public Permit tryAcquire(ObjectId webhookId) {
+    Endpoint endpoint = endpoints.computeIfAbsent(webhookId, Endpoint::new);
+    Permit permit = endpoint.tryAcquire(System.nanoTime());
+    if (!permit.isGranted()) {
+      metrics.recordEndpointRejected(endpoint.name, permit.rejection);
+    }
+    return permit;
+  }
+
+  private enum CircuitState {
+    CLOSED,
+    OPEN,
+    HALF_OPEN
+  }
+
+  /** A reserved (or denied) delivery slot; a granted slot must be released exactly once. */
+  public static final class Permit {
+
+    private final Endpoint endpoint;
+    private final String rejection;
+    private final Duration retryAfter;
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    private Permit(Endpoint endpoint, String rejection, Duration retryAfter) {
+      this.endpoint = endpoint;
+      this.rejection = rejection;
+      this.retryAfter = retryAfter;
+    }
+
+    public boolean isGranted() {
+      return rejection == null;
+    }
+
+    public Duration getRetryAfter() {
+      return retryAfter;
+    }
+
+    /**
+     * Releases the slot and feeds the outcome of the HTTP call to the limit and the circuit.
+     * {@code endpointFailure} means the endpoint did not handle the call (connection error,
+     * timeout, HTTP 5xx or 429), as opposed to a client error such as a 4xx.
+     */
+    public void release(boolean endpointFailure, long latencyMs) {
+      if (isGranted() && released.compareAndSet(false, true)) {
+        endpoint.release(endpointFailure, latencyMs);
+      }
+    }
+
+    /** Releases the slot without feedback, when the HTTP call was never made. */
+    public void abandon() {
+      if (isGranted() && released.compareAndSet(false, true)) {
+        endpoint.abandon();
+      }
+    }
+  }
+
+  private final class Endpoint {
+
+    private final String name;
+    private double limit = initialConcurrency;
+    private int inFlight;
+    private int consecutiveFailures;
+    private CircuitState state = CircuitState.CLOSED;
+    private long openUntil;
+
+    private Endpoint(ObjectId webhookId) {
+      this.name = webhookId.toHexString();
+    }
+
+    private synchronized Permit tryAcquire(long now) {
+      if (state == CircuitState.OPEN) {
+        if (now - openUntil < 0) {
+          return new Permit(this, "circuit_open", Duration.ofNanos(openUntil - now));
+        }
+        transition(CircuitState.HALF_OPEN);
+      }
+      if (state == CircuitState.HALF_OPEN && inFlight > 0) {
+        // Only the probe is let through until it tells whether the endpoint has recovered.
+        return new Permit(this, "circuit_open", busyRetryDelay);
+      }
+      if (inFlight >= (int) limit) {
+        return new Permit(this, "concurrency_limit", busyRetryDelay);
+      }
+      inFlight++;
+      return new Permit(this, null, Duration.ZERO);
+    }
+
+    private synchronized void release(boolean endpointFailure, long latencyMs) {
+      inFlight--;
+      if (endpointFailure) {
+        consecutiveFailures++;
+        limit = Math.max(MIN_CONCURRENCY, limit / 2);
+        if (state == CircuitState.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+          openUntil = System.nanoTime() + openDuration.toNanos();
+          transition(CircuitState.OPEN);
+        }
+      } else {
+        consecutiveFailures = 0;
+        if (state == CircuitState.HALF_OPEN) {
+          transition(CircuitState.CLOSED);
+        }
+        limit =
+            latencyMs <= latencyThresholdMs
+                ? Math.min(maxConcurrency, limit + 1 / limit)
+                : Math.max(MIN_CONCURRENCY, limit / 2);
+      }
+      metrics.recordEndpointLimit(name, (int) limit);
+    }
+
+    private synchronized void abandon() {
+      inFlight--;
+    }
+
+    private void transition(CircuitState next) {
+      if (state != next) {
+        log.warn("Circuit of webhook {} moved from {} to {}", name, state, next);
+        state = next;
+        metrics.recordEndpointCircuit(name, next.name().toLowerCase());
+      }
+    }
+  }
+}
@@ -18,7 +18,6 @@ import it.pagopa.selfcare.webhook.entity.RetryPolicy;
 import it.pagopa.selfcare.webhook.entity.WebhookNotification;
 import it.pagopa.selfcare.webhook.metrics.WebhookMetrics;
 import it.pagopa.selfcare.webhook.repository.WebhookNotificationRepository;
-import it.pagopa.selfcare.webhook.repository.WebhookRepository;
 import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.enterprise.event.Observes;
@@ -37,7 +36,7 @@ public class WebhookNotificationConsumer {
 
   @Inject WebhookNotificationRepository notificationRepository;
   @Inject WebhookNotificationService notificationService;
-  @Inject WebhookRepository webhookRepository;
+  @Inject WebhookRegistry webhookRegistry;
   @Inject Vertx vertx;
   @Inject WebhookMetrics metrics;
 
@@ -400,7 +399,36 @@ public class WebhookNotificationConsumer {
         // expires, delaying any retry.
         .eventually(() -> notificationRepository.releaseProcessingLock(notification))
         .onItem()
-        .transformToUni(ignored -> applyRetryBackoffIfNeeded(notification, message));
+        .transformToUni(
+            ignored ->
+                notification.getPostponedFor() != null
+                    ? requeue(message, notification.getPostponedFor())
+                    : applyRetryBackoffIfNeeded(notification, message));
+  }
+
+  /**
+   * A postponed delivery (endpoint saturated or circuit open) used up no attempt, and must not use
+   * up a dequeue either, or a message postponed while its endpoint is down would reach {@code
+   * max-dequeue-count} and be moved to the poison queue. A fresh copy of the message is sent,
+   * invisible for the postponement delay, and the original is deleted; if the send fails, the
+   * original is left to reappear after the visibility timeout.
+   */
+  private Uni<Boolean> requeue(QueueMessageItem message, Duration delay) {
+    return onWorkerPool(
+            () ->
+                client.sendMessageWithResponse(
+                    getMessageBody(message), delay, null, null, com.azure.core.util.Context.NONE))
+        .onItem()
+        .transform(ignored -> true)
+        .onFailure()
+        .recoverWithItem(
+            error -> {
+              log.warn(
+                  "Unable to requeue postponed Storage Queue message {}: {}",
+                  message.getMessageId(),
+                  error.getMessage());
+              return false;
+            });
   }
 
   private Uni<Boolean> applyRetryBackoffIfNeeded(
@@ -411,7 +439,7 @@ public class WebhookNotificationConsumer {
     // Honor the webhook's configured retry policy (initialDelayMs / backoffMultiplier /
     // maxDelayMs) by extending the Storage Queue message visibility for the computed backoff
     // duration, instead of relying on the fixed visibility-timeout-seconds for every attempt.
-    return webhookRepository
+    return webhookRegistry
         .findById(notification.getWebhookId())
         .onItem()
         .transform(webhook -> webhook != null ? webhook.getRetryPolicy() : null)
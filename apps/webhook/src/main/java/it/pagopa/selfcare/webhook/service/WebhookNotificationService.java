@@ -20,7 +20,6 @@ import it.pagopa.selfcare.webhook.entity.WebhookNotificationAttempt;
 import it.pagopa.selfcare.webhook.metrics.WebhookMetrics;
 import it.pagopa.selfcare.webhook.repository.WebhookNotificationAttemptRepository;
 import it.pagopa.selfcare.webhook.repository.WebhookNotificationRepository;
-import it.pagopa.selfcare.webhook.repository.WebhookRepository;
 import it.pagopa.selfcare.webhook.util.DataEncryptionConfig;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.enterprise.event.Observes;
@@ -38,7 +37,7 @@ import org.eclipse.microprofile.config.inject.ConfigProperty;
 @ApplicationScoped
 public class WebhookNotificationService {
 
-  @Inject WebhookRepository webhookRepository;
+  @Inject WebhookRegistry webhookRegistry;
 
   @Inject WebhookNotificationRepository notificationRepository;
 
@@ -46,6 +45,8 @@ public class WebhookNotificationService {
 
   @Inject WebhookMetrics metrics;
 
+  @Inject WebhookEndpointLimiter endpointLimiter;
+
   @Inject Vertx vertx;
 
   @Inject WebhookJwtService webhookJwtService;
@@ -159,7 +160,7 @@ public class WebhookNotificationService {
   }
 
   private Uni<Void> sendNotification(WebhookNotification notification) {
-    return webhookRepository
+    return webhookRegistry
         .findById(notification.getWebhookId())
         .onItem()
         .transformToUni(
@@ -184,15 +185,31 @@ public class WebhookNotificationService {
       return markNotificationAsFailed(notification, "Webhook is not active").replaceWithVoid();
     }
 
+    WebhookEndpointLimiter.Permit permit = endpointLimiter.tryAcquire(webhook.getId());
+    if (!permit.isGranted()) {
+      // Not an attempt: the notification is left untouched, without consuming its retry budget.
+      log.debug(
+          "Postponing notification {}: webhook {} is saturated or its circuit is open",
+          notification.getId(),
+          webhook.getId());
+      notification.setPostponedFor(permit.getRetryAfter());
+      metrics.recordDelivery("postponed");
+      return Uni.createFrom().voidItem();
+    }
+    notification.setPostponedFor(null);
     notification.setStatus(WebhookNotification.NotificationStatus.SENDING);
     notification.setLastAttemptAt(LocalDateTime.now());
     return notificationRepository
         .update(notification)
         .onItem()
-        .transformToUni(updated -> sendHttpRequest(webhook, updated));
+        .transformToUni(updated -> sendHttpRequest(webhook, updated, permit))
+        // Frees the slot if the HTTP call was never made (e.g. the update above failed).
+        .onTermination()
+        .invoke(permit::abandon);
   }
 
-  private Uni<Void> sendHttpRequest(Webhook webhook, WebhookNotification notification) {
+  private Uni<Void> sendHttpRequest(
+      Webhook webhook, WebhookNotification notification, WebhookEndpointLimiter.Permit permit) {
     long startNanos = System.nanoTime();
     HttpRequest<Void> request;
     try {
@@ -210,7 +227,12 @@ public class WebhookNotificationService {
         .invoke(token -> preparedRequest.putHeader(jwtHeaderName, jwtHeaderPrefix + token))
         .onItem()
         .transformToUni(
-            token -> sendDecodedPayload(preparedRequest, webhook.getProductId(), notification))
+            token ->
+                sendDecodedPayload(preparedRequest, webhook.getProductId(), notification)
+                    .onItemOrFailure()
+                    .invoke(
+                        (response, throwable) ->
+                            releasePermit(webhook, permit, response, throwable, startNanos)))
         // Both branches are handled in a single stage on purpose: attaching a generic
         // .onFailure().recoverWithUni(...) *after* the response-handling stage would also catch
         // failures raised by handleHttpResponse itself (e.g. the MongoDB update after a 2xx).
@@ -256,6 +278,23 @@ public class WebhookNotificationService {
     return request;
   }
 
+  /**
+   * Feeds the outcome of the HTTP call to the endpoint limits. Only the failures that tell the
+   * endpoint is unavailable or overloaded count: a 4xx is a problem with the notification itself.
+   */
+  private void releasePermit(
+      Webhook webhook,
+      WebhookEndpointLimiter.Permit permit,
+      HttpResponse<Void> response,
+      Throwable throwable,
+      long startNanos) {
+    boolean endpointFailure =
+        throwable != null || response.statusCode() >= 500 || response.statusCode() == 429;
+    long durationMs = elapsedMs(startNanos);
+    permit.release(endpointFailure, durationMs);
+    metrics.recordEndpointDelivery(webhook.getId().toHexString(), endpointFailure, durationMs);
+  }
+
   private static long elapsedMs(long startNanos) {
     return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
   }
@@ -0,0 +1,219 @@
+package it.pagopa.selfcare.webhook.service;
+
+import static com.mongodb.client.model.Projections.fields;
+import static com.mongodb.client.model.Projections.include;
+
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.subscription.Cancellable;
+import it.pagopa.selfcare.webhook.entity.Webhook;
+import it.pagopa.selfcare.webhook.repository.WebhookRepository;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * In-memory view of the webhooks collection, used by the fan-out ({@link
+ * WebhookService#sendNotification}) and the delivery paths instead of querying MongoDB for every
+ * notification.
+ *
+ * <p>The whole collection is loaded on first use (it holds one document per tenant and product) and
+ * indexed by tenant and product. It is reloaded on the next lookup after a change is seen on a
+ * MongoDB change stream, after a change made through {@link WebhookService} on this instance, or
+ * after {@code webhook.registry.ttl} in any case, which also covers the changes a change stream
+ * does not report (deletes on Cosmos DB) or missed while reconnecting. Concurrent lookups share a
+ * single reload. If a reload fails, the previous snapshot is served.
+ *
+ * <p>The returned {@link Webhook} instances are shared between callers and must not be modified.
+ */
+@Slf4j
+@ApplicationScoped
+public class WebhookRegistry {
+
+  @Inject WebhookRepository webhookRepository;
+
+  @ConfigProperty(name = "webhook.registry.ttl", defaultValue = "5m")
+  Duration ttl;
+
+  @ConfigProperty(name = "webhook.registry.watch.enabled", defaultValue = "true")
+  boolean watchEnabled;
+
+  private volatile Snapshot current;
+  private Uni<Snapshot> loading;
+  private long version;
+  private volatile Cancellable changeStream;
+
+  void onStart(@Observes StartupEvent event) {
+    if (!watchEnabled) {
+      return;
+    }
+    Bson match =
+        Aggregates.match(Filters.in("operationType", List.of("insert", "update", "replace")));
+    Bson project = Aggregates.project(fields(include("_id", "ns", "documentKey", "clusterTime")));
+    changeStream =
+        webhookRepository
+            .mongoCollection()
+            .watch(List.of(match, project))
+            // Changes made while the stream was down are not replayed: reload on every
+            // (re)subscription.
+            .onSubscription()
+            .invoke(this::invalidate)
+            .onFailure()
+            .invoke(error -> log.warn("Webhook change stream failed: {}", error.getMessage()))
+            .onFailure()
+            .retry()
+            .withBackOff(Duration.ofSeconds(1), Duration.ofMinutes(1))
+            .indefinitely()
+            .subscribe()
+            .with(
+                ignored -> invalidate(),
+                failure -> log.error("Webhook change stream stopped", failure));
+  }
+
+  void onStop(@Observes ShutdownEvent event) {
+    if (changeStream != null) {
+      changeStream.cancel();
+    }
+  }
+
+  /**
+   * Returns the active webhooks of a tenant that are subscribed to the given product, either
+   * explicitly or through the {@link Webhook#ALL_PRODUCTS} wildcard, and to the given topic.
+   */
+  public Uni<List<Webhook>> findSubscribers(String productId, String tenantId, String topic) {
+    return snapshot().map(snapshot -> snapshot.subscribers(productId, tenantId, topic));
+  }
+
+  /** Returns the webhook with the given id, whatever its status, or null if it does not exist. */
+  public Uni<Webhook> findById(ObjectId id) {
+    return snapshot().map(snapshot -> snapshot.byId.get(id));
+  }
+
+  /** Discards the loaded webhooks, so that the next lookup reloads them. */
+  public synchronized void invalidate() {
+    version++;
+    loading = null;
+  }
+
+  private Uni<Snapshot> snapshot() {
+    Snapshot snapshot = current;
+    if (snapshot != null && isFresh(snapshot)) {
+      return Uni.createFrom().item(snapshot);
+    }
+    return reload()
+        .onFailure()
+        .recoverWithUni(
+            error -> {
+              if (snapshot == null) {
+                return Uni.createFrom().failure(error);
+              }
+              log.warn(
+                  "Unable to reload webhooks, serving the loaded ones: {}", error.getMessage());
+              return Uni.createFrom().item(snapshot);
+            });
+  }
+
+  private synchronized boolean isFresh(Snapshot snapshot) {
+    return snapshot.version == version && System.nanoTime() - snapshot.loadedAt < ttl.toNanos();
+  }
+
+  private synchronized Uni<Snapshot> reload() {
+    if (loading == null) {
+      long loadVersion = version;
+      loading =
+          webhookRepository
+              .listAll()
+              .map(webhooks -> new Snapshot(webhooks, loadVersion))
+              .onItemOrFailure()
+              .invoke((loaded, failure) -> onLoaded(loadVersion, loaded))
+              .memoize()
+              .indefinitely();
+    }
+    return loading;
+  }
+
+  private synchronized void onLoaded(long loadVersion, Snapshot loaded) {
+    // A change seen while loading may be missing from the loaded webhooks: keep them only for the
+    // lookups already waiting, and let the next lookup reload again.
+    if (loadVersion != version) {
+      return;
+    }
+    loading = null;
+    if (loaded != null) {
+      current = loaded;
+    } else if (current != null) {
+      // Retry on the next lookup rather than waiting for the previous snapshot to expire.
+      version++;
+    }
+  }
+
+  /**
+   * A webhook receives a notification for a given topic if it has no topic filter configured
+   * (backward-compatible: subscribes to everything) or if its configured topics include the
+   * notification's topic.
+   */
+  private static boolean isSubscribedToTopic(Webhook webhook, String topic) {
+    return webhook.getTopics() == null
+        || webhook.getTopics().isEmpty()
+        || webhook.getTopics().contains(topic);
+  }
+
+  private static String key(String tenantId, String productId) {
+    return tenantId + "|" + productId;
+  }
+
+  private static final class Snapshot {
+
+    private final long version;
+    private final long loadedAt = System.nanoTime();
+    private final Map<ObjectId, Webhook> byId = new HashMap<>();
+    private final Map<String, List<Webhook>> activeByTenantAndProduct = new HashMap<>();
+
+    private Snapshot(List<Webhook> webhooks, long version) {
+      this.version = version;
+      for (Webhook webhook : webhooks) {
+        byId.put(webhook.getId(), webhook);
+        if (webhook.getStatus() != Webhook.WebhookStatus.ACTIVE || webhook.getProducts() == null) {
+          continue;
+        }
+        for (String product : webhook.getProducts()) {
+          activeByTenantAndProduct
+              .computeIfAbsent(key(webhook.getTenantId(), product), k -> new ArrayList<>())
+              .add(webhook);
+        }
+      }
+    }
+
+    private List<Webhook> subscribers(String productId, String tenantId, String topic) {
+      List<Webhook> explicit =
+          activeByTenantAndProduct.getOrDefault(key(tenantId, productId), List.of());
+      List<Webhook> wildcard =
+          activeByTenantAndProduct.getOrDefault(key(tenantId, Webhook.ALL_PRODUCTS), List.of());
+      List<Webhook> subscribers = new ArrayList<>(explicit.size() + wildcard.size());
+      for (Webhook webhook : explicit) {
+        if (isSubscribedToTopic(webhook, topic)) {
+          subscribers.add(webhook);
+        }
+      }
+      for (Webhook webhook : wildcard) {
+        // A webhook listing both the product and the wildcard is already in the explicit list
+        if (isSubscribedToTopic(webhook, topic) && explicit.stream().noneMatch(e -> e == webhook)) {
+          subscribers.add(webhook);
+        }
+      }
+      return subscribers;
+    }
+  }
+}
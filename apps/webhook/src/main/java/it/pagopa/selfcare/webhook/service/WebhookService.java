@@ -17,9 +17,13 @@ import it.pagopa.selfcare.webhook.util.Sanitizer;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 import org.bson.types.ObjectId;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 
 @Slf4j
 @ApplicationScoped
@@ -32,6 +36,12 @@ public class WebhookService {
 
   @Inject WebhookNotificationPublisher notificationPublisher;
 
+  @Inject WebhookRegistry webhookRegistry;
+
+  /** Maximum number of Storage Queue messages sent at the same time by a single fan-out. */
+  @ConfigProperty(name = "webhook.storage-queue.publish-concurrency", defaultValue = "8")
+  int publishConcurrency;
+
   public Uni<WebhookResponse> createWebhook(WebhookRequest request) {
     Webhook webhook = new Webhook();
     webhook.setUrl(request.getUrl());
@@ -73,6 +83,7 @@ public class WebhookService {
               }
               return webhookRepository.persist(webhook);
             })
+        .invoke(webhookRegistry::invalidate)
         .invoke(() -> log.info("Created webhook with ID: {}", webhook.getId()))
         .map(this::toResponse);
   }
@@ -119,6 +130,7 @@ public class WebhookService {
               }
             })
         .call(webhook -> webhookRepository.update(webhook))
+        .invoke(webhookRegistry::invalidate)
         .invoke(() -> log.info("Updated webhook with ID: {}", productId))
         .map(this::toResponse);
   }
@@ -132,6 +144,7 @@ public class WebhookService {
             () ->
                 new IllegalArgumentException("Webhook not found: " + Sanitizer.sanitizeString(id)))
         .call(webhook -> webhookRepository.deleteByIdSafe(Sanitizer.sanitizeString(id)))
+        .invoke(webhookRegistry::invalidate)
         .invoke(() -> logDeleteWebhook(Sanitizer.sanitizeString(id)))
         .replaceWith(true);
   }
@@ -147,29 +160,16 @@ public class WebhookService {
         .ifNull()
         .failWith(() -> new IllegalArgumentException("Webhook not found: " + productId))
         .call(webhook -> webhookRepository.deleteByIdSafe(webhook.getId().toString()))
+        .invoke(webhookRegistry::invalidate)
         .invoke(webhook -> logDeleteWebhook(webhook.getId().toString()))
         .replaceWith(true);
   }
 
-  /**
-   * A webhook receives a notification for a given topic if it has no topic filter configured
-   * (backward-compatible: subscribes to everything) or if its configured topics include the
-   * notification's topic.
-   */
-  private boolean isSubscribedToTopic(Webhook webhook, String topic) {
-    return webhook.getTopics() == null
-        || webhook.getTopics().isEmpty()
-        || webhook.getTopics().contains(topic);
-  }
-
   public Uni<Void> sendNotification(NotificationRequest request) {
     String topic = Sanitizer.sanitizeString(request.getTopic());
-    return webhookRepository
-        .findActiveWebhooksByProduct(
-            request.getProductId(), Sanitizer.sanitizeString(request.getTenantId()))
-        .map(
-            webhooks ->
-                webhooks.stream().filter(webhook -> isSubscribedToTopic(webhook, topic)).toList())
+    return webhookRegistry
+        .findSubscribers(
+            request.getProductId(), Sanitizer.sanitizeString(request.getTenantId()), topic)
         .invoke(
             webhooks -> {
               if (webhooks.isEmpty()) {
@@ -189,46 +189,109 @@ public class WebhookService {
               }
             })
         .onItem()
-        .transformToMulti(webhooks -> io.smallrye.mutiny.Multi.createFrom().iterable(webhooks))
+        .transformToUni(webhooks -> createAndPublish(request, topic, webhooks));
+  }
+
+  /**
+   * Creates one notification per subscribed webhook with a single insertMany, then publishes them
+   * with {@link #publishAll}: the Mongo and Storage Queue round-trips of a fan-out no longer grow
+   * with the number of subscribers.
+   */
+  private Uni<Void> createAndPublish(
+      NotificationRequest request, String topic, List<Webhook> webhooks) {
+    if (webhooks.isEmpty()) {
+      return Uni.createFrom().voidItem();
+    }
+    String payload = DataEncryptionConfig.encrypt(request.getPayload());
+    LocalDateTime now = LocalDateTime.now();
+    List<WebhookNotification> notifications = new ArrayList<>(webhooks.size());
+    for (Webhook webhook : webhooks) {
+      WebhookNotification notification = new WebhookNotification();
+      notification.setWebhookId(webhook.getId());
+      notification.setTenantId(webhook.getTenantId());
+      notification.setPayload(payload);
+      notification.setTopic(topic);
+      notification.setStatus(WebhookNotification.NotificationStatus.PENDING);
+      notification.setAttemptCount(0);
+      notification.setCreatedAt(now);
+      notification.setPublishing(true);
+      notification.setPublishingUntil(now.plusMinutes(5));
+      notifications.add(notification);
+    }
+
+    return notificationRepository
+        .persist(notifications)
+        .invoke(
+            () ->
+                notifications.forEach(
+                    notification ->
+                        log.info(
+                            "Created notification with ID: {} for webhook: {} (product: {}, tenant: {})",
+                            notification.getId(),
+                            notification.getWebhookId(),
+                            Sanitizer.sanitizeString(request.getProductId()),
+                            Sanitizer.sanitizeString(request.getTenantId()))))
+        .chain(() -> publishAll(notifications));
+  }
+
+  /**
+   * Publishes the notifications to the Storage Queue, at most {@code publish-concurrency} at a
+   * time, then records the outcome with one updateMany for the published notifications and one for
+   * the others.
+   *
+   * <p>As in {@link #resendAndPublish}, failures are logged and swallowed: the notifications are
+   * already stored, and those left unpublished are picked up by {@link
+   * WebhookNotificationOutboxService}. Failing the request instead would make the caller send it
+   * again and create the notifications twice.
+   */
+  private Uni<Void> publishAll(List<WebhookNotification> notifications) {
+    return Multi.createFrom()
+        .iterable(notifications)
         .onItem()
-        .call(
-            webhook -> {
-              WebhookNotification notification = new WebhookNotification();
-              notification.setWebhookId(webhook.getId());
-              notification.setTenantId(webhook.getTenantId());
-              notification.setPayload(DataEncryptionConfig.encrypt(request.getPayload()));
-              notification.setTopic(topic);
-              notification.setStatus(WebhookNotification.NotificationStatus.PENDING);
-              notification.setAttemptCount(0);
-              notification.setCreatedAt(LocalDateTime.now());
-              notification.setPublishing(true);
-              notification.setPublishingUntil(LocalDateTime.now().plusMinutes(5));
-
-              return notificationRepository
-                  .persist(notification)
-                  .invoke(
-                      () ->
-                          log.info(
-                              "Created notification with ID: {} for webhook: {} (product: {}, tenant: {})",
+        .transformToUni(
+            notification ->
+                notificationPublisher
+                    .publish(notification.getId().toHexString())
+                    .onItem()
+                    .transform(ignored -> new PublishOutcome(notification.getId(), true))
+                    .onFailure()
+                    .recoverWithItem(
+                        error -> {
+                          log.error(
+                              "Unable to publish webhook notification {}",
                               notification.getId(),
-                              webhook.getId(),
-                              Sanitizer.sanitizeString(request.getProductId()),
-                              Sanitizer.sanitizeString(request.getTenantId())))
-                  .call(
-                      n ->
-                          notificationPublisher
-                              .publish(n.getId().toHexString())
-                              .call(ignored -> notificationRepository.markAsPublished(n.getId()))
-                              .onFailure()
-                              .call(
-                                  error ->
-                                      notificationRepository.releasePublishingLock(n.getId())));
-            })
+                              error);
+                          return new PublishOutcome(notification.getId(), false);
+                        }))
+        .merge(publishConcurrency)
         .collect()
-        .asList()
+        .with(
+            Collectors.partitioningBy(
+                PublishOutcome::published,
+                Collectors.mapping(PublishOutcome::notificationId, Collectors.toList())))
+        .chain(
+            outcomes ->
+                updateIfAny(outcomes.get(true), notificationRepository::markAllAsPublished)
+                    .chain(
+                        () ->
+                            updateIfAny(
+                                outcomes.get(false), notificationRepository::releasePublishingLocks)))
+        .onFailure()
+        .recoverWithItem(
+            error -> {
+              log.error("Unable to record the publication of webhook notifications", error);
+              return null;
+            })
         .replaceWithVoid();
   }
 
+  private static Uni<Void> updateIfAny(
+      List<ObjectId> notificationIds, Function<List<ObjectId>, Uni<Void>> update) {
+    return notificationIds.isEmpty() ? Uni.createFrom().voidItem() : update.apply(notificationIds);
+  }
+
+  private record PublishOutcome(ObjectId notificationId, boolean published) {}
+
   /** Resend a single notification identified by its ID. */
   public Uni<NotificationResendResponse> resendNotificationById(String notificationId) {
     if (!ObjectId.isValid(notificationId)) {
@@ -0,0 +1,147 @@
+package it.pagopa.selfcare.webhook.repository;
+
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.ReturnDocument;
+import com.mongodb.reactivestreams.client.MongoClient;
+import com.mongodb.reactivestreams.client.MongoClients;
+import io.quarkus.mongodb.impl.ReactiveMongoClientImpl;
+import io.quarkus.mongodb.reactive.ReactiveMongoCollection;
+import io.smallrye.mutiny.Multi;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import org.bson.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.utility.DockerImageName;
+
+/**
+ * Compares claiming a batch of {@value #BATCH} pending notifications with one findOneAndUpdate per
+ * notification (the previous implementation) and with {@link
+ * WebhookNotificationRepository#claimBatch}, against a MongoDB started with Testcontainers.
+ *
+ * <p>Each invocation re-inserts the batch, so both methods claim every notification: the previous
+ * implementation pays one round trip per notification, while {@code claimBatch} pays the same few
+ * whatever the batch size, and the sampled latency of a whole claim shows the difference. The
+ * {@code mongo:7.0} container is started once per trial, so Docker must be available; compile the
+ * tests with the {@code jmh} profile before launching {@link #main}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class WebhookNotificationClaimBenchmark {
+
+  private static final int BATCH = 100;
+  private static final int LOCK_DURATION_MINUTES = 5;
+
+  private GenericContainer<?> mongo;
+  private MongoClient mongoClient;
+  private ReactiveMongoCollection<Document> collection;
+
+  @Setup(Level.Trial)
+  public void startMongo() {
+    mongo = new GenericContainer<>(DockerImageName.parse("mongo:7.0")).withExposedPorts(27017);
+    mongo.start();
+    mongoClient =
+        MongoClients.create(
+            String.format("mongodb://%s:%d", mongo.getHost(), mongo.getMappedPort(27017)));
+    collection =
+        new ReactiveMongoClientImpl(mongoClient)
+            .getDatabase("selcWebhook")
+            .getCollection("webhookNotifications");
+  }
+
+  @Setup(Level.Invocation)
+  public void insertPendingNotifications() {
+    collection.deleteMany(new Document()).await().indefinitely();
+    List<Document> notifications = new ArrayList<>(BATCH);
+    for (int i = 0; i < BATCH; i++) {
+      notifications.add(
+          new Document("status", "PENDING")
+              .append("tenantId", "SELC")
+              .append("payload", "e30=")
+              .append("attemptCount", 0)
+              .append("createdAt", LocalDateTime.now())
+              .append("processing", false));
+    }
+    collection.insertMany(notifications).await().indefinitely();
+  }
+
+  @TearDown(Level.Trial)
+  public void stopMongo() {
+    mongoClient.close();
+    mongo.stop();
+  }
+
+  @Benchmark
+  public List<Document> findOneAndUpdatePerNotification() {
+    Document update = new Document("$set", lock());
+    FindOneAndUpdateOptions options =
+        new FindOneAndUpdateOptions().returnDocument(ReturnDocument.AFTER);
+    Document query = pendingQuery();
+    return Multi.createBy()
+        .repeating()
+        .uni(() -> collection.findOneAndUpdate(query, update, options))
+        .atMost(BATCH)
+        .filter(Objects::nonNull)
+        .collect()
+        .asList()
+        .await()
+        .indefinitely();
+  }
+
+  @Benchmark
+  public List<Document> claimBatch() {
+    return WebhookNotificationRepository.claimBatch(
+            collection,
+            pendingQuery(),
+            lock(),
+            WebhookNotificationRepository.PROCESSING_CLAIM,
+            BATCH)
+        .await()
+        .indefinitely();
+  }
+
+  private static Document pendingQuery() {
+    return new Document("status", new Document("$in", List.of("PENDING", "RETRY")))
+        .append(
+            "$or",
+            List.of(
+                new Document("processing", new Document("$ne", true)),
+                new Document("processingUntil", new Document("$lt", LocalDateTime.now()))));
+  }
+
+  private static Document lock() {
+    return new Document("processing", true)
+        .append("processingUntil", LocalDateTime.now().plusMinutes(LOCK_DURATION_MINUTES));
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(
+            new OptionsBuilder()
+                .include(WebhookNotificationClaimBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build())
+        .run();
+  }
+}
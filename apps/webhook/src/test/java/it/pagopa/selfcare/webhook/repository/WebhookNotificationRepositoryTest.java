@@ -97,6 +97,37 @@ class WebhookNotificationRepositoryTest {
         });
   }
 
+  @Test
+  void findAndLockPendingNotifications_shouldClaimAtMostLimitAndNotReclaimLockedNotifications() {
+    // given
+    ObjectId webhookId = new ObjectId();
+    for (int i = 0; i < 5; i++) {
+      persistNotification(
+          webhookId,
+          WebhookNotification.NotificationStatus.PENDING,
+          false,
+          null,
+          false,
+          null,
+          null);
+    }
+
+    // when
+    List<WebhookNotification> first =
+        webhookNotificationRepository.findAndLockPendingNotifications(3, 5).await().indefinitely();
+    List<WebhookNotification> second =
+        webhookNotificationRepository.findAndLockPendingNotifications(3, 5).await().indefinitely();
+    List<WebhookNotification> third =
+        webhookNotificationRepository.findAndLockPendingNotifications(3, 5).await().indefinitely();
+
+    // then
+    assertEquals(3, first.size());
+    assertEquals(2, second.size());
+    assertTrue(third.isEmpty());
+    Set<ObjectId> firstIds = first.stream().map(WebhookNotification::getId).collect(Collectors.toSet());
+    assertTrue(second.stream().noneMatch(notification -> firstIds.contains(notification.getId())));
+  }
+
   @Test
   void releaseProcessingLock_shouldClearProcessingFields() {
     // given
@@ -197,6 +228,39 @@ class WebhookNotificationRepositoryTest {
     assertNull(updated.getPublishingUntil());
   }
 
+  @Test
+  void markAllAsPublished_shouldUpdateOnlyTheGivenNotifications() {
+    // given
+    WebhookNotification published = persistPublishingNotification();
+    WebhookNotification released = persistPublishingNotification();
+    WebhookNotification untouched = persistPublishingNotification();
+
+    // when
+    webhookNotificationRepository
+        .markAllAsPublished(List.of(published.getId()))
+        .await()
+        .indefinitely();
+    webhookNotificationRepository
+        .releasePublishingLocks(List.of(released.getId()))
+        .await()
+        .indefinitely();
+
+    // then
+    WebhookNotification afterPublish =
+        webhookNotificationRepository.findById(published.getId()).await().indefinitely();
+    assertNotNull(afterPublish.getBusPublishedAt());
+    assertFalse(afterPublish.getPublishing());
+    WebhookNotification afterRelease =
+        webhookNotificationRepository.findById(released.getId()).await().indefinitely();
+    assertNull(afterRelease.getBusPublishedAt());
+    assertFalse(afterRelease.getPublishing());
+    assertNull(afterRelease.getPublishingUntil());
+    WebhookNotification afterNothing =
+        webhookNotificationRepository.findById(untouched.getId()).await().indefinitely();
+    assertTrue(afterNothing.getPublishing());
+    assertNotNull(afterNothing.getPublishingUntil());
+  }
+
   @Test
   void releasePublishingLock_shouldClearPublishingFields() {
     // given
@@ -477,6 +541,17 @@ class WebhookNotificationRepositoryTest {
     assertNull(notification);
   }
 
+  private WebhookNotification persistPublishingNotification() {
+    return persistNotification(
+        new ObjectId(),
+        WebhookNotification.NotificationStatus.PENDING,
+        false,
+        null,
+        true,
+        LocalDateTime.now().plusMinutes(5),
+        null);
+  }
+
   private WebhookNotification persistNotificationWithCreatedAt(LocalDateTime createdAt) {
     WebhookNotification notification =
         persistNotification(
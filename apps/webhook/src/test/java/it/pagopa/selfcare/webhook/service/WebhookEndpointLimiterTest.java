@@ -0,0 +1,126 @@
+package it.pagopa.selfcare.webhook.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.verify;
+
+import io.quarkus.arc.ClientProxy;
+import io.quarkus.test.InjectMock;
+import io.quarkus.test.junit.QuarkusTest;
+import it.pagopa.selfcare.webhook.metrics.WebhookMetrics;
+import jakarta.inject.Inject;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+@QuarkusTest
+class WebhookEndpointLimiterTest {
+
+  @Inject WebhookEndpointLimiter endpointLimiter;
+
+  @InjectMock WebhookMetrics metrics;
+
+  @AfterEach
+  void tearDown() {
+    limiter().openDuration = Duration.ofSeconds(30);
+  }
+
+  @Test
+  void tryAcquire_shouldRejectAboveInitialConcurrency() {
+    // given
+    ObjectId webhookId = new ObjectId();
+    WebhookEndpointLimiter.Permit first = endpointLimiter.tryAcquire(webhookId);
+    WebhookEndpointLimiter.Permit second = endpointLimiter.tryAcquire(webhookId);
+
+    // when
+    WebhookEndpointLimiter.Permit rejected = endpointLimiter.tryAcquire(webhookId);
+    first.release(false, 10);
+    first.release(false, 10);
+    WebhookEndpointLimiter.Permit afterRelease = endpointLimiter.tryAcquire(webhookId);
+
+    // then
+    assertTrue(second.isGranted());
+    assertFalse(rejected.isGranted());
+    assertEquals(Duration.ofSeconds(5), rejected.getRetryAfter());
+    assertTrue(afterRelease.isGranted());
+    assertTrue(endpointLimiter.tryAcquire(new ObjectId()).isGranted());
+    verify(metrics).recordEndpointRejected(webhookId.toHexString(), "concurrency_limit");
+  }
+
+  @Test
+  void release_shouldRaiseLimitOnFastResponsesAndHalveItOnFailures() {
+    // given
+    ObjectId webhookId = new ObjectId();
+    for (int i = 0; i < 3; i++) {
+      endpointLimiter.tryAcquire(webhookId).release(false, 10);
+    }
+
+    // when
+    int grown = acquireAll(webhookId);
+    WebhookEndpointLimiter.Permit failing = endpointLimiter.tryAcquire(webhookId);
+    failing.release(true, 10);
+    int halved = acquireAll(webhookId);
+
+    // then
+    assertEquals(3, grown);
+    assertEquals(1, halved);
+  }
+
+  @Test
+  void tryAcquire_shouldOpenCircuitAfterConsecutiveFailures() {
+    // given
+    ObjectId webhookId = new ObjectId();
+    for (int i = 0; i < 5; i++) {
+      endpointLimiter.tryAcquire(webhookId).release(true, 10);
+    }
+
+    // when
+    WebhookEndpointLimiter.Permit open = endpointLimiter.tryAcquire(webhookId);
+
+    // then
+    assertFalse(open.isGranted());
+    assertTrue(open.getRetryAfter().compareTo(Duration.ZERO) > 0);
+    verify(metrics).recordEndpointCircuit(webhookId.toHexString(), "open");
+  }
+
+  @Test
+  void tryAcquire_shouldLetASingleProbeThroughWhenCircuitIsHalfOpen() {
+    // given
+    limiter().openDuration = Duration.ZERO;
+    ObjectId webhookId = new ObjectId();
+    for (int i = 0; i < 5; i++) {
+      endpointLimiter.tryAcquire(webhookId).release(true, 10);
+    }
+
+    // when
+    WebhookEndpointLimiter.Permit probe = endpointLimiter.tryAcquire(webhookId);
+    WebhookEndpointLimiter.Permit concurrent = endpointLimiter.tryAcquire(webhookId);
+    probe.release(false, 10);
+    WebhookEndpointLimiter.Permit afterProbe = endpointLimiter.tryAcquire(webhookId);
+
+    // then
+    assertTrue(probe.isGranted());
+    assertFalse(concurrent.isGranted());
+    assertTrue(afterProbe.isGranted());
+    verify(metrics).recordEndpointCircuit(webhookId.toHexString(), "half_open");
+    verify(metrics).recordEndpointCircuit(webhookId.toHexString(), "closed");
+  }
+
+  private int acquireAll(ObjectId webhookId) {
+    List<WebhookEndpointLimiter.Permit> granted = new ArrayList<>();
+    WebhookEndpointLimiter.Permit permit;
+    while ((permit = endpointLimiter.tryAcquire(webhookId)).isGranted()) {
+      granted.add(permit);
+    }
+    granted.forEach(WebhookEndpointLimiter.Permit::abandon);
+    return granted.size();
+  }
+
+  private WebhookEndpointLimiter limiter() {
+    return (WebhookEndpointLimiter) ClientProxy.unwrap(endpointLimiter);
+  }
+}
@@ -33,7 +33,6 @@ import it.pagopa.selfcare.webhook.entity.RetryPolicy;
 import it.pagopa.selfcare.webhook.entity.Webhook;
 import it.pagopa.selfcare.webhook.entity.WebhookNotification;
 import it.pagopa.selfcare.webhook.repository.WebhookNotificationRepository;
-import it.pagopa.selfcare.webhook.repository.WebhookRepository;
 import jakarta.inject.Inject;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
@@ -54,7 +53,7 @@ class WebhookNotificationConsumerTest {
 
   @InjectMock WebhookNotificationService notificationService;
 
-  @InjectMock WebhookRepository webhookRepository;
+  @InjectMock WebhookRegistry webhookRegistry;
 
   @InjectMock it.pagopa.selfcare.webhook.metrics.WebhookMetrics metrics;
 
@@ -480,7 +479,7 @@ class WebhookNotificationConsumerTest {
         .thenReturn(Uni.createFrom().voidItem());
     when(notificationRepository.releaseProcessingLock(eq(notification)))
         .thenReturn(Uni.createFrom().item(notification));
-    when(webhookRepository.findById(eq(notification.getWebhookId())))
+    when(webhookRegistry.findById(eq(notification.getWebhookId())))
         .thenReturn(Uni.createFrom().item(webhook));
 
     // when
@@ -496,6 +495,43 @@ class WebhookNotificationConsumerTest {
     verify(client, never()).deleteMessage(any(), any());
   }
 
+  @Test
+  void processNotification_shouldRequeueMessageWhenDeliveryIsPostponed() {
+    // given
+    WebhookNotification notification = new WebhookNotification();
+    notification.setId(new ObjectId());
+    notification.setWebhookId(new ObjectId());
+    notification.setStatus(WebhookNotification.NotificationStatus.RETRY);
+    notification.setAttemptCount(1);
+
+    when(message.getBody()).thenReturn(com.azure.core.util.BinaryData.fromString(notification.getId().toHexString()));
+    when(notificationRepository.claimForProcessing(eq(notification.getId().toHexString()), eq(6)))
+        .thenReturn(Uni.createFrom().item(notification));
+    when(notificationService.processNotification(eq(notification)))
+        .thenAnswer(
+            invocation -> {
+              notification.setPostponedFor(Duration.ofSeconds(30));
+              return Uni.createFrom().voidItem();
+            });
+    when(notificationRepository.releaseProcessingLock(eq(notification)))
+        .thenReturn(Uni.createFrom().item(notification));
+
+    // when
+    invokeProcessNotification(message, notification.getId().toHexString());
+
+    // then
+    verify(client, timeout(1000))
+        .sendMessageWithResponse(
+            eq(notification.getId().toHexString()),
+            eq(Duration.ofSeconds(30)),
+            isNull(),
+            isNull(),
+            any());
+    verify(client, timeout(1000)).deleteMessage("message-id", "pop-receipt");
+    verify(client, never()).updateMessage(any(), any(), any(), any());
+    verify(notificationRepository).releaseProcessingLock(eq(notification));
+  }
+
   @Test
   void processNotification_shouldCapRetryBackoffAtMaxDelay() {
     // given
@@ -519,7 +555,7 @@ class WebhookNotificationConsumerTest {
         .thenReturn(Uni.createFrom().voidItem());
     when(notificationRepository.releaseProcessingLock(eq(notification)))
         .thenReturn(Uni.createFrom().item(notification));
-    when(webhookRepository.findById(eq(notification.getWebhookId())))
+    when(webhookRegistry.findById(eq(notification.getWebhookId())))
         .thenReturn(Uni.createFrom().item(webhook));
 
     // when
@@ -548,7 +584,7 @@ class WebhookNotificationConsumerTest {
         .thenReturn(Uni.createFrom().voidItem());
     when(notificationRepository.releaseProcessingLock(eq(notification)))
         .thenReturn(Uni.createFrom().item(notification));
-    when(webhookRepository.findById(eq(notification.getWebhookId())))
+    when(webhookRegistry.findById(eq(notification.getWebhookId())))
         .thenReturn(Uni.createFrom().nullItem());
 
     // when
@@ -578,7 +614,7 @@ class WebhookNotificationConsumerTest {
         .thenReturn(Uni.createFrom().voidItem());
     when(notificationRepository.releaseProcessingLock(eq(notification)))
         .thenReturn(Uni.createFrom().item(notification));
-    when(webhookRepository.findById(eq(notification.getWebhookId())))
+    when(webhookRegistry.findById(eq(notification.getWebhookId())))
         .thenReturn(Uni.createFrom().failure(new RuntimeException("db unavailable")));
 
     // when
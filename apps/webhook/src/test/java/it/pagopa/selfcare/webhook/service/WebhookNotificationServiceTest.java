@@ -2,6 +2,8 @@ package it.pagopa.selfcare.webhook.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
@@ -21,7 +23,6 @@ import it.pagopa.selfcare.webhook.entity.WebhookNotification;
 import it.pagopa.selfcare.webhook.entity.WebhookNotificationAttempt;
 import it.pagopa.selfcare.webhook.repository.WebhookNotificationAttemptRepository;
 import it.pagopa.selfcare.webhook.repository.WebhookNotificationRepository;
-import it.pagopa.selfcare.webhook.repository.WebhookRepository;
 import it.pagopa.selfcare.webhook.util.DataEncryptionConfig;
 import jakarta.inject.Inject;
 import java.lang.reflect.Field;
@@ -37,7 +38,7 @@ class WebhookNotificationServiceTest {
 
   @Inject WebhookNotificationService notificationService;
 
-  @InjectMock WebhookRepository webhookRepository;
+  @InjectMock WebhookRegistry webhookRegistry;
 
   @InjectMock WebhookNotificationRepository notificationRepository;
 
@@ -47,6 +48,8 @@ class WebhookNotificationServiceTest {
 
   @InjectMock it.pagopa.selfcare.webhook.metrics.WebhookMetrics metrics;
 
+  @Inject WebhookEndpointLimiter endpointLimiter;
+
   Vertx vertx;
 
   private WebClient webClient;
@@ -407,7 +410,7 @@ class WebhookNotificationServiceTest {
     // then
     subscriber.awaitItem();
     verify(notificationRepository).findById(new ObjectId(notificationId));
-    verifyNoInteractions(webhookRepository);
+    verifyNoInteractions(webhookRegistry);
     verifyNoInteractions(webClient);
   }
 
@@ -415,7 +418,7 @@ class WebhookNotificationServiceTest {
   void processNotification_shouldFailNotification_whenWebhookIsNotFound() {
     // given
     WebhookNotification notification = createNotification(new ObjectId());
-    when(webhookRepository.findById(notification.getWebhookId()))
+    when(webhookRegistry.findById(notification.getWebhookId()))
         .thenReturn(Uni.createFrom().nullItem());
     when(notificationRepository.update(any(WebhookNotification.class)))
         .thenReturn(Uni.createFrom().item(notification));
@@ -438,6 +441,55 @@ class WebhookNotificationServiceTest {
     verifyNoInteractions(webClient);
   }
 
+  @Test
+  void processNotification_shouldPostponeWithoutAttempt_whenEndpointIsSaturated() {
+    // given
+    Webhook webhook = createWebhook();
+    WebhookNotification notification = createNotification(webhook.getId());
+    WebhookEndpointLimiter.Permit first = endpointLimiter.tryAcquire(webhook.getId());
+    WebhookEndpointLimiter.Permit second = endpointLimiter.tryAcquire(webhook.getId());
+
+    // when
+    UniAssertSubscriber<Void> subscriber =
+        notificationService
+            .processNotification(notification, webhook)
+            .subscribe()
+            .withSubscriber(UniAssertSubscriber.create());
+    first.abandon();
+    second.abandon();
+
+    // then
+    subscriber.awaitItem();
+    assertNotNull(notification.getPostponedFor());
+    assertEquals(WebhookNotification.NotificationStatus.PENDING, notification.getStatus());
+    assertEquals(0, notification.getAttemptCount());
+    verify(notificationRepository, never()).update(any(WebhookNotification.class));
+    verifyNoInteractions(webClient, notificationAttemptRepository);
+    verify(metrics).recordDelivery("postponed");
+    verify(metrics).recordEndpointRejected(webhook.getId().toHexString(), "concurrency_limit");
+  }
+
+  @Test
+  void processNotification_shouldReleaseEndpointSlot_whenDeliveryCompletes() {
+    // given
+    Webhook webhook = createWebhook();
+    WebhookNotification notification = createNotification(webhook.getId());
+    when(notificationRepository.update(any(WebhookNotification.class)))
+        .thenReturn(Uni.createFrom().item(notification));
+    when(httpRequest.sendJson(any())).thenReturn(Uni.createFrom().item(httpResponse));
+    when(httpResponse.statusCode()).thenReturn(503);
+
+    // when
+    notificationService.processNotification(notification, webhook).await().indefinitely();
+    WebhookEndpointLimiter.Permit first = endpointLimiter.tryAcquire(webhook.getId());
+
+    // then
+    assertNull(notification.getPostponedFor());
+    assertTrue(first.isGranted());
+    first.abandon();
+    verify(metrics).recordEndpointDelivery(eq(webhook.getId().toHexString()), eq(true), anyLong());
+  }
+
   @Test
   void processFailedNotifications_shouldProcessPending() {
     Webhook webhook = createWebhook();
@@ -448,7 +500,7 @@ class WebhookNotificationServiceTest {
 
     when(notificationRepository.findById(any(ObjectId.class)))
         .thenReturn(Uni.createFrom().item(notification));
-    when(webhookRepository.findById(any(ObjectId.class)))
+    when(webhookRegistry.findById(any(ObjectId.class)))
         .thenReturn(Uni.createFrom().item(webhook));
     when(notificationRepository.update(any(WebhookNotification.class)))
         .thenReturn(Uni.createFrom().item(notification));
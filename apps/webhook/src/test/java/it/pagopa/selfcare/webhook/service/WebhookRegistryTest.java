@@ -0,0 +1,106 @@
+package it.pagopa.selfcare.webhook.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.quarkus.test.InjectMock;
+import io.quarkus.test.junit.QuarkusTest;
+import io.smallrye.mutiny.Uni;
+import it.pagopa.selfcare.webhook.entity.Webhook;
+import it.pagopa.selfcare.webhook.repository.WebhookRepository;
+import jakarta.inject.Inject;
+import java.util.List;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+@QuarkusTest
+class WebhookRegistryTest {
+
+  private static final String TENANT_ID = "SELC";
+  private static final String PRODUCT_ID = "prod-io";
+
+  @Inject WebhookRegistry webhookRegistry;
+
+  @InjectMock WebhookRepository webhookRepository;
+
+  @BeforeEach
+  void setUp() {
+    webhookRegistry.invalidate();
+  }
+
+  @Test
+  void findSubscribers_shouldMatchProductWildcardAndTopic() {
+    // given
+    Webhook explicit = createWebhook(TENANT_ID, List.of(PRODUCT_ID), null);
+    Webhook wildcard = createWebhook(TENANT_ID, List.of(Webhook.ALL_PRODUCTS), null);
+    Webhook both = createWebhook(TENANT_ID, List.of(PRODUCT_ID, Webhook.ALL_PRODUCTS), null);
+    Webhook otherTopic = createWebhook(TENANT_ID, List.of(PRODUCT_ID), List.of("SC-Delegate"));
+    Webhook otherTenant = createWebhook("other", List.of(PRODUCT_ID), null);
+    Webhook inactive = createWebhook(TENANT_ID, List.of(PRODUCT_ID), null);
+    inactive.setStatus(Webhook.WebhookStatus.INACTIVE);
+    when(webhookRepository.listAll())
+        .thenReturn(
+            Uni.createFrom()
+                .item(List.of(explicit, wildcard, both, otherTopic, otherTenant, inactive)));
+
+    // when
+    List<Webhook> subscribers =
+        webhookRegistry
+            .findSubscribers(PRODUCT_ID, TENANT_ID, "SC-Contracts")
+            .await()
+            .indefinitely();
+
+    // then
+    assertEquals(List.of(explicit, both, wildcard), subscribers);
+  }
+
+  @Test
+  void findById_shouldServeLoadedWebhooksUntilInvalidated() {
+    // given
+    Webhook webhook = createWebhook(TENANT_ID, List.of(PRODUCT_ID), null);
+    when(webhookRepository.listAll()).thenReturn(Uni.createFrom().item(List.of(webhook)));
+
+    // when
+    webhookRegistry.findById(webhook.getId()).await().indefinitely();
+    Webhook cached = webhookRegistry.findById(webhook.getId()).await().indefinitely();
+    webhookRegistry.invalidate();
+    Webhook missing = webhookRegistry.findById(new ObjectId()).await().indefinitely();
+
+    // then
+    assertSame(webhook, cached);
+    assertNull(missing);
+    verify(webhookRepository, times(2)).listAll();
+  }
+
+  @Test
+  void findById_shouldServeLoadedWebhooks_whenReloadFails() {
+    // given
+    Webhook webhook = createWebhook(TENANT_ID, List.of(PRODUCT_ID), null);
+    when(webhookRepository.listAll())
+        .thenReturn(Uni.createFrom().item(List.of(webhook)))
+        .thenReturn(Uni.createFrom().failure(new IllegalStateException("mongo down")));
+    webhookRegistry.findById(webhook.getId()).await().indefinitely();
+    webhookRegistry.invalidate();
+
+    // when
+    Webhook result = webhookRegistry.findById(webhook.getId()).await().indefinitely();
+
+    // then
+    assertSame(webhook, result);
+  }
+
+  private Webhook createWebhook(String tenantId, List<String> products, List<String> topics) {
+    Webhook webhook = new Webhook();
+    webhook.setId(new ObjectId());
+    webhook.setTenantId(tenantId);
+    webhook.setProducts(products);
+    webhook.setTopics(topics);
+    webhook.setStatus(Webhook.WebhookStatus.ACTIVE);
+    return webhook;
+  }
+}
@@ -22,6 +22,7 @@ import jakarta.inject.Inject;
 import java.util.Collections;
 import java.util.List;
 import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 
@@ -38,6 +39,13 @@ class WebhookServiceTest {
 
   @InjectMock WebhookNotificationPublisher notificationPublisher;
 
+  @Inject WebhookRegistry webhookRegistry;
+
+  @BeforeEach
+  void setUp() {
+    webhookRegistry.invalidate();
+  }
+
   @Test
   void createWebhook_shouldCreateAndReturnWebhook() {
     WebhookRequest request = new WebhookRequest();
@@ -337,17 +345,9 @@ class WebhookServiceTest {
     webhook.setProducts(List.of(productId));
     webhook.setStatus(Webhook.WebhookStatus.ACTIVE);
 
-    when(webhookRepository.findActiveWebhooksByProduct(productId, TENANT_ID))
+    when(webhookRepository.listAll())
         .thenReturn(Uni.createFrom().item(List.of(webhook)));
-    when(notificationRepository.persist(any(WebhookNotification.class)))
-        .thenAnswer(
-            invocation -> {
-              WebhookNotification notification = invocation.getArgument(0);
-              notification.setId(new ObjectId());
-              return Uni.createFrom().item(notification);
-            });
-    when(notificationPublisher.publish(anyString())).thenReturn(Uni.createFrom().voidItem());
-    when(notificationRepository.markAsPublished(any())).thenReturn(Uni.createFrom().voidItem());
+    stubNotificationFanOut();
 
     // when
     UniAssertSubscriber<Void> subscriber =
@@ -359,15 +359,15 @@ class WebhookServiceTest {
     subscriber.awaitItem();
 
     // then
-    ArgumentCaptor<WebhookNotification> captor = ArgumentCaptor.forClass(WebhookNotification.class);
-    verify(notificationRepository).persist(captor.capture());
-    assertNotEquals(request.getPayload(), captor.getValue().getPayload());
-    assertEquals(
-        request.getPayload(), DataEncryptionConfig.decrypt(captor.getValue().getPayload()));
-    assertEquals(TENANT_ID, captor.getValue().getTenantId());
-    assertEquals(WebhookNotification.NotificationStatus.PENDING, captor.getValue().getStatus());
-    verify(notificationPublisher).publish(captor.getValue().getId().toHexString());
-    verify(notificationRepository).markAsPublished(captor.getValue().getId());
+    List<WebhookNotification> persisted = capturePersistedNotifications();
+    assertEquals(1, persisted.size());
+    WebhookNotification notification = persisted.get(0);
+    assertNotEquals(request.getPayload(), notification.getPayload());
+    assertEquals(request.getPayload(), DataEncryptionConfig.decrypt(notification.getPayload()));
+    assertEquals(TENANT_ID, notification.getTenantId());
+    assertEquals(WebhookNotification.NotificationStatus.PENDING, notification.getStatus());
+    verify(notificationPublisher).publish(notification.getId().toHexString());
+    verify(notificationRepository).markAllAsPublished(List.of(notification.getId()));
   }
 
   @Test
@@ -378,7 +378,7 @@ class WebhookServiceTest {
     request.setProductId(productId);
     request.setTenantId(TENANT_ID);
 
-    when(webhookRepository.findActiveWebhooksByProduct(productId, TENANT_ID))
+    when(webhookRepository.listAll())
         .thenReturn(Uni.createFrom().item(Collections.emptyList()));
 
     // when
@@ -391,7 +391,7 @@ class WebhookServiceTest {
     subscriber.awaitItem();
 
     // then
-    verify(notificationRepository, never()).persist(any(WebhookNotification.class));
+    verify(notificationRepository, never()).persist(anyIterable());
   }
 
   @Test
@@ -418,17 +418,9 @@ class WebhookServiceTest {
     notSubscribedWebhook.setTopics(List.of("SC-Delegate"));
     notSubscribedWebhook.setStatus(Webhook.WebhookStatus.ACTIVE);
 
-    when(webhookRepository.findActiveWebhooksByProduct(productId, TENANT_ID))
+    when(webhookRepository.listAll())
         .thenReturn(Uni.createFrom().item(List.of(subscribedWebhook, notSubscribedWebhook)));
-    when(notificationRepository.persist(any(WebhookNotification.class)))
-        .thenAnswer(
-            invocation -> {
-              WebhookNotification notification = invocation.getArgument(0);
-              notification.setId(new ObjectId());
-              return Uni.createFrom().item(notification);
-            });
-    when(notificationPublisher.publish(anyString())).thenReturn(Uni.createFrom().voidItem());
-    when(notificationRepository.markAsPublished(any())).thenReturn(Uni.createFrom().voidItem());
+    stubNotificationFanOut();
 
     // when
     UniAssertSubscriber<Void> subscriber =
@@ -440,10 +432,10 @@ class WebhookServiceTest {
     subscriber.awaitItem();
 
     // then
-    ArgumentCaptor<WebhookNotification> captor = ArgumentCaptor.forClass(WebhookNotification.class);
-    verify(notificationRepository, times(1)).persist(captor.capture());
-    assertEquals(subscribedWebhook.getId(), captor.getValue().getWebhookId());
-    assertEquals("SC-Users", captor.getValue().getTopic());
+    List<WebhookNotification> persisted = capturePersistedNotifications();
+    assertEquals(1, persisted.size());
+    assertEquals(subscribedWebhook.getId(), persisted.get(0).getWebhookId());
+    assertEquals("SC-Users", persisted.get(0).getTopic());
   }
 
   @Test
@@ -463,17 +455,51 @@ class WebhookServiceTest {
     webhook.setTopics(null);
     webhook.setStatus(Webhook.WebhookStatus.ACTIVE);
 
-    when(webhookRepository.findActiveWebhooksByProduct(productId, TENANT_ID))
+    when(webhookRepository.listAll())
         .thenReturn(Uni.createFrom().item(List.of(webhook)));
-    when(notificationRepository.persist(any(WebhookNotification.class)))
-        .thenAnswer(
-            invocation -> {
-              WebhookNotification notification = invocation.getArgument(0);
-              notification.setId(new ObjectId());
-              return Uni.createFrom().item(notification);
-            });
-    when(notificationPublisher.publish(anyString())).thenReturn(Uni.createFrom().voidItem());
-    when(notificationRepository.markAsPublished(any())).thenReturn(Uni.createFrom().voidItem());
+    stubNotificationFanOut();
+
+    // when
+    UniAssertSubscriber<Void> subscriber =
+        webhookService
+            .sendNotification(request)
+            .subscribe()
+            .withSubscriber(UniAssertSubscriber.create());
+
+    subscriber.awaitItem();
+
+    // then
+    assertEquals(1, capturePersistedNotifications().size());
+  }
+
+  @Test
+  void sendNotification_shouldInsertOnceAndUpdateInBulk_whenSomePublishesFail() {
+    // given
+    String productId = "prod-io";
+    NotificationRequest request = new NotificationRequest();
+    request.setProductId(productId);
+    request.setTenantId(TENANT_ID);
+    request.setPayload("{}");
+    request.setTopic("SC-Contracts");
+
+    Webhook first = new Webhook();
+    first.setId(new ObjectId());
+    first.setTenantId(TENANT_ID);
+    first.setProducts(List.of(productId));
+    first.setStatus(Webhook.WebhookStatus.ACTIVE);
+    Webhook second = new Webhook();
+    second.setId(new ObjectId());
+    second.setTenantId(TENANT_ID);
+    second.setProducts(List.of(Webhook.ALL_PRODUCTS));
+    second.setStatus(Webhook.WebhookStatus.ACTIVE);
+
+    when(webhookRepository.listAll()).thenReturn(Uni.createFrom().item(List.of(first, second)));
+    stubNotificationFanOut();
+    when(notificationRepository.releasePublishingLocks(any()))
+        .thenReturn(Uni.createFrom().voidItem());
+    when(notificationPublisher.publish(anyString()))
+        .thenReturn(Uni.createFrom().voidItem())
+        .thenReturn(Uni.createFrom().failure(new RuntimeException("queue unavailable")));
 
     // when
     UniAssertSubscriber<Void> subscriber =
@@ -485,7 +511,14 @@ class WebhookServiceTest {
     subscriber.awaitItem();
 
     // then
-    verify(notificationRepository, times(1)).persist(any(WebhookNotification.class));
+    List<WebhookNotification> persisted = capturePersistedNotifications();
+    assertEquals(2, persisted.size());
+    assertEquals(first.getId(), persisted.get(0).getWebhookId());
+    assertEquals(second.getId(), persisted.get(1).getWebhookId());
+    verify(notificationPublisher, times(2)).publish(anyString());
+    verify(notificationRepository).markAllAsPublished(List.of(persisted.get(0).getId()));
+    verify(notificationRepository).releasePublishingLocks(List.of(persisted.get(1).getId()));
+    verify(notificationRepository, never()).markAsPublished(any());
   }
 
   @Test
@@ -712,4 +745,23 @@ class WebhookServiceTest {
     assertEquals(1, response.getResentCount());
     verify(notificationRepository).releasePublishingLock(notificationId);
   }
+
+  private void stubNotificationFanOut() {
+    when(notificationRepository.persist(anyIterable()))
+        .thenAnswer(
+            invocation -> {
+              Iterable<WebhookNotification> notifications = invocation.getArgument(0);
+              notifications.forEach(notification -> notification.setId(new ObjectId()));
+              return Uni.createFrom().voidItem();
+            });
+    when(notificationPublisher.publish(anyString())).thenReturn(Uni.createFrom().voidItem());
+    when(notificationRepository.markAllAsPublished(any())).thenReturn(Uni.createFrom().voidItem());
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<WebhookNotification> capturePersistedNotifications() {
+    ArgumentCaptor<List<WebhookNotification>> captor = ArgumentCaptor.forClass(List.class);
+    verify(notificationRepository).persist(captor.capture());
+    return captor.getValue();
+  }
 }
@@ -1,9 +1,21 @@
 package it.pagopa.selfcare.azurestorage;
 
 import com.azure.storage.blob.models.BlobProperties;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.Optional;
 
 public interface AzureBlobClient {
 
@@ -13,12 +25,133 @@ public interface AzureBlobClient {
 
   String getFileAsText(String filePath);
 
+  /**
+   * Downloads the file as text only if its ETag differs from {@code eTag}, in a single conditional
+   * request.
+   *
+   * <p>Implementations that cannot issue conditional requests can rely on the default, which
+   * downloads the file with {@link #getFileAsText(String)} and always reports it as changed, with
+   * no ETag.
+   *
+   * @param eTag the ETag of the copy already held by the caller, null to always download
+   * @return the content with its new ETag, or empty if the file has not changed
+   */
+  default Optional<VersionedBlobText> getFileAsTextIfChanged(String filePath, String eTag) {
+    return Optional.of(new VersionedBlobText(getFileAsText(filePath), null, null));
+  }
+
+  /**
+   * Downloads the file only if its ETag differs from {@code eTag}, in a single conditional request.
+   *
+   * <p>Implementations that cannot issue conditional requests can rely on the default, which reads
+   * the properties of the file and downloads it with {@link #getFile(String)} only if their ETag
+   * differs: a write between the two requests is picked up at the next call.
+   *
+   * @param eTag the ETag of the copy already held by the caller, null to always download
+   * @return the content with its new ETag, or empty if the file has not changed
+   */
+  default Optional<VersionedBlob> getFileIfChanged(String filePath, String eTag) {
+    BlobProperties properties = getProperties(filePath);
+    if (eTag != null && eTag.equals(properties.getETag())) {
+      return Optional.empty();
+    }
+    return Optional.of(
+        new VersionedBlob(getFile(filePath), properties.getETag(), properties.getLastModified()));
+  }
+
   File getFileAsPdf(String contractTemplate);
 
+  /**
+   * Writes the content of the file to {@code out} as it is downloaded, without buffering it.
+   *
+   * <p>The default buffers the whole file with {@link #getFile(String)} before writing it.
+   *
+   * @throws UncheckedIOException if {@code out} cannot be written
+   */
+  default void downloadToStream(String filePath, OutputStream out) {
+    try {
+      out.write(getFile(filePath));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Downloads the file to {@code destination}, overwriting it, reading ranges of the blob in
+   * parallel.
+   *
+   * <p>The default buffers the whole file with {@link #getFile(String)} before writing it.
+   *
+   * @throws UncheckedIOException if {@code destination} cannot be written
+   */
+  default void downloadToFile(String filePath, Path destination) {
+    try {
+      Files.write(destination, getFile(filePath));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Reactive download: the content of the file is emitted in chunks as it is received.
+   *
+   * <p>The default emits the whole file as a single chunk, downloaded with {@link
+   * #getFile(String)} on the bounded elastic scheduler.
+   */
+  default Flux<ByteBuffer> downloadFileAsync(String filePath) {
+    return Mono.fromCallable(() -> ByteBuffer.wrap(getFile(filePath)))
+        .subscribeOn(Schedulers.boundedElastic())
+        .flux();
+  }
+
   String uploadFile(String path, String filename, byte[] data);
 
+  /**
+   * Uploads a local file, staging its blocks in parallel; returns the path of the blob.
+   *
+   * <p>The default reads the whole file and uploads it with {@link #uploadFile(String, String,
+   * byte[])}.
+   *
+   * @throws UncheckedIOException if the local file cannot be read
+   */
+  default String uploadFromFile(String path, String filename, Path file) {
+    try {
+      return uploadFile(path, filename, Files.readAllBytes(file));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
   String uploadFilePath(String filePath, byte[] data);
 
+  /**
+   * Uploads the content of {@code data} in blocks as it is read; the stream is not closed.
+   *
+   * <p>The default reads the whole stream and uploads it with {@link #uploadFilePath(String,
+   * byte[])}.
+   *
+   * @throws UncheckedIOException if {@code data} cannot be read
+   */
+  default String uploadFromStream(String filePath, InputStream data) {
+    try {
+      return uploadFilePath(filePath, data.readAllBytes());
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Reactive upload of the chunks emitted by {@code data}; emits the path of the blob.
+   *
+   * <p>The default collects all the chunks and uploads them with {@link #uploadFilePath(String,
+   * byte[])} on the bounded elastic scheduler.
+   */
+  default Mono<String> uploadFileAsync(String filePath, Flux<ByteBuffer> data) {
+    return data.collectList()
+        .publishOn(Schedulers.boundedElastic())
+        .map(chunks -> uploadFilePath(filePath, concat(chunks)));
+  }
+
   void removeFile(String fileName);
 
   BlobProperties getProperties(String filePath);
@@ -26,4 +159,15 @@ public interface AzureBlobClient {
   List<String> getFiles();
 
   List<String> getFiles(String path);
+
+  private static byte[] concat(List<ByteBuffer> chunks) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    for (ByteBuffer chunk : chunks) {
+      ByteBuffer copy = chunk.duplicate();
+      byte[] bytes = new byte[copy.remaining()];
+      copy.get(bytes);
+      out.writeBytes(bytes);
+    }
+    return out.toByteArray();
+  }
 }
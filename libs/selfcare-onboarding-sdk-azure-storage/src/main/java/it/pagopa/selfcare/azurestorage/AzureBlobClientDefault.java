@@ -1,35 +1,57 @@
 package it.pagopa.selfcare.azurestorage;
 
 import com.azure.core.util.BinaryData;
+import com.azure.core.util.Context;
 import com.azure.identity.DefaultAzureCredentialBuilder;
 import com.azure.storage.blob.BlobClient;
 import com.azure.storage.blob.BlobContainerClient;
+import com.azure.storage.blob.BlobServiceAsyncClient;
 import com.azure.storage.blob.BlobServiceClient;
 import com.azure.storage.blob.BlobServiceClientBuilder;
+import com.azure.storage.blob.models.BlobDownloadContentResponse;
 import com.azure.storage.blob.models.BlobListDetails;
 import com.azure.storage.blob.models.BlobProperties;
+import com.azure.storage.blob.models.BlobRequestConditions;
 import com.azure.storage.blob.models.BlobStorageException;
 import com.azure.storage.blob.models.ListBlobsOptions;
+import com.azure.storage.blob.models.ParallelTransferOptions;
+import com.azure.storage.blob.options.BlobParallelUploadOptions;
+import com.azure.storage.blob.options.BlobUploadFromFileOptions;
 import it.pagopa.selfcare.azurestorage.error.SelfcareAzureStorageError;
 import it.pagopa.selfcare.azurestorage.error.SelfcareAzureStorageException;
 import org.apache.commons.lang3.StringUtils;
 import org.owasp.encoder.Encode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 
 public class AzureBlobClientDefault implements AzureBlobClient {
 
   private static final Logger log = LoggerFactory.getLogger(AzureBlobClientDefault.class);
 
+  // Blobs over 8 MB are transferred as 8 MB blocks or ranges, 4 at a time
+  private static final long BLOCK_SIZE = 8L * 1024 * 1024;
+  private static final int MAX_CONCURRENCY = 4;
+
   private final BlobServiceClient blobClient;
+  private final BlobServiceAsyncClient blobAsyncClient;
   private final String containerName;
 
     /**
@@ -46,7 +68,9 @@ public class AzureBlobClientDefault implements AzureBlobClient {
                 StringUtils.isNotEmpty(managedIdentityClientId) ? "***" : "empty");
 
         this.containerName = containerName;
-        this.blobClient = buildBlobServiceClient(accountName, managedIdentityClientId);
+        BlobServiceClientBuilder builder = blobServiceClientBuilder(accountName, managedIdentityClientId);
+        this.blobClient = builder.buildClient();
+        this.blobAsyncClient = builder.buildAsyncClient();
     }
 
     /**
@@ -58,12 +82,13 @@ public class AzureBlobClientDefault implements AzureBlobClient {
     public AzureBlobClientDefault(String connectionString, String containerName) {
         log.trace("it.pagopa.selfcare.azurestorage.AzureBlobClient.it.pagopa.selfcare.azurestorage.AzureBlobClient");
         this.containerName = containerName;
-        this.blobClient = new BlobServiceClientBuilder()
-                .connectionString(connectionString)
-                .buildClient();
+        BlobServiceClientBuilder builder = new BlobServiceClientBuilder()
+                .connectionString(connectionString);
+        this.blobClient = builder.buildClient();
+        this.blobAsyncClient = builder.buildAsyncClient();
     }
 
-    private BlobServiceClient buildBlobServiceClient(String accountName, String managedIdentityClientId) {
+    private BlobServiceClientBuilder blobServiceClientBuilder(String accountName, String managedIdentityClientId) {
         BlobServiceClientBuilder builder = new BlobServiceClientBuilder();
 
         String currentAccountName = StringUtils.trimToEmpty(accountName);
@@ -85,7 +110,7 @@ public class AzureBlobClientDefault implements AzureBlobClient {
                     "BLOB_CONFIG_ERROR");
         }
 
-        return builder.buildClient();
+        return builder;
     }
 
   @Override
@@ -133,6 +158,43 @@ public class AzureBlobClientDefault implements AzureBlobClient {
     }
   }
 
+  @Override
+  public Optional<VersionedBlobText> getFileAsTextIfChanged(String filePath, String eTag) {
+    return downloadContentIfChanged(filePath, eTag)
+      .map(response -> new VersionedBlobText(response.getValue().toString(),
+        response.getDeserializedHeaders().getETag(), response.getDeserializedHeaders().getLastModified()));
+  }
+
+  @Override
+  public Optional<VersionedBlob> getFileIfChanged(String filePath, String eTag) {
+    return downloadContentIfChanged(filePath, eTag)
+      .map(response -> new VersionedBlob(response.getValue().toBytes(),
+        response.getDeserializedHeaders().getETag(), response.getDeserializedHeaders().getLastModified()));
+  }
+
+  private Optional<BlobDownloadContentResponse> downloadContentIfChanged(String filePath, String eTag) {
+    log.debug("START - downloadContentIfChanged for path: {}", Encode.forJava(String.valueOf(filePath)));
+    try {
+      final BlobContainerClient blobContainer = blobClient.getBlobContainerClient(containerName);
+      final BlobClient blob = blobContainer.getBlobClient(filePath);
+
+      BlobDownloadContentResponse response = blob.downloadContentWithResponse(
+        null, new BlobRequestConditions().setIfNoneMatch(eTag), null, Context.NONE);
+      log.info("END - downloadContentIfChanged - Downloaded {}", Encode.forJava(String.valueOf(filePath)));
+      return Optional.of(response);
+    } catch (BlobStorageException e) {
+      if (e.getStatusCode() == 304) {
+        log.debug("END - downloadContentIfChanged - Not modified {}", Encode.forJava(String.valueOf(filePath)));
+        return Optional.empty();
+      }
+      String safePath = Encode.forJava(String.valueOf(filePath));
+      log.error(String.format(SelfcareAzureStorageError.ERROR_DURING_DOWNLOAD_FILE.getMessage(), safePath), e);
+      throw new SelfcareAzureStorageException(
+        String.format(SelfcareAzureStorageError.ERROR_DURING_DOWNLOAD_FILE.getMessage(), safePath),
+        SelfcareAzureStorageError.ERROR_DURING_DOWNLOAD_FILE.getCode());
+    }
+  }
+
   @Override
   public File getFileAsPdf(String contractTemplate) {
     log.info("START - getFileAsPdf for template: {}", Encode.forJava(String.valueOf(contractTemplate)));
@@ -159,6 +221,40 @@ public class AzureBlobClientDefault implements AzureBlobClient {
     return downloadedFile;
   }
 
+  @Override
+  public void downloadToStream(String filePath, OutputStream out) {
+    log.info("START - downloadFile to stream for path: {}", Encode.forJava(String.valueOf(filePath)));
+    try {
+      final BlobClient blob = blobClient.getBlobContainerClient(containerName).getBlobClient(filePath);
+      blob.downloadStream(out);
+    } catch (BlobStorageException e) {
+      throw downloadException(filePath, e);
+    }
+    log.info("END - downloadFile to stream");
+  }
+
+  @Override
+  public void downloadToFile(String filePath, Path destination) {
+    log.info("START - downloadFile for path: {}", Encode.forJava(String.valueOf(filePath)));
+    try {
+      final BlobClient blob = blobClient.getBlobContainerClient(containerName).getBlobClient(filePath);
+      blob.downloadToFileWithResponse(destination.toString(), null, parallelTransferOptions(), null, null,
+        false, Set.of(StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE),
+        null, Context.NONE);
+    } catch (BlobStorageException | UncheckedIOException e) {
+      throw downloadException(filePath, e);
+    }
+    log.info("END - downloadFile");
+  }
+
+  @Override
+  public Flux<ByteBuffer> downloadFileAsync(String filePath) {
+    return blobAsyncClient.getBlobContainerAsyncClient(containerName)
+      .getBlobAsyncClient(filePath)
+      .downloadStream()
+      .onErrorMap(BlobStorageException.class, e -> downloadException(filePath, e));
+  }
+
   @Override
   public File retrieveFile(String filePath) {
     log.info("START - retrieveFile: {}", Encode.forJava(String.valueOf(filePath)));
@@ -216,6 +312,21 @@ public class AzureBlobClientDefault implements AzureBlobClient {
     }
   }
 
+  @Override
+  public String uploadFromFile(String path, String filename, Path file) {
+    String filepath = Paths.get(path, filename).toString();
+    log.debug("START - uploadFile from path {} to {}", file, Encode.forJava(filepath));
+    try {
+      final BlobClient blob = blobClient.getBlobContainerClient(containerName).getBlobClient(filepath);
+      blob.uploadFromFileWithResponse(new BlobUploadFromFileOptions(file.toString())
+        .setParallelTransferOptions(parallelTransferOptions()), null, Context.NONE);
+      log.info("Uploaded {}", Encode.forJava(filepath));
+      return filepath;
+    } catch (BlobStorageException e) {
+      throw uploadException(filepath, e);
+    }
+  }
+
   @Override
   public String uploadFilePath(String filePath, byte[] data) {
     log.debug("START - uploadFile for path: {}", filePath);
@@ -233,6 +344,29 @@ public class AzureBlobClientDefault implements AzureBlobClient {
     }
   }
 
+  @Override
+  public String uploadFromStream(String filePath, InputStream data) {
+    log.debug("START - uploadFilePath from stream to {}", Encode.forJava(String.valueOf(filePath)));
+    try {
+      final BlobClient blob = blobClient.getBlobContainerClient(containerName).getBlobClient(filePath);
+      blob.uploadWithResponse(new BlobParallelUploadOptions(data)
+        .setParallelTransferOptions(parallelTransferOptions()), null, Context.NONE);
+      log.info("Uploaded {}", Encode.forJava(String.valueOf(filePath)));
+      return filePath;
+    } catch (BlobStorageException e) {
+      throw uploadException(filePath, e);
+    }
+  }
+
+  @Override
+  public Mono<String> uploadFileAsync(String filePath, Flux<ByteBuffer> data) {
+    return blobAsyncClient.getBlobContainerAsyncClient(containerName)
+      .getBlobAsyncClient(filePath)
+      .upload(data, parallelTransferOptions(), true)
+      .map(ignored -> filePath)
+      .onErrorMap(BlobStorageException.class, e -> uploadException(filePath, e));
+  }
+
   @Override
   public void removeFile(String fileName) {
     log.debug("START - delete file for fileName: {}", fileName);
@@ -302,4 +436,27 @@ public class AzureBlobClientDefault implements AzureBlobClient {
     return listOfResource;
   }
 
+  private static ParallelTransferOptions parallelTransferOptions() {
+    return new ParallelTransferOptions()
+      .setBlockSizeLong(BLOCK_SIZE)
+      .setMaxSingleUploadSizeLong(BLOCK_SIZE)
+      .setMaxConcurrency(MAX_CONCURRENCY);
+  }
+
+  private static SelfcareAzureStorageException downloadException(String filePath, Exception e) {
+    String safePath = Encode.forJava(String.valueOf(filePath));
+    log.error(String.format(SelfcareAzureStorageError.ERROR_DURING_DOWNLOAD_FILE.getMessage(), safePath), e);
+    return new SelfcareAzureStorageException(
+      String.format(SelfcareAzureStorageError.ERROR_DURING_DOWNLOAD_FILE.getMessage(), safePath),
+      SelfcareAzureStorageError.ERROR_DURING_DOWNLOAD_FILE.getCode());
+  }
+
+  private static SelfcareAzureStorageException uploadException(String filePath, Exception e) {
+    String safePath = Encode.forJava(String.valueOf(filePath));
+    log.error(String.format(SelfcareAzureStorageError.ERROR_DURING_UPLOAD_FILE.getMessage(), safePath), e);
+    return new SelfcareAzureStorageException(
+      String.format(SelfcareAzureStorageError.ERROR_DURING_UPLOAD_FILE.getMessage(), safePath),
+      SelfcareAzureStorageError.ERROR_DURING_UPLOAD_FILE.getCode());
+  }
+
 }
@@ -0,0 +1,324 @@
+package it.pagopa.selfcare.azurestorage;
+
+import com.azure.storage.blob.models.BlobProperties;
+import it.pagopa.selfcare.azurestorage.error.SelfcareAzureStorageError;
+import it.pagopa.selfcare.azurestorage.error.SelfcareAzureStorageException;
+import org.owasp.encoder.Encode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link AzureBlobClient} decorator that keeps the content of the downloaded files in memory.
+ *
+ * <p>A cached file is served without contacting Blob Storage for {@code revalidateAfter} since it
+ * was last found up to date; then it is revalidated with a conditional download (If-None-Match on
+ * its ETag), which transfers the content only if the file has changed. If the revalidation fails,
+ * the cached content is served and revalidated again on the next call. {@link #getProperties} is
+ * cached for the same interval. The least recently used files are evicted when the cached content
+ * exceeds {@code maxSizeBytes}; files larger than that are never cached. Uploads and removals
+ * through this client invalidate the path.
+ *
+ * <p>{@link #getFileAsPdf} and {@link #retrieveFile} write the cached content to a new temporary
+ * file on each call, as {@link AzureBlobClientDefault} does, so callers may delete it. The
+ * streaming downloads are meant for files too large to hold in memory and are not cached.
+ */
+public class CachingAzureBlobClient implements AzureBlobClient {
+
+  private static final Logger log = LoggerFactory.getLogger(CachingAzureBlobClient.class);
+  private static final int MAX_CACHED_PROPERTIES = 1_000;
+
+  private final AzureBlobClient delegate;
+  private final long maxSizeBytes;
+  private final long revalidateAfterNanos;
+  private final LinkedHashMap<String, CachedBlob> blobs = new LinkedHashMap<>(16, 0.75f, true);
+  private final LinkedHashMap<String, CachedProperties> properties = new LinkedHashMap<>(16, 0.75f, true);
+  private long sizeBytes;
+
+  private final AtomicLong hitCount = new AtomicLong();
+  private final AtomicLong missCount = new AtomicLong();
+  private final AtomicLong notModifiedCount = new AtomicLong();
+  private final AtomicLong evictionCount = new AtomicLong();
+
+  public CachingAzureBlobClient(AzureBlobClient delegate, long maxSizeBytes, Duration revalidateAfter) {
+    if (maxSizeBytes < 0 || revalidateAfter.isNegative()) {
+      throw new IllegalArgumentException("maxSizeBytes and revalidateAfter must not be negative");
+    }
+    this.delegate = delegate;
+    this.maxSizeBytes = maxSizeBytes;
+    this.revalidateAfterNanos = revalidateAfter.toNanos();
+  }
+
+  @Override
+  public byte[] getFile(String filePath) {
+    return load(filePath).clone();
+  }
+
+  @Override
+  public String getFileAsText(String filePath) {
+    return new String(load(filePath), StandardCharsets.UTF_8);
+  }
+
+  @Override
+  public Optional<VersionedBlobText> getFileAsTextIfChanged(String filePath, String eTag) {
+    return delegate.getFileAsTextIfChanged(filePath, eTag);
+  }
+
+  @Override
+  public Optional<VersionedBlob> getFileIfChanged(String filePath, String eTag) {
+    return delegate.getFileIfChanged(filePath, eTag);
+  }
+
+  @Override
+  public File getFileAsPdf(String contractTemplate) {
+    String fileName = Paths.get(contractTemplate).getFileName().toString();
+    return writeTempFile(contractTemplate, fileName, ".pdf");
+  }
+
+  @Override
+  public File retrieveFile(String filePath) {
+    String blobFileName = Paths.get(filePath).getFileName().toString();
+    String extension = ".pdf";
+    String name = new File(filePath).getName();
+    int lastIndexOf = name.lastIndexOf(".");
+    if (lastIndexOf > -1) {
+      extension = name.substring(lastIndexOf + 1);
+    }
+    return writeTempFile(filePath, blobFileName, extension);
+  }
+
+  @Override
+  public void downloadToStream(String filePath, OutputStream out) {
+    delegate.downloadToStream(filePath, out);
+  }
+
+  @Override
+  public void downloadToFile(String filePath, Path destination) {
+    delegate.downloadToFile(filePath, destination);
+  }
+
+  @Override
+  public Flux<ByteBuffer> downloadFileAsync(String filePath) {
+    return delegate.downloadFileAsync(filePath);
+  }
+
+  @Override
+  public String uploadFile(String path, String filename, byte[] data) {
+    String filePath = delegate.uploadFile(path, filename, data);
+    invalidate(filePath);
+    return filePath;
+  }
+
+  @Override
+  public String uploadFromFile(String path, String filename, Path file) {
+    String filePath = delegate.uploadFromFile(path, filename, file);
+    invalidate(filePath);
+    return filePath;
+  }
+
+  @Override
+  public String uploadFilePath(String filePath, byte[] data) {
+    String uploadedPath = delegate.uploadFilePath(filePath, data);
+    invalidate(filePath);
+    return uploadedPath;
+  }
+
+  @Override
+  public String uploadFromStream(String filePath, InputStream data) {
+    String uploadedPath = delegate.uploadFromStream(filePath, data);
+    invalidate(filePath);
+    return uploadedPath;
+  }
+
+  @Override
+  public Mono<String> uploadFileAsync(String filePath, Flux<ByteBuffer> data) {
+    return delegate.uploadFileAsync(filePath, data)
+      .doOnSuccess(ignored -> invalidate(filePath));
+  }
+
+  @Override
+  public void removeFile(String fileName) {
+    delegate.removeFile(fileName);
+    invalidate(fileName);
+  }
+
+  @Override
+  public BlobProperties getProperties(String filePath) {
+    synchronized (this) {
+      CachedProperties cached = properties.get(filePath);
+      if (cached != null && !isExpired(cached.validatedAt)) {
+        return cached.properties;
+      }
+    }
+    BlobProperties blobProperties = delegate.getProperties(filePath);
+    synchronized (this) {
+      properties.put(filePath, new CachedProperties(blobProperties, System.nanoTime()));
+      if (properties.size() > MAX_CACHED_PROPERTIES) {
+        Iterator<String> eldest = properties.keySet().iterator();
+        eldest.next();
+        eldest.remove();
+      }
+    }
+    return blobProperties;
+  }
+
+  @Override
+  public List<String> getFiles() {
+    return delegate.getFiles();
+  }
+
+  @Override
+  public List<String> getFiles(String path) {
+    return delegate.getFiles(path);
+  }
+
+  /** Number of calls served from the cache without downloading the content. */
+  public long getHitCount() {
+    return hitCount.get();
+  }
+
+  /** Number of calls that downloaded the content, because it was not cached or had changed. */
+  public long getMissCount() {
+    return missCount.get();
+  }
+
+  /** Number of revalidations that found the cached content up to date. */
+  public long getNotModifiedCount() {
+    return notModifiedCount.get();
+  }
+
+  /** Number of files evicted to stay within {@code maxSizeBytes}. */
+  public long getEvictionCount() {
+    return evictionCount.get();
+  }
+
+  /** Total size in bytes of the cached content. */
+  public synchronized long getSizeBytes() {
+    return sizeBytes;
+  }
+
+  /** Removes the file from the cache, so the next call downloads it again. */
+  public synchronized void invalidate(String filePath) {
+    CachedBlob removed = blobs.remove(filePath);
+    if (removed != null) {
+      sizeBytes -= removed.content.length;
+    }
+    properties.remove(filePath);
+  }
+
+  private byte[] load(String filePath) {
+    CachedBlob cached;
+    synchronized (this) {
+      cached = blobs.get(filePath);
+    }
+    if (cached != null && !isExpired(cached.validatedAt)) {
+      hitCount.incrementAndGet();
+      return cached.content;
+    }
+
+    Optional<VersionedBlob> changed;
+    try {
+      changed = delegate.getFileIfChanged(filePath, cached != null ? cached.eTag : null);
+    } catch (SelfcareAzureStorageException e) {
+      if (cached == null) {
+        throw e;
+      }
+      log.warn("Unable to revalidate {}, serving the cached content: {}",
+        Encode.forJava(String.valueOf(filePath)), e.getMessage());
+      hitCount.incrementAndGet();
+      return cached.content;
+    }
+
+    if (changed.isEmpty() && cached != null) {
+      notModifiedCount.incrementAndGet();
+      put(filePath, new CachedBlob(cached.content, cached.eTag, System.nanoTime()));
+      return cached.content;
+    }
+    // Without a cached ETag the download is unconditional, so an empty result is not expected
+    VersionedBlob blob = changed.orElseThrow(() -> new SelfcareAzureStorageException(
+      String.format(SelfcareAzureStorageError.ERROR_DURING_DOWNLOAD_FILE.getMessage(), Encode.forJava(String.valueOf(filePath))),
+      SelfcareAzureStorageError.ERROR_DURING_DOWNLOAD_FILE.getCode()));
+    missCount.incrementAndGet();
+    put(filePath, new CachedBlob(blob.getContent(), blob.getETag(), System.nanoTime()));
+    return blob.getContent();
+  }
+
+  private synchronized void put(String filePath, CachedBlob blob) {
+    CachedBlob previous = blobs.remove(filePath);
+    if (previous != null) {
+      sizeBytes -= previous.content.length;
+    }
+    if (blob.content.length > maxSizeBytes) {
+      return;
+    }
+    blobs.put(filePath, blob);
+    sizeBytes += blob.content.length;
+    Iterator<Map.Entry<String, CachedBlob>> eldest = blobs.entrySet().iterator();
+    while (sizeBytes > maxSizeBytes) {
+      sizeBytes -= eldest.next().getValue().content.length;
+      eldest.remove();
+      evictionCount.incrementAndGet();
+    }
+  }
+
+  private boolean isExpired(long validatedAt) {
+    return System.nanoTime() - validatedAt >= revalidateAfterNanos;
+  }
+
+  private File writeTempFile(String filePath, String prefix, String suffix) {
+    byte[] content = load(filePath);
+    try {
+      File file = File.createTempFile(prefix, suffix);
+      Files.write(file.toPath(), content);
+      return file;
+    } catch (IOException e) {
+      String safePath = Encode.forJava(String.valueOf(filePath));
+      log.error(String.format(SelfcareAzureStorageError.ERROR_DURING_DOWNLOAD_FILE.getMessage(), safePath), e);
+      throw new SelfcareAzureStorageException(
+        String.format(SelfcareAzureStorageError.ERROR_DURING_DOWNLOAD_FILE.getMessage(), safePath),
+        SelfcareAzureStorageError.ERROR_DURING_DOWNLOAD_FILE.getCode());
+    }
+  }
+
+  private static final class CachedBlob {
+
+    private final byte[] content;
+    private final String eTag;
+    private final long validatedAt;
+
+    private CachedBlob(byte[] content, String eTag, long validatedAt) {
+      this.content = content;
+      this.eTag = eTag;
+      this.validatedAt = validatedAt;
+    }
+  }
+
+  private static final class CachedProperties {
+
+    private final BlobProperties properties;
+    private final long validatedAt;
+
+    private CachedProperties(BlobProperties properties, long validatedAt) {
+      this.properties = properties;
+      this.validatedAt = validatedAt;
+    }
+  }
+}
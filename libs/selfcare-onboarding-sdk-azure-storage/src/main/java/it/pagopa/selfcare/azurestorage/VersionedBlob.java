@@ -0,0 +1,29 @@
+package it.pagopa.selfcare.azurestorage;
+
+import java.time.OffsetDateTime;
+
+/** Binary content of a blob together with the ETag and last modified date it was downloaded at. */
+public class VersionedBlob {
+
+  private final byte[] content;
+  private final String eTag;
+  private final OffsetDateTime lastModified;
+
+  public VersionedBlob(byte[] content, String eTag, OffsetDateTime lastModified) {
+    this.content = content;
+    this.eTag = eTag;
+    this.lastModified = lastModified;
+  }
+
+  public byte[] getContent() {
+    return content;
+  }
+
+  public String getETag() {
+    return eTag;
+  }
+
+  public OffsetDateTime getLastModified() {
+    return lastModified;
+  }
+}
@@ -0,0 +1,29 @@
+package it.pagopa.selfcare.azurestorage;
+
+import java.time.OffsetDateTime;
+
+/** Text content of a blob together with the ETag and last modified date it was downloaded at. */
+public class VersionedBlobText {
+
+  private final String content;
+  private final String eTag;
+  private final OffsetDateTime lastModified;
+
+  public VersionedBlobText(String content, String eTag, OffsetDateTime lastModified) {
+    this.content = content;
+    this.eTag = eTag;
+    this.lastModified = lastModified;
+  }
+
+  public String getContent() {
+    return content;
+  }
+
+  public String getETag() {
+    return eTag;
+  }
+
+  public OffsetDateTime getLastModified() {
+    return lastModified;
+  }
+}
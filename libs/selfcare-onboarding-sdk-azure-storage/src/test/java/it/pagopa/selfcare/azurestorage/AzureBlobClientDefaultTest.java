@@ -2,40 +2,71 @@ package it.pagopa.selfcare.azurestorage;
 
 import com.azure.core.http.rest.PagedIterable;
 import com.azure.core.util.BinaryData;
+import com.azure.storage.blob.BlobAsyncClient;
 import com.azure.storage.blob.BlobClient;
+import com.azure.storage.blob.BlobContainerAsyncClient;
 import com.azure.storage.blob.BlobContainerClient;
+import com.azure.storage.blob.BlobServiceAsyncClient;
 import com.azure.storage.blob.BlobServiceClient;
 import com.azure.storage.blob.BlobServiceClientBuilder;
+import com.azure.storage.blob.models.BlobDownloadContentResponse;
+import com.azure.storage.blob.models.BlobDownloadHeaders;
 import com.azure.storage.blob.models.BlobItem;
 import com.azure.storage.blob.models.BlobProperties;
+import com.azure.storage.blob.models.BlobRequestConditions;
 import com.azure.storage.blob.models.BlobStorageException;
+import com.azure.storage.blob.models.BlockBlobItem;
 import com.azure.storage.blob.models.ListBlobsOptions;
+import com.azure.storage.blob.models.ParallelTransferOptions;
+import com.azure.storage.blob.options.BlobParallelUploadOptions;
+import com.azure.storage.blob.options.BlobUploadFromFileOptions;
 import it.pagopa.selfcare.azurestorage.error.SelfcareAzureStorageException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.ArgumentCaptor;
 import org.mockito.MockedConstruction;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockConstruction;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -46,6 +77,7 @@ class AzureBlobClientDefaultTest {
 
     private BlobContainerClient blobContainerClient;
     private BlobClient blobClient;
+    private BlobAsyncClient blobAsyncClient;
     private AzureBlobClientDefault client;
 
     @BeforeEach
@@ -57,17 +89,29 @@ class AzureBlobClientDefaultTest {
         when(blobServiceClient.getBlobContainerClient(CONTAINER_NAME)).thenReturn(blobContainerClient);
         when(blobContainerClient.getBlobClient(anyString())).thenReturn(blobClient);
 
-        try (MockedConstruction<BlobServiceClientBuilder> ignored = stubBuilder(blobServiceClient)) {
+        BlobServiceAsyncClient blobServiceAsyncClient = mock(BlobServiceAsyncClient.class);
+        BlobContainerAsyncClient blobContainerAsyncClient = mock(BlobContainerAsyncClient.class);
+        blobAsyncClient = mock(BlobAsyncClient.class);
+        when(blobServiceAsyncClient.getBlobContainerAsyncClient(CONTAINER_NAME)).thenReturn(blobContainerAsyncClient);
+        when(blobContainerAsyncClient.getBlobAsyncClient(anyString())).thenReturn(blobAsyncClient);
+
+        try (MockedConstruction<BlobServiceClientBuilder> ignored = stubBuilder(blobServiceClient, blobServiceAsyncClient)) {
             client = new AzureBlobClientDefault(CONTAINER_NAME, "acct", null);
         }
     }
 
     private static MockedConstruction<BlobServiceClientBuilder> stubBuilder(BlobServiceClient built) {
+        return stubBuilder(built, null);
+    }
+
+    private static MockedConstruction<BlobServiceClientBuilder> stubBuilder(BlobServiceClient built,
+                                                                            BlobServiceAsyncClient builtAsync) {
         return mockConstruction(BlobServiceClientBuilder.class, (mock, ctx) -> {
             when(mock.endpoint(anyString())).thenReturn(mock);
             when(mock.credential(any(com.azure.core.credential.TokenCredential.class))).thenReturn(mock);
             when(mock.connectionString(anyString())).thenReturn(mock);
             when(mock.buildClient()).thenReturn(built);
+            when(mock.buildAsyncClient()).thenReturn(builtAsync);
         });
     }
 
@@ -206,6 +250,127 @@ class AzureBlobClientDefaultTest {
         assertThrows(SelfcareAzureStorageException.class, () -> client.getFileAsText(FILE_PATH));
     }
 
+    // ---------------- getFileAsTextIfChanged ----------------
+
+    @Test
+    void getFileAsTextIfChanged_returnsTextAndETag() {
+        // given
+        BlobDownloadContentResponse response = mock(BlobDownloadContentResponse.class);
+        BlobDownloadHeaders headers = mock(BlobDownloadHeaders.class);
+        OffsetDateTime lastModified = OffsetDateTime.now();
+        when(response.getValue()).thenReturn(BinaryData.fromString("body"));
+        when(response.getDeserializedHeaders()).thenReturn(headers);
+        when(headers.getETag()).thenReturn("etag-2");
+        when(headers.getLastModified()).thenReturn(lastModified);
+        ArgumentCaptor<BlobRequestConditions> conditions = ArgumentCaptor.forClass(BlobRequestConditions.class);
+        when(blobClient.downloadContentWithResponse(any(), conditions.capture(), any(), any())).thenReturn(response);
+        // when
+        Optional<VersionedBlobText> result = client.getFileAsTextIfChanged(FILE_PATH, "etag-1");
+        // then
+        assertTrue(result.isPresent());
+        assertEquals("body", result.get().getContent());
+        assertEquals("etag-2", result.get().getETag());
+        assertEquals(lastModified, result.get().getLastModified());
+        assertEquals("etag-1", conditions.getValue().getIfNoneMatch());
+    }
+
+    @Test
+    void getFileAsTextIfChanged_whenNotModified_returnsEmpty() {
+        // given
+        BlobStorageException ex = blobStorageException(304);
+        when(blobClient.downloadContentWithResponse(any(), any(), any(), any())).thenThrow(ex);
+        // when
+        Optional<VersionedBlobText> result = client.getFileAsTextIfChanged(FILE_PATH, "etag-1");
+        // then
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    void getFileAsTextIfChanged_whenError_throws() {
+        // given
+        BlobStorageException ex = blobStorageException(500);
+        when(blobClient.downloadContentWithResponse(any(), any(), any(), any())).thenThrow(ex);
+        // when / then
+        assertThrows(SelfcareAzureStorageException.class, () -> client.getFileAsTextIfChanged(FILE_PATH, "etag-1"));
+    }
+
+    @Test
+    void getFileAsTextIfChanged_byDefault_downloadsWholeFile() {
+        // given
+        AzureBlobClient unconditional = mock(AzureBlobClient.class, CALLS_REAL_METHODS);
+        doReturn("body").when(unconditional).getFileAsText(FILE_PATH);
+        // when
+        Optional<VersionedBlobText> result = unconditional.getFileAsTextIfChanged(FILE_PATH, "etag-1");
+        // then
+        assertTrue(result.isPresent());
+        assertEquals("body", result.get().getContent());
+        assertNull(result.get().getETag());
+        verify(unconditional).getFileAsText(FILE_PATH);
+    }
+
+    // ---------------- getFileIfChanged ----------------
+
+    @Test
+    void getFileIfChanged_returnsBytesAndETag() {
+        // given
+        BlobDownloadContentResponse response = mock(BlobDownloadContentResponse.class);
+        BlobDownloadHeaders headers = mock(BlobDownloadHeaders.class);
+        when(response.getValue()).thenReturn(BinaryData.fromBytes(new byte[]{1, 2, 3}));
+        when(response.getDeserializedHeaders()).thenReturn(headers);
+        when(headers.getETag()).thenReturn("etag-2");
+        when(blobClient.downloadContentWithResponse(any(), any(), any(), any())).thenReturn(response);
+        // when
+        Optional<VersionedBlob> result = client.getFileIfChanged(FILE_PATH, null);
+        // then
+        assertTrue(result.isPresent());
+        assertArrayEquals(new byte[]{1, 2, 3}, result.get().getContent());
+        assertEquals("etag-2", result.get().getETag());
+    }
+
+    @Test
+    void getFileIfChanged_whenNotModified_returnsEmpty() {
+        // given
+        BlobStorageException ex = blobStorageException(304);
+        when(blobClient.downloadContentWithResponse(any(), any(), any(), any())).thenThrow(ex);
+        // when
+        Optional<VersionedBlob> result = client.getFileIfChanged(FILE_PATH, "etag-1");
+        // then
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    void getFileIfChanged_byDefault_downloadsWhenETagDiffers() {
+        // given
+        AzureBlobClient unconditional = mock(AzureBlobClient.class, CALLS_REAL_METHODS);
+        BlobProperties properties = mock(BlobProperties.class);
+        OffsetDateTime lastModified = OffsetDateTime.now();
+        when(properties.getETag()).thenReturn("etag-2");
+        when(properties.getLastModified()).thenReturn(lastModified);
+        doReturn(properties).when(unconditional).getProperties(FILE_PATH);
+        doReturn(new byte[]{1, 2, 3}).when(unconditional).getFile(FILE_PATH);
+        // when
+        Optional<VersionedBlob> result = unconditional.getFileIfChanged(FILE_PATH, "etag-1");
+        // then
+        assertTrue(result.isPresent());
+        assertArrayEquals(new byte[]{1, 2, 3}, result.get().getContent());
+        assertEquals("etag-2", result.get().getETag());
+        assertEquals(lastModified, result.get().getLastModified());
+    }
+
+    @Test
+    void getFileIfChanged_byDefault_whenETagMatches_skipsDownload() {
+        // given
+        AzureBlobClient unconditional = mock(AzureBlobClient.class, CALLS_REAL_METHODS);
+        BlobProperties properties = mock(BlobProperties.class);
+        when(properties.getETag()).thenReturn("etag-1");
+        doReturn(properties).when(unconditional).getProperties(FILE_PATH);
+        // when
+        Optional<VersionedBlob> result = unconditional.getFileIfChanged(FILE_PATH, "etag-1");
+        // then
+        assertTrue(result.isEmpty());
+        verify(unconditional, never()).getFile(FILE_PATH);
+    }
+
     // ---------------- getFileAsPdf ----------------
 
     @Test
@@ -228,6 +393,70 @@ class AzureBlobClientDefaultTest {
         assertThrows(SelfcareAzureStorageException.class, () -> client.getFileAsPdf(FILE_PATH));
     }
 
+    // ---------------- downloadFile ----------------
+
+    @Test
+    void downloadToStream_writesContent() {
+        // given
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        doAnswer(inv -> {
+            OutputStream os = inv.getArgument(0);
+            os.write(new byte[]{1, 2});
+            return null;
+        }).when(blobClient).downloadStream(any(OutputStream.class));
+        // when
+        client.downloadToStream(FILE_PATH, out);
+        // then
+        assertArrayEquals(new byte[]{1, 2}, out.toByteArray());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void downloadToPath_readsRangesInParallel() {
+        // given
+        Path destination = Paths.get("target", "download.pdf");
+        ArgumentCaptor<ParallelTransferOptions> transferOptions = ArgumentCaptor.forClass(ParallelTransferOptions.class);
+        ArgumentCaptor<Set<OpenOption>> openOptions = ArgumentCaptor.forClass(Set.class);
+        // when
+        client.downloadToFile(FILE_PATH, destination);
+        // then
+        verify(blobClient).downloadToFileWithResponse(eq(destination.toString()), any(), transferOptions.capture(),
+                any(), any(), anyBoolean(), openOptions.capture(), any(), any());
+        assertEquals(4, transferOptions.getValue().getMaxConcurrency());
+        assertTrue(openOptions.getValue().contains(StandardOpenOption.TRUNCATE_EXISTING));
+    }
+
+    @Test
+    void downloadToFile_whenError_throws() {
+        // given
+        BlobStorageException ex = blobStorageException(404);
+        when(blobClient.downloadToFileWithResponse(anyString(), any(), any(), any(), any(), anyBoolean(), any(), any(),
+                any())).thenThrow(ex);
+        Path destination = Paths.get("target", "download.pdf");
+        // when / then
+        assertThrows(SelfcareAzureStorageException.class, () -> client.downloadToFile(FILE_PATH, destination));
+    }
+
+    @Test
+    void downloadFileAsync_emitsContent() {
+        // given
+        when(blobAsyncClient.downloadStream()).thenReturn(Flux.just(ByteBuffer.wrap(new byte[]{1})));
+        // when
+        List<ByteBuffer> result = client.downloadFileAsync(FILE_PATH).collectList().block();
+        // then
+        assertEquals(1, result.size());
+    }
+
+    @Test
+    void downloadFileAsync_whenError_mapsException() {
+        // given
+        BlobStorageException ex = blobStorageException(500);
+        when(blobAsyncClient.downloadStream()).thenReturn(Flux.error(ex));
+        // when / then
+        Flux<ByteBuffer> result = client.downloadFileAsync(FILE_PATH);
+        assertThrows(SelfcareAzureStorageException.class, result::blockLast);
+    }
+
     // ---------------- retrieveFile ----------------
 
     @Test
@@ -284,6 +513,40 @@ class AzureBlobClientDefaultTest {
                 () -> client.uploadFile("dir", "f.txt", new byte[]{1}));
     }
 
+    @Test
+    void uploadFromFile_uploadsBlocksInParallel() {
+        // given
+        Path file = Paths.get("target", "signed.pdf");
+        ArgumentCaptor<BlobUploadFromFileOptions> options = ArgumentCaptor.forClass(BlobUploadFromFileOptions.class);
+        // when
+        String result = client.uploadFromFile("dir", "f.pdf", file);
+        // then
+        assertEquals(Paths.get("dir", "f.pdf").toString(), result);
+        verify(blobClient).uploadFromFileWithResponse(options.capture(), any(), any());
+        assertEquals(file.toString(), options.getValue().getFilePath());
+        assertEquals(4, options.getValue().getParallelTransferOptions().getMaxConcurrency());
+    }
+
+    @Test
+    void uploadFromFile_whenError_throws() {
+        // given
+        BlobStorageException ex = blobStorageException(500);
+        when(blobClient.uploadFromFileWithResponse(any(), any(), any())).thenThrow(ex);
+        Path file = Paths.get("target", "signed.pdf");
+        // when / then
+        assertThrows(SelfcareAzureStorageException.class, () -> client.uploadFromFile("dir", "f.pdf", file));
+    }
+
+    @Test
+    void uploadFromFile_whenFileUnreadable_throwsUncheckedIOException() {
+        // given
+        UncheckedIOException ex = new UncheckedIOException(new IOException("unreadable"));
+        when(blobClient.uploadFromFileWithResponse(any(), any(), any())).thenThrow(ex);
+        Path file = Paths.get("target", "signed.pdf");
+        // when / then
+        assertSame(ex, assertThrows(UncheckedIOException.class, () -> client.uploadFromFile("dir", "f.pdf", file)));
+    }
+
     // ---------------- uploadFilePath ----------------
 
     @Test
@@ -304,6 +567,40 @@ class AzureBlobClientDefaultTest {
                 () -> client.uploadFilePath(FILE_PATH, new byte[]{1}));
     }
 
+    @Test
+    void uploadFromStream_uploadsStream() {
+        // given
+        InputStream data = new ByteArrayInputStream(new byte[]{1});
+        ArgumentCaptor<BlobParallelUploadOptions> options = ArgumentCaptor.forClass(BlobParallelUploadOptions.class);
+        // when
+        String result = client.uploadFromStream(FILE_PATH, data);
+        // then
+        assertEquals(FILE_PATH, result);
+        verify(blobClient).uploadWithResponse(options.capture(), any(), any());
+        assertSame(data, options.getValue().getDataStream());
+    }
+
+    @Test
+    void uploadFileAsync_emitsFilepath() {
+        // given
+        Flux<ByteBuffer> data = Flux.just(ByteBuffer.wrap(new byte[]{1}));
+        when(blobAsyncClient.upload(eq(data), any(), eq(true))).thenReturn(Mono.just(mock(BlockBlobItem.class)));
+        // when
+        String result = client.uploadFileAsync(FILE_PATH, data).block();
+        // then
+        assertEquals(FILE_PATH, result);
+    }
+
+    @Test
+    void uploadFileAsync_whenError_mapsException() {
+        // given
+        BlobStorageException ex = blobStorageException(500);
+        when(blobAsyncClient.upload(any(Flux.class), any(), anyBoolean())).thenReturn(Mono.error(ex));
+        // when / then
+        Mono<String> result = client.uploadFileAsync(FILE_PATH, Flux.empty());
+        assertThrows(SelfcareAzureStorageException.class, result::block);
+    }
+
     // ---------------- removeFile ----------------
 
     @Test
@@ -418,5 +715,94 @@ class AzureBlobClientDefaultTest {
         // then
         assertTrue(result.isEmpty());
     }
-}
 
+    // ---------------- default transfer methods ----------------
+
+    @Test
+    void downloadToStream_byDefault_writesWholeFile() {
+        // given
+        AzureBlobClient buffered = mock(AzureBlobClient.class, CALLS_REAL_METHODS);
+        doReturn(new byte[]{1, 2, 3}).when(buffered).getFile(FILE_PATH);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        // when
+        buffered.downloadToStream(FILE_PATH, out);
+        // then
+        assertArrayEquals(new byte[]{1, 2, 3}, out.toByteArray());
+    }
+
+    @Test
+    void downloadToFile_byDefault_overwritesDestination(@TempDir Path tempDir) throws IOException {
+        // given
+        AzureBlobClient buffered = mock(AzureBlobClient.class, CALLS_REAL_METHODS);
+        doReturn(new byte[]{1, 2}).when(buffered).getFile(FILE_PATH);
+        Path destination = Files.write(tempDir.resolve("file.txt"), new byte[]{9, 9, 9, 9});
+        // when
+        buffered.downloadToFile(FILE_PATH, destination);
+        // then
+        assertArrayEquals(new byte[]{1, 2}, Files.readAllBytes(destination));
+    }
+
+    @Test
+    void downloadFileAsync_byDefault_emitsWholeFile() {
+        // given
+        AzureBlobClient buffered = mock(AzureBlobClient.class, CALLS_REAL_METHODS);
+        doReturn(new byte[]{1, 2, 3}).when(buffered).getFile(FILE_PATH);
+        // when
+        List<ByteBuffer> result = buffered.downloadFileAsync(FILE_PATH).collectList().block();
+        // then
+        assertEquals(List.of(ByteBuffer.wrap(new byte[]{1, 2, 3})), result);
+    }
+
+    @Test
+    void uploadFromFile_byDefault_uploadsFileContent(@TempDir Path tempDir) throws IOException {
+        // given
+        AzureBlobClient buffered = mock(AzureBlobClient.class, CALLS_REAL_METHODS);
+        Path file = Files.write(tempDir.resolve("local.pdf"), new byte[]{1, 2, 3});
+        doReturn("dir/file.pdf").when(buffered).uploadFile(eq("dir"), eq("file.pdf"), any());
+        // when
+        String result = buffered.uploadFromFile("dir", "file.pdf", file);
+        // then
+        assertEquals("dir/file.pdf", result);
+        ArgumentCaptor<byte[]> captor = ArgumentCaptor.forClass(byte[].class);
+        verify(buffered).uploadFile(eq("dir"), eq("file.pdf"), captor.capture());
+        assertArrayEquals(new byte[]{1, 2, 3}, captor.getValue());
+    }
+
+    @Test
+    void uploadFromFile_byDefault_whenFileMissing_throwsUncheckedIOException(@TempDir Path tempDir) {
+        // given
+        AzureBlobClient buffered = mock(AzureBlobClient.class, CALLS_REAL_METHODS);
+        Path missing = tempDir.resolve("missing.pdf");
+        // when / then
+        assertThrows(UncheckedIOException.class, () -> buffered.uploadFromFile("dir", "file.pdf", missing));
+    }
+
+    @Test
+    void uploadFromStream_byDefault_uploadsStreamContent() {
+        // given
+        AzureBlobClient buffered = mock(AzureBlobClient.class, CALLS_REAL_METHODS);
+        doReturn(FILE_PATH).when(buffered).uploadFilePath(eq(FILE_PATH), any());
+        // when
+        String result = buffered.uploadFromStream(FILE_PATH, new ByteArrayInputStream(new byte[]{1, 2, 3}));
+        // then
+        assertEquals(FILE_PATH, result);
+        ArgumentCaptor<byte[]> captor = ArgumentCaptor.forClass(byte[].class);
+        verify(buffered).uploadFilePath(eq(FILE_PATH), captor.capture());
+        assertArrayEquals(new byte[]{1, 2, 3}, captor.getValue());
+    }
+
+    @Test
+    void uploadFileAsync_byDefault_uploadsAllChunks() {
+        // given
+        AzureBlobClient buffered = mock(AzureBlobClient.class, CALLS_REAL_METHODS);
+        doReturn(FILE_PATH).when(buffered).uploadFilePath(eq(FILE_PATH), any());
+        Flux<ByteBuffer> data = Flux.just(ByteBuffer.wrap(new byte[]{1, 2}), ByteBuffer.wrap(new byte[]{3}));
+        // when
+        String result = buffered.uploadFileAsync(FILE_PATH, data).block();
+        // then
+        assertEquals(FILE_PATH, result);
+        ArgumentCaptor<byte[]> captor = ArgumentCaptor.forClass(byte[].class);
+        verify(buffered).uploadFilePath(eq(FILE_PATH), captor.capture());
+        assertArrayEquals(new byte[]{1, 2, 3}, captor.getValue());
+    }
+}
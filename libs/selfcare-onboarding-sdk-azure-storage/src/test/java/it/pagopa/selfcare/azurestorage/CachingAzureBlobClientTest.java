@@ -0,0 +1,182 @@
+package it.pagopa.selfcare.azurestorage;
+
+import com.azure.storage.blob.models.BlobProperties;
+import it.pagopa.selfcare.azurestorage.error.SelfcareAzureStorageException;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CachingAzureBlobClientTest {
+
+    private static final String FILE_PATH = "folder/template.json";
+
+    private final AzureBlobClient delegate = mock(AzureBlobClient.class);
+
+    @Test
+    void getFileAsText_servesCachedContentUntilRevalidation() {
+        // given
+        CachingAzureBlobClient client = new CachingAzureBlobClient(delegate, 1024, Duration.ofHours(1));
+        when(delegate.getFileIfChanged(FILE_PATH, null)).thenReturn(Optional.of(blob("body", "etag-1")));
+        // when
+        String first = client.getFileAsText(FILE_PATH);
+        String second = client.getFileAsText(FILE_PATH);
+        // then
+        assertEquals("body", first);
+        assertEquals("body", second);
+        verify(delegate, times(1)).getFileIfChanged(any(), any());
+        assertEquals(1, client.getMissCount());
+        assertEquals(1, client.getHitCount());
+    }
+
+    @Test
+    void getFileAsText_revalidatesWithETag() {
+        // given
+        CachingAzureBlobClient client = new CachingAzureBlobClient(delegate, 1024, Duration.ZERO);
+        when(delegate.getFileIfChanged(FILE_PATH, null)).thenReturn(Optional.of(blob("body", "etag-1")));
+        when(delegate.getFileIfChanged(FILE_PATH, "etag-1")).thenReturn(Optional.empty());
+        // when
+        client.getFileAsText(FILE_PATH);
+        String result = client.getFileAsText(FILE_PATH);
+        // then
+        assertEquals("body", result);
+        verify(delegate).getFileIfChanged(FILE_PATH, "etag-1");
+        assertEquals(1, client.getNotModifiedCount());
+    }
+
+    @Test
+    void getFileAsText_replacesChangedContent() {
+        // given
+        CachingAzureBlobClient client = new CachingAzureBlobClient(delegate, 1024, Duration.ZERO);
+        when(delegate.getFileIfChanged(FILE_PATH, null)).thenReturn(Optional.of(blob("body", "etag-1")));
+        when(delegate.getFileIfChanged(FILE_PATH, "etag-1")).thenReturn(Optional.of(blob("new body", "etag-2")));
+        // when
+        client.getFileAsText(FILE_PATH);
+        String result = client.getFileAsText(FILE_PATH);
+        // then
+        assertEquals("new body", result);
+        assertEquals(2, client.getMissCount());
+        assertEquals("new body".length(), client.getSizeBytes());
+    }
+
+    @Test
+    void getFileAsText_whenRevalidationFails_servesCachedContent() {
+        // given
+        CachingAzureBlobClient client = new CachingAzureBlobClient(delegate, 1024, Duration.ZERO);
+        when(delegate.getFileIfChanged(FILE_PATH, null)).thenReturn(Optional.of(blob("body", "etag-1")));
+        when(delegate.getFileIfChanged(FILE_PATH, "etag-1")).thenThrow(new SelfcareAzureStorageException("down", "0000"));
+        // when
+        client.getFileAsText(FILE_PATH);
+        String result = client.getFileAsText(FILE_PATH);
+        // then
+        assertEquals("body", result);
+    }
+
+    @Test
+    void getFileAsText_whenNotCachedAndDownloadFails_throws() {
+        // given
+        CachingAzureBlobClient client = new CachingAzureBlobClient(delegate, 1024, Duration.ofHours(1));
+        when(delegate.getFileIfChanged(FILE_PATH, null)).thenThrow(new SelfcareAzureStorageException("down", "0000"));
+        // when / then
+        assertThrows(SelfcareAzureStorageException.class, () -> client.getFileAsText(FILE_PATH));
+    }
+
+    @Test
+    void getFile_evictsLeastRecentlyUsed() {
+        // given
+        CachingAzureBlobClient client = new CachingAzureBlobClient(delegate, 8, Duration.ofHours(1));
+        when(delegate.getFileIfChanged("a", null)).thenReturn(Optional.of(blob("aaaa", "etag-a")));
+        when(delegate.getFileIfChanged("b", null)).thenReturn(Optional.of(blob("bbbb", "etag-b")));
+        when(delegate.getFileIfChanged("c", null)).thenReturn(Optional.of(blob("cccc", "etag-c")));
+        // when
+        client.getFile("a");
+        client.getFile("b");
+        client.getFile("a");
+        client.getFile("c");
+        client.getFile("a");
+        client.getFile("b");
+        // then
+        verify(delegate, times(1)).getFileIfChanged("a", null);
+        verify(delegate, times(2)).getFileIfChanged("b", null);
+        assertEquals(2, client.getEvictionCount());
+        assertEquals(8, client.getSizeBytes());
+    }
+
+    @Test
+    void getFile_doesNotCacheFilesLargerThanMaxSize() {
+        // given
+        CachingAzureBlobClient client = new CachingAzureBlobClient(delegate, 2, Duration.ofHours(1));
+        when(delegate.getFileIfChanged(FILE_PATH, null)).thenReturn(Optional.of(blob("body", "etag-1")));
+        // when
+        client.getFile(FILE_PATH);
+        byte[] result = client.getFile(FILE_PATH);
+        // then
+        assertArrayEquals("body".getBytes(StandardCharsets.UTF_8), result);
+        verify(delegate, times(2)).getFileIfChanged(FILE_PATH, null);
+        assertEquals(0, client.getSizeBytes());
+    }
+
+    @Test
+    void getFileAsPdf_writesCachedContentToNewFile() throws Exception {
+        // given
+        CachingAzureBlobClient client = new CachingAzureBlobClient(delegate, 1024, Duration.ofHours(1));
+        when(delegate.getFileIfChanged("folder/contract.pdf", null)).thenReturn(Optional.of(blob("pdf", "etag-1")));
+        // when
+        File first = client.getFileAsPdf("folder/contract.pdf");
+        File second = client.getFileAsPdf("folder/contract.pdf");
+        first.deleteOnExit();
+        second.deleteOnExit();
+        // then
+        assertTrue(second.getName().endsWith(".pdf"));
+        assertArrayEquals("pdf".getBytes(StandardCharsets.UTF_8), Files.readAllBytes(second.toPath()));
+        verify(delegate, times(1)).getFileIfChanged(any(), any());
+    }
+
+    @Test
+    void uploadFilePath_invalidatesCachedContent() {
+        // given
+        CachingAzureBlobClient client = new CachingAzureBlobClient(delegate, 1024, Duration.ofHours(1));
+        when(delegate.getFileIfChanged(FILE_PATH, null)).thenReturn(Optional.of(blob("body", "etag-1")));
+        when(delegate.uploadFilePath(eq(FILE_PATH), any())).thenReturn(FILE_PATH);
+        // when
+        client.getFileAsText(FILE_PATH);
+        client.uploadFilePath(FILE_PATH, new byte[0]);
+        client.getFileAsText(FILE_PATH);
+        // then
+        verify(delegate, times(2)).getFileIfChanged(eq(FILE_PATH), isNull());
+    }
+
+    @Test
+    void getProperties_cachedUntilRevalidation() {
+        // given
+        CachingAzureBlobClient client = new CachingAzureBlobClient(delegate, 1024, Duration.ofHours(1));
+        BlobProperties properties = mock(BlobProperties.class);
+        when(delegate.getProperties(FILE_PATH)).thenReturn(properties);
+        // when
+        client.getProperties(FILE_PATH);
+        BlobProperties result = client.getProperties(FILE_PATH);
+        // then
+        assertSame(properties, result);
+        verify(delegate, times(1)).getProperties(FILE_PATH);
+    }
+
+    private static VersionedBlob blob(String content, String eTag) {
+        return new VersionedBlob(content.getBytes(StandardCharsets.UTF_8), eTag, null);
+    }
+}
@@ -3,30 +3,54 @@ package it.pagopa.selfcare.product.service;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import it.pagopa.selfcare.azurestorage.AzureBlobClient;
 import it.pagopa.selfcare.azurestorage.AzureBlobClientDefault;
+import it.pagopa.selfcare.azurestorage.VersionedBlobText;
 import it.pagopa.selfcare.onboarding.common.PartyRole;
 import it.pagopa.selfcare.product.entity.Product;
 import it.pagopa.selfcare.product.entity.ProductRole;
 import it.pagopa.selfcare.product.entity.ProductRoleInfo;
 import it.pagopa.selfcare.product.exception.ProductNotFoundException;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+/**
+ * {@link ProductService} reading the products from a JSON file on Blob Storage.
+ *
+ * <p>By default the file properties are checked on every call and the products are reloaded when
+ * the file has changed. When built with a {@code refreshInterval} the file is instead polled in
+ * background with a conditional download: calls only read the last loaded products, which are
+ * replaced atomically when a new version of the file is parsed.
+ */
 public class ProductServiceCacheable implements ProductService {
-  protected LocalDateTime productLastModifiedDate;
+  private static final Logger log = LoggerFactory.getLogger(ProductServiceCacheable.class);
+
+  protected volatile LocalDateTime productLastModifiedDate;
   private final AzureBlobClient azureBlobClient;
-  private ProductServiceDefault productService;
+  private volatile ProductServiceDefault productService;
+  private volatile String productETag;
+  private volatile Instant productCheckedAt;
+  private final ScheduledExecutorService refreshScheduler;
   final String filePath;
 
   public ProductServiceCacheable(String connectionString, String containerName, String filePath) {
     this.azureBlobClient = new AzureBlobClientDefault(connectionString, containerName);
     this.filePath = filePath;
+    this.refreshScheduler = null;
     refreshProduct();
   }
 
   public ProductServiceCacheable(AzureBlobClient azureBlobClient, String filePath) {
     this.azureBlobClient = azureBlobClient;
     this.filePath = filePath;
+    this.refreshScheduler = null;
     refreshProduct();
   }
 
@@ -34,9 +58,39 @@ public class ProductServiceCacheable implements ProductService {
                                   String accountName, String managedIdentityClientId) {
     this.azureBlobClient = new AzureBlobClientDefault(containerName, accountName, managedIdentityClientId);
     this.filePath = filePath;
+    this.refreshScheduler = null;
     refreshProduct();
   }
 
+  public ProductServiceCacheable(String connectionString, String containerName, String filePath,
+                                 Duration refreshInterval) {
+    this(new AzureBlobClientDefault(connectionString, containerName), filePath, refreshInterval);
+  }
+
+  public ProductServiceCacheable(String containerName, String filePath, String accountName,
+                                 String managedIdentityClientId, Duration refreshInterval) {
+    this(new AzureBlobClientDefault(containerName, accountName, managedIdentityClientId), filePath,
+        refreshInterval);
+  }
+
+  /**
+   * Loads the products and then polls the file every {@code refreshInterval} in background; a
+   * failed poll keeps the products already loaded.
+   */
+  public ProductServiceCacheable(AzureBlobClient azureBlobClient, String filePath,
+                                 Duration refreshInterval) {
+    this.azureBlobClient = azureBlobClient;
+    this.filePath = filePath;
+    reloadIfChanged();
+    this.refreshScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "product-refresh");
+      thread.setDaemon(true);
+      return thread;
+    });
+    refreshScheduler.scheduleWithFixedDelay(this::refreshInBackground,
+        refreshInterval.toMillis(), refreshInterval.toMillis(), TimeUnit.MILLISECONDS);
+  }
+
   public void refreshProduct() {
     LocalDateTime currentLastModifiedDate =
         azureBlobClient.getProperties(filePath).getLastModified().toLocalDateTime();
@@ -50,24 +104,70 @@ public class ProductServiceCacheable implements ProductService {
       }
       this.productLastModifiedDate = currentLastModifiedDate;
     }
+    this.productCheckedAt = Instant.now();
+  }
+
+  /**
+   * Time elapsed since the products were last found up to date with the file, to be exposed as a
+   * metric: with background refresh it grows while the file cannot be read.
+   */
+  public Duration getSnapshotAge() {
+    return Duration.between(productCheckedAt, Instant.now());
+  }
+
+  /** Stops the background refresh, if any. */
+  public void close() {
+    if (refreshScheduler != null) {
+      refreshScheduler.shutdownNow();
+    }
+  }
+
+  private void reloadIfChanged() {
+    Optional<VersionedBlobText> changed =
+        azureBlobClient.getFileAsTextIfChanged(filePath, productETag);
+    if (changed.isPresent()) {
+      try {
+        this.productService = new ProductServiceDefault(changed.get().getContent());
+      } catch (JsonProcessingException e) {
+        throw new IllegalArgumentException(e.getMessage());
+      }
+      this.productETag = changed.get().getETag();
+      if (changed.get().getLastModified() != null) {
+        this.productLastModifiedDate = changed.get().getLastModified().toLocalDateTime();
+      }
+    }
+    this.productCheckedAt = Instant.now();
+  }
+
+  private void refreshInBackground() {
+    try {
+      reloadIfChanged();
+    } catch (RuntimeException e) {
+      log.error("Error refreshing products from {}, snapshot age is {}: {}", filePath,
+          getSnapshotAge(), e.getMessage());
+    }
+  }
+
+  private ProductServiceDefault products() {
+    if (refreshScheduler == null) {
+      refreshProduct();
+    }
+    return productService;
   }
 
   @Override
   public List<Product> getProducts(boolean rootOnly, boolean valid) {
-    refreshProduct();
-    return productService.getProducts(rootOnly, valid);
+    return products().getProducts(rootOnly, valid);
   }
 
   @Override
   public void validateRoleMappings(Map<PartyRole, ? extends ProductRoleInfo> roleMappings) {
-    refreshProduct();
-    productService.validateRoleMappings(roleMappings);
+    products().validateRoleMappings(roleMappings);
   }
 
   @Override
   public Product getProduct(String productId) {
-    refreshProduct();
-    return productService.getProduct(productId);
+    return products().getProduct(productId);
   }
 
   /**
@@ -86,31 +186,26 @@ public class ProductServiceCacheable implements ProductService {
 
   @Override
   public Product getProductIsValid(String productId) {
-    refreshProduct();
-    return productService.getProductIsValid(productId);
+    return products().getProductIsValid(productId);
   }
 
   @Override
   public ProductRole validateProductRole(String productId, String productRole, PartyRole role) {
-    refreshProduct();
-    return productService.validateProductRole(productId, productRole, role);
+    return products().validateProductRole(productId, productRole, role);
   }
 
   @Override
   public boolean verifyAllowedByInstitutionTaxCode(String productId, String taxCode) {
-    refreshProduct();
-    return productService.verifyAllowedByInstitutionTaxCode(productId, taxCode);
+    return products().verifyAllowedByInstitutionTaxCode(productId, taxCode);
   }
 
   @Override
   public Integer getProductExpirationDate(String productId) {
-    refreshProduct();
-    return productService.getProductExpirationDate(productId);
+    return products().getProductExpirationDate(productId);
   }
 
   @Override
   public boolean isProductEnabled(String productId) {
-    refreshProduct();
-    return productService.isProductEnabled(productId);
+    return products().isProductEnabled(productId);
   }
 }
@@ -1,7 +1,5 @@
 package it.pagopa.selfcare.product.service;
 
-import static it.pagopa.selfcare.product.utils.ProductUtils.getProductRole;
-
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
@@ -23,10 +21,48 @@ public class ProductServiceDefault implements ProductService {
 
     protected static final String REQUIRED_PRODUCT_ID_MESSAGE = "A product id is required";
     private static final int DEFAULT_EXPIRATION_DATE = 30;
+    private static final Set<ProductStatus> NOT_VALID_STATUSES = EnumSet.of(ProductStatus.INACTIVE, ProductStatus.PHASE_OUT);
 
     final Map<String, Product> productsMap;
+    private final List<Product> products;
+    private final List<Product> validProducts;
+    private final List<Product> rootProducts;
+    private final List<Product> validRootProducts;
+    private final Map<String, Map<PartyRole, Map<String, ProductRole>>> productRolesMap;
 
     public ProductServiceDefault(String productString) throws JsonProcessingException {
+        this(productString, defaultMapper());
+    }
+
+    public ProductServiceDefault(String productString, ObjectMapper mapper) throws JsonProcessingException {
+        this(constructProductsMap(productString, mapper));
+    }
+
+    /**
+     * Compiles the catalog once: parent links are resolved, the lists returned by {@link #getProducts(boolean, boolean)}
+     * and the product roles by party role and code are precomputed, so that reads neither allocate nor mutate products.
+     */
+    private ProductServiceDefault(Map<String, Product> productsMap) {
+        productsMap.values().forEach(product ->
+                Optional.ofNullable(product.getParentId())
+                        .map(productsMap::get)
+                        .ifPresent(product::setParent));
+        this.productsMap = Collections.unmodifiableMap(productsMap);
+        this.products = List.copyOf(productsMap.values());
+        this.validProducts = products.stream()
+                .filter(product -> !statusIsNotValid(product.getStatus()))
+                .toList();
+        this.rootProducts = products.stream()
+                .filter(product -> Objects.isNull(product.getParentId()))
+                .toList();
+        this.validRootProducts = rootProducts.stream()
+                .filter(product -> !statusIsNotValid(product.getStatus()))
+                .toList();
+        this.productRolesMap = productsMap.values().stream()
+                .collect(Collectors.toUnmodifiableMap(Product::getId, ProductServiceDefault::constructProductRolesMap));
+    }
+
+    private static ObjectMapper defaultMapper() {
         /* define object mapper */
         ObjectMapper mapper = new ObjectMapper();
         mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
@@ -34,15 +70,10 @@ public class ProductServiceDefault implements ProductService {
         mapper.registerModule(new JavaTimeModule());
         mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
         mapper.registerModule(new Jdk8Module());
-
-        this.productsMap = constructProductsMap(productString, mapper);
-    }
-
-    public ProductServiceDefault(String productString, ObjectMapper mapper) throws JsonProcessingException {
-        this.productsMap = constructProductsMap(productString, mapper);
+        return mapper;
     }
 
-    private Map<String, Product> constructProductsMap(String productString, ObjectMapper mapper) throws JsonProcessingException {
+    private static Map<String, Product> constructProductsMap(String productString, ObjectMapper mapper) throws JsonProcessingException {
         List<Product> productList = mapper.readValue(productString, new TypeReference<List<Product>>() {
         });
         if (Objects.isNull(productList) || productList.isEmpty())
@@ -51,23 +82,39 @@ public class ProductServiceDefault implements ProductService {
                 .collect(Collectors.toMap(Product::getId, Function.identity()));
     }
 
+    /**
+     * Indexes the product roles of every role mapping of the product by party role and code. As in
+     * {@link it.pagopa.selfcare.product.utils.ProductUtils#getProductRole}, the first product role found for a code wins.
+     */
+    private static Map<PartyRole, Map<String, ProductRole>> constructProductRolesMap(Product product) {
+        Map<PartyRole, Map<String, ProductRole>> rolesMap = new EnumMap<>(PartyRole.class);
+        product.getAllRoleMappings().forEach((partyRole, productRoleInfos) -> {
+            if (Objects.isNull(productRoleInfos) || productRoleInfos.isEmpty()) {
+                return;
+            }
+            Map<String, ProductRole> productRoles = new HashMap<>();
+            productRoleInfos.stream()
+                    .filter(productRoleInfo -> Objects.nonNull(productRoleInfo.getRoles()))
+                    .flatMap(productRoleInfo -> productRoleInfo.getRoles().stream())
+                    .filter(productRole -> Objects.nonNull(productRole.getCode()))
+                    .forEach(productRole -> productRoles.putIfAbsent(productRole.getCode(), productRole));
+            rolesMap.put(partyRole, Collections.unmodifiableMap(productRoles));
+        });
+        return Collections.unmodifiableMap(rolesMap);
+    }
+
     /**
      * Returns the list of PagoPA products tree which are not INACTIVE
      *
      * @param rootOnly if true only product that has parent is null are returned
-     * @return List of PagoPA products
+     * @return unmodifiable List of PagoPA products
      */
     @Override
     public List<Product> getProducts(boolean rootOnly, boolean valid) {
-
-        return rootOnly
-                ? productsMap.values().stream()
-                .filter(product -> Objects.isNull(product.getParentId()))
-                .filter(product -> !valid || !statusIsNotValid(product.getStatus()))
-                .collect(Collectors.toList())
-                : productsMap.values().stream()
-                .filter(product -> !valid || !statusIsNotValid(product.getStatus()))
-                .collect(Collectors.toList());
+        if (rootOnly) {
+            return valid ? validRootProducts : rootProducts;
+        }
+        return valid ? validProducts : products;
     }
 
     /**
@@ -141,8 +188,6 @@ public class ProductServiceDefault implements ProductService {
             if (filterValid && statusIsNotValid(parent.getStatus())) {
                 throw new ProductNotFoundException(String.format("Product with id %s has status %s", product.getParentId(), parent.getStatus()));
             }
-
-            product.setParent(parent);
         }
 
         return product;
@@ -172,12 +217,16 @@ public class ProductServiceDefault implements ProductService {
         }
 
         Product product = getProduct(productId);
-        return Optional.ofNullable(getProductRole(productRole, role, product))
-                .orElseThrow(() -> new IllegalArgumentException(String.format("RoleMappings map for product %s not found", productId)));
+        Map<String, ProductRole> productRoles = productRolesMap.get(product.getId()).get(role);
+        if (Objects.isNull(productRoles)) {
+            throw new IllegalArgumentException(String.format("Role %s not found", role));
+        }
+        return Optional.ofNullable(productRoles.get(productRole))
+                .orElseThrow(() -> new IllegalArgumentException(String.format("ProductRole %s not found for role %s", productRole, role)));
     }
 
     private static boolean statusIsNotValid(ProductStatus status) {
-        return List.of(ProductStatus.INACTIVE, ProductStatus.PHASE_OUT).contains(status);
+        return Objects.nonNull(status) && NOT_VALID_STATUSES.contains(status);
     }
 
     /**
@@ -0,0 +1,100 @@
+package it.pagopa.selfcare.product.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import it.pagopa.selfcare.onboarding.common.PartyRole;
+import it.pagopa.selfcare.product.entity.Product;
+import it.pagopa.selfcare.product.entity.ProductRole;
+import it.pagopa.selfcare.product.entity.ProductStatus;
+import it.pagopa.selfcare.product.utils.ProductUtils;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Compares the reads of the compiled catalog (resolved parents, precomputed product lists and role indexes) with the
+ * per-call filtering and linear role scan they replace, over a generated catalog of {@link #NUM_PRODUCTS} products,
+ * half of them children of another product, with {@link #NUM_ROLES} product roles per party role.
+ * <p>
+ * The product and the role looked up are the last ones generated, the worst case for the linear scan, and
+ * {@code getProductsRootValidFiltered} repeats at every call the filtering that the compiled catalog does once, when
+ * it is built. Run it with {@code main}, which adds the GC profiler to compare the allocations of the two sides.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgs = {"-Xms1g", "-Xmx1g"})
+public class ProductServiceBenchmark {
+
+    private static final int NUM_PRODUCTS = 40;
+    private static final int NUM_ROLES = 10;
+    private static final String PRODUCT_ID = "prod-" + (NUM_PRODUCTS - 1);
+    private static final String PRODUCT_ROLE = "role-" + (NUM_ROLES - 1);
+
+    private ProductServiceDefault productService;
+
+    @Setup
+    public void setup() throws JsonProcessingException {
+        productService = new ProductServiceDefault(createCatalog());
+    }
+
+    @Benchmark
+    public Product getProduct() {
+        return productService.getProduct(PRODUCT_ID);
+    }
+
+    @Benchmark
+    public List<Product> getProductsRootValid() {
+        return productService.getProducts(true, true);
+    }
+
+    @Benchmark
+    public List<Product> getProductsRootValidFiltered() {
+        return productService.productsMap.values().stream()
+                .filter(product -> Objects.isNull(product.getParentId()))
+                .filter(product -> !List.of(ProductStatus.INACTIVE, ProductStatus.PHASE_OUT).contains(product.getStatus()))
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public ProductRole validateProductRole() {
+        return productService.validateProductRole(PRODUCT_ID, PRODUCT_ROLE, PartyRole.OPERATOR);
+    }
+
+    @Benchmark
+    public ProductRole validateProductRoleLinearScan() {
+        return ProductUtils.getProductRole(PRODUCT_ROLE, PartyRole.OPERATOR, productService.getProduct(PRODUCT_ID));
+    }
+
+    private static String createCatalog() {
+        String roles = IntStream.range(0, NUM_ROLES)
+                .mapToObj(i -> "{\"code\":\"role-" + i + "\",\"label\":\"Role " + i + "\"}")
+                .collect(Collectors.joining(",", "[", "]"));
+        String roleMappings = "{\"MANAGER\":{\"roles\":[{\"code\":\"admin\"}]},\"OPERATOR\":{\"roles\":" + roles + "}}";
+        return IntStream.range(0, NUM_PRODUCTS)
+                .mapToObj(i -> "{\"id\":\"prod-" + i + "\""
+                        + (i % 2 == 1 ? ",\"parentId\":\"prod-" + (i - 1) + "\"" : "")
+                        + ",\"status\":\"" + (i % 5 == 0 ? "PHASE_OUT" : "ACTIVE") + "\""
+                        + ",\"roleMappings\":" + roleMappings
+                        + ",\"roleMappingsByInstitutionType\":{\"PA\":" + roleMappings + "}}")
+                .collect(Collectors.joining(",", "[", "]"));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ProductServiceBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build())
+                .run();
+    }
+
+}
@@ -2,6 +2,7 @@ package it.pagopa.selfcare.product.service;
 
 import com.azure.storage.blob.models.BlobProperties;
 import it.pagopa.selfcare.azurestorage.AzureBlobClient;
+import it.pagopa.selfcare.azurestorage.VersionedBlobText;
 import it.pagopa.selfcare.onboarding.common.PartyRole;
 import it.pagopa.selfcare.product.entity.Product;
 import it.pagopa.selfcare.product.entity.ProductRole;
@@ -11,10 +12,12 @@ import it.pagopa.selfcare.product.exception.ProductNotFoundException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.function.Executable;
 
+import java.time.Duration;
 import java.time.OffsetDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -276,6 +279,62 @@ class ProductServiceCacheableTest {
 
     }
 
+    @Test
+    void backgroundRefresh_readsSnapshotWithoutCallingStorage() {
+        // given
+        AzureBlobClient azureBlobClient = mock(AzureBlobClient.class);
+        when(azureBlobClient.getFileAsTextIfChanged("filePath", null))
+                .thenReturn(Optional.of(new VersionedBlobText(PRODUCT_JSON_STRING, "etag-1", OffsetDateTime.now())));
+        ProductServiceCacheable productServiceCacheable = new ProductServiceCacheable(azureBlobClient, "filePath", Duration.ofMinutes(1));
+
+        // when
+        Product product = productServiceCacheable.getProduct("prod-test");
+        productServiceCacheable.close();
+
+        // then
+        assertEquals("prod-test", product.getId());
+        assertNotNull(productServiceCacheable.productLastModifiedDate);
+        assertTrue(productServiceCacheable.getSnapshotAge().compareTo(Duration.ofMinutes(1)) < 0);
+        verify(azureBlobClient, times(1)).getFileAsTextIfChanged(any(), any());
+        verify(azureBlobClient, never()).getProperties(any());
+    }
+
+    @Test
+    void backgroundRefresh_swapsSnapshotWhenFileChanges() {
+        // given
+        AzureBlobClient azureBlobClient = mock(AzureBlobClient.class);
+        when(azureBlobClient.getFileAsTextIfChanged("filePath", null))
+                .thenReturn(Optional.of(new VersionedBlobText(PRODUCT_JSON_STRING, "etag-1", OffsetDateTime.now())));
+        when(azureBlobClient.getFileAsTextIfChanged("filePath", "etag-1"))
+                .thenReturn(Optional.of(new VersionedBlobText(PRODUCT_JSON_STRING_WITH_ROLEMAPPING, "etag-2", OffsetDateTime.now())));
+        when(azureBlobClient.getFileAsTextIfChanged("filePath", "etag-2")).thenReturn(Optional.empty());
+
+        // when
+        ProductServiceCacheable productServiceCacheable = new ProductServiceCacheable(azureBlobClient, "filePath", Duration.ofMillis(20));
+        verify(azureBlobClient, timeout(1000).atLeastOnce()).getFileAsTextIfChanged("filePath", "etag-2");
+        productServiceCacheable.close();
+
+        // then
+        assertDoesNotThrow(() -> productServiceCacheable.validateProductRole("prod-test", "operatore", PartyRole.MANAGER));
+    }
+
+    @Test
+    void backgroundRefresh_keepsSnapshotOnError() {
+        // given
+        AzureBlobClient azureBlobClient = mock(AzureBlobClient.class);
+        when(azureBlobClient.getFileAsTextIfChanged("filePath", null))
+                .thenReturn(Optional.of(new VersionedBlobText(PRODUCT_JSON_STRING, "etag-1", OffsetDateTime.now())));
+        when(azureBlobClient.getFileAsTextIfChanged("filePath", "etag-1")).thenThrow(new RuntimeException("storage down"));
+
+        // when
+        ProductServiceCacheable productServiceCacheable = new ProductServiceCacheable(azureBlobClient, "filePath", Duration.ofMillis(20));
+        verify(azureBlobClient, timeout(1000).atLeast(2)).getFileAsTextIfChanged("filePath", "etag-1");
+        productServiceCacheable.close();
+
+        // then
+        assertEquals(3, productServiceCacheable.getProducts(false, false).size());
+    }
+
     private ProductServiceCacheable mockProductService(String productJson, String filePath) {
         AzureBlobClient azureBlobClient = mock(AzureBlobClient.class);
         BlobProperties blobPropertiesMock = mock(BlobProperties.class);
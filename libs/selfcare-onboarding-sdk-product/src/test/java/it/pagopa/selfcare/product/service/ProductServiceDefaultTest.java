@@ -3,6 +3,7 @@ package it.pagopa.selfcare.product.service;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import it.pagopa.selfcare.onboarding.common.PartyRole;
+import it.pagopa.selfcare.product.entity.Product;
 import it.pagopa.selfcare.product.entity.ProductRole;
 import it.pagopa.selfcare.product.entity.ProductRoleInfo;
 import it.pagopa.selfcare.product.exception.InvalidRoleMappingException;
@@ -121,6 +122,26 @@ class ProductServiceDefaultTest {
         assertNotNull(productService.getProduct("prod-test"));
     }
 
+    @Test
+    void getProduct_shouldResolveParent() throws JsonProcessingException {
+        ProductServiceDefault productService = new ProductServiceDefault(PRODUCT_JSON_STRING);
+        assertSame(productService.getProduct("prod-test-parent"), productService.getProduct("prod-test").getParent());
+    }
+
+    @Test
+    void getProduct_shouldThrowProductNotFoundExceptionIfParentNotFound() throws JsonProcessingException {
+        ProductServiceDefault productService = new ProductServiceDefault("[{\"id\":\"prod-test\",\"parentId\":\"prod-not-found\",\"status\":\"ACTIVE\"}]");
+        assertThrows(ProductNotFoundException.class, () -> productService.getProduct("prod-test"));
+    }
+
+    @Test
+    void getProducts_shouldReturnUnmodifiableList() throws JsonProcessingException {
+        ProductServiceDefault productService = new ProductServiceDefault(PRODUCT_JSON_STRING);
+        List<Product> products = productService.getProducts(false, true);
+        assertThrows(UnsupportedOperationException.class, products::clear);
+        assertSame(products, productService.getProducts(false, true));
+    }
+
     @Test
     void getProductRaw_shouldGetProduct() throws JsonProcessingException {
         ProductServiceDefault productService = new ProductServiceDefault(PRODUCT_JSON_STRING);
@@ -146,6 +167,24 @@ class ProductServiceDefaultTest {
         assertDoesNotThrow(() -> productService.validateProductRole("prod-test", "operatore", PartyRole.MANAGER));
     }
 
+    @Test
+    void validateProductRole_shouldReturnProductRole() throws JsonProcessingException {
+        ProductServiceDefault productService = new ProductServiceDefault(PRODUCT_JSON_STRING_WITH_ROLEMAPPING);
+        ProductRole productRole = productService.validateProductRole("prod-test", "operatore", PartyRole.MANAGER);
+        assertEquals("Operatore", productRole.getProductLabel());
+    }
+
+    @Test
+    void validateProductRole_shouldKeepNotFoundMessages() throws JsonProcessingException {
+        ProductServiceDefault productService = new ProductServiceDefault(PRODUCT_JSON_STRING_WITH_ROLEMAPPING);
+        IllegalArgumentException roleNotFound = assertThrows(IllegalArgumentException.class,
+                () -> productService.validateProductRole("prod-test", "operatore", PartyRole.DELEGATE));
+        assertEquals("Role DELEGATE not found", roleNotFound.getMessage());
+        IllegalArgumentException productRoleNotFound = assertThrows(IllegalArgumentException.class,
+                () -> productService.validateProductRole("prod-test", "amministratore", PartyRole.MANAGER));
+        assertEquals("ProductRole amministratore not found for role MANAGER", productRoleNotFound.getMessage());
+    }
+
 
     @Test
     void validateProductRoleWithProductRoleMappingNotFound() throws JsonProcessingException {
@@ -0,0 +1,203 @@
+package it.pagopa.selfcare.commons.cdc;
+
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import io.smallrye.mutiny.Uni;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.ObjDoubleConsumer;
+
+/**
+ * Processes the events of a change stream with bounded concurrency, preserving the order of the events of the same
+ * document.
+ * <p>
+ * Events are partitioned by document key into {@code concurrency} lanes: a lane processes one event at a time and
+ * lanes run in parallel. At most {@code maxPending} events are accepted and not yet completed; the {@link Uni}
+ * returned by {@link #submit} completes once the event is accepted, so a stream that waits on it (e.g. with
+ * {@code onItem().call(...)}) stops requesting events from MongoDB while the processor is full. The queue depth and
+ * the lag of the oldest event in progress are reported to {@code metrics} every {@code metricsInterval}, by a thread
+ * released on {@link #close()}.
+ */
+@Slf4j
+public class ChangeStreamProcessor implements AutoCloseable {
+
+    private final String name;
+    private final int maxPending;
+    private final Lane[] lanes;
+    private final Deque<Waiting> waiting = new ArrayDeque<>();
+    private final ObjDoubleConsumer<String> metrics;
+    private final ScheduledExecutorService executor;
+    private int pending;
+
+    /**
+     * @param metrics receives the name and the value of each metric, e.g. {@code telemetryClient::trackMetric}
+     */
+    public ChangeStreamProcessor(String name, int concurrency, int maxPending,
+                                 ObjDoubleConsumer<String> metrics, Duration metricsInterval) {
+        if (concurrency < 1 || maxPending < 1) {
+            throw new IllegalArgumentException("concurrency and maxPending must be greater than zero");
+        }
+        this.name = name;
+        this.maxPending = maxPending;
+        this.metrics = metrics;
+        this.lanes = new Lane[concurrency];
+        for (int i = 0; i < concurrency; i++) {
+            lanes[i] = new Lane();
+        }
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "change-stream-processor-" + name);
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::trackMetrics, metricsInterval.toMillis(), metricsInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Queues {@code work} behind the events already submitted for the same document. The work is subscribed once,
+     * when its turn comes; its failures are logged and do not stop the lane.
+     */
+    public Uni<Void> submit(ChangeStreamDocument<?> document, Uni<Void> work) {
+        Task task = new Task(work, eventTime(document));
+        Lane lane = lanes[Math.floorMod(Objects.hashCode(document.getDocumentKey()), lanes.length)];
+        return Uni.createFrom().deferred(() -> {
+            CompletableFuture<Void> accepted = null;
+            synchronized (this) {
+                if (pending < maxPending) {
+                    pending++;
+                } else {
+                    accepted = new CompletableFuture<>();
+                    waiting.addLast(new Waiting(lane, task, accepted));
+                }
+            }
+            if (accepted == null) {
+                lane.enqueue(task);
+                return Uni.createFrom().voidItem();
+            }
+            return Uni.createFrom().completionStage(accepted);
+        });
+    }
+
+    /**
+     * Number of events accepted or waiting to be accepted and not yet completed.
+     */
+    public synchronized int getQueueDepth() {
+        return pending + waiting.size();
+    }
+
+    /**
+     * Time elapsed since the oldest event in progress happened on MongoDB, zero if the processor is idle.
+     */
+    public Duration getLag() {
+        Instant oldest = null;
+        for (Lane lane : lanes) {
+            Instant eventTime = lane.runningEventTime();
+            if (eventTime != null && (oldest == null || eventTime.isBefore(oldest))) {
+                oldest = eventTime;
+            }
+        }
+        return oldest == null ? Duration.ZERO : Duration.between(oldest, Instant.now());
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private void release() {
+        Waiting next;
+        synchronized (this) {
+            next = waiting.pollFirst();
+            if (next == null) {
+                pending--;
+                return;
+            }
+        }
+        // The slot of the completed event passes to the first waiting one
+        next.lane.enqueue(next.task);
+        next.accepted.complete(null);
+    }
+
+    private void trackMetrics() {
+        try {
+            metrics.accept(name + "_queueDepth", getQueueDepth());
+            metrics.accept(name + "_lagMillis", getLag().toMillis());
+        } catch (RuntimeException e) {
+            log.warn("Unable to track {} metrics: {}", name, e.getMessage());
+        }
+    }
+
+    private static Instant eventTime(ChangeStreamDocument<?> document) {
+        // clusterTime is missing if the pipeline projects it out: fall back to the time the event is received
+        return Objects.nonNull(document.getClusterTime())
+                ? Instant.ofEpochSecond(document.getClusterTime().getTime())
+                : Instant.now();
+    }
+
+    private final class Lane {
+
+        private final Deque<Task> queue = new ArrayDeque<>();
+        private Task running;
+
+        void enqueue(Task task) {
+            Task first;
+            synchronized (this) {
+                queue.addLast(task);
+                if (Objects.nonNull(running)) {
+                    return;
+                }
+                first = queue.pollFirst();
+                running = first;
+            }
+            run(first);
+        }
+
+        synchronized Instant runningEventTime() {
+            return Objects.nonNull(running) ? running.eventTime : null;
+        }
+
+        private synchronized Task next() {
+            running = queue.pollFirst();
+            return running;
+        }
+
+        /*
+         * Work completing synchronously is chained in this loop rather than recursively from its callback, so a long
+         * run of such events does not grow the stack.
+         */
+        private void run(Task first) {
+            Task task = first;
+            while (Objects.nonNull(task)) {
+                AtomicBoolean inline = new AtomicBoolean(true);
+                task.work.subscribe().with(
+                        ignored -> completed(inline),
+                        failure -> {
+                            log.error("Error processing change event on {}: {}", name, failure.getMessage());
+                            completed(inline);
+                        });
+                task = inline.compareAndSet(true, false) ? null : next();
+            }
+        }
+
+        private void completed(AtomicBoolean inline) {
+            release();
+            if (!inline.compareAndSet(true, false)) {
+                run(next());
+            }
+        }
+    }
+
+    private record Task(Uni<Void> work, Instant eventTime) {
+    }
+
+    private record Waiting(Lane lane, Task task, CompletableFuture<Void> accepted) {
+    }
+}
@@ -0,0 +1,222 @@
+package it.pagopa.selfcare.commons.cdc;
+
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonDocument;
+import org.eclipse.microprofile.config.Config;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Saves the last resume token of a change stream off the event processing path.
+ * <p>
+ * Events are {@link #track(BsonDocument) tracked} in the order they are received and complete in any order. The
+ * saved token is the one of the last successful event that is preceded only by completed events, so an event still
+ * in progress is replayed on restart.
+ * <p>
+ * A failed event does not stop the checkpoint: the CDC services give up on an event only after retrying it, so the
+ * token moves past it and the event is not replayed on restart. Each failed event passed this way is logged and
+ * counted by {@link #getSkippedFailures()}. An event not completed within {@code timeout}, and the oldest event when
+ * {@code maxInFlight} events are in progress, are treated as failed, so that a stalled event holds neither the
+ * checkpoint nor the memory forever.
+ * <p>
+ * The token is written by a single background thread every {@code interval}, as soon as {@code maxBatchSize} events
+ * have completed, and on {@link #close()}.
+ */
+@Slf4j
+public class ResumeTokenCheckpointer implements AutoCloseable {
+
+    public static final int DEFAULT_MAX_BATCH_SIZE = 100;
+    public static final Duration DEFAULT_INTERVAL = Duration.ofSeconds(5);
+    public static final int DEFAULT_MAX_IN_FLIGHT = 10000;
+    public static final Duration DEFAULT_TIMEOUT = Duration.ofMinutes(10);
+
+    private final Consumer<BsonDocument> store;
+    private final int maxBatchSize;
+    private final int maxInFlight;
+    private final long timeoutNanos;
+    private final ScheduledExecutorService executor;
+    private final Deque<Checkpoint> inFlight = new ArrayDeque<>();
+    private BsonDocument pendingToken;
+    private int pendingCount;
+    private boolean saveRequested;
+    private long skippedFailures;
+
+    /**
+     * @param store        writes the resume token, e.g. to the CdCStartAt table; called from the background thread
+     * @param maxBatchSize number of completed events that triggers a write before {@code interval} has elapsed
+     * @param interval     time between two writes of the token
+     * @param maxInFlight  number of events in progress above which the oldest one is treated as failed
+     * @param timeout      time after which an event still in progress is treated as failed
+     */
+    public ResumeTokenCheckpointer(Consumer<BsonDocument> store, int maxBatchSize, Duration interval,
+                                   int maxInFlight, Duration timeout) {
+        if (maxBatchSize < 1 || maxInFlight < 1) {
+            throw new IllegalArgumentException("maxBatchSize and maxInFlight must be greater than zero");
+        }
+        this.store = store;
+        this.maxBatchSize = maxBatchSize;
+        this.maxInFlight = maxInFlight;
+        this.timeoutNanos = timeout.toNanos();
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "resume-token-checkpointer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::checkpoint, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Creates a checkpointer configured by the {@code <configPrefix>.checkpoint.max-batch-size},
+     * {@code <configPrefix>.checkpoint.interval}, {@code <configPrefix>.checkpoint.max-in-flight} and
+     * {@code <configPrefix>.checkpoint.timeout} properties, falling back to the defaults of this class.
+     */
+    public static ResumeTokenCheckpointer fromConfig(Config config, String configPrefix, Consumer<BsonDocument> store) {
+        String prefix = configPrefix + ".checkpoint.";
+        return new ResumeTokenCheckpointer(store,
+                config.getOptionalValue(prefix + "max-batch-size", Integer.class).orElse(DEFAULT_MAX_BATCH_SIZE),
+                config.getOptionalValue(prefix + "interval", Duration.class).orElse(DEFAULT_INTERVAL),
+                config.getOptionalValue(prefix + "max-in-flight", Integer.class).orElse(DEFAULT_MAX_IN_FLIGHT),
+                config.getOptionalValue(prefix + "timeout", Duration.class).orElse(DEFAULT_TIMEOUT));
+    }
+
+    /**
+     * Starts tracking a change event; must be called in the order the events are received from the change stream.
+     */
+    public synchronized Checkpoint track(BsonDocument resumeToken) {
+        if (inFlight.size() >= maxInFlight) {
+            expire(inFlight.peekFirst(), "more than " + maxInFlight + " events are in progress");
+        }
+        Checkpoint checkpoint = new Checkpoint(resumeToken, System.nanoTime());
+        inFlight.addLast(checkpoint);
+        return checkpoint;
+    }
+
+    /**
+     * Number of failed events the saved token has moved past, since the checkpointer was created.
+     */
+    public synchronized long getSkippedFailures() {
+        return skippedFailures;
+    }
+
+    /**
+     * Writes the pending resume token, if any, and waits for the write to complete.
+     */
+    public void flush() {
+        try {
+            executor.submit(this::save).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            log.error("Error while flushing the resume token", e.getCause());
+        }
+    }
+
+    @Override
+    public void close() {
+        log.info("Flushing the last resume token before shutdown");
+        flush();
+        executor.shutdown();
+    }
+
+    private synchronized void complete(Checkpoint checkpoint, boolean success) {
+        if (checkpoint.done) {
+            // Already treated as failed because it took too long
+            return;
+        }
+        checkpoint.done = true;
+        checkpoint.success = success;
+        advance();
+    }
+
+    private void expire(Checkpoint checkpoint, String reason) {
+        log.warn("Change event {} is treated as failed because {}", checkpoint.resumeToken, reason);
+        checkpoint.done = true;
+        checkpoint.success = false;
+        advance();
+    }
+
+    private void advance() {
+        while (!inFlight.isEmpty() && inFlight.peekFirst().done) {
+            Checkpoint head = inFlight.pollFirst();
+            if (!head.success) {
+                skippedFailures++;
+                log.warn("Change event {} failed: the resume token moves past it and it will not be replayed",
+                        head.resumeToken);
+            } else if (head.resumeToken != null) {
+                pendingToken = head.resumeToken;
+                pendingCount++;
+            }
+        }
+        if (pendingCount >= maxBatchSize && !saveRequested) {
+            saveRequested = true;
+            executor.execute(this::save);
+        }
+    }
+
+    private void checkpoint() {
+        synchronized (this) {
+            long now = System.nanoTime();
+            Checkpoint head = inFlight.peekFirst();
+            while (head != null && now - head.trackedAt > timeoutNanos) {
+                expire(head, "it has not completed within " + Duration.ofNanos(timeoutNanos));
+                head = inFlight.peekFirst();
+            }
+        }
+        save();
+    }
+
+    private void save() {
+        BsonDocument resumeToken;
+        synchronized (this) {
+            resumeToken = pendingToken;
+            pendingToken = null;
+            pendingCount = 0;
+            saveRequested = false;
+        }
+        if (resumeToken == null) {
+            return;
+        }
+        try {
+            store.accept(resumeToken);
+        } catch (RuntimeException e) {
+            log.error("Error while saving the resume token, it will be retried: {}", e.getMessage());
+            synchronized (this) {
+                if (pendingToken == null) {
+                    pendingToken = resumeToken;
+                }
+            }
+        }
+    }
+
+    /**
+     * A change event tracked by the {@link ResumeTokenCheckpointer}, to be marked as succeeded or failed once; calls
+     * after the event has been treated as failed for taking too long are ignored.
+     */
+    public final class Checkpoint {
+
+        private final BsonDocument resumeToken;
+        private final long trackedAt;
+        private boolean done;
+        private boolean success;
+
+        private Checkpoint(BsonDocument resumeToken, long trackedAt) {
+            this.resumeToken = resumeToken;
+            this.trackedAt = trackedAt;
+        }
+
+        public void succeeded() {
+            complete(this, true);
+        }
+
+        public void failed() {
+            complete(this, false);
+        }
+    }
+}
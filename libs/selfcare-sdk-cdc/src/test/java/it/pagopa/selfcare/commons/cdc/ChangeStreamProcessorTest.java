@@ -0,0 +1,115 @@
+package it.pagopa.selfcare.commons.cdc;
+
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.subscription.UniEmitter;
+import org.bson.BsonDocument;
+import org.bson.BsonTimestamp;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.ObjDoubleConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ChangeStreamProcessorTest {
+
+    @SuppressWarnings("unchecked")
+    private final ObjDoubleConsumer<String> metrics = mock(ObjDoubleConsumer.class);
+    private ChangeStreamProcessor processor = new ChangeStreamProcessor("Test", 4, 2, metrics, Duration.ofMinutes(1));
+
+    @AfterEach
+    void tearDown() {
+        processor.close();
+    }
+
+    @Test
+    void submit_preservesOrderOfSameDocument() {
+        List<String> processed = new ArrayList<>();
+        AtomicReference<UniEmitter<? super Void>> first = new AtomicReference<>();
+
+        processor.submit(document("1"), Uni.createFrom().<Void>emitter(first::set)
+                .invoke(() -> processed.add("first"))).await().indefinitely();
+        processor.submit(document("1"), Uni.createFrom().voidItem()
+                .invoke(() -> processed.add("second"))).await().indefinitely();
+
+        assertTrue(processed.isEmpty());
+        first.get().complete(null);
+        assertEquals(List.of("first", "second"), processed);
+        assertEquals(0, processor.getQueueDepth());
+    }
+
+    @Test
+    void submit_processesOtherDocumentsConcurrently() {
+        AtomicBoolean otherProcessed = new AtomicBoolean();
+
+        processor.submit(document("1"), Uni.createFrom().emitter(emitter -> {})).await().indefinitely();
+        processor.submit(document("2"), Uni.createFrom().voidItem()
+                .invoke(() -> otherProcessed.set(true))).await().indefinitely();
+
+        assertTrue(otherProcessed.get());
+        assertEquals(1, processor.getQueueDepth());
+    }
+
+    @Test
+    void submit_waitsWhenFull() {
+        List<UniEmitter<? super Void>> emitters = new ArrayList<>();
+        processor.submit(document("1"), Uni.createFrom().emitter(emitters::add)).await().indefinitely();
+        processor.submit(document("2"), Uni.createFrom().emitter(emitters::add)).await().indefinitely();
+
+        AtomicBoolean accepted = new AtomicBoolean();
+        processor.submit(document("3"), Uni.createFrom().voidItem())
+                .subscribe().with(ignored -> accepted.set(true));
+
+        assertFalse(accepted.get());
+        assertEquals(3, processor.getQueueDepth());
+
+        emitters.get(0).complete(null);
+        assertTrue(accepted.get());
+        assertEquals(1, processor.getQueueDepth());
+    }
+
+    @Test
+    void submit_continuesAfterFailure() {
+        AtomicBoolean processed = new AtomicBoolean();
+
+        processor.submit(document("1"), Uni.createFrom().failure(new IllegalStateException("error"))).await().indefinitely();
+        processor.submit(document("1"), Uni.createFrom().voidItem()
+                .invoke(() -> processed.set(true))).await().indefinitely();
+
+        assertTrue(processed.get());
+        assertEquals(0, processor.getQueueDepth());
+    }
+
+    @Test
+    void getLag_fromOldestEventInProgress() {
+        processor.close();
+        processor = new ChangeStreamProcessor("Test", 4, 2, metrics, Duration.ofMillis(50));
+        long clusterTime = System.currentTimeMillis() / 1000 - 60;
+        ChangeStreamDocument<?> document = document("1", new BsonTimestamp((int) clusterTime, 1));
+
+        assertEquals(Duration.ZERO, processor.getLag());
+        processor.submit(document, Uni.createFrom().emitter(emitter -> {})).await().indefinitely();
+
+        assertTrue(processor.getLag().toSeconds() >= 60);
+        verify(metrics, timeout(1000).atLeastOnce()).accept(eq("Test_queueDepth"), eq(1D));
+        verify(metrics, timeout(1000).atLeastOnce()).accept(eq("Test_lagMillis"), anyDouble());
+    }
+
+    private static ChangeStreamDocument<?> document(String id) {
+        return document(id, null);
+    }
+
+    private static ChangeStreamDocument<?> document(String id, BsonTimestamp clusterTime) {
+        return new ChangeStreamDocument<>("update", null, null, null, null,
+                BsonDocument.parse("{\"_id\": \"" + id + "\"}"), clusterTime, null, null, null);
+    }
+}
@@ -0,0 +1,142 @@
+package it.pagopa.selfcare.commons.cdc;
+
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ResumeTokenCheckpointerTest {
+
+    @SuppressWarnings("unchecked")
+    private final Consumer<BsonDocument> store = mock(Consumer.class);
+    private ResumeTokenCheckpointer checkpointer = checkpointer(100, Duration.ofMinutes(1), 100, Duration.ofMinutes(1));
+
+    @AfterEach
+    void tearDown() {
+        checkpointer.close();
+    }
+
+    @Test
+    void flush_savesLastContiguousToken() {
+        ResumeTokenCheckpointer.Checkpoint first = checkpointer.track(token("1"));
+        ResumeTokenCheckpointer.Checkpoint second = checkpointer.track(token("2"));
+        ResumeTokenCheckpointer.Checkpoint third = checkpointer.track(token("3"));
+
+        third.succeeded();
+        first.succeeded();
+        checkpointer.flush();
+
+        assertEquals(token("1"), savedToken());
+
+        second.succeeded();
+        checkpointer.flush();
+
+        verify(store, times(2)).accept(any());
+        assertEquals(token("3"), savedToken());
+    }
+
+    @Test
+    void flush_countsFailureBetweenSuccesses() {
+        ResumeTokenCheckpointer.Checkpoint first = checkpointer.track(token("1"));
+        ResumeTokenCheckpointer.Checkpoint second = checkpointer.track(token("2"));
+        ResumeTokenCheckpointer.Checkpoint third = checkpointer.track(token("3"));
+
+        first.succeeded();
+        third.succeeded();
+        checkpointer.flush();
+
+        assertEquals(token("1"), savedToken());
+        assertEquals(0, checkpointer.getSkippedFailures());
+
+        second.failed();
+        checkpointer.flush();
+
+        verify(store, times(2)).accept(any());
+        assertEquals(token("3"), savedToken());
+        assertEquals(1, checkpointer.getSkippedFailures());
+    }
+
+    @Test
+    void flush_nothingCompleted() {
+        checkpointer.track(token("1"));
+        checkpointer.track(token("2")).succeeded();
+        checkpointer.flush();
+
+        verify(store, never()).accept(any());
+    }
+
+    @Test
+    void complete_savesWhenBatchIsFull() {
+        checkpointer.close();
+        checkpointer = checkpointer(2, Duration.ofMinutes(1), 100, Duration.ofMinutes(1));
+
+        checkpointer.track(token("1")).succeeded();
+        verify(store, after(100).never()).accept(any());
+
+        checkpointer.track(token("2")).succeeded();
+        verify(store, timeout(1000).times(1)).accept(any());
+        assertEquals(token("2"), savedToken());
+    }
+
+    @Test
+    void flush_retriesTokenAfterError() {
+        doThrow(new RuntimeException("Table unavailable")).doNothing().when(store).accept(any());
+
+        checkpointer.track(token("1")).succeeded();
+        checkpointer.flush();
+        checkpointer.flush();
+
+        verify(store, times(2)).accept(any());
+        assertEquals(token("1"), savedToken());
+    }
+
+    @Test
+    void track_failsOldestEventWhenFull() {
+        checkpointer.close();
+        checkpointer = checkpointer(100, Duration.ofMinutes(1), 2, Duration.ofMinutes(1));
+
+        ResumeTokenCheckpointer.Checkpoint stalled = checkpointer.track(token("1"));
+        checkpointer.track(token("2")).succeeded();
+        checkpointer.track(token("3")).succeeded();
+        checkpointer.flush();
+
+        assertEquals(token("3"), savedToken());
+        assertEquals(1, checkpointer.getSkippedFailures());
+
+        stalled.succeeded();
+        assertEquals(1, checkpointer.getSkippedFailures());
+    }
+
+    @Test
+    void checkpoint_failsStalledEventAfterTimeout() {
+        checkpointer.close();
+        checkpointer = checkpointer(100, Duration.ofMillis(50), 100, Duration.ofMillis(100));
+
+        checkpointer.track(token("1"));
+        checkpointer.track(token("2")).succeeded();
+
+        verify(store, timeout(2000).times(1)).accept(token("2"));
+        assertEquals(1, checkpointer.getSkippedFailures());
+    }
+
+    private ResumeTokenCheckpointer checkpointer(int maxBatchSize, Duration interval, int maxInFlight, Duration timeout) {
+        return new ResumeTokenCheckpointer(store, maxBatchSize, interval, maxInFlight, timeout);
+    }
+
+    private BsonDocument savedToken() {
+        ArgumentCaptor<BsonDocument> captor = ArgumentCaptor.forClass(BsonDocument.class);
+        verify(store, atLeastOnce()).accept(captor.capture());
+        return captor.getValue();
+    }
+
+    private static BsonDocument token(String value) {
+        return BsonDocument.parse("{\"_data\": \"" + value + "\"}");
+    }
+}